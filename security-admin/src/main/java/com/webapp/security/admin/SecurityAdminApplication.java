@@ -3,12 +3,15 @@ package com.webapp.security.admin;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 后端应用启动类
  */
-@SpringBootApplication(scanBasePackages = { "com.webapp.security.admin", "com.webapp.security.core" })
+@SpringBootApplication(scanBasePackages = { "com.webapp.security.admin", "com.webapp.security.core",
+        "com.webapp.security.redis" })
 @MapperScan("com.webapp.security.core.mapper")
+@EnableScheduling
 public class SecurityAdminApplication {
     public static void main(String[] args) {
         SpringApplication.run(SecurityAdminApplication.class, args);
@@ -0,0 +1,42 @@
+package com.webapp.security.admin.auth.jwt;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 带缓存的JWT认证转换器
+ * 同一令牌的权限列表和主体名称只解析一次，之后每个请求只创建新的JwtAuthenticationToken
+ * （认证对象会被设置请求details，因此不在请求之间共享同一个实例）
+ */
+public class CachingJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    private final JwtAuthenticationConverter delegate;
+    private final VerifiedJwtCache cache;
+
+    public CachingJwtAuthenticationConverter(JwtAuthenticationConverter delegate, VerifiedJwtCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        VerifiedJwtCache.Entry entry = cache.get(jwt.getTokenValue());
+        if (entry != null && entry.getAuthorities() != null) {
+            return new JwtAuthenticationToken(jwt, entry.getAuthorities(), entry.getPrincipalName());
+        }
+
+        AbstractAuthenticationToken authentication = delegate.convert(jwt);
+        if (entry != null && authentication != null) {
+            Collection<GrantedAuthority> authorities = List.copyOf(authentication.getAuthorities());
+            entry.resolved(authorities, authentication.getName());
+        }
+        return authentication;
+    }
+}
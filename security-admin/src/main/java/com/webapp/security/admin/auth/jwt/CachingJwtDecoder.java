@@ -0,0 +1,41 @@
+package com.webapp.security.admin.auth.jwt;
+
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * 带缓存的JwtDecoder
+ * 命中缓存时直接返回已验签的Jwt，未命中时交给实际的解码器验签并写入缓存
+ * 撤销检查在缓存之外进行，命中缓存的令牌被撤销后同样会被拒绝
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final VerifiedJwtCache cache;
+    private final TokenRevocationChecker revocationChecker;
+
+    public CachingJwtDecoder(JwtDecoder delegate, VerifiedJwtCache cache, TokenRevocationChecker revocationChecker) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.revocationChecker = revocationChecker;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        VerifiedJwtCache.Entry entry = cache.get(token);
+        Jwt jwt;
+        if (entry != null) {
+            jwt = entry.getJwt();
+        } else {
+            jwt = delegate.decode(token);
+            cache.put(jwt);
+        }
+        if (revocationChecker.isRevoked(jwt)) {
+            cache.invalidate(token);
+            throw new BadJwtException("令牌已被撤销");
+        }
+        return jwt;
+    }
+}
@@ -0,0 +1,47 @@
+package com.webapp.security.admin.auth.jwt;
+
+import com.webapp.security.core.rbac.PermissionRegistry;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 权限转换器
+ * 合并令牌中authorities声明的权限，以及perm_bits位图通过权限注册表还原出的权限
+ */
+public class PermissionBitsetAuthoritiesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+
+    private final Converter<Jwt, Collection<GrantedAuthority>> delegate;
+    private final PermissionRegistry permissionRegistry;
+
+    public PermissionBitsetAuthoritiesConverter(Converter<Jwt, Collection<GrantedAuthority>> delegate,
+            PermissionRegistry permissionRegistry) {
+        this.delegate = delegate;
+        this.permissionRegistry = permissionRegistry;
+    }
+
+    @Override
+    public Collection<GrantedAuthority> convert(Jwt jwt) {
+        Collection<GrantedAuthority> authorities = delegate.convert(jwt);
+        String bits = jwt.getClaimAsString(PermissionRegistry.BITS_CLAIM);
+        if (bits == null || bits.isEmpty()) {
+            return authorities;
+        }
+
+        String version = jwt.getClaimAsString(PermissionRegistry.VERSION_CLAIM);
+        List<String> codes = permissionRegistry.decode(bits, version);
+        List<GrantedAuthority> result = new ArrayList<>(codes.size() + (authorities != null ? authorities.size() : 0));
+        if (authorities != null) {
+            result.addAll(authorities);
+        }
+        for (String code : codes) {
+            result.add(new SimpleGrantedAuthority(code));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,148 @@
+package com.webapp.security.admin.auth.jwt;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.webapp.security.core.revocation.BlacklistIndexLoader;
+import com.webapp.security.core.revocation.RevocationEvent;
+import com.webapp.security.core.revocation.RevocationKeys;
+import com.webapp.security.core.revocation.RotatingBloomFilter;
+import com.webapp.security.core.revocation.WatermarkRegistry;
+import com.webapp.security.core.revocation.WatermarkScope;
+import com.webapp.security.redis.revocation.RedisBlacklistIndexReader;
+import com.webapp.security.redis.revocation.RedisWatermarkReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌撤销检查
+ * 授权服务把撤销信息写入Redis并通过发布订阅广播，这里在本地维护两份数据：
+ * 用户/客户端撤销水位线，以及jti黑名单的布隆过滤器。正常令牌只查内存，
+ * 只有布隆过滤器命中时才到Redis确认，确认结果短时间缓存。
+ * 初次加载完成前布隆过滤器不生效，jti检查回退到Redis。
+ */
+@Slf4j
+@Component
+public class TokenRevocationChecker implements MessageListener {
+
+    /**
+     * 加载黑名单索引、水位线时每页读取的条数
+     */
+    private static final int REBUILD_PAGE_SIZE = 5000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisBlacklistIndexReader indexReader;
+    private final RedisWatermarkReader watermarkReader;
+    private final RotatingBloomFilter bloomFilter;
+    private final WatermarkRegistry watermarks = new WatermarkRegistry();
+    private final Cache<String, Boolean> confirmations;
+
+    @Value("${webapp.token-revocation.watermark-retention-ms:86400000}")
+    private long watermarkRetentionMillis;
+
+    private volatile boolean ready;
+
+    public TokenRevocationChecker(StringRedisTemplate redisTemplate,
+            @Value("${webapp.token-revocation.bloom-slice-minutes:60}") long sliceMinutes,
+            @Value("${webapp.token-revocation.bloom-expected-insertions-per-slice:100000}") int expectedInsertions,
+            @Value("${webapp.token-revocation.bloom-fpp:0.001}") double fpp,
+            @Value("${webapp.token-revocation.confirmation-ttl-ms:5000}") long confirmationTtlMillis,
+            @Value("${webapp.token-revocation.confirmation-max-size:100000}") long confirmationMaxSize) {
+        this.redisTemplate = redisTemplate;
+        this.indexReader = new RedisBlacklistIndexReader(redisTemplate);
+        this.watermarkReader = new RedisWatermarkReader(redisTemplate, REBUILD_PAGE_SIZE);
+        this.bloomFilter = new RotatingBloomFilter(TimeUnit.MINUTES.toMillis(sliceMinutes), expectedInsertions, fpp);
+        this.confirmations = CacheBuilder.newBuilder()
+                .maximumSize(confirmationMaxSize)
+                .expireAfterWrite(confirmationTtlMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * 令牌是否已被撤销
+     */
+    public boolean isRevoked(Jwt jwt) {
+        // 授权服务签发的访问令牌aud为客户端ID
+        List<String> audience = jwt.getAudience();
+        String clientId = audience != null && !audience.isEmpty() ? audience.get(0) : null;
+        if (watermarks.isRevoked(jwt.getSubject(), clientId, jwt.getIssuedAt())) {
+            return true;
+        }
+
+        String jti = jwt.getId();
+        if (jti == null || (ready && !bloomFilter.mightContain(jti))) {
+            return false;
+        }
+        Boolean confirmed = confirmations.getIfPresent(jti);
+        if (confirmed == null) {
+            confirmed = Boolean.TRUE.equals(redisTemplate.hasKey(RevocationKeys.BLACKLIST_PREFIX + jti));
+            confirmations.put(jti, confirmed);
+        }
+        return confirmed;
+    }
+
+    /**
+     * 从Redis加载黑名单索引和水位线（追加方式，不影响并发事件）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${webapp.token-revocation.resync-interval-ms:300000}",
+            initialDelayString = "${webapp.token-revocation.resync-interval-ms:300000}")
+    public void reload() {
+        try {
+            long loaded = BlacklistIndexLoader.load(indexReader, System.currentTimeMillis(),
+                    REBUILD_PAGE_SIZE, bloomFilter::put);
+            bloomFilter.expire();
+
+            for (WatermarkScope scope : WatermarkScope.values()) {
+                watermarkReader.forEachPage(scope, page -> watermarks.updateAll(scope, page));
+            }
+            watermarks.prune(System.currentTimeMillis() - watermarkRetentionMillis);
+
+            ready = true;
+            log.debug("令牌撤销数据同步完成，黑名单条目: {}，水位线: {}", loaded, watermarks.size());
+        } catch (Exception e) {
+            log.error("令牌撤销数据同步失败", e);
+        }
+    }
+
+    /**
+     * 接收授权服务发布的撤销事件
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        for (RevocationEvent event : RevocationEvent.decodeAll(new String(message.getBody(), StandardCharsets.UTF_8))) {
+            apply(event);
+        }
+    }
+
+    private void apply(RevocationEvent event) {
+        switch (event.getType()) {
+            case ADD:
+                bloomFilter.put(event.getSubject(), event.getTimestampMillis());
+                confirmations.put(event.getSubject(), Boolean.TRUE);
+                break;
+            case REMOVE:
+                confirmations.invalidate(event.getSubject());
+                break;
+            case PRINCIPAL_WATERMARK:
+                watermarks.update(WatermarkScope.PRINCIPAL, event.getSubject(), event.getTimestampMillis());
+                break;
+            case CLIENT_WATERMARK:
+                watermarks.update(WatermarkScope.CLIENT, event.getSubject(), event.getTimestampMillis());
+                break;
+            default:
+                break;
+        }
+    }
+}
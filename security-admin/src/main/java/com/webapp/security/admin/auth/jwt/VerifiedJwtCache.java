@@ -0,0 +1,139 @@
+package com.webapp.security.admin.auth.jwt;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已验签JWT缓存
+ * 以令牌的SHA-256摘要为key，缓存验签后的Jwt及其解析出的权限，直到令牌过期
+ * 管理端一次页面加载会用同一令牌发起多次请求，命中后无需重复RSA验签和权限解析
+ */
+@Component
+public class VerifiedJwtCache {
+
+    private final Cache<String, Entry> cache;
+
+    public VerifiedJwtCache(@Value("${webapp.jwt-cache.max-size:10000}") long maxSize,
+            @Value("${webapp.jwt-cache.max-ttl-seconds:3600}") long maxTtlSeconds) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(maxTtlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 获取未过期的缓存条目
+     */
+    public Entry get(String token) {
+        String key = hash(token);
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(Instant.now())) {
+            cache.invalidate(key);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * 缓存已验签的Jwt，已过期的令牌不缓存
+     */
+    public Entry put(Jwt jwt) {
+        Entry entry = new Entry(jwt);
+        if (!entry.isExpired(Instant.now())) {
+            cache.put(hash(jwt.getTokenValue()), entry);
+        }
+        return entry;
+    }
+
+    /**
+     * 使某个令牌的缓存失效
+     */
+    public void invalidate(String token) {
+        cache.invalidate(hash(token));
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 缓存统计信息
+     */
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("size", cache.size());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    /**
+     * 缓存条目：验签后的Jwt，以及首次转换后得到的权限和主体名称
+     */
+    public static final class Entry {
+        private final Jwt jwt;
+        private volatile Collection<GrantedAuthority> authorities;
+        private volatile String principalName;
+
+        private Entry(Jwt jwt) {
+            this.jwt = jwt;
+        }
+
+        public Jwt getJwt() {
+            return jwt;
+        }
+
+        public Collection<GrantedAuthority> getAuthorities() {
+            return authorities;
+        }
+
+        public String getPrincipalName() {
+            return principalName;
+        }
+
+        void resolved(Collection<GrantedAuthority> authorities, String principalName) {
+            this.principalName = principalName;
+            this.authorities = authorities;
+        }
+
+        boolean isExpired(Instant now) {
+            Instant expiresAt = jwt.getExpiresAt();
+            return expiresAt != null && !expiresAt.isAfter(now);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.webapp.security.admin.config;
+
+import com.webapp.security.admin.auth.jwt.TokenRevocationChecker;
+import com.webapp.security.core.revocation.RevocationEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Redis发布订阅配置
+ * 订阅授权服务发布的令牌撤销事件
+ */
+@Configuration
+public class RedisListenerConfig {
+
+    @Bean
+    public RedisMessageListenerContainer tokenRevocationListenerContainer(RedisConnectionFactory connectionFactory,
+            TokenRevocationChecker tokenRevocationChecker) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(tokenRevocationChecker, new ChannelTopic(RevocationEvent.CHANNEL));
+        return container;
+    }
+}
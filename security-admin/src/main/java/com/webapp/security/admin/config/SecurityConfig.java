@@ -1,12 +1,22 @@
 package com.webapp.security.admin.config;
 
+import com.webapp.security.admin.auth.jwt.CachingJwtAuthenticationConverter;
+import com.webapp.security.admin.auth.jwt.CachingJwtDecoder;
+import com.webapp.security.admin.auth.jwt.PermissionBitsetAuthoritiesConverter;
+import com.webapp.security.admin.auth.jwt.TokenRevocationChecker;
+import com.webapp.security.admin.auth.jwt.VerifiedJwtCache;
+import com.webapp.security.core.rbac.PermissionRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtDecoders;
+import org.springframework.security.oauth2.jwt.SupplierJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
@@ -26,6 +36,9 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     private final SecurityExceptionHandler securityExceptionHandler;
+    private final VerifiedJwtCache verifiedJwtCache;
+    private final PermissionRegistry permissionRegistry;
+    private final TokenRevocationChecker tokenRevocationChecker;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -62,12 +75,23 @@ public class SecurityConfig {
         return source;
     }
 
+    /**
+     * JWT解码器
+     * 通过issuer-uri延迟发现JWK，并在外层缓存已验签的令牌直到过期，每次请求都做撤销检查
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(
+            @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuerUri) {
+        JwtDecoder delegate = new SupplierJwtDecoder(() -> JwtDecoders.fromIssuerLocation(issuerUri));
+        return new CachingJwtDecoder(delegate, verifiedJwtCache, tokenRevocationChecker);
+    }
+
     /**
      * 自定义JWT认证转换器
-     * 用于从JWT令牌中提取权限信息
+     * 用于从JWT令牌中提取权限信息（authorities声明及perm_bits权限位图），同一令牌的权限只解析一次
      */
     @Bean
-    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+    public CachingJwtAuthenticationConverter jwtAuthenticationConverter() {
         JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
         // 设置权限信息来源于JWT的"authorities"字段
         authoritiesConverter.setAuthoritiesClaimName("authorities");
@@ -75,8 +99,9 @@ public class SecurityConfig {
         authoritiesConverter.setAuthorityPrefix("");
 
         JwtAuthenticationConverter jwtConverter = new JwtAuthenticationConverter();
-        jwtConverter.setJwtGrantedAuthoritiesConverter(authoritiesConverter);
-        return jwtConverter;
+        jwtConverter.setJwtGrantedAuthoritiesConverter(
+                new PermissionBitsetAuthoritiesConverter(authoritiesConverter, permissionRegistry));
+        return new CachingJwtAuthenticationConverter(jwtConverter, verifiedJwtCache);
     }
 
     @Bean
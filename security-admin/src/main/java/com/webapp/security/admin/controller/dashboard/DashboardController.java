@@ -3,6 +3,7 @@ package com.webapp.security.admin.controller.dashboard;
 import com.webapp.security.admin.controller.dashboard.vo.DashboardStatVO;
 import com.webapp.security.admin.controller.dashboard.vo.MenuVO;
 import com.webapp.security.admin.facade.DashboardFacade;
+import com.webapp.security.admin.service.MenuTreeCache;
 import com.webapp.security.core.model.ResponseResult;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -10,7 +11,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -35,11 +38,18 @@ public class DashboardController {
 
     /**
      * 获取当前用户的菜单权限
+     * 响应带ETag，菜单未变化时客户端携带If-None-Match即返回304
      */
     @GetMapping("/menus")
     @PreAuthorize("isAuthenticated()")
-    public ResponseResult<List<MenuVO>> getCurrentUserMenus() {
-        List<MenuVO> menus = dashboardFacade.getCurrentUserMenus();
-        return ResponseResult.success(menus);
+    public ResponseResult<List<MenuVO>> getCurrentUserMenus(WebRequest request) {
+        MenuTreeCache.MenuTree menuTree = dashboardFacade.getCurrentUserMenuTree();
+        if (menuTree == null) {
+            return ResponseResult.success(new ArrayList<>());
+        }
+        if (menuTree.getEtag() != null && request.checkNotModified(menuTree.getEtag())) {
+            return null;
+        }
+        return ResponseResult.success(menuTree.getMenus());
     }
 }
\ No newline at end of file
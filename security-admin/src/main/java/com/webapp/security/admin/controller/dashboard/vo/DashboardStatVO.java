@@ -25,6 +25,31 @@ public class DashboardStatVO {
      */
     private long onlineUsers;
 
+    /**
+     * 最近5分钟活跃用户数
+     */
+    private long activeUsers5m;
+
+    /**
+     * 最近15分钟活跃用户数
+     */
+    private long activeUsers15m;
+
+    /**
+     * 最近60分钟活跃用户数
+     */
+    private long activeUsers60m;
+
+    /**
+     * 今日活跃用户数
+     */
+    private long dailyActiveUsers;
+
+    /**
+     * 最近30天活跃用户数
+     */
+    private long monthlyActiveUsers;
+
     /**
      * 角色总数
      */
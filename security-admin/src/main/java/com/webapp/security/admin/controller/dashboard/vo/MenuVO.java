@@ -1,66 +1,69 @@
 package com.webapp.security.admin.controller.dashboard.vo;
 
-import lombok.Data;
+import lombok.Builder;
+import lombok.Getter;
 
 import java.util.List;
 
 /**
  * 菜单VO
+ * 同一角色组合的用户共享缓存中的同一棵菜单树，因此不可修改：字段只读，子菜单列表为不可修改的列表
  */
-@Data
+@Getter
+@Builder
 public class MenuVO {
     /**
      * 权限ID
      */
-    private Long permissionId;
+    private final Long permissionId;
 
     /**
      * 权限编码
      */
-    private String permCode;
+    private final String permCode;
 
     /**
      * 权限名称
      */
-    private String permName;
+    private final String permName;
 
     /**
      * 权限描述
      */
-    private String description;
+    private final String description;
 
     /**
      * 权限类型
      */
-    private Integer permType;
+    private final Integer permType;
 
     /**
      * 父权限ID
      */
-    private Long parentId;
+    private final Long parentId;
 
     /**
      * 权限路径
      */
-    private String permPath;
+    private final String permPath;
 
     /**
      * 菜单图标
      */
-    private String icon;
+    private final String icon;
 
     /**
      * 权限状态
      */
-    private Integer status;
+    private final Integer status;
 
     /**
      * 排序
      */
-    private Integer sortOrder;
+    private final Integer sortOrder;
 
     /**
      * 子菜单列表
      */
-    private List<MenuVO> children;
+    private final List<MenuVO> children;
 }
\ No newline at end of file
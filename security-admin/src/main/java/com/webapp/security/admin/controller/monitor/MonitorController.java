@@ -0,0 +1,46 @@
+package com.webapp.security.admin.controller.monitor;
+
+import com.webapp.security.admin.auth.jwt.VerifiedJwtCache;
+import com.webapp.security.admin.service.PasswordHashingPool;
+import com.webapp.security.core.model.ResponseResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 运行状态监控
+ */
+@RestController
+@RequestMapping("/api/monitor")
+@RequiredArgsConstructor
+public class MonitorController {
+
+    private final VerifiedJwtCache verifiedJwtCache;
+    private final PasswordHashingPool passwordHashingPool;
+
+    /**
+     * 已验签令牌缓存的统计信息（条目数、命中率、淘汰次数）
+     */
+    @GetMapping("/jwt-cache/stats")
+    @PreAuthorize("hasAuthority('SYSTEM_MONITOR')")
+    public ResponseResult<Map<String, Object>> getJwtCacheStats() {
+        Map<String, Object> stats = verifiedJwtCache.getStats();
+        stats.put("timestamp", System.currentTimeMillis());
+        return ResponseResult.success(stats);
+    }
+
+    /**
+     * 密码哈希线程池的统计信息（线程数、活跃数、队列深度）
+     */
+    @GetMapping("/password-hashing/stats")
+    @PreAuthorize("hasAuthority('SYSTEM_MONITOR')")
+    public ResponseResult<Map<String, Object>> getPasswordHashingStats() {
+        Map<String, Object> stats = passwordHashingPool.getStats();
+        stats.put("timestamp", System.currentTimeMillis());
+        return ResponseResult.success(stats);
+    }
+}
@@ -9,16 +9,21 @@ import com.webapp.security.admin.controller.permission.vo.PermissionVO;
 import com.webapp.security.admin.controller.role.vo.RoleVO;
 import com.webapp.security.admin.controller.user.dto.StatusDTO;
 import com.webapp.security.admin.converter.PermissionConverter;
+import com.webapp.security.admin.service.ListingExporter;
 import com.webapp.security.core.entity.SysPermission;
 import com.webapp.security.core.entity.SysRole;
+import com.webapp.security.core.model.CursorPagedDTO;
+import com.webapp.security.core.model.CursorPagedResult;
 import com.webapp.security.core.model.PagedDTO;
 import com.webapp.security.core.model.PagedResult;
 import com.webapp.security.core.model.ResponseResult;
 import com.webapp.security.core.service.SysPermissionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -35,6 +40,7 @@ public class PermissionController {
 
     private final SysPermissionService permissionService;
     private final PermissionConverter permissionConverter;
+    private final ListingExporter listingExporter;
 
     @PostMapping("/paged")
     @PreAuthorize("hasAuthority('PERMISSION_QUERY')")
@@ -60,6 +66,33 @@ public class PermissionController {
         return ResponseResult.success(enrichPermissionVOs(voList));
     }
 
+    /**
+     * 游标分页查询权限（按主键升序，翻页成本与页码无关）
+     */
+    @PostMapping("/cursor")
+    @PreAuthorize("hasAuthority('PERMISSION_QUERY')")
+    public ResponseResult<CursorPagedResult<PermissionVO>> findPermissionByCursor(@RequestBody CursorPagedDTO paged) {
+        List<SysPermission> permissions = permissionService.list(keywordQuery(paged.getKeyword())
+                .gt(paged.getCursor() != null, SysPermission::getPermissionId, paged.getCursor())
+                .orderByAsc(SysPermission::getPermissionId)
+                .last("LIMIT " + (paged.limit() + 1)));
+        return ResponseResult.success(
+                CursorPagedResult.of(permissions, paged.limit(), SysPermission::getPermissionId,
+                        permissionConverter::toVOList));
+    }
+
+    /**
+     * 流式导出权限（ndjson或csv）
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('PERMISSION_QUERY')")
+    public ResponseEntity<StreamingResponseBody> exportPermissions(@RequestParam(required = false) String keyword,
+            @RequestParam(defaultValue = ListingExporter.FORMAT_NDJSON) String format) {
+        return listingExporter.<PermissionVO>export("permissions", format, sink -> permissionService.streamList(
+                keywordQuery(keyword).orderByAsc(SysPermission::getPermissionId),
+                permission -> sink.accept(permissionConverter.toVO(permission))));
+    }
+
     /**
      * 根据ID获取权限
      */
@@ -181,4 +214,14 @@ public class PermissionController {
 
         return voList;
     }
-}
\ No newline at end of file
+
+    /**
+     * 关键字查询条件（整体加括号，可与游标条件组合）
+     */
+    private static LambdaQueryWrapper<SysPermission> keywordQuery(String keyword) {
+        return new LambdaQueryWrapper<SysPermission>()
+                .and(StrUtil.isNotBlank(keyword), condition -> condition
+                        .like(SysPermission::getPermName, keyword)
+                        .or().like(SysPermission::getPermCode, keyword));
+    }
+}
@@ -12,16 +12,22 @@ import com.webapp.security.admin.controller.role.vo.RoleVO;
 import com.webapp.security.admin.controller.user.dto.StatusDTO;
 import com.webapp.security.admin.converter.PermissionConverter;
 import com.webapp.security.admin.converter.RoleConverter;
+import com.webapp.security.admin.service.ListingExporter;
 import com.webapp.security.core.entity.SysPermission;
 import com.webapp.security.core.entity.SysRole;
+import com.webapp.security.core.model.CursorPagedDTO;
+import com.webapp.security.core.model.CursorPagedResult;
 import com.webapp.security.core.model.PagedDTO;
 import com.webapp.security.core.model.PagedResult;
 import com.webapp.security.core.model.ResponseResult;
+import com.webapp.security.core.rbac.AssignmentDelta;
 import com.webapp.security.core.service.SysRoleService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -36,6 +42,7 @@ public class RoleController {
     private final SysRoleService roleService;
     private final RoleConverter roleConverter;
     private final PermissionConverter permissionConverter;
+    private final ListingExporter listingExporter;
 
     @PostMapping("/paged")
     @PreAuthorize("hasAuthority('ROLE_QUERY')")
@@ -62,6 +69,31 @@ public class RoleController {
         return ResponseResult.success(roleConverter.toVOList(roles));
     }
 
+    /**
+     * 游标分页查询角色（按主键升序，翻页成本与页码无关）
+     */
+    @PostMapping("/cursor")
+    @PreAuthorize("hasAuthority('ROLE_QUERY')")
+    public ResponseResult<CursorPagedResult<RoleVO>> findRoleByCursor(@RequestBody CursorPagedDTO paged) {
+        List<SysRole> roles = roleService.list(keywordQuery(paged.getKeyword())
+                .gt(paged.getCursor() != null, SysRole::getRoleId, paged.getCursor())
+                .orderByAsc(SysRole::getRoleId)
+                .last("LIMIT " + (paged.limit() + 1)));
+        return ResponseResult.success(
+                CursorPagedResult.of(roles, paged.limit(), SysRole::getRoleId, roleConverter::toVOList));
+    }
+
+    /**
+     * 流式导出角色（ndjson或csv）
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('ROLE_QUERY')")
+    public ResponseEntity<StreamingResponseBody> exportRoles(@RequestParam(required = false) String keyword,
+            @RequestParam(defaultValue = ListingExporter.FORMAT_NDJSON) String format) {
+        return listingExporter.<RoleVO>export("roles", format, sink -> roleService.streamList(
+                keywordQuery(keyword).orderByAsc(SysRole::getRoleId), role -> sink.accept(roleConverter.toVO(role))));
+    }
+
     /**
      * 根据ID获取角色
      */
@@ -128,8 +160,8 @@ public class RoleController {
     @PostMapping("/{id}/permissions")
     @PreAuthorize("hasAuthority('ROLE_UPDATE')")
     public ResponseResult<Void> assignPermissions(@PathVariable Long id, @Validated @RequestBody PermissionIdsDTO dto) {
-        boolean success = roleService.assignPermissions(id, dto.getPermissionIds());
-        return success ? ResponseResult.success(null, "权限分配成功") : ResponseResult.failed("权限分配失败");
+        AssignmentDelta delta = roleService.assignPermissions(id, dto.getPermissionIds());
+        return delta != null ? ResponseResult.success(null, "权限分配成功") : ResponseResult.failed("权限分配失败");
     }
 
     /**
@@ -151,4 +183,14 @@ public class RoleController {
         List<SysRole> roles = roleService.getEnabledRoles();
         return ResponseResult.success(roleConverter.toVOList(roles));
     }
+
+    /**
+     * 关键字查询条件（整体加括号，可与游标条件组合）
+     */
+    private static LambdaQueryWrapper<SysRole> keywordQuery(String keyword) {
+        return new LambdaQueryWrapper<SysRole>()
+                .and(StrUtil.isNotBlank(keyword), condition -> condition
+                        .like(SysRole::getRoleName, keyword)
+                        .or().like(SysRole::getRoleCode, keyword));
+    }
 }
@@ -6,15 +6,20 @@ import com.webapp.security.admin.controller.sysclientcredential.dto.CredentialCr
 import com.webapp.security.admin.controller.sysclientcredential.dto.CredentialCreateResultDTO;
 import com.webapp.security.admin.controller.sysclientcredential.vo.CredentialVO;
 import com.webapp.security.admin.converter.CredentialConverter;
+import com.webapp.security.admin.service.ListingExporter;
 import com.webapp.security.core.entity.SysClientCredential;
+import com.webapp.security.core.model.CursorPagedDTO;
+import com.webapp.security.core.model.CursorPagedResult;
 import com.webapp.security.core.model.PagedDTO;
 import com.webapp.security.core.model.PagedResult;
 import com.webapp.security.core.model.ResponseResult;
 import com.webapp.security.core.service.SysClientCredentialService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import cn.hutool.core.util.StrUtil;
@@ -26,6 +31,7 @@ public class SysClientCredentialController {
 
     private final SysClientCredentialService credentialService;
     private final CredentialConverter credentialConverter;
+    private final ListingExporter listingExporter;
 
     /**
      * 分页查询客户端凭证
@@ -60,6 +66,33 @@ public class SysClientCredentialController {
         return ResponseResult.success(credentialConverter.toVOList(credentials));
     }
 
+    /**
+     * 游标分页查询客户端凭证（按主键升序，翻页成本与页码无关）
+     */
+    @PostMapping("/cursor")
+    @PreAuthorize("hasAuthority('OPENAPI_CREDENTIAL_QUERY')")
+    public ResponseResult<CursorPagedResult<CredentialVO>> cursor(@RequestBody CursorPagedDTO paged) {
+        List<SysClientCredential> credentials = credentialService.list(keywordQuery(paged.getKeyword())
+                .gt(paged.getCursor() != null, SysClientCredential::getId, paged.getCursor())
+                .orderByAsc(SysClientCredential::getId)
+                .last("LIMIT " + (paged.limit() + 1)));
+        return ResponseResult.success(
+                CursorPagedResult.of(credentials, paged.limit(), SysClientCredential::getId,
+                        credentialConverter::toVOList));
+    }
+
+    /**
+     * 流式导出客户端凭证（ndjson或csv）
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('OPENAPI_CREDENTIAL_QUERY')")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) String keyword,
+            @RequestParam(defaultValue = ListingExporter.FORMAT_NDJSON) String format) {
+        return listingExporter.<CredentialVO>export("credentials", format, sink -> credentialService.streamList(
+                keywordQuery(keyword).orderByAsc(SysClientCredential::getId),
+                credential -> sink.accept(credentialConverter.toVO(credential))));
+    }
+
     /**
      * 生成临时的凭证信息，不保存到数据库
      */
@@ -124,4 +157,28 @@ public class SysClientCredentialController {
             return ResponseResult.failed("更新失败: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 更新凭证的调度权重
+     */
+    @PatchMapping("/{appId}/weight")
+    @PreAuthorize("hasAuthority('OPENAPI_CREDENTIAL_UPDATE')")
+    public ResponseResult<Void> updateWeight(@PathVariable String appId, @RequestParam Integer weight) {
+        try {
+            credentialService.updateScheduleWeight(appId, weight);
+            return ResponseResult.success(null, "更新成功");
+        } catch (RuntimeException e) {
+            return ResponseResult.failed(e.getMessage());
+        }
+    }
+
+    /**
+     * 关键字查询条件（整体加括号，可与游标条件组合）
+     */
+    private static LambdaQueryWrapper<SysClientCredential> keywordQuery(String keyword) {
+        return new LambdaQueryWrapper<SysClientCredential>()
+                .and(StrUtil.isNotBlank(keyword), condition -> condition
+                        .like(SysClientCredential::getAppId, keyword)
+                        .or().like(SysClientCredential::getRemark, keyword));
+    }
+}
@@ -8,5 +8,6 @@ public class CredentialVO {
     private String appId;
     private String clientId;
     private Integer status;
+    private Integer scheduleWeight;
     private String createBy;
 }
\ No newline at end of file
@@ -5,15 +5,20 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.webapp.security.admin.controller.sysresource.dto.ResourceDTO;
 import com.webapp.security.admin.controller.sysresource.vo.ResourceVO;
 import com.webapp.security.admin.converter.ResourceConverter;
+import com.webapp.security.admin.service.ListingExporter;
 import com.webapp.security.core.entity.SysResource;
+import com.webapp.security.core.model.CursorPagedDTO;
+import com.webapp.security.core.model.CursorPagedResult;
 import com.webapp.security.core.model.PagedDTO;
 import com.webapp.security.core.model.PagedResult;
 import com.webapp.security.core.model.ResponseResult;
 import com.webapp.security.core.service.SysResourceService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import cn.hutool.core.util.StrUtil;
@@ -25,6 +30,7 @@ public class SysResourceController {
 
     private final SysResourceService resourceService;
     private final ResourceConverter resourceConverter;
+    private final ListingExporter listingExporter;
 
     @PostMapping("/paged")
     @PreAuthorize("hasAuthority('OPENAPI_RESOURCE_QUERY')")
@@ -54,6 +60,33 @@ public class SysResourceController {
         return ResponseResult.success(resourceConverter.toVOList(resources));
     }
 
+    /**
+     * 游标分页查询API资源（按主键升序，翻页成本与页码无关）
+     */
+    @PostMapping("/cursor")
+    @PreAuthorize("hasAuthority('OPENAPI_RESOURCE_QUERY')")
+    public ResponseResult<CursorPagedResult<ResourceVO>> cursor(@RequestBody CursorPagedDTO paged) {
+        List<SysResource> resources = resourceService.list(keywordQuery(paged.getKeyword())
+                .gt(paged.getCursor() != null, SysResource::getResourceId, paged.getCursor())
+                .orderByAsc(SysResource::getResourceId)
+                .last("LIMIT " + (paged.limit() + 1)));
+        return ResponseResult.success(
+                CursorPagedResult.of(resources, paged.limit(), SysResource::getResourceId,
+                        resourceConverter::toVOList));
+    }
+
+    /**
+     * 流式导出API资源（ndjson或csv）
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('OPENAPI_RESOURCE_QUERY')")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) String keyword,
+            @RequestParam(defaultValue = ListingExporter.FORMAT_NDJSON) String format) {
+        return listingExporter.<ResourceVO>export("resources", format, sink -> resourceService.streamList(
+                keywordQuery(keyword).orderByAsc(SysResource::getResourceId),
+                resource -> sink.accept(resourceConverter.toVO(resource))));
+    }
+
     @PostMapping
     @PreAuthorize("hasAuthority('OPENAPI_RESOURCE_CREATE')")
     public ResponseResult<Void> create(@Validated @RequestBody ResourceDTO dto) {
@@ -93,4 +126,15 @@ public class SysResourceController {
             return ResponseResult.failed("删除失败: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 关键字查询条件（整体加括号，可与游标条件组合）
+     */
+    private static LambdaQueryWrapper<SysResource> keywordQuery(String keyword) {
+        return new LambdaQueryWrapper<SysResource>()
+                .and(StrUtil.isNotBlank(keyword), condition -> condition
+                        .like(SysResource::getResourceCode, keyword)
+                        .or().like(SysResource::getResourceName, keyword)
+                        .or().like(SysResource::getResourcePath, keyword));
+    }
+}
@@ -1,21 +1,33 @@
 package com.webapp.security.admin.controller.user;
 
-import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.webapp.security.admin.controller.user.dto.*;
+import com.webapp.security.admin.controller.user.vo.UserImportStatus;
 import com.webapp.security.admin.controller.user.vo.UserVO;
 import com.webapp.security.admin.converter.UserConverter;
+import com.webapp.security.admin.service.ListingExporter;
+import com.webapp.security.admin.service.UserImportService;
 import com.webapp.security.core.entity.SysUser;
+import com.webapp.security.core.model.CursorPagedDTO;
+import com.webapp.security.core.model.CursorPagedResult;
 import com.webapp.security.core.model.PagedDTO;
 import com.webapp.security.core.model.PagedResult;
 import com.webapp.security.core.model.ResponseResult;
+import com.webapp.security.core.rbac.AssignmentDelta;
+import com.webapp.security.core.search.UserSearch;
 import com.webapp.security.core.service.SysUserService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -28,22 +40,29 @@ public class UserController {
 
     private final SysUserService userService;
     private final UserConverter userConverter;
+    private final ListingExporter listingExporter;
+    private final UserSearch userSearch;
+    private final UserImportService userImportService;
 
     @PostMapping("/paged")
     @PreAuthorize("hasAuthority('USER_QUERY')")
     public ResponseResult<PagedResult<UserVO>> findUserPaged(@RequestBody PagedDTO paged) {
         Page<SysUser> page = new Page<>(paged.getPageNum(), paged.getPageSize());
-        String keyword = paged.getKeyword();
-        LambdaQueryWrapper<SysUser> queryWrapper = new LambdaQueryWrapper<SysUser>()
-                .like(StrUtil.isNotBlank(keyword), SysUser::getUsername, keyword)
-                .or(StrUtil.isNotBlank(keyword), condition -> condition
-                        .like(SysUser::getRealName, keyword));
-
-        Page<SysUser> pageResult = userService.page(page, queryWrapper);
+        Page<SysUser> pageResult = userService.page(page, keywordQuery(paged.getKeyword()));
         List<UserVO> voList = userConverter.toVOList(pageResult.getRecords());
         return ResponseResult.success(new PagedResult<>(voList, pageResult.getTotal()));
     }
 
+    /**
+     * 检索用户（用户名、姓名、邮箱、手机号），按匹配程度排序
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasAuthority('USER_QUERY')")
+    public ResponseResult<List<UserVO>> searchUsers(@RequestParam String keyword,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseResult.success(userConverter.toVOList(userSearch.search(keyword, limit)));
+    }
+
     /**
      * 获取所有用户
      */
@@ -54,6 +73,31 @@ public class UserController {
         return ResponseResult.success(userConverter.toVOList(users));
     }
 
+    /**
+     * 游标分页查询用户（按主键升序，翻页成本与页码无关）
+     */
+    @PostMapping("/cursor")
+    @PreAuthorize("hasAuthority('USER_QUERY')")
+    public ResponseResult<CursorPagedResult<UserVO>> findUserByCursor(@RequestBody CursorPagedDTO paged) {
+        List<SysUser> users = userService.list(keywordQuery(paged.getKeyword())
+                .gt(paged.getCursor() != null, SysUser::getUserId, paged.getCursor())
+                .orderByAsc(SysUser::getUserId)
+                .last("LIMIT " + (paged.limit() + 1)));
+        return ResponseResult.success(
+                CursorPagedResult.of(users, paged.limit(), SysUser::getUserId, userConverter::toVOList));
+    }
+
+    /**
+     * 流式导出用户（ndjson或csv）
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('USER_QUERY')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(required = false) String keyword,
+            @RequestParam(defaultValue = ListingExporter.FORMAT_NDJSON) String format) {
+        return listingExporter.<UserVO>export("users", format, sink -> userService.streamList(
+                keywordQuery(keyword).orderByAsc(SysUser::getUserId), user -> sink.accept(userConverter.toVO(user))));
+    }
+
     /**
      * 根据ID获取用户
      */
@@ -78,6 +122,30 @@ public class UserController {
         return success ? ResponseResult.success(null, "用户创建成功") : ResponseResult.failed("用户创建失败");
     }
 
+    /**
+     * 批量导入用户
+     * 请求体为CSV（text/csv，首行为列名）或NDJSON（application/x-ndjson），保存后在后台逐行读取、分批写入，
+     * 立即返回任务状态；校验失败的行不影响其他行，通过任务状态查询失败行的行号和原因
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasAuthority('USER_CREATE')")
+    public ResponseEntity<ResponseResult<UserImportStatus>> importUsers(HttpServletRequest request)
+            throws IOException {
+        boolean csv = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.valueOf("text/csv"));
+        UserImportStatus status = userImportService.submit(request.getInputStream(), csv);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ResponseResult.success(status));
+    }
+
+    /**
+     * 查询导入任务的状态、进度和结果
+     */
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasAuthority('USER_CREATE')")
+    public ResponseResult<UserImportStatus> getImportStatus(@PathVariable String jobId) {
+        return ResponseResult.success(userImportService.getStatus(jobId));
+    }
+
     /**
      * 更新用户
      */
@@ -120,8 +188,8 @@ public class UserController {
     @PostMapping("/{id}/roles")
     @PreAuthorize("hasAuthority('USER_UPDATE')")
     public ResponseResult<Void> assignRoles(@PathVariable Long id, @Validated @RequestBody RoleIdsDTO dto) {
-        boolean success = userService.assignRoles(id, dto.getRoleIds());
-        return success ? ResponseResult.success(null, "角色分配成功") : ResponseResult.failed("角色分配失败");
+        AssignmentDelta delta = userService.assignRoles(id, dto.getRoleIds());
+        return delta != null ? ResponseResult.success(null, "角色分配成功") : ResponseResult.failed("角色分配失败");
     }
 
     /**
@@ -143,4 +211,11 @@ public class UserController {
         List<String> roles = userService.getUserRoles(id);
         return ResponseResult.success(roles);
     }
-}
\ No newline at end of file
+
+    /**
+     * 关键字查询条件（走索引，可与游标条件组合）
+     */
+    private LambdaQueryWrapper<SysUser> keywordQuery(String keyword) {
+        return userSearch.applyKeyword(new LambdaQueryWrapper<>(), keyword);
+    }
+}
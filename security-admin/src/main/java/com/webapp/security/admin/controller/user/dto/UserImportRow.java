@@ -0,0 +1,20 @@
+package com.webapp.security.admin.controller.user.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * 批量导入的一行用户数据
+ * 字段校验规则与创建用户一致，另可指定角色编码
+ */
+@Getter
+@Setter
+public class UserImportRow extends UserCreateDTO {
+
+    /**
+     * 角色编码（CSV中以;分隔）
+     */
+    private List<String> roles;
+}
@@ -0,0 +1,83 @@
+package com.webapp.security.admin.controller.user.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户批量导入结果
+ */
+@Data
+public class UserImportReport {
+
+    /**
+     * 读取的数据行数
+     */
+    private long total;
+
+    /**
+     * 导入成功数
+     */
+    private long succeeded;
+
+    /**
+     * 导入失败数
+     */
+    private long failed;
+
+    /**
+     * 失败行明细（最多返回前若干条）
+     */
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * 失败行明细是否被截断
+     */
+    private boolean errorsTruncated;
+
+    /**
+     * 总耗时（毫秒）
+     */
+    private long elapsedMillis;
+
+    /**
+     * 唯一性校验耗时（毫秒）
+     */
+    private long checkMillis;
+
+    /**
+     * 密码哈希耗时（毫秒，墙钟时间）
+     */
+    private long hashMillis;
+
+    /**
+     * 写库耗时（毫秒）
+     */
+    private long insertMillis;
+
+    /**
+     * 吞吐量（成功行数/秒）
+     */
+    private double rowsPerSecond;
+
+    /**
+     * 失败行
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+
+        /**
+         * 行号（CSV为文件行号，JSON为记录序号）
+         */
+        private long line;
+
+        private String username;
+
+        private String message;
+    }
+}
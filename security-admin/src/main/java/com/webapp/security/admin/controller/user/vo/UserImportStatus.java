@@ -0,0 +1,55 @@
+package com.webapp.security.admin.controller.user.vo;
+
+import lombok.Data;
+
+/**
+ * 用户导入任务状态
+ */
+@Data
+public class UserImportStatus {
+
+    /**
+     * 排队中
+     */
+    public static final String QUEUED = "QUEUED";
+
+    /**
+     * 执行中
+     */
+    public static final String RUNNING = "RUNNING";
+
+    /**
+     * 已完成（部分行失败也算完成，明细见report）
+     */
+    public static final String COMPLETED = "COMPLETED";
+
+    /**
+     * 执行失败（读取文件出错等，已写入的批次不会回滚）
+     */
+    public static final String FAILED = "FAILED";
+
+    private String jobId;
+
+    private String state;
+
+    /**
+     * 提交人
+     */
+    private String operator;
+
+    private long submittedAt;
+
+    private Long startedAt;
+
+    private Long finishedAt;
+
+    /**
+     * 导入结果，执行中为已处理批次的进度
+     */
+    private UserImportReport report;
+
+    /**
+     * 失败原因
+     */
+    private String message;
+}
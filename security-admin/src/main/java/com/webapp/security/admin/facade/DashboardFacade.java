@@ -1,13 +1,17 @@
 package com.webapp.security.admin.facade;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.webapp.security.admin.controller.dashboard.vo.DashboardStatVO;
 import com.webapp.security.admin.controller.dashboard.vo.MenuVO;
 import com.webapp.security.admin.converter.UserConverter;
-import com.webapp.security.core.entity.SysPermission;
+import com.webapp.security.admin.service.MenuTreeCache;
+import com.webapp.security.core.cache.UserProfileCache;
 import com.webapp.security.core.entity.SysUser;
+import com.webapp.security.core.presence.PresenceTracker;
 import com.webapp.security.core.service.SysPermissionService;
 import com.webapp.security.core.service.SysRoleService;
 import com.webapp.security.core.service.SysUserService;
+import com.webapp.security.core.stat.UserStatCounters;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,7 +21,7 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * 仪表盘数据聚合服务
@@ -30,6 +34,10 @@ public class DashboardFacade {
     private final SysRoleService roleService;
     private final SysPermissionService permissionService;
     private final UserConverter userConverter;
+    private final UserProfileCache userProfileCache;
+    private final MenuTreeCache menuTreeCache;
+    private final UserStatCounters userStatCounters;
+    private final PresenceTracker presenceTracker;
 
     /**
      * 获取仪表盘统计数据
@@ -37,14 +45,19 @@ public class DashboardFacade {
     public DashboardStatVO getDashboardStats() {
         DashboardStatVO stats = new DashboardStatVO();
 
-        // 获取用户总数
-        stats.setTotalUsers(userService.count());
+        // 用户总数、活跃用户数（状态为启用的用户）读取计数表，不扫描用户表
+        Map<String, Long> counters = userStatCounters.getCounters();
+        stats.setTotalUsers(counters.getOrDefault(UserStatCounters.USER_TOTAL, 0L));
+        stats.setActiveUsers(counters.getOrDefault(UserStatCounters.USER_ACTIVE, 0L));
 
-        // 获取活跃用户数（状态为启用的用户）
-        stats.setActiveUsers(countActiveUsers());
-
-        // 获取在线用户数（暂时设置为活跃用户数的一半，后续可以通过Redis实现）
-        stats.setOnlineUsers(countOnlineUsers());
+        // 在线用户及各时间窗口的活跃用户，来自令牌签发和已认证请求的活动记录
+        PresenceTracker.Snapshot presence = presenceTracker.getSnapshot();
+        stats.setOnlineUsers(presence.getOnline());
+        stats.setActiveUsers5m(presence.getActive5m());
+        stats.setActiveUsers15m(presence.getActive15m());
+        stats.setActiveUsers60m(presence.getActive60m());
+        stats.setDailyActiveUsers(presence.getDau());
+        stats.setMonthlyActiveUsers(presence.getMau());
 
         // 获取角色总数
         stats.setTotalRoles(roleService.count());
@@ -63,48 +76,27 @@ public class DashboardFacade {
      * 获取当前用户的菜单权限
      */
     public List<MenuVO> getCurrentUserMenus() {
+        MenuTreeCache.MenuTree menuTree = getCurrentUserMenuTree();
+        return menuTree != null ? menuTree.getMenus() : new ArrayList<>();
+    }
+
+    /**
+     * 获取当前用户的菜单树（同一角色组合的用户共享，带ETag）
+     *
+     * @return 未登录或用户不存在时返回null
+     */
+    public MenuTreeCache.MenuTree getCurrentUserMenuTree() {
         // 获取当前登录用户
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
-            return new ArrayList<>();
+            return null;
         }
 
-        String username = authentication.getName();
-        SysUser currentUser = userService.getByUsername(username);
+        UserProfileCache.UserProfile currentUser = userProfileCache.get(authentication.getName());
         if (currentUser == null) {
-            return new ArrayList<>();
+            return null;
         }
-
-        // 获取用户的所有权限（包括菜单类型）
-        List<SysPermission> userPermissions = permissionService.getUserPermissions(currentUser.getUserId());
-
-        // 过滤出菜单类型的权限（perm_type = 1）
-        List<SysPermission> menuPermissions = userPermissions.stream()
-                .filter(permission -> permission.getPermType() != null && permission.getPermType() == 1)
-                .collect(Collectors.toList());
-
-        // 构建菜单树形结构
-        List<SysPermission> menuTree = permissionService.buildPermissionTree(menuPermissions);
-
-        // 转换为MenuVO
-        return convertToMenuVO(menuTree);
-    }
-
-    /**
-     * 统计活跃用户数量
-     */
-    private long countActiveUsers() {
-        return userService.list().stream()
-                .filter(user -> user.getStatus() != null && user.getStatus() == 1)
-                .count();
-    }
-
-    /**
-     * 统计在线用户数量
-     */
-    private long countOnlineUsers() {
-        // 假设在线用户数是活跃用户数的一半
-        return countActiveUsers() / 2;
+        return menuTreeCache.get(currentUser.getUserId());
     }
 
     /**
@@ -112,45 +104,10 @@ public class DashboardFacade {
      */
     private List<SysUser> getRecentUsers(int days) {
         LocalDateTime startDate = LocalDateTime.now().minus(days, ChronoUnit.DAYS);
-        return userService.list().stream()
-                .filter(user -> user.getCreateTime() != null && user.getCreateTime().isAfter(startDate))
-                .limit(10) // 最多返回10个用户
-                .collect(java.util.stream.Collectors.toList());
-    }
-
-    /**
-     * 将权限实体转换为菜单VO
-     */
-    private List<MenuVO> convertToMenuVO(List<SysPermission> permissions) {
-        return permissions.stream()
-                .map(this::convertToMenuVO)
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * 将单个权限实体转换为菜单VO
-     */
-    private MenuVO convertToMenuVO(SysPermission permission) {
-        MenuVO menuVO = new MenuVO();
-        menuVO.setPermissionId(permission.getPermissionId());
-        menuVO.setPermCode(permission.getPermCode());
-        menuVO.setPermName(permission.getPermName());
-        menuVO.setDescription(permission.getDescription());
-        menuVO.setPermType(permission.getPermType());
-        menuVO.setParentId(permission.getParentId());
-        menuVO.setPermPath(permission.getPermPath());
-        menuVO.setIcon(permission.getIcon());
-        menuVO.setStatus(permission.getStatus());
-        menuVO.setSortOrder(permission.getSortOrder());
-
-        // 递归转换子菜单
-        if (permission.getChildren() != null && !permission.getChildren().isEmpty()) {
-            List<MenuVO> children = permission.getChildren().stream()
-                    .map(this::convertToMenuVO)
-                    .collect(Collectors.toList());
-            menuVO.setChildren(children);
-        }
-
-        return menuVO;
+        // 走create_time索引，最多返回10个用户
+        return userService.list(new LambdaQueryWrapper<SysUser>()
+                .gt(SysUser::getCreateTime, startDate)
+                .orderByDesc(SysUser::getCreateTime)
+                .last("LIMIT 10"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,201 @@
+package com.webapp.security.admin.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * 列表导出
+ * 数据源逐行推送（MyBatis游标），每行转换后立即写入响应流并定期flush，
+ * 导出任意行数时内存占用保持不变。支持NDJSON（每行一个JSON对象）和CSV（列为第一行的字段）。
+ * 每个导出在整个下载期间占用一个数据库连接，同时进行的导出数有上限，超出时返回429。
+ */
+@Slf4j
+@Component
+public class ListingExporter {
+
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_CSV = "csv";
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson;charset=UTF-8");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    /**
+     * 每写入多少行flush一次
+     */
+    private static final int FLUSH_ROWS = 1000;
+
+    private final ObjectMapper objectMapper;
+    private final Semaphore permits;
+
+    public ListingExporter(ObjectMapper objectMapper,
+            @Value("${webapp.export.max-concurrent:2}") int maxConcurrent) {
+        this.objectMapper = objectMapper;
+        this.permits = new Semaphore(Math.max(maxConcurrent, 1));
+    }
+
+    /**
+     * 导出列表
+     *
+     * @param name   导出文件名前缀
+     * @param format ndjson或csv，其他值返回400
+     * @param source 数据源，依次把每一行交给传入的写出回调
+     * @throws ResponseStatusException 格式不支持（400）或同时进行的导出已达上限（429）
+     */
+    public <T> ResponseEntity<StreamingResponseBody> export(String name, String format, Consumer<Consumer<T>> source) {
+        boolean csv = FORMAT_CSV.equalsIgnoreCase(format);
+        if (!csv && !FORMAT_NDJSON.equalsIgnoreCase(format)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "不支持的导出格式: " + format);
+        }
+        if (!permits.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "导出任务过多，请稍后重试");
+        }
+        String filename = name + "-" + LocalDateTime.now().format(FILE_TIME) + (csv ? ".csv" : ".ndjson");
+        StreamingResponseBody body = out -> {
+            try {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                RowWriter<T> rowWriter = csv ? new CsvRowWriter<>(writer) : new NdjsonRowWriter<>(writer);
+                try {
+                    source.accept(rowWriter);
+                } catch (UncheckedIOException e) {
+                    // 客户端中断下载
+                    log.debug("导出{}中断: {}", name, e.getMessage());
+                    return;
+                }
+                writer.flush();
+                log.debug("导出{}完成，行数: {}", name, rowWriter.rows);
+            } finally {
+                permits.release();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename, StandardCharsets.UTF_8).build().toString())
+                .body(body);
+    }
+
+    private abstract static class RowWriter<T> implements Consumer<T> {
+
+        protected final Writer writer;
+        private long rows;
+
+        RowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void accept(T row) {
+            try {
+                write(row);
+                if (++rows % FLUSH_ROWS == 0) {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        protected abstract void write(T row) throws IOException;
+    }
+
+    private final class NdjsonRowWriter<T> extends RowWriter<T> {
+
+        NdjsonRowWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        protected void write(T row) throws IOException {
+            writer.write(objectMapper.writeValueAsString(row));
+            writer.write('\n');
+        }
+    }
+
+    private final class CsvRowWriter<T> extends RowWriter<T> {
+
+        private List<String> columns;
+
+        CsvRowWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        protected void write(T row) throws IOException {
+            ObjectNode node = objectMapper.valueToTree(row);
+            if (columns == null) {
+                columns = new ArrayList<>();
+                Iterator<String> names = node.fieldNames();
+                while (names.hasNext()) {
+                    columns.add(names.next());
+                }
+                writeLine(columns);
+            }
+            List<String> values = new ArrayList<>(columns.size());
+            for (String column : columns) {
+                JsonNode value = node.get(column);
+                if (value == null || value.isNull()) {
+                    values.add("");
+                } else if (value.isTextual()) {
+                    values.add(neutralizeFormula(value.asText()));
+                } else {
+                    values.add(value.isValueNode() ? value.asText() : value.toString());
+                }
+            }
+            writeLine(values);
+        }
+
+        private void writeLine(List<String> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values.get(i)));
+            }
+            writer.write("\r\n");
+        }
+
+        /**
+         * 防止以公式字符开头的文本在表格软件中被当作公式执行
+         */
+        private String neutralizeFormula(String value) {
+            if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+                return "'" + value;
+            }
+            return value;
+        }
+
+        private String escape(String value) {
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                    || value.indexOf('\r') >= 0) {
+                return "\"" + value.replace("\"", "\"\"") + "\"";
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.webapp.security.admin.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.webapp.security.admin.controller.dashboard.vo.MenuVO;
+import com.webapp.security.core.entity.SysPermission;
+import com.webapp.security.core.mapper.SysPermissionMapper;
+import com.webapp.security.core.rbac.RbacModel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * 菜单树缓存
+ * 大多数用户只属于少数几种角色组合，按角色组合（排序后的角色ID）缓存构建好的菜单树，
+ * 同一角色组合的用户共享同一棵不可变的MenuVO树，并附带按内容计算的ETag。
+ * 条目记录构建时的RBAC版本号，权限或角色分配发生变化后重新构建。
+ */
+@Slf4j
+@Component
+public class MenuTreeCache {
+
+    /**
+     * 菜单类型
+     */
+    private static final int MENU_TYPE = 1;
+
+    private final RbacModel rbacModel;
+    private final SysPermissionMapper permissionMapper;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, MenuTree> trees;
+
+    public MenuTreeCache(RbacModel rbacModel, SysPermissionMapper permissionMapper, ObjectMapper objectMapper,
+            @Value("${webapp.menu-tree-cache.max-size:1000}") long maxSize) {
+        this.rbacModel = rbacModel;
+        this.permissionMapper = permissionMapper;
+        this.objectMapper = objectMapper;
+        this.trees = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 获取用户的菜单树
+     */
+    public MenuTree get(long userId) {
+        long version = rbacModel.current().getVersion();
+        long[] roleIds = rbacModel.userRoleIds(userId);
+        String fingerprint = fingerprint(roleIds);
+        MenuTree cached = trees.getIfPresent(fingerprint);
+        if (cached != null && cached.version >= version) {
+            return cached;
+        }
+        MenuTree built = build(version, roleIds);
+        trees.put(fingerprint, built);
+        return built;
+    }
+
+    /**
+     * 缓存统计信息
+     */
+    public Map<String, Object> getStats() {
+        CacheStats stats = trees.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("roleSets", trees.size());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        return result;
+    }
+
+    private MenuTree build(long version, long[] roleIds) {
+        BitSet granted = rbacModel.permissionIds(roleIds);
+        // 按sort_order排序的全部启用菜单，过滤出角色组合拥有的部分
+        Map<Long, List<SysPermission>> byParent = new HashMap<>();
+        for (SysPermission permission : permissionMapper.selectByPermType(MENU_TYPE)) {
+            if (permission.getPermissionId() != null && granted.get(permission.getPermissionId().intValue())) {
+                Long parentId = permission.getParentId() == null ? 0L : permission.getParentId();
+                byParent.computeIfAbsent(parentId, id -> new ArrayList<>()).add(permission);
+            }
+        }
+        List<MenuVO> menus = toMenuVOs(byParent.get(0L), byParent);
+        return new MenuTree(version, menus, etag(menus));
+    }
+
+    private List<MenuVO> toMenuVOs(List<SysPermission> permissions, Map<Long, List<SysPermission>> byParent) {
+        if (permissions == null || permissions.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<MenuVO> menus = new ArrayList<>(permissions.size());
+        for (SysPermission permission : permissions) {
+            List<MenuVO> children = toMenuVOs(byParent.get(permission.getPermissionId()), byParent);
+            menus.add(MenuVO.builder()
+                    .permissionId(permission.getPermissionId())
+                    .permCode(permission.getPermCode())
+                    .permName(permission.getPermName())
+                    .description(permission.getDescription())
+                    .permType(permission.getPermType())
+                    .parentId(permission.getParentId())
+                    .permPath(permission.getPermPath())
+                    .icon(permission.getIcon())
+                    .status(permission.getStatus())
+                    .sortOrder(permission.getSortOrder())
+                    .children(children.isEmpty() ? null : children)
+                    .build());
+        }
+        return Collections.unmodifiableList(menus);
+    }
+
+    private String etag(List<MenuVO> menus) {
+        try {
+            return "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(menus)) + "\"";
+        } catch (JsonProcessingException e) {
+            log.warn("计算菜单ETag失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String fingerprint(long[] roleIds) {
+        StringJoiner joiner = new StringJoiner(",");
+        for (long roleId : roleIds) {
+            joiner.add(Long.toString(roleId));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * 构建好的菜单树（多个用户共享，不可修改）
+     */
+    @Getter
+    public static final class MenuTree {
+
+        private final long version;
+        private final List<MenuVO> menus;
+        private final String etag;
+
+        private MenuTree(long version, List<MenuVO> menus, String etag) {
+            this.version = version;
+            this.menus = menus;
+            this.etag = etag;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.webapp.security.admin.service;
+
+import cn.hutool.crypto.digest.BCrypt;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 管理端密码哈希线程池
+ * 批量计算BCrypt的后台任务共用这一个按CPU核数限定的线程池，不各自建池，
+ * 多个导入同时进行时哈希总并行度也不会超出CPU核数太多。
+ * 队列有界，队列满时由提交线程（后台任务线程，而不是请求线程）自己计算，形成反压。
+ */
+@Slf4j
+@Component
+public class PasswordHashingPool {
+
+    private final ThreadPoolExecutor executor;
+    private final int bcryptStrength;
+
+    public PasswordHashingPool(
+            @Value("${webapp.password-hashing.threads:0}") int threads,
+            @Value("${webapp.password-hashing.queue-capacity:1000}") int queueCapacity,
+            @Value("${webapp.password.bcrypt-strength:10}") int bcryptStrength) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashThreadFactory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.bcryptStrength = bcryptStrength;
+        log.info("密码哈希线程池初始化完成, threads: {}, queueCapacity: {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * 以目标强度计算BCrypt哈希
+     */
+    public CompletableFuture<String> hash(String password) {
+        return CompletableFuture.supplyAsync(() -> BCrypt.hashpw(password, BCrypt.gensalt(bcryptStrength)),
+                executor);
+    }
+
+    /**
+     * 线程池统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("poolSize", executor.getPoolSize());
+        result.put("activeCount", executor.getActiveCount());
+        result.put("queueDepth", executor.getQueue().size());
+        result.put("completedCount", executor.getCompletedTaskCount());
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static class HashThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger index = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
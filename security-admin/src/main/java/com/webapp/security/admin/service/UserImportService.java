@@ -0,0 +1,691 @@
+package com.webapp.security.admin.service;
+
+import cn.hutool.core.util.StrUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
+import com.webapp.security.admin.controller.user.dto.UserImportRow;
+import com.webapp.security.admin.controller.user.vo.UserImportReport;
+import com.webapp.security.admin.controller.user.vo.UserImportStatus;
+import com.webapp.security.core.context.UserContext;
+import com.webapp.security.core.entity.SysRole;
+import com.webapp.security.core.entity.SysUser;
+import com.webapp.security.core.entity.SysUserRole;
+import com.webapp.security.core.exception.BizException;
+import com.webapp.security.core.mapper.SysUserMapper;
+import com.webapp.security.core.mapper.SysUserRoleMapper;
+import com.webapp.security.core.service.SysRoleService;
+import com.webapp.security.core.stat.UserStatCounters;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 用户批量导入
+ * 请求只负责把请求体写入临时文件并登记任务，导入在后台任务线程中执行，进度和结果通过任务状态查询。
+ * 逐行读取CSV或NDJSON并按批处理：批内用IN查询一次性校验用户名、邮箱、手机号是否已被占用，
+ * 在共用的密码哈希线程池中并行计算密码哈希，再以多行INSERT写入用户和角色关联。
+ * 每批单独提交，失败行记录行号和原因，不影响其他行。
+ * 任务状态存于Redis，任一管理端节点都能查询。
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+    /**
+     * 单批最大行数（与IN查询、多行INSERT的上限一致）
+     */
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private static final String STATUS_KEY_PREFIX = "user-import:job:";
+
+    /**
+     * 从唯一键冲突信息中提取键名，如 Duplicate entry 'x' for key 'sys_user.username'
+     */
+    private static final Pattern DUPLICATE_KEY_PATTERN = Pattern.compile("for key '(?:[^'.]*\\.)?([^']+)'");
+
+    private final SysUserMapper userMapper;
+    private final SysUserRoleMapper userRoleMapper;
+    private final SysRoleService roleService;
+    private final UserStatCounters userStatCounters;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordHashingPool hashingPool;
+    private final StringRedisTemplate redisTemplate;
+    private final ThreadPoolExecutor jobExecutor;
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private final long maxBytes;
+    private final Duration statusTtl;
+
+    public UserImportService(SysUserMapper userMapper, SysUserRoleMapper userRoleMapper, SysRoleService roleService,
+            UserStatCounters userStatCounters, ObjectMapper objectMapper, Validator validator,
+            PlatformTransactionManager transactionManager, PasswordHashingPool hashingPool,
+            StringRedisTemplate redisTemplate,
+            @Value("${webapp.user-import.batch-size:1000}") int batchSize,
+            @Value("${webapp.user-import.max-reported-errors:1000}") int maxReportedErrors,
+            @Value("${webapp.user-import.max-concurrent-jobs:1}") int maxConcurrentJobs,
+            @Value("${webapp.user-import.max-queued-jobs:4}") int maxQueuedJobs,
+            @Value("${webapp.user-import.max-bytes:104857600}") long maxBytes,
+            @Value("${webapp.user-import.status-ttl-minutes:1440}") long statusTtlMinutes) {
+        this.userMapper = userMapper;
+        this.userRoleMapper = userRoleMapper;
+        this.roleService = roleService;
+        this.userStatCounters = userStatCounters;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hashingPool = hashingPool;
+        this.redisTemplate = redisTemplate;
+        this.batchSize = Math.min(Math.max(batchSize, 1), MAX_BATCH_SIZE);
+        this.maxReportedErrors = maxReportedErrors;
+        this.maxBytes = maxBytes;
+        this.statusTtl = Duration.ofMinutes(statusTtlMinutes);
+        int jobThreads = Math.max(maxConcurrentJobs, 1);
+        this.jobExecutor = new ThreadPoolExecutor(jobThreads, jobThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(maxQueuedJobs, 1)), new JobThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 提交导入任务
+     * 请求体先写入临时文件（超过大小上限时拒绝），再交给后台任务线程，请求立即返回任务状态
+     *
+     * @param input 请求体
+     * @param csv   true为CSV（首行为列名），false为NDJSON（每行一个JSON对象）
+     */
+    public UserImportStatus submit(InputStream input, boolean csv) throws IOException {
+        // 批量INSERT不经过自动填充，创建人在此确定
+        String operator = UserContext.getCurrentUsername();
+        Path file = spool(input);
+
+        UserImportStatus status = new UserImportStatus();
+        status.setJobId(UUID.randomUUID().toString().replace("-", ""));
+        status.setState(UserImportStatus.QUEUED);
+        status.setOperator(operator != null ? operator : "system");
+        status.setSubmittedAt(System.currentTimeMillis());
+        saveStatus(status);
+        try {
+            jobExecutor.execute(() -> run(status, file, csv));
+        } catch (RejectedExecutionException e) {
+            deleteQuietly(file);
+            redisTemplate.delete(STATUS_KEY_PREFIX + status.getJobId());
+            throw new BizException("USER_IMPORT_BUSY", "导入任务过多，请稍后重试");
+        }
+        log.info("用户导入任务已提交, jobId: {}, 大小: {}字节, 提交人: {}", status.getJobId(), Files.size(file),
+                status.getOperator());
+        return status;
+    }
+
+    /**
+     * 查询导入任务状态
+     */
+    public UserImportStatus getStatus(String jobId) {
+        String json = redisTemplate.opsForValue().get(STATUS_KEY_PREFIX + jobId);
+        if (json == null) {
+            throw new BizException("USER_IMPORT_NOT_FOUND", "导入任务不存在或已过期: " + jobId);
+        }
+        try {
+            return objectMapper.readValue(json, UserImportStatus.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("导入任务状态解析失败: " + jobId, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    private void run(UserImportStatus status, Path file, boolean csv) {
+        status.setState(UserImportStatus.RUNNING);
+        status.setStartedAt(System.currentTimeMillis());
+        saveStatus(status);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            status.setReport(importUsers(reader, csv, status.getOperator(), report -> {
+                status.setReport(report);
+                saveStatus(status);
+            }));
+            status.setState(UserImportStatus.COMPLETED);
+        } catch (Exception e) {
+            log.error("用户导入任务失败, jobId: {}", status.getJobId(), e);
+            status.setState(UserImportStatus.FAILED);
+            status.setMessage(e.getMessage());
+        } finally {
+            status.setFinishedAt(System.currentTimeMillis());
+            saveStatus(status);
+            deleteQuietly(file);
+        }
+    }
+
+    private UserImportReport importUsers(BufferedReader reader, boolean csv, String operator,
+            Consumer<UserImportReport> progress) throws IOException {
+        long start = System.nanoTime();
+        ImportJob job = new ImportJob(loadRoleIds(), operator, progress);
+        if (csv) {
+            readCsv(reader, job);
+        } else {
+            readNdjson(reader, job);
+        }
+        job.flush();
+        UserImportReport report = job.report;
+        report.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        report.setRowsPerSecond(report.getSucceeded() * 1_000_000_000.0 / Math.max(System.nanoTime() - start, 1));
+        log.info("用户导入完成, 总行数: {}, 成功: {}, 失败: {}, 耗时: {}ms, 吞吐: {}/s", report.getTotal(),
+                report.getSucceeded(), report.getFailed(), report.getElapsedMillis(),
+                String.format("%.1f", report.getRowsPerSecond()));
+        return report;
+    }
+
+    /**
+     * 请求体写入临时文件，超过大小上限时删除文件并拒绝
+     */
+    private Path spool(InputStream input) throws IOException {
+        Path file = Files.createTempFile("user-import-", ".tmp");
+        try (OutputStream output = Files.newOutputStream(file)) {
+            byte[] buffer = new byte[8192];
+            long written = 0;
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                written += read;
+                if (written > maxBytes) {
+                    throw new BizException("USER_IMPORT_TOO_LARGE", "导入数据超过大小上限: " + maxBytes + "字节");
+                }
+                output.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+        return file;
+    }
+
+    private void saveStatus(UserImportStatus status) {
+        try {
+            redisTemplate.opsForValue().set(STATUS_KEY_PREFIX + status.getJobId(),
+                    objectMapper.writeValueAsString(status), statusTtl);
+        } catch (Exception e) {
+            // 状态写入失败不影响导入本身
+            log.warn("用户导入任务状态保存失败, jobId: {}, {}", status.getJobId(), e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除导入临时文件失败: {}", file, e);
+        }
+    }
+
+    /**
+     * 按唯一键冲突信息给出冲突的字段；数据库中只有用户名带唯一约束，无法识别时附上原始键名
+     */
+    private static String conflictMessage(DuplicateKeyException e) {
+        String detail = e.getMostSpecificCause().getMessage();
+        Matcher matcher = DUPLICATE_KEY_PATTERN.matcher(detail != null ? detail : "");
+        String key = matcher.find() ? matcher.group(1).toLowerCase(Locale.ROOT) : "";
+        if (key.contains("username")) {
+            return "用户名已存在";
+        }
+        if (key.contains("email")) {
+            return "邮箱已存在";
+        }
+        if (key.contains("phone")) {
+            return "手机号已存在";
+        }
+        if (key.contains("user_role")) {
+            return "角色分配重复";
+        }
+        return key.isEmpty() ? "数据冲突" : "数据冲突: " + key;
+    }
+
+    private void readNdjson(BufferedReader reader, ImportJob job) throws IOException {
+        String line;
+        long lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (StrUtil.isBlank(line)) {
+                continue;
+            }
+            UserImportRow row;
+            try {
+                row = objectMapper.readValue(line, UserImportRow.class);
+            } catch (JsonProcessingException e) {
+                job.rejectUnparsed(lineNo, null, "JSON格式错误: " + e.getOriginalMessage());
+                continue;
+            }
+            job.accept(lineNo, row);
+        }
+    }
+
+    private void readCsv(BufferedReader reader, ImportJob job) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            return;
+        }
+        if (header.startsWith("﻿")) {
+            header = header.substring(1);
+        }
+        List<String> columns = parseCsvLine(header).stream()
+                .map(column -> column.trim().replace("_", "").toLowerCase(Locale.ROOT))
+                .collect(Collectors.toList());
+
+        String line;
+        long lineNo = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (StrUtil.isBlank(line)) {
+                continue;
+            }
+            List<String> values = parseCsvLine(line);
+            UserImportRow row = new UserImportRow();
+            String error = null;
+            for (int i = 0; i < columns.size() && i < values.size(); i++) {
+                String value = values.get(i);
+                switch (columns.get(i)) {
+                    case "username":
+                        row.setUsername(value);
+                        break;
+                    case "password":
+                        row.setPassword(value);
+                        break;
+                    case "realname":
+                        row.setRealName(value);
+                        break;
+                    case "email":
+                        row.setEmail(value);
+                        break;
+                    case "phone":
+                        row.setPhone(value);
+                        break;
+                    case "status":
+                        if (StrUtil.isNotBlank(value)) {
+                            try {
+                                row.setStatus(Integer.valueOf(value.trim()));
+                            } catch (NumberFormatException e) {
+                                error = "状态格式错误: " + value;
+                            }
+                        }
+                        break;
+                    case "roles":
+                        row.setRoles(StrUtil.isBlank(value) ? null : Arrays.asList(value.split("[;|]")));
+                        break;
+                    default:
+                        break;
+                }
+            }
+            if (error != null) {
+                job.rejectUnparsed(lineNo, row.getUsername(), error);
+            } else {
+                job.accept(lineNo, row);
+            }
+        }
+    }
+
+    /**
+     * 解析一行CSV（支持双引号包裹及""转义，不支持字段内换行）
+     */
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private Map<String, Long> loadRoleIds() {
+        Map<String, Long> roleIds = new HashMap<>();
+        for (SysRole role : roleService.list()) {
+            roleIds.put(role.getRoleCode(), role.getRoleId());
+        }
+        return roleIds;
+    }
+
+    private static Set<String> lowerCaseSet(Collection<String> values) {
+        Set<String> set = new HashSet<>();
+        for (String value : values) {
+            if (value != null) {
+                set.add(value.toLowerCase(Locale.ROOT));
+            }
+        }
+        return set;
+    }
+
+    private static String lower(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 一次导入的状态：文件内去重集合、待写入的批次及统计
+     */
+    private final class ImportJob {
+
+        private final Map<String, Long> roleIds;
+        private final String operator;
+        private final Consumer<UserImportReport> progress;
+        private final UserImportReport report = new UserImportReport();
+        private final Set<String> usernames = new HashSet<>();
+        private final Set<String> emails = new HashSet<>();
+        private final Set<String> phones = new HashSet<>();
+        private List<PendingRow> pending = new ArrayList<>();
+        private long checkNanos;
+        private long hashNanos;
+        private long insertNanos;
+
+        ImportJob(Map<String, Long> roleIds, String operator, Consumer<UserImportReport> progress) {
+            this.roleIds = roleIds;
+            this.operator = operator;
+            this.progress = progress;
+        }
+
+        void accept(long line, UserImportRow row) {
+            report.setTotal(report.getTotal() + 1);
+            normalize(row);
+            String error = validate(row);
+            if (error != null) {
+                reject(line, row.getUsername(), error);
+                return;
+            }
+            List<Long> rowRoleIds = new ArrayList<>();
+            if (row.getRoles() != null) {
+                for (String roleCode : row.getRoles()) {
+                    Long roleId = roleIds.get(roleCode.trim());
+                    if (roleId == null) {
+                        reject(line, row.getUsername(), "角色不存在: " + roleCode.trim());
+                        return;
+                    }
+                    if (!rowRoleIds.contains(roleId)) {
+                        rowRoleIds.add(roleId);
+                    }
+                }
+            }
+            // 文件内重复
+            if (!usernames.add(lower(row.getUsername()))) {
+                reject(line, row.getUsername(), "用户名在导入数据中重复");
+                return;
+            }
+            if (row.getEmail() != null && !emails.add(lower(row.getEmail()))) {
+                reject(line, row.getUsername(), "邮箱在导入数据中重复");
+                return;
+            }
+            if (row.getPhone() != null && !phones.add(row.getPhone())) {
+                reject(line, row.getUsername(), "手机号在导入数据中重复");
+                return;
+            }
+            pending.add(new PendingRow(line, row, rowRoleIds));
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        /**
+         * 无法解析的行，计入总数并记为失败
+         */
+        void rejectUnparsed(long line, String username, String message) {
+            report.setTotal(report.getTotal() + 1);
+            reject(line, username, message);
+        }
+
+        void reject(long line, String username, String message) {
+            report.setFailed(report.getFailed() + 1);
+            if (report.getErrors().size() < maxReportedErrors) {
+                report.getErrors().add(new UserImportReport.RowError(line, username, message));
+            } else {
+                report.setErrorsTruncated(true);
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<PendingRow> batch = pending;
+            pending = new ArrayList<>();
+
+            long checkStart = System.nanoTime();
+            List<PendingRow> accepted = rejectTaken(batch);
+            long hashStart = System.nanoTime();
+            checkNanos += hashStart - checkStart;
+            if (!accepted.isEmpty()) {
+                hash(accepted);
+                long insertStart = System.nanoTime();
+                hashNanos += insertStart - hashStart;
+
+                insert(accepted);
+                insertNanos += System.nanoTime() - insertStart;
+            }
+            updateTimings();
+            progress.accept(report);
+        }
+
+        private void normalize(UserImportRow row) {
+            row.setUsername(StrUtil.trim(row.getUsername()));
+            row.setRealName(StrUtil.emptyToNull(StrUtil.trim(row.getRealName())));
+            row.setEmail(StrUtil.emptyToNull(StrUtil.trim(row.getEmail())));
+            row.setPhone(StrUtil.emptyToNull(StrUtil.trim(row.getPhone())));
+            if (row.getStatus() == null) {
+                row.setStatus(1);
+            }
+        }
+
+        private String validate(UserImportRow row) {
+            Set<ConstraintViolation<UserImportRow>> violations = validator.validate(row);
+            if (!violations.isEmpty()) {
+                return violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("；"));
+            }
+            if (row.getStatus() != 0 && row.getStatus() != 1) {
+                return "状态只能为0或1";
+            }
+            return null;
+        }
+
+        /**
+         * 以IN查询校验整批的用户名、邮箱、手机号，剔除已被占用的行
+         */
+        private List<PendingRow> rejectTaken(List<PendingRow> batch) {
+            Set<String> takenUsernames = lowerCaseSet(userMapper.selectExistingUsernames(
+                    batch.stream().map(p -> p.row.getUsername()).collect(Collectors.toList())));
+            List<String> batchEmails = batch.stream().map(p -> p.row.getEmail()).filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            Set<String> takenEmails = batchEmails.isEmpty() ? Collections.emptySet()
+                    : lowerCaseSet(userMapper.selectExistingEmails(batchEmails));
+            List<String> batchPhones = batch.stream().map(p -> p.row.getPhone()).filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            Set<String> takenPhones = batchPhones.isEmpty() ? Collections.emptySet()
+                    : new HashSet<>(userMapper.selectExistingPhones(batchPhones));
+
+            List<PendingRow> accepted = new ArrayList<>(batch.size());
+            for (PendingRow pendingRow : batch) {
+                UserImportRow row = pendingRow.row;
+                if (takenUsernames.contains(lower(row.getUsername()))) {
+                    reject(pendingRow.line, row.getUsername(), "用户名已存在");
+                } else if (row.getEmail() != null && takenEmails.contains(lower(row.getEmail()))) {
+                    reject(pendingRow.line, row.getUsername(), "邮箱已存在");
+                } else if (row.getPhone() != null && takenPhones.contains(row.getPhone())) {
+                    reject(pendingRow.line, row.getUsername(), "手机号已存在");
+                } else {
+                    accepted.add(pendingRow);
+                }
+            }
+            return accepted;
+        }
+
+        /**
+         * 在共用的密码哈希线程池中并行计算密码哈希并生成实体
+         */
+        private void hash(List<PendingRow> rows) {
+            List<CompletableFuture<String>> hashes = new ArrayList<>(rows.size());
+            for (PendingRow pendingRow : rows) {
+                hashes.add(hashingPool.hash(pendingRow.row.getPassword()));
+            }
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < rows.size(); i++) {
+                UserImportRow row = rows.get(i).row;
+                SysUser user = new SysUser();
+                user.setUsername(row.getUsername());
+                user.setPassword(hashes.get(i).join());
+                user.setRealName(row.getRealName());
+                user.setEmail(row.getEmail());
+                user.setPhone(row.getPhone());
+                user.setStatus(row.getStatus());
+                user.setCreateTime(now);
+                user.setUpdateTime(now);
+                user.setCreateBy(operator);
+                user.setUpdateBy(operator);
+                user.setDeleted(0);
+                rows.get(i).user = user;
+            }
+        }
+
+        private void insert(List<PendingRow> rows) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(rows));
+                report.setSucceeded(report.getSucceeded() + rows.size());
+            } catch (DuplicateKeyException e) {
+                // 校验之后被并发写入占用，逐行重试以定位冲突的行
+                for (PendingRow pendingRow : rows) {
+                    pendingRow.user.setUserId(null);
+                    try {
+                        transactionTemplate.executeWithoutResult(
+                                status -> persist(Collections.singletonList(pendingRow)));
+                        report.setSucceeded(report.getSucceeded() + 1);
+                    } catch (DuplicateKeyException ex) {
+                        reject(pendingRow.line, pendingRow.row.getUsername(), conflictMessage(ex));
+                    }
+                }
+            } catch (DataAccessException e) {
+                log.error("用户导入批次写入失败, 行数: {}", rows.size(), e);
+                for (PendingRow pendingRow : rows) {
+                    reject(pendingRow.line, pendingRow.row.getUsername(),
+                            "写入失败: " + e.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+
+        private void persist(List<PendingRow> rows) {
+            List<SysUser> users = rows.stream().map(p -> p.user).collect(Collectors.toList());
+            userMapper.batchInsert(users);
+
+            LocalDateTime now = LocalDateTime.now();
+            List<SysUserRole> userRoles = new ArrayList<>();
+            for (PendingRow pendingRow : rows) {
+                for (Long roleId : pendingRow.roleIds) {
+                    SysUserRole userRole = new SysUserRole();
+                    userRole.setUserId(pendingRow.user.getUserId());
+                    userRole.setRoleId(roleId);
+                    userRole.setCreateTime(now);
+                    userRoles.add(userRole);
+                }
+            }
+            for (List<SysUserRole> partition : Lists.partition(userRoles, MAX_BATCH_SIZE)) {
+                userRoleMapper.batchInsert(partition);
+            }
+
+            long active = users.stream().filter(user -> user.getStatus() == 1).count();
+            userStatCounters.usersCreated(users.size(), active);
+        }
+
+        private void updateTimings() {
+            report.setCheckMillis(TimeUnit.NANOSECONDS.toMillis(checkNanos));
+            report.setHashMillis(TimeUnit.NANOSECONDS.toMillis(hashNanos));
+            report.setInsertMillis(TimeUnit.NANOSECONDS.toMillis(insertNanos));
+        }
+    }
+
+    /**
+     * 通过逐行校验、等待写入的行
+     */
+    private static final class PendingRow {
+
+        private final long line;
+        private final UserImportRow row;
+        private final List<Long> roleIds;
+        private SysUser user;
+
+        PendingRow(long line, UserImportRow row, List<Long> roleIds) {
+            this.line = line;
+            this.row = row;
+            this.roleIds = roleIds;
+        }
+    }
+
+    private static class JobThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger index = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "user-import-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.webapp.security.admin.service;
+
+import com.webapp.security.core.stat.UserStatCounters;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * 用户统计计数的定期校准
+ * 校准要对sys_user做COUNT(*)，且多个节点同时执行会重复补差值，
+ * 通过Redis锁保证同一时间只有一个管理节点执行
+ */
+@Slf4j
+@Component
+public class UserStatReconcileJob {
+
+    /**
+     * 校准锁，值为持有者标识
+     */
+    private static final String RECONCILE_LOCK_KEY = "user-stats:reconcile-lock";
+
+    /**
+     * 只释放自己持有的锁：锁已过期被其他节点取得时不删除
+     */
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end "
+                    + "return 0",
+            Long.class);
+
+    private final UserStatCounters userStatCounters;
+    private final StringRedisTemplate redisTemplate;
+    private final long lockTtlMillis;
+
+    public UserStatReconcileJob(UserStatCounters userStatCounters, StringRedisTemplate redisTemplate,
+            @Value("${webapp.user-stats.reconcile-lock-ttl-ms:600000}") long lockTtlMillis) {
+        this.userStatCounters = userStatCounters;
+        this.redisTemplate = redisTemplate;
+        this.lockTtlMillis = lockTtlMillis;
+    }
+
+    /**
+     * 取得锁后按sys_user校准计数，未取得锁时跳过
+     */
+    @Scheduled(cron = "${webapp.user-stats.reconcile-cron:0 17 * * * ?}")
+    public void reconcile() {
+        String owner = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(RECONCILE_LOCK_KEY, owner,
+                Duration.ofMillis(lockTtlMillis)))) {
+            log.debug("其他节点正在校准用户统计计数，跳过");
+            return;
+        }
+        try {
+            userStatCounters.reconcile();
+        } catch (Exception e) {
+            log.warn("用户统计计数校准失败: {}", e.getMessage());
+        } finally {
+            redisTemplate.execute(RELEASE_LOCK_SCRIPT, Collections.singletonList(RECONCILE_LOCK_KEY), owner);
+        }
+    }
+}
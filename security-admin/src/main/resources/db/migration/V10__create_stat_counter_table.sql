@@ -0,0 +1,16 @@
+-- 创建统计计数表
+-- 用户新增、删除、状态变更时在同一事务内增减，仪表盘直接读取，不再扫描sys_user
+CREATE TABLE IF NOT EXISTS sys_stat_counter (
+    counter_key VARCHAR(64) NOT NULL PRIMARY KEY COMMENT '计数项',
+    counter_value BIGINT NOT NULL DEFAULT 0 COMMENT '计数值',
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='统计计数表';
+
+INSERT IGNORE INTO sys_stat_counter (counter_key, counter_value)
+SELECT 'user_total', COUNT(*) FROM sys_user WHERE deleted = 0;
+
+INSERT IGNORE INTO sys_stat_counter (counter_key, counter_value)
+SELECT 'user_active', COUNT(*) FROM sys_user WHERE deleted = 0 AND status = 1;
+
+-- 最近新增用户按创建时间倒序取前N条
+CREATE INDEX idx_sys_user_create_time ON sys_user (create_time);
@@ -0,0 +1,9 @@
+-- 用户检索索引
+-- ngram全文索引支持任意位置的子串检索并按相关度排序，替代 LIKE '%关键字%' 的全表扫描
+-- 分词长度由服务端参数ngram_token_size决定（默认2），短于该长度的关键字只走前缀索引
+ALTER TABLE sys_user ADD FULLTEXT INDEX ft_sys_user_search (username, real_name, email, phone) WITH PARSER ngram;
+
+-- 前缀检索（LIKE '关键字%'）及按邮箱、手机号精确查询
+CREATE INDEX idx_sys_user_real_name ON sys_user (real_name);
+CREATE INDEX idx_sys_user_email ON sys_user (email);
+CREATE INDEX idx_sys_user_phone ON sys_user (phone);
@@ -0,0 +1,3 @@
+-- 令牌请求公平调度权重
+-- SSO按appId对/v1/oauth2/token、/v1/oauth2/introspect排队，繁忙时按权重轮转放行，权重越大分得的并发份额越多
+ALTER TABLE sys_client_credential ADD COLUMN schedule_weight INT NOT NULL DEFAULT 1 COMMENT '令牌请求调度权重' AFTER status;
@@ -0,0 +1,14 @@
+-- 令牌撤销权限
+-- SSO的批量加入黑名单、设置撤销水位线接口可一次使大量令牌失效，只允许持有该权限的用户调用
+INSERT INTO sys_permission (perm_code, perm_name, description, perm_type, parent_id, status, sort_order, create_by)
+VALUES ('TOKEN_REVOKE', '令牌撤销', '允许批量撤销令牌、设置用户/客户端撤销水位线', 2, NULL, 1, 90, 'system');
+
+SET @admin_role_id = (SELECT role_id FROM sys_role WHERE role_code = 'ADMIN');
+
+INSERT INTO sys_role_permission (role_id, permission_id, create_by)
+SELECT @admin_role_id, permission_id, 'system' FROM sys_permission WHERE perm_code = 'TOKEN_REVOKE';
+
+-- 管理员角色权限变化，递增RBAC版本号使各节点的权限缓存失效
+UPDATE sys_rbac_version SET version = version + 1 WHERE id = 1;
+INSERT INTO sys_rbac_change_log (version, change_type, target_id)
+SELECT version, 'ROLE', @admin_role_id FROM sys_rbac_version WHERE id = 1;
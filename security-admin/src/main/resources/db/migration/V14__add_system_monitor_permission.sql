@@ -0,0 +1,14 @@
+-- 系统监控权限
+-- SSO的密码哈希统计与BCrypt强度校准接口会暴露运行状态、占用哈希线程池，只允许持有该权限的用户调用
+INSERT INTO sys_permission (perm_code, perm_name, description, perm_type, parent_id, status, sort_order, create_by)
+VALUES ('SYSTEM_MONITOR', '系统监控', '允许查看SSO线程池、队列等运行统计并执行BCrypt强度校准', 2, NULL, 1, 91, 'system');
+
+SET @admin_role_id = (SELECT role_id FROM sys_role WHERE role_code = 'ADMIN');
+
+INSERT INTO sys_role_permission (role_id, permission_id, create_by)
+SELECT @admin_role_id, permission_id, 'system' FROM sys_permission WHERE perm_code = 'SYSTEM_MONITOR';
+
+-- 管理员角色权限变化，递增RBAC版本号使各节点的权限缓存失效
+UPDATE sys_rbac_version SET version = version + 1 WHERE id = 1;
+INSERT INTO sys_rbac_change_log (version, change_type, target_id)
+SELECT version, 'ROLE', @admin_role_id FROM sys_rbac_version WHERE id = 1;
@@ -0,0 +1,7 @@
+-- 统计计数拆分为多行
+-- 每个计数项分成若干槽位，增减时随机选择一个槽位，并发的用户写入不再在同一行上排队；
+-- 读取时按计数项求和。已有的计数值保留在0号槽位
+ALTER TABLE sys_stat_counter
+    ADD COLUMN slot INT NOT NULL DEFAULT 0 COMMENT '槽位' AFTER counter_key,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (counter_key, slot);
@@ -0,0 +1,9 @@
+-- 创建RBAC版本号表
+-- 角色分配、角色权限分配以及角色/权限状态变更、删除时递增，各节点据此失效本地的用户权限缓存
+CREATE TABLE IF NOT EXISTS sys_rbac_version (
+    id INT NOT NULL PRIMARY KEY COMMENT '主键，固定为1',
+    version BIGINT NOT NULL DEFAULT 0 COMMENT '版本号',
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='RBAC版本号表';
+
+INSERT IGNORE INTO sys_rbac_version (id, version) VALUES (1, 0);
@@ -0,0 +1,8 @@
+-- 创建RBAC变更日志表
+-- 每次递增sys_rbac_version时记录变更类型和对象ID，各节点按版本号区间读取，只失效受影响用户的权限缓存
+CREATE TABLE IF NOT EXISTS sys_rbac_change_log (
+    version BIGINT NOT NULL PRIMARY KEY COMMENT '变更后的RBAC版本号',
+    change_type VARCHAR(16) NOT NULL COMMENT '变更类型：USER_ROLE/ROLE/PERMISSION',
+    target_id BIGINT DEFAULT NULL COMMENT '变更对象ID（用户ID/角色ID/权限ID）',
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='RBAC变更日志表';
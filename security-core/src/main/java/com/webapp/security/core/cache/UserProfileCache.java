@@ -0,0 +1,123 @@
+package com.webapp.security.core.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.webapp.security.core.entity.SysUser;
+import com.webapp.security.core.mapper.SysUserMapper;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户资料快照缓存
+ * 按用户名缓存签发令牌、构建登录响应所需的用户资料（不含密码），
+ * 一次登录内令牌生成和响应构建共用同一份快照。
+ * 用户资料修改、状态变更、删除时由SysUserService失效；其他进程中的副本依赖TTL过期。
+ */
+@Component
+public class UserProfileCache {
+
+    private final SysUserMapper sysUserMapper;
+    private final Cache<String, UserProfile> profiles;
+
+    public UserProfileCache(SysUserMapper sysUserMapper,
+            @Value("${webapp.user-profile-cache.max-size:10000}") long maxSize,
+            @Value("${webapp.user-profile-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.sysUserMapper = sysUserMapper;
+        this.profiles = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 获取用户资料快照，未命中时查库并缓存
+     *
+     * @return 用户不存在时返回null
+     */
+    public UserProfile get(String username) {
+        if (username == null) {
+            return null;
+        }
+        UserProfile profile = profiles.getIfPresent(username);
+        if (profile != null) {
+            return profile;
+        }
+        return put(sysUserMapper.selectByUsername(username));
+    }
+
+    /**
+     * 用已查询到的用户刷新快照（如登录认证时已查过库）
+     */
+    public UserProfile put(SysUser user) {
+        if (user == null || user.getUsername() == null) {
+            return null;
+        }
+        UserProfile profile = UserProfile.of(user);
+        profiles.put(user.getUsername(), profile);
+        return profile;
+    }
+
+    /**
+     * 失效指定用户的快照
+     */
+    public void invalidate(String username) {
+        if (username != null) {
+            profiles.invalidate(username);
+        }
+    }
+
+    /**
+     * 清空全部快照
+     */
+    public void invalidateAll() {
+        profiles.invalidateAll();
+    }
+
+    /**
+     * 缓存统计信息
+     */
+    public Map<String, Object> getStats() {
+        CacheStats stats = profiles.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("size", profiles.size());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+
+    /**
+     * 用户资料快照（不可变）
+     */
+    @Getter
+    public static final class UserProfile {
+
+        private final Long userId;
+        private final String username;
+        private final String realName;
+        private final String email;
+        private final String phone;
+        private final Integer status;
+
+        private UserProfile(SysUser user) {
+            this.userId = user.getUserId();
+            this.username = user.getUsername();
+            this.realName = user.getRealName();
+            this.email = user.getEmail();
+            this.phone = user.getPhone();
+            this.status = user.getStatus();
+        }
+
+        public static UserProfile of(SysUser user) {
+            return new UserProfile(user);
+        }
+    }
+}
@@ -56,6 +56,13 @@ public class SysClientCredential {
     @TableField("status")
     private Integer status;
 
+    /**
+     * 令牌请求调度权重
+     * SSO繁忙时按权重为各appId分配令牌、自省接口的并发份额
+     */
+    @TableField("schedule_weight")
+    private Integer scheduleWeight;
+
     /**
      * 备注信息
      * 用于描述凭证的用途、归属等
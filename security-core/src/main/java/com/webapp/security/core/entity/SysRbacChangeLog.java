@@ -0,0 +1,56 @@
+package com.webapp.security.core.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * RBAC变更日志实体
+ * 每次递增RBAC版本号时记录一行，各节点据此只更新受影响的角色和用户
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@TableName("sys_rbac_change_log")
+public class SysRbacChangeLog {
+
+    /**
+     * 用户角色分配变更，targetId为用户ID
+     */
+    public static final String USER_ROLE = "USER_ROLE";
+
+    /**
+     * 角色权限分配、角色状态或角色本身变更，targetId为角色ID
+     */
+    public static final String ROLE = "ROLE";
+
+    /**
+     * 权限编码、状态变更或删除，targetId为权限ID
+     */
+    public static final String PERMISSION = "PERMISSION";
+
+    /**
+     * 变更后的RBAC版本号
+     */
+    @TableId(value = "version", type = IdType.INPUT)
+    private Long version;
+
+    /**
+     * 变更类型
+     */
+    @TableField("change_type")
+    private String changeType;
+
+    /**
+     * 变更对象ID
+     */
+    @TableField("target_id")
+    private Long targetId;
+
+    /**
+     * 创建时间
+     */
+    @TableField(value = "create_time", fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+}
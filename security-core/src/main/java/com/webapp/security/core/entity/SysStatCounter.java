@@ -0,0 +1,40 @@
+package com.webapp.security.core.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * 统计计数实体
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@TableName("sys_stat_counter")
+public class SysStatCounter {
+
+    /**
+     * 计数项
+     */
+    @TableId(value = "counter_key", type = IdType.INPUT)
+    private String counterKey;
+
+    /**
+     * 槽位，同一计数项的各槽位之和为计数值
+     */
+    @TableField("slot")
+    private Integer slot;
+
+    /**
+     * 计数值
+     */
+    @TableField("counter_value")
+    private Long counterValue;
+
+    /**
+     * 更新时间
+     */
+    @TableField("update_time")
+    private LocalDateTime updateTime;
+}
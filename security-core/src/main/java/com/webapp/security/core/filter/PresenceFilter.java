@@ -0,0 +1,54 @@
+package com.webapp.security.core.filter;
+
+import com.webapp.security.core.presence.PresenceTracker;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 在线状态过滤器
+ * 位于Spring Security过滤器链之后，已认证的请求记录一次用户活动。
+ * 客户端凭证模式的令牌主体是客户端（sub为clientId，与aud/azp相同），不计入在线用户，与签发时的规则一致
+ */
+@Component
+@RequiredArgsConstructor
+public class PresenceFilter implements Filter {
+
+    private final PresenceTracker presenceTracker;
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken) && !isClientToken(authentication)) {
+            presenceTracker.record(authentication.getName());
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static boolean isClientToken(Authentication authentication) {
+        if (!(authentication instanceof JwtAuthenticationToken)) {
+            return false;
+        }
+        Jwt jwt = ((JwtAuthenticationToken) authentication).getToken();
+        String subject = jwt.getSubject();
+        if (subject == null) {
+            return false;
+        }
+        List<String> audience = jwt.getAudience();
+        return subject.equals(jwt.getClaimAsString("azp")) || audience != null && audience.contains(subject);
+    }
+}
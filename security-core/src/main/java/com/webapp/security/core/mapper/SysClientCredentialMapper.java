@@ -1,14 +1,27 @@
 package com.webapp.security.core.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.webapp.security.core.entity.SysClientCredential;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
 @Mapper
 public interface SysClientCredentialMapper extends BaseMapper<SysClientCredential> {
 
     @Select("SELECT * FROM sys_client_credential WHERE app_id = #{appId} LIMIT 1")
     SysClientCredential findByAppId(@Param("appId") String appId);
-}
\ No newline at end of file
+
+    /**
+     * 按条件流式查询（服务端游标逐行读取，内存占用与结果集大小无关）
+     * 返回的游标需在事务内消费
+     */
+    @Select("SELECT * FROM sys_client_credential ${ew.customSqlSegment}")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<SysClientCredential> selectCursor(@Param(Constants.WRAPPER) Wrapper<SysClientCredential> wrapper);
+}
@@ -1,9 +1,15 @@
 package com.webapp.security.core.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.webapp.security.core.entity.SysPermission;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 import java.util.List;
 
 /**
@@ -58,4 +64,12 @@ public interface SysPermissionMapper extends BaseMapper<SysPermission> {
          * @return 权限列表
          */
         List<SysPermission> selectByUserId(@Param("userId") Long userId);
+
+        /**
+         * 按条件流式查询（服务端游标逐行读取，内存占用与结果集大小无关）
+         * 返回的游标需在事务内消费
+         */
+        @Select("SELECT * FROM sys_permission ${ew.customSqlSegment}")
+        @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+        Cursor<SysPermission> selectCursor(@Param(Constants.WRAPPER) Wrapper<SysPermission> wrapper);
 }
@@ -0,0 +1,29 @@
+package com.webapp.security.core.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.webapp.security.core.entity.SysRbacChangeLog;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * RBAC变更日志Mapper
+ */
+@Mapper
+public interface SysRbacChangeLogMapper extends BaseMapper<SysRbacChangeLog> {
+
+    /**
+     * 查询 (fromVersion, toVersion] 区间内的变更，按版本号升序
+     */
+    @Select("SELECT * FROM sys_rbac_change_log WHERE version > #{fromVersion} AND version <= #{toVersion} ORDER BY version")
+    List<SysRbacChangeLog> selectBetween(@Param("fromVersion") long fromVersion, @Param("toVersion") long toVersion);
+
+    /**
+     * 删除早于指定版本号的变更
+     */
+    @Delete("DELETE FROM sys_rbac_change_log WHERE version < #{version}")
+    int deleteBefore(@Param("version") long version);
+}
@@ -0,0 +1,25 @@
+package com.webapp.security.core.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * RBAC版本号Mapper
+ * sys_rbac_version只有一行，角色/权限分配变化时递增
+ */
+@Mapper
+public interface SysRbacVersionMapper {
+
+    /**
+     * 查询当前版本号
+     */
+    @Select("SELECT version FROM sys_rbac_version WHERE id = 1")
+    Long selectVersion();
+
+    /**
+     * 版本号加一
+     */
+    @Update("UPDATE sys_rbac_version SET version = version + 1, update_time = NOW() WHERE id = 1")
+    int increment();
+}
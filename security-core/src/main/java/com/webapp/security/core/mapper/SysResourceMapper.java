@@ -1,12 +1,26 @@
 package com.webapp.security.core.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.webapp.security.core.entity.SysResource;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
 @Mapper
 public interface SysResourceMapper extends BaseMapper<SysResource> {
 
     Long matchResource(@Param("path") String path, @Param("method") String method);
-}
\ No newline at end of file
+
+    /**
+     * 按条件流式查询（服务端游标逐行读取，内存占用与结果集大小无关）
+     * 返回的游标需在事务内消费
+     */
+    @Select("SELECT * FROM sys_resource ${ew.customSqlSegment}")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<SysResource> selectCursor(@Param(Constants.WRAPPER) Wrapper<SysResource> wrapper);
+}
@@ -1,10 +1,16 @@
 package com.webapp.security.core.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.webapp.security.core.entity.SysPermission;
 import com.webapp.security.core.entity.SysRole;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 import java.util.List;
 
 /**
@@ -44,4 +50,12 @@ public interface SysRoleMapper extends BaseMapper<SysRole> {
          * @return 角色列表
          */
         List<SysRole> selectRolesByUserId(@Param("userId") Long userId);
+
+        /**
+         * 按条件流式查询（服务端游标逐行读取，内存占用与结果集大小无关）
+         * 返回的游标需在事务内消费
+         */
+        @Select("SELECT * FROM sys_role ${ew.customSqlSegment}")
+        @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+        Cursor<SysRole> selectCursor(@Param(Constants.WRAPPER) Wrapper<SysRole> wrapper);
 }
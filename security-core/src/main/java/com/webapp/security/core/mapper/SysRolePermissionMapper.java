@@ -29,6 +29,17 @@ public interface SysRolePermissionMapper extends BaseMapper<SysRolePermission> {
      */
     int deleteByPermissionId(Long permissionId);
 
+    /**
+     * 删除角色的指定权限关联
+     * 每次最多处理1000条数据，超过需要分批处理
+     * 
+     * @param roleId        角色ID
+     * @param permissionIds 权限ID列表
+     * @return 影响行数
+     */
+    int deleteByRoleIdAndPermissionIds(@Param("roleId") Long roleId,
+            @Param("permissionIds") List<Long> permissionIds);
+
     /**
      * 批量插入角色权限关联
      * 每次最多处理1000条数据，超过需要分批处理
@@ -0,0 +1,48 @@
+package com.webapp.security.core.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.webapp.security.core.entity.SysStatCounter;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+/**
+ * 统计计数Mapper
+ */
+@Mapper
+public interface SysStatCounterMapper extends BaseMapper<SysStatCounter> {
+
+    /**
+     * 计数增减，槽位不存在时创建
+     */
+    @Update("INSERT INTO sys_stat_counter (counter_key, slot, counter_value) VALUES (#{key}, #{slot}, #{delta}) "
+            + "ON DUPLICATE KEY UPDATE counter_value = counter_value + #{delta}")
+    int increment(@Param("key") String key, @Param("slot") int slot, @Param("delta") long delta);
+
+    /**
+     * 各计数项的计数值（各槽位之和）
+     */
+    @Select("SELECT counter_key, SUM(counter_value) AS counter_value FROM sys_stat_counter GROUP BY counter_key")
+    List<SysStatCounter> selectTotals();
+
+    /**
+     * 单个计数项的计数值（各槽位之和）
+     */
+    @Select("SELECT COALESCE(SUM(counter_value), 0) FROM sys_stat_counter WHERE counter_key = #{key}")
+    long sumByKey(@Param("key") String key);
+
+    /**
+     * 按sys_user统计用户总数
+     */
+    @Select("SELECT COUNT(*) FROM sys_user WHERE deleted = 0")
+    long countUsers();
+
+    /**
+     * 按sys_user统计启用用户数
+     */
+    @Select("SELECT COUNT(*) FROM sys_user WHERE deleted = 0 AND status = 1")
+    long countActiveUsers();
+}
@@ -1,9 +1,16 @@
 package com.webapp.security.core.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.webapp.security.core.entity.SysUser;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -51,4 +58,83 @@ public interface SysUserMapper extends BaseMapper<SysUser> {
          * @return 角色编码列表
          */
         List<String> selectUserRoles(@Param("userId") Long userId);
+
+        /**
+         * 查询已被占用的用户名
+         * 每次最多处理1000条数据，超过需要分批处理
+         *
+         * @param usernames 用户名列表
+         * @return 已存在的用户名
+         */
+        List<String> selectExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+        /**
+         * 查询已被占用的邮箱
+         * 每次最多处理1000条数据，超过需要分批处理
+         *
+         * @param emails 邮箱列表
+         * @return 已存在的邮箱
+         */
+        List<String> selectExistingEmails(@Param("emails") Collection<String> emails);
+
+        /**
+         * 查询已被占用的手机号
+         * 每次最多处理1000条数据，超过需要分批处理
+         *
+         * @param phones 手机号列表
+         * @return 已存在的手机号
+         */
+        List<String> selectExistingPhones(@Param("phones") Collection<String> phones);
+
+        /**
+         * 密码未被修改时替换为新的哈希（登录时按新参数重新哈希）
+         *
+         * @param username    用户名
+         * @param oldPassword 原密码哈希
+         * @param newPassword 新密码哈希
+         * @return 影响行数，期间密码已被修改时为0
+         */
+        int updatePasswordIfUnchanged(@Param("username") String username, @Param("oldPassword") String oldPassword,
+                        @Param("newPassword") String newPassword);
+
+        /**
+         * 批量插入用户（多行INSERT），插入后回填userId
+         * 每次最多处理1000条数据，超过需要分批处理
+         *
+         * @param users 用户列表
+         * @return 影响行数
+         */
+        int batchInsert(@Param("list") List<SysUser> users);
+
+        /**
+         * 按条件流式查询（服务端游标逐行读取，内存占用与结果集大小无关）
+         * 返回的游标需在事务内消费
+         */
+        @Select("SELECT * FROM sys_user ${ew.customSqlSegment}")
+        @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+        Cursor<SysUser> selectCursor(@Param(Constants.WRAPPER) Wrapper<SysUser> wrapper);
+
+        /**
+         * 前缀检索（各列分别走索引后合并）
+         *
+         * @param prefix 已转义并以%结尾的前缀
+         * @param limit  每列最多返回的条数
+         */
+        @Select("(SELECT * FROM sys_user WHERE deleted = 0 AND username LIKE #{prefix} LIMIT #{limit}) UNION"
+                        + " (SELECT * FROM sys_user WHERE deleted = 0 AND real_name LIKE #{prefix} LIMIT #{limit}) UNION"
+                        + " (SELECT * FROM sys_user WHERE deleted = 0 AND email LIKE #{prefix} LIMIT #{limit}) UNION"
+                        + " (SELECT * FROM sys_user WHERE deleted = 0 AND phone LIKE #{prefix} LIMIT #{limit})")
+        List<SysUser> selectByPrefix(@Param("prefix") String prefix, @Param("limit") int limit);
+
+        /**
+         * 全文检索（ngram索引），按相关度降序
+         *
+         * @param query BOOLEAN MODE查询串
+         * @param limit 最多返回的条数
+         */
+        @Select("SELECT * FROM sys_user WHERE deleted = 0"
+                        + " AND MATCH(username, real_name, email, phone) AGAINST(#{query} IN BOOLEAN MODE)"
+                        + " ORDER BY MATCH(username, real_name, email, phone) AGAINST(#{query} IN BOOLEAN MODE) DESC"
+                        + " LIMIT #{limit}")
+        List<SysUser> selectByFulltext(@Param("query") String query, @Param("limit") int limit);
 }
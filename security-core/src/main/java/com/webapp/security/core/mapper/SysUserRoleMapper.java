@@ -29,6 +29,16 @@ public interface SysUserRoleMapper extends BaseMapper<SysUserRole> {
      */
     int deleteByRoleId(Long roleId);
 
+    /**
+     * 删除用户的指定角色关联
+     * 每次最多处理1000条数据，超过需要分批处理
+     * 
+     * @param userId  用户ID
+     * @param roleIds 角色ID列表
+     * @return 影响行数
+     */
+    int deleteByUserIdAndRoleIds(@Param("userId") Long userId, @Param("roleIds") List<Long> roleIds);
+
     /**
      * 批量插入用户角色关联
      * 每次最多处理1000条数据，超过需要分批处理
@@ -46,6 +56,14 @@ public interface SysUserRoleMapper extends BaseMapper<SysUserRole> {
      */
     List<Long> selectRoleIdsByUserId(@Param("userId") Long userId);
 
+    /**
+     * 查询启用且未删除用户的角色ID列表，用户禁用或已删除时返回空列表
+     *
+     * @param userId 用户ID
+     * @return 角色ID列表
+     */
+    List<Long> selectActiveUserRoleIds(@Param("userId") Long userId);
+
     /**
      * 根据角色ID查询用户ID列表
      * 
@@ -0,0 +1,34 @@
+package com.webapp.security.core.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 游标（keyset）分页查询参数
+ * 以上一页最后一条记录的主键作为游标，按主键升序翻页，深分页与第一页成本相同
+ */
+@Getter
+@Setter
+public class CursorPagedDTO {
+
+    /**
+     * 单页最大条数
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * 上一页返回的nextCursor，第一页为空
+     */
+    private Long cursor;
+
+    private int pageSize = 10;
+
+    private String keyword;
+
+    /**
+     * 限制在 [1, MAX_PAGE_SIZE] 内的单页条数
+     */
+    public int limit() {
+        return Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE);
+    }
+}
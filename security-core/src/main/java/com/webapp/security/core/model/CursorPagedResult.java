@@ -0,0 +1,42 @@
+package com.webapp.security.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标（keyset）分页结果
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class CursorPagedResult<T> {
+
+    private List<T> list;
+
+    /**
+     * 下一页的游标，没有更多数据时为空
+     */
+    private Long nextCursor;
+
+    private boolean hasMore;
+
+    /**
+     * 由多查询一条（limit + 1）的结果构建分页结果
+     *
+     * @param rows      按主键升序、最多limit + 1条的查询结果
+     * @param limit     单页条数
+     * @param idGetter  主键
+     * @param converter 实体列表转换为VO列表
+     */
+    public static <E, T> CursorPagedResult<T> of(List<E> rows, int limit, Function<E, Long> idGetter,
+            Function<List<E>, List<T>> converter) {
+        boolean hasMore = rows.size() > limit;
+        List<E> page = hasMore ? rows.subList(0, limit) : rows;
+        Long nextCursor = hasMore ? idGetter.apply(page.get(page.size() - 1)) : null;
+        return new CursorPagedResult<>(converter.apply(page), nextCursor, hasMore);
+    }
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -85,4 +86,30 @@ public class OAuth2ErrorResponse implements Serializable {
                 .build();
         return ResponseEntity.status(status).body(error);
     }
+
+    /**
+     * 创建服务繁忙响应（503，带Retry-After）
+     */
+    public static ResponseEntity<OAuth2ErrorResponse> unavailable(String description, long retryAfterSeconds) {
+        return retryLater(HttpStatus.SERVICE_UNAVAILABLE, TEMPORARILY_UNAVAILABLE, description, retryAfterSeconds);
+    }
+
+    /**
+     * 创建请求过多响应（429，带Retry-After）
+     */
+    public static ResponseEntity<OAuth2ErrorResponse> tooManyRequests(String description, long retryAfterSeconds) {
+        return retryLater(HttpStatus.TOO_MANY_REQUESTS, ACCESS_DENIED, description, retryAfterSeconds);
+    }
+
+    private static ResponseEntity<OAuth2ErrorResponse> retryLater(HttpStatus status, String errorCode,
+            String description, long retryAfterSeconds) {
+        OAuth2ErrorResponse error = OAuth2ErrorResponse.builder()
+                .error(errorCode)
+                .error_description(description)
+                .success(false)
+                .build();
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(error);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.webapp.security.core.presence;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内的在线状态存储（单节点及测试使用）
+ * 日活使用精确集合，只保留最近若干天
+ */
+@Component
+@ConditionalOnProperty(name = "webapp.presence.store", havingValue = "memory")
+public class InMemoryPresenceStore implements PresenceStore {
+
+    private final Map<String, Long> lastSeen = new ConcurrentHashMap<>();
+    private final Map<LocalDate, Set<String>> daily = new ConcurrentHashMap<>();
+    private final int retentionDays;
+
+    public InMemoryPresenceStore(@Value("${webapp.presence.daily-retention-days:35}") int retentionDays) {
+        this.retentionDays = retentionDays;
+    }
+
+    @Override
+    public void touch(String principal, long timestampMillis, LocalDate day) {
+        lastSeen.merge(principal, timestampMillis, Math::max);
+        daily.computeIfAbsent(day, d -> ConcurrentHashMap.newKeySet()).add(principal);
+    }
+
+    @Override
+    public long countActiveSince(long sinceMillis) {
+        return lastSeen.values().stream().filter(seen -> seen >= sinceMillis).count();
+    }
+
+    @Override
+    public long countDistinct(LocalDate from, LocalDate to) {
+        Set<String> merged = new HashSet<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            Set<String> principals = daily.get(day);
+            if (principals != null) {
+                merged.addAll(principals);
+            }
+        }
+        return merged.size();
+    }
+
+    @Override
+    public void trimBefore(long beforeMillis) {
+        lastSeen.values().removeIf(seen -> seen < beforeMillis);
+        LocalDate oldest = LocalDate.now().minusDays(retentionDays);
+        daily.keySet().removeIf(day -> day.isBefore(oldest));
+    }
+}
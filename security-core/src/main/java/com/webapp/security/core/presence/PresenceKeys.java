@@ -0,0 +1,33 @@
+package com.webapp.security.core.presence;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 在线状态相关的Redis键
+ * 授权服务和资源服务都会写入，两端必须保持一致
+ */
+public final class PresenceKeys {
+
+    /**
+     * 最近活跃时间：member为用户名，score为最近一次活动的时间戳（毫秒），只保留统计窗口内的用户
+     */
+    public static final String LAST_SEEN_KEY = "presence:last-seen";
+
+    /**
+     * 日活HyperLogLog前缀：presence:dau:{yyyyMMdd}
+     */
+    public static final String DAILY_PREFIX = "presence:dau:";
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private PresenceKeys() {
+    }
+
+    /**
+     * 指定日期的日活键
+     */
+    public static String daily(LocalDate day) {
+        return DAILY_PREFIX + day.format(DAY_FORMAT);
+    }
+}
@@ -0,0 +1,35 @@
+package com.webapp.security.core.presence;
+
+import java.time.LocalDate;
+
+/**
+ * 在线状态存储
+ * 最近活跃时间只保留统计窗口内的用户，按日去重使用固定大小的基数估计（或精确集合），
+ * 存储占用与用户总数无关
+ */
+public interface PresenceStore {
+
+    /**
+     * 记录一次活动
+     *
+     * @param principal       用户名
+     * @param timestampMillis 活动时间
+     * @param day             活动所在日期
+     */
+    void touch(String principal, long timestampMillis, LocalDate day);
+
+    /**
+     * 指定时间之后活跃过的用户数
+     */
+    long countActiveSince(long sinceMillis);
+
+    /**
+     * [from, to] 日期区间内活跃过的去重用户数
+     */
+    long countDistinct(LocalDate from, LocalDate to);
+
+    /**
+     * 移除指定时间之前的最近活跃记录
+     */
+    void trimBefore(long beforeMillis);
+}
@@ -0,0 +1,170 @@
+package com.webapp.security.core.presence;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 在线用户统计
+ * 令牌签发和已认证请求时记录用户活动，同一用户在记录间隔内只写一次存储；
+ * 在线数、5/15/60分钟活跃数、日活/月活由存储直接计数，并在本地缓存一小段时间，
+ * 仪表盘读取的成本与用户总数无关。
+ */
+@Slf4j
+@Component
+public class PresenceTracker {
+
+    /**
+     * 最长统计窗口（分钟），更早的最近活跃记录会被清理
+     */
+    private static final int MAX_WINDOW_MINUTES = 60;
+
+    private final PresenceStore store;
+    private final Cache<String, Boolean> recentlyRecorded;
+    private final long onlineWindowMillis;
+    private final long snapshotTtlMillis;
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    public PresenceTracker(PresenceStore store,
+            @Value("${webapp.presence.record-interval-seconds:30}") long recordIntervalSeconds,
+            @Value("${webapp.presence.max-tracked:100000}") long maxTracked,
+            @Value("${webapp.presence.online-window-minutes:5}") long onlineWindowMinutes,
+            @Value("${webapp.presence.snapshot-ttl-ms:5000}") long snapshotTtlMillis) {
+        this.store = store;
+        this.recentlyRecorded = CacheBuilder.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterWrite(recordIntervalSeconds, TimeUnit.SECONDS)
+                .build();
+        this.onlineWindowMillis = TimeUnit.MINUTES.toMillis(Math.min(onlineWindowMinutes, MAX_WINDOW_MINUTES));
+        this.snapshotTtlMillis = snapshotTtlMillis;
+    }
+
+    /**
+     * 记录用户活动
+     */
+    public void record(String principal) {
+        if (principal == null || principal.isEmpty()) {
+            return;
+        }
+        if (recentlyRecorded.asMap().putIfAbsent(principal, Boolean.TRUE) != null) {
+            throttled.incrementAndGet();
+            return;
+        }
+        try {
+            store.touch(principal, System.currentTimeMillis(), LocalDate.now());
+            recorded.incrementAndGet();
+        } catch (Exception e) {
+            // 统计失败不影响请求
+            recentlyRecorded.invalidate(principal);
+            log.debug("记录用户活动失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 当前在线统计
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        long now = System.currentTimeMillis();
+        if (current != null && now - current.computedAt < snapshotTtlMillis) {
+            return current;
+        }
+        LocalDate today = LocalDate.now();
+        current = new Snapshot(now,
+                store.countActiveSince(now - onlineWindowMillis),
+                store.countActiveSince(now - TimeUnit.MINUTES.toMillis(5)),
+                store.countActiveSince(now - TimeUnit.MINUTES.toMillis(15)),
+                store.countActiveSince(now - TimeUnit.MINUTES.toMillis(MAX_WINDOW_MINUTES)),
+                store.countDistinct(today, today),
+                store.countDistinct(today.minusDays(29), today));
+        snapshot = current;
+        return current;
+    }
+
+    /**
+     * 清理统计窗口之外的最近活跃记录
+     */
+    @Scheduled(fixedDelayString = "${webapp.presence.trim-interval-ms:60000}")
+    public void trim() {
+        try {
+            store.trimBefore(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(MAX_WINDOW_MINUTES));
+        } catch (Exception e) {
+            log.warn("清理在线状态失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 记录统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("store", store.getClass().getSimpleName());
+        result.put("recorded", recorded.get());
+        result.put("throttled", throttled.get());
+        result.put("tracked", recentlyRecorded.size());
+        return result;
+    }
+
+    /**
+     * 在线统计快照
+     */
+    @Getter
+    public static final class Snapshot {
+
+        private final long computedAt;
+
+        /**
+         * 在线用户数（在线窗口内有活动）
+         */
+        private final long online;
+
+        /**
+         * 最近5分钟活跃用户数
+         */
+        private final long active5m;
+
+        /**
+         * 最近15分钟活跃用户数
+         */
+        private final long active15m;
+
+        /**
+         * 最近60分钟活跃用户数
+         */
+        private final long active60m;
+
+        /**
+         * 今日活跃用户数
+         */
+        private final long dau;
+
+        /**
+         * 最近30天活跃用户数
+         */
+        private final long mau;
+
+        private Snapshot(long computedAt, long online, long active5m, long active15m, long active60m,
+                long dau, long mau) {
+            this.computedAt = computedAt;
+            this.online = online;
+            this.active5m = active5m;
+            this.active15m = active15m;
+            this.active60m = active60m;
+            this.dau = dau;
+            this.mau = mau;
+        }
+    }
+}
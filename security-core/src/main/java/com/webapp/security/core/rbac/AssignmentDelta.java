@@ -0,0 +1,80 @@
+package com.webapp.security.core.rbac;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 关联分配差异
+ * 用户角色分配或角色权限分配时，与现有关联对比得出需要新增和删除的ID，
+ * 只对差异部分执行DELETE/INSERT，并据此精确失效受影响的缓存。
+ */
+@Getter
+public final class AssignmentDelta {
+
+    /**
+     * 被分配的对象ID（用户ID或角色ID）
+     */
+    private final Long ownerId;
+
+    /**
+     * 需要新增的关联ID
+     */
+    private final List<Long> added;
+
+    /**
+     * 需要删除的关联ID
+     */
+    private final List<Long> removed;
+
+    private AssignmentDelta(Long ownerId, List<Long> added, List<Long> removed) {
+        this.ownerId = ownerId;
+        this.added = Collections.unmodifiableList(added);
+        this.removed = Collections.unmodifiableList(removed);
+    }
+
+    /**
+     * 计算现有关联与目标关联之间的差异（忽略null和重复ID）
+     */
+    public static AssignmentDelta of(Long ownerId, Collection<Long> current, Collection<Long> target) {
+        Set<Long> currentIds = toSet(current);
+        Set<Long> targetIds = toSet(target);
+        List<Long> added = new ArrayList<>();
+        for (Long id : targetIds) {
+            if (!currentIds.contains(id)) {
+                added.add(id);
+            }
+        }
+        List<Long> removed = new ArrayList<>();
+        for (Long id : currentIds) {
+            if (!targetIds.contains(id)) {
+                removed.add(id);
+            }
+        }
+        return new AssignmentDelta(ownerId, added, removed);
+    }
+
+    /**
+     * 没有任何变化
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+
+    private static Set<Long> toSet(Collection<Long> ids) {
+        Set<Long> set = new LinkedHashSet<>();
+        if (ids != null) {
+            for (Long id : ids) {
+                if (id != null) {
+                    set.add(id);
+                }
+            }
+        }
+        return set;
+    }
+}
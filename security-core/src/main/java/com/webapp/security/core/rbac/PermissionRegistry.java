@@ -0,0 +1,240 @@
+package com.webapp.security.core.rbac;
+
+import com.webapp.security.core.entity.SysPermission;
+import com.webapp.security.core.mapper.SysPermissionMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 权限注册表
+ * 将每个sys_permission映射到一个固定的位下标（即permission_id），
+ * 使令牌可以用一个位图承载任意数量的权限编码，令牌大小和解析成本不随权限数量增长。
+ * 注册表带版本号（由全部 id=code 映射计算得出），签发端和校验端版本不一致时需要重新加载。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PermissionRegistry {
+
+    /**
+     * 令牌中的权限位图声明
+     */
+    public static final String BITS_CLAIM = "perm_bits";
+
+    /**
+     * 令牌中的注册表版本声明
+     */
+    public static final String VERSION_CLAIM = "perm_ver";
+
+    /**
+     * 两次按需重新加载之间的最小间隔，避免未知版本的令牌频繁触发查库
+     */
+    private static final long MIN_RELOAD_INTERVAL_MILLIS = 10_000L;
+
+    private final SysPermissionMapper permissionMapper;
+
+    private volatile Snapshot snapshot;
+    private volatile long lastReloadMillis;
+
+    /**
+     * 获取当前注册表快照，首次使用时加载
+     */
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = reload();
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 从数据库重新加载注册表
+     */
+    public synchronized Snapshot reload() {
+        List<SysPermission> permissions = permissionMapper.selectList(null);
+        Snapshot loaded = Snapshot.of(permissions);
+        this.snapshot = loaded;
+        this.lastReloadMillis = System.currentTimeMillis();
+        log.info("Permission registry loaded, version: {}, permissions: {}", loaded.getVersion(), loaded.size());
+        return loaded;
+    }
+
+    /**
+     * 标记注册表已过期，下次使用时重新加载
+     */
+    public void invalidate() {
+        this.snapshot = null;
+    }
+
+    /**
+     * 按需重新加载（限频），用于遇到未知版本或未知权限编码时
+     */
+    public Snapshot reloadIfStale() {
+        if (System.currentTimeMillis() - lastReloadMillis < MIN_RELOAD_INTERVAL_MILLIS) {
+            return current();
+        }
+        return reload();
+    }
+
+    /**
+     * 将权限编码编码为位图，注册表中不存在的编码原样放入未编码列表
+     */
+    public Encoded encode(Collection<String> authorities) {
+        Snapshot current = current();
+        if (!current.containsAll(authorities)) {
+            current = reloadIfStale();
+        }
+        return current.encode(authorities);
+    }
+
+    /**
+     * 将令牌中的位图还原为权限编码
+     * 版本不一致时先尝试重新加载；位下标即permission_id，不会被复用，因此仍可按当前注册表解码
+     */
+    public List<String> decode(String bits, String version) {
+        Snapshot current = current();
+        if (version != null && !version.equals(current.getVersion())) {
+            current = reloadIfStale();
+            if (!version.equals(current.getVersion())) {
+                log.debug("Permission registry version mismatch, token: {}, local: {}", version,
+                        current.getVersion());
+            }
+        }
+        return current.decode(bits);
+    }
+
+    /**
+     * 位图编码结果
+     */
+    public static final class Encoded {
+        private final String bits;
+        private final String version;
+        private final List<String> unregistered;
+
+        private Encoded(String bits, String version, List<String> unregistered) {
+            this.bits = bits;
+            this.version = version;
+            this.unregistered = unregistered;
+        }
+
+        /**
+         * base64url编码的权限位图
+         */
+        public String getBits() {
+            return bits;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        /**
+         * 注册表中不存在、需要以字符串形式保留的权限
+         */
+        public List<String> getUnregistered() {
+            return unregistered;
+        }
+    }
+
+    /**
+     * 注册表不可变快照
+     */
+    public static final class Snapshot {
+        private final String version;
+        private final Map<String, Integer> bitByCode;
+        private final String[] codeByBit;
+
+        private Snapshot(String version, Map<String, Integer> bitByCode, String[] codeByBit) {
+            this.version = version;
+            this.bitByCode = bitByCode;
+            this.codeByBit = codeByBit;
+        }
+
+        static Snapshot of(List<SysPermission> permissions) {
+            List<SysPermission> sorted = new ArrayList<>();
+            for (SysPermission permission : permissions) {
+                if (permission.getPermissionId() != null && permission.getPermCode() != null) {
+                    sorted.add(permission);
+                }
+            }
+            sorted.sort(Comparator.comparing(SysPermission::getPermissionId));
+
+            CRC32 crc = new CRC32();
+            Map<String, Integer> bitByCode = new HashMap<>(sorted.size() * 2);
+            int maxBit = sorted.isEmpty() ? -1 : sorted.get(sorted.size() - 1).getPermissionId().intValue();
+            String[] codeByBit = new String[maxBit + 1];
+            for (SysPermission permission : sorted) {
+                int bit = permission.getPermissionId().intValue();
+                bitByCode.put(permission.getPermCode(), bit);
+                codeByBit[bit] = permission.getPermCode();
+                crc.update((bit + "=" + permission.getPermCode() + ";").getBytes(StandardCharsets.UTF_8));
+            }
+            String version = Long.toHexString(crc.getValue()) + "-" + sorted.size();
+            return new Snapshot(version, Collections.unmodifiableMap(bitByCode), codeByBit);
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public int size() {
+            return bitByCode.size();
+        }
+
+        boolean containsAll(Collection<String> authorities) {
+            for (String authority : authorities) {
+                if (!bitByCode.containsKey(authority)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Encoded encode(Collection<String> authorities) {
+            BitSet bitSet = new BitSet(codeByBit.length);
+            List<String> unregistered = new ArrayList<>();
+            for (String authority : authorities) {
+                Integer bit = bitByCode.get(authority);
+                if (bit != null) {
+                    bitSet.set(bit);
+                } else {
+                    unregistered.add(authority);
+                }
+            }
+            String bits = Base64.getUrlEncoder().withoutPadding().encodeToString(bitSet.toByteArray());
+            return new Encoded(bits, version, unregistered);
+        }
+
+        List<String> decode(String bits) {
+            if (bits == null || bits.isEmpty()) {
+                return Collections.emptyList();
+            }
+            BitSet bitSet = BitSet.valueOf(Base64.getUrlDecoder().decode(bits));
+            List<String> authorities = new ArrayList<>(bitSet.cardinality());
+            for (int bit = bitSet.nextSetBit(0); bit >= 0; bit = bitSet.nextSetBit(bit + 1)) {
+                if (bit < codeByBit.length && codeByBit[bit] != null) {
+                    authorities.add(codeByBit[bit]);
+                }
+            }
+            return authorities;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.webapp.security.core.rbac;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RBAC变更传播
+ * 维护本节点已缓存用户的 角色 -> 用户 反向索引，角色或用户的分配发生变化时，
+ * 只通知持有该角色的已缓存用户的权限缓存失效，不做全局清空。
+ * 成员数超过阈值的角色使用fork-join并行处理。
+ */
+@Slf4j
+@Component
+public class RbacChangePropagator {
+
+    /**
+     * 用户级缓存的失效回调
+     */
+    public interface Listener {
+
+        /**
+         * 失效指定用户
+         */
+        void invalidate(long userId);
+
+        /**
+         * 失效全部用户（无法确定影响范围时）
+         */
+        void invalidateAll();
+    }
+
+    private final Map<Long, Set<Long>> usersByRole = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final int parallelThreshold;
+    private final AtomicLong propagatedUsers = new AtomicLong();
+    private final AtomicLong fullInvalidations = new AtomicLong();
+
+    public RbacChangePropagator(@Value("${webapp.rbac-model.parallel-threshold:10000}") int parallelThreshold) {
+        this.parallelThreshold = Math.max(parallelThreshold, 1);
+    }
+
+    /**
+     * 注册用户级缓存的失效回调
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 记录已缓存用户持有的角色
+     * 增删成员都在该角色的compute内完成，与untrack移除空集合互斥，新加入的成员不会随空集合一起被丢弃
+     */
+    public void track(long userId, long[] roleIds) {
+        for (long roleId : roleIds) {
+            usersByRole.compute(roleId, (id, members) -> {
+                Set<Long> updated = members != null ? members : ConcurrentHashMap.newKeySet();
+                updated.add(userId);
+                return updated;
+            });
+        }
+    }
+
+    /**
+     * 用户缓存被移除时同步移除索引，角色没有成员时移除该角色
+     */
+    public void untrack(long userId, long[] roleIds) {
+        for (long roleId : roleIds) {
+            usersByRole.computeIfPresent(roleId, (id, members) -> {
+                members.remove(userId);
+                return members.isEmpty() ? null : members;
+            });
+        }
+    }
+
+    /**
+     * 用户的角色分配发生变化
+     */
+    public void propagateUser(long userId) {
+        for (Listener listener : listeners) {
+            listener.invalidate(userId);
+        }
+        propagatedUsers.incrementAndGet();
+    }
+
+    /**
+     * 角色的权限、状态发生变化，失效持有这些角色的已缓存用户
+     *
+     * @return 受影响的用户数
+     */
+    public int propagateRoles(Collection<Long> roleIds) {
+        Set<Long> affected = new HashSet<>();
+        for (Long roleId : roleIds) {
+            Set<Long> members = usersByRole.get(roleId);
+            if (members != null) {
+                affected.addAll(members);
+            }
+        }
+        if (affected.isEmpty()) {
+            return 0;
+        }
+        long[] userIds = affected.stream().mapToLong(Long::longValue).toArray();
+        long start = System.nanoTime();
+        if (userIds.length >= parallelThreshold) {
+            ForkJoinPool.commonPool().invoke(new InvalidateTask(userIds, 0, userIds.length));
+        } else {
+            invalidateRange(userIds, 0, userIds.length);
+        }
+        propagatedUsers.addAndGet(userIds.length);
+        log.debug("RBAC change propagated, roles: {}, users: {}, cost: {}ms", roleIds, userIds.length,
+                (System.nanoTime() - start) / 1_000_000);
+        return userIds.length;
+    }
+
+    /**
+     * 无法确定影响范围（如落后的变更日志已被清理），失效全部用户
+     */
+    public void propagateAll() {
+        for (Listener listener : listeners) {
+            listener.invalidateAll();
+        }
+        fullInvalidations.incrementAndGet();
+    }
+
+    /**
+     * 传播统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("indexedRoles", usersByRole.size());
+        result.put("propagatedUsers", propagatedUsers.get());
+        result.put("fullInvalidations", fullInvalidations.get());
+        result.put("parallelThreshold", parallelThreshold);
+        return result;
+    }
+
+    private void invalidateRange(long[] userIds, int from, int to) {
+        for (int i = from; i < to; i++) {
+            for (Listener listener : listeners) {
+                listener.invalidate(userIds[i]);
+            }
+        }
+    }
+
+    /**
+     * 按区间二分的并行失效任务
+     */
+    private final class InvalidateTask extends RecursiveAction {
+
+        private static final int LEAF_SIZE = 2048;
+
+        private final long[] userIds;
+        private final int from;
+        private final int to;
+
+        InvalidateTask(long[] userIds, int from, int to) {
+            this.userIds = userIds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                invalidateRange(userIds, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new InvalidateTask(userIds, from, mid), new InvalidateTask(userIds, mid, to));
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package com.webapp.security.core.rbac;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.webapp.security.core.entity.SysPermission;
+import com.webapp.security.core.entity.SysRbacChangeLog;
+import com.webapp.security.core.entity.SysRole;
+import com.webapp.security.core.entity.SysRolePermission;
+import com.webapp.security.core.mapper.SysPermissionMapper;
+import com.webapp.security.core.mapper.SysRoleMapper;
+import com.webapp.security.core.mapper.SysRolePermissionMapper;
+import com.webapp.security.core.mapper.SysUserRoleMapper;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 内存RBAC模型
+ * 角色、权限、角色权限关联全部加载到内存，每个角色持有一个权限位图（位下标即permission_id），
+ * 用户权限解析 = 用户角色列表（缓存）+ 若干角色位图求并集，不再执行多表关联查询。
+ * 模型为不可变快照，变更时复制后整体替换，读取无锁。
+ * RBAC版本号前移时按变更日志增量更新：只重新加载变化的角色/权限，
+ * 并通过RbacChangePropagator只失效受影响用户的缓存；变更日志不连续时全量重建。
+ */
+@Slf4j
+@Component
+public class RbacModel {
+
+    /**
+     * 落后超过该版本数时直接全量重建，不再逐条回放变更日志
+     */
+    private static final long MAX_INCREMENTAL_CHANGES = 1000L;
+
+    private final SysRoleMapper roleMapper;
+    private final SysPermissionMapper permissionMapper;
+    private final SysRolePermissionMapper rolePermissionMapper;
+    private final SysUserRoleMapper userRoleMapper;
+    private final RbacVersion rbacVersion;
+    private final RbacChangePropagator propagator;
+    private final Cache<Long, long[]> userRoles;
+
+    private volatile Snapshot snapshot;
+
+    public RbacModel(SysRoleMapper roleMapper, SysPermissionMapper permissionMapper,
+            SysRolePermissionMapper rolePermissionMapper, SysUserRoleMapper userRoleMapper, RbacVersion rbacVersion,
+            RbacChangePropagator propagator,
+            @Value("${webapp.rbac-model.user-roles.max-size:100000}") long userRolesMaxSize,
+            @Value("${webapp.rbac-model.user-roles.ttl-seconds:3600}") long userRolesTtlSeconds) {
+        this.roleMapper = roleMapper;
+        this.permissionMapper = permissionMapper;
+        this.rolePermissionMapper = rolePermissionMapper;
+        this.userRoleMapper = userRoleMapper;
+        this.rbacVersion = rbacVersion;
+        this.propagator = propagator;
+        // 用户角色缓存与反向索引同步；条目被移除时，依赖它的用户权限缓存也一并失效
+        this.userRoles = CacheBuilder.newBuilder()
+                .maximumSize(userRolesMaxSize)
+                .expireAfterAccess(userRolesTtlSeconds, TimeUnit.SECONDS)
+                .<Long, long[]>removalListener(notification -> {
+                    if (notification.getCause() != RemovalCause.REPLACED && notification.getKey() != null) {
+                        propagator.untrack(notification.getKey(), notification.getValue());
+                        propagator.propagateUser(notification.getKey());
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * 解析用户的权限编码和角色编码（只包含启用的角色和权限；用户禁用或已删除时为空）
+     */
+    public Resolution resolve(long userId) {
+        Snapshot current = current();
+        return current.resolve(userRoleIds(userId, current));
+    }
+
+    /**
+     * 用户的角色ID（升序，优先读缓存）
+     */
+    public long[] userRoleIds(long userId) {
+        return userRoleIds(userId, current());
+    }
+
+    /**
+     * 一组角色拥有的启用权限ID（只计启用的角色）
+     */
+    public BitSet permissionIds(long[] roleIds) {
+        return current().permissionIds(roleIds);
+    }
+
+    private long[] userRoleIds(long userId, Snapshot current) {
+        long[] roleIds = userRoles.getIfPresent(userId);
+        if (roleIds == null) {
+            roleIds = toArray(userRoleMapper.selectActiveUserRoleIds(userId));
+            cacheUserRoles(userId, roleIds, current.version);
+        }
+        return roleIds;
+    }
+
+    /**
+     * 用户角色是否在缓存中
+     */
+    public boolean isUserCached(long userId) {
+        return userRoles.getIfPresent(userId) != null;
+    }
+
+    /**
+     * 当前已应用的版本号
+     */
+    public long appliedVersion() {
+        Snapshot current = snapshot;
+        return current != null ? current.version : -1L;
+    }
+
+    /**
+     * 获取当前快照，RBAC版本号前移时先追平
+     */
+    public Snapshot current() {
+        long version = rbacVersion.current();
+        Snapshot current = snapshot;
+        if (current != null && current.version >= version) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current == null) {
+                return rebuild(version);
+            }
+            if (current.version < version) {
+                return catchUp(current, version);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * 定期追平其他节点的变更，避免由登录请求承担传播开销
+     */
+    @Scheduled(fixedDelayString = "${webapp.user-authority-cache.version-check-interval-ms:1000}",
+            initialDelayString = "${webapp.user-authority-cache.version-check-interval-ms:1000}")
+    public void poll() {
+        if (snapshot != null) {
+            try {
+                current();
+            } catch (Exception e) {
+                log.warn("RBAC模型同步失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 用户角色分配已变化
+     */
+    public void onUserRolesChanged(AssignmentDelta delta) {
+        rbacVersion.bump(SysRbacChangeLog.USER_ROLE, delta.getOwnerId(), this::current);
+    }
+
+    /**
+     * 用户状态已变化（含删除），按角色分配变更处理，各节点重新加载该用户的角色
+     */
+    public void onUserStatusChanged(Long userId) {
+        rbacVersion.bump(SysRbacChangeLog.USER_ROLE, userId, this::current);
+    }
+
+    /**
+     * 角色权限分配已变化
+     */
+    public void onRolePermissionsChanged(AssignmentDelta delta) {
+        rbacVersion.bump(SysRbacChangeLog.ROLE, delta.getOwnerId(), this::current);
+    }
+
+    /**
+     * 角色状态或角色本身已变化（含删除）
+     */
+    public void onRoleChanged(Long roleId) {
+        rbacVersion.bump(SysRbacChangeLog.ROLE, roleId, this::current);
+    }
+
+    /**
+     * 权限编码、状态已变化（含删除）
+     */
+    public void onPermissionChanged(Long permissionId) {
+        rbacVersion.bump(SysRbacChangeLog.PERMISSION, permissionId, this::current);
+    }
+
+    /**
+     * 按变更日志增量追平到目标版本
+     * 先替换快照再失效受影响用户，失效之后的解析一定基于新快照
+     */
+    private Snapshot catchUp(Snapshot base, long version) {
+        if (version - base.version > MAX_INCREMENTAL_CHANGES) {
+            return rebuild(version);
+        }
+        List<SysRbacChangeLog> changes = rbacVersion.changesBetween(base.version, version);
+        if (changes.size() != version - base.version) {
+            return rebuild(version);
+        }
+
+        Builder builder = new Builder(base);
+        Set<Long> changedUsers = new HashSet<>();
+        Set<Long> changedRoles = new HashSet<>();
+        boolean permissionsChanged = false;
+        for (SysRbacChangeLog change : changes) {
+            Long targetId = change.getTargetId();
+            if (SysRbacChangeLog.USER_ROLE.equals(change.getChangeType()) && targetId != null) {
+                changedUsers.add(targetId);
+            } else if (SysRbacChangeLog.ROLE.equals(change.getChangeType()) && targetId != null) {
+                changedRoles.add(targetId);
+            } else if (SysRbacChangeLog.PERMISSION.equals(change.getChangeType()) && targetId != null) {
+                permissionsChanged = true;
+                changedRoles.addAll(base.rolesHolding(targetId.intValue()));
+            } else {
+                return rebuild(version);
+            }
+        }
+        if (permissionsChanged) {
+            builder.reloadPermissions();
+        }
+        for (Long roleId : changedRoles) {
+            builder.reloadRole(roleId);
+        }
+        Snapshot updated = builder.build(version);
+        snapshot = updated;
+
+        userRoles.invalidateAll(changedUsers);
+        int affected = propagator.propagateRoles(changedRoles);
+        log.debug("RBAC model caught up to version {}, users: {}, roles: {}, affected users: {}", version,
+                changedUsers.size(), changedRoles.size(), affected);
+        return updated;
+    }
+
+    /**
+     * 全量重建，无法确定影响范围，本节点的用户级缓存全部失效
+     */
+    private Snapshot rebuild(long version) {
+        Builder builder = new Builder(null);
+        builder.reloadPermissions();
+        builder.reloadRoles();
+        Snapshot rebuilt = builder.build(version);
+        boolean initial = snapshot == null;
+        snapshot = rebuilt;
+        if (!initial) {
+            userRoles.invalidateAll();
+            propagator.propagateAll();
+        }
+        log.info("RBAC model rebuilt, version: {}, roles: {}, permissions: {}", version, rebuilt.roles.size(),
+                rebuilt.permissionCount);
+        return rebuilt;
+    }
+
+    /**
+     * 缓存用户角色；解析期间快照发生变化时可能读到了变更前的数据，不缓存
+     */
+    private void cacheUserRoles(long userId, long[] roleIds, long resolvedVersion) {
+        if (appliedVersion() != resolvedVersion) {
+            return;
+        }
+        propagator.track(userId, roleIds);
+        userRoles.asMap().putIfAbsent(userId, roleIds);
+        if (appliedVersion() != resolvedVersion) {
+            userRoles.invalidate(userId);
+        }
+    }
+
+    /**
+     * 模型统计信息
+     */
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        Map<String, Object> result = new HashMap<>();
+        result.put("version", current != null ? current.version : -1L);
+        result.put("roles", current != null ? current.roles.size() : 0);
+        result.put("permissions", current != null ? current.permissionCount : 0);
+        result.put("cachedUsers", userRoles.size());
+        result.put("propagation", propagator.getStats());
+        return result;
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new long[0];
+        }
+        return ids.stream().filter(id -> id != null).mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+
+    /**
+     * 用户权限解析结果
+     */
+    @Getter
+    public static final class Resolution {
+
+        private final List<String> permissions;
+        private final List<String> roles;
+
+        private Resolution(List<String> permissions, List<String> roles) {
+            this.permissions = permissions;
+            this.roles = roles;
+        }
+    }
+
+    /**
+     * 角色节点（不可变）
+     */
+    static final class RoleNode {
+        final String code;
+        final boolean enabled;
+        final BitSet permissions;
+
+        RoleNode(String code, boolean enabled, BitSet permissions) {
+            this.code = code;
+            this.enabled = enabled;
+            this.permissions = permissions;
+        }
+    }
+
+    /**
+     * 模型快照（不可变）
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final String[] permCodeById;
+        private final int permissionCount;
+        private final Map<Long, RoleNode> roles;
+
+        private Snapshot(long version, String[] permCodeById, int permissionCount, Map<Long, RoleNode> roles) {
+            this.version = version;
+            this.permCodeById = permCodeById;
+            this.permissionCount = permissionCount;
+            this.roles = roles;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        BitSet permissionIds(long[] roleIds) {
+            BitSet union = new BitSet(permCodeById.length);
+            for (long roleId : roleIds) {
+                RoleNode role = roles.get(roleId);
+                if (role != null && role.enabled) {
+                    union.or(role.permissions);
+                }
+            }
+            for (int bit = union.nextSetBit(0); bit >= 0; bit = union.nextSetBit(bit + 1)) {
+                if (bit >= permCodeById.length || permCodeById[bit] == null) {
+                    union.clear(bit);
+                }
+            }
+            return union;
+        }
+
+        /**
+         * 持有指定权限的角色（不论角色是否启用）
+         */
+        List<Long> rolesHolding(int permissionId) {
+            List<Long> holders = new ArrayList<>();
+            for (Map.Entry<Long, RoleNode> entry : roles.entrySet()) {
+                if (entry.getValue().permissions.get(permissionId)) {
+                    holders.add(entry.getKey());
+                }
+            }
+            return holders;
+        }
+
+        Resolution resolve(long[] roleIds) {
+            BitSet union = new BitSet(permCodeById.length);
+            List<String> roleCodes = new ArrayList<>(roleIds.length);
+            for (long roleId : roleIds) {
+                RoleNode role = roles.get(roleId);
+                if (role == null || !role.enabled) {
+                    continue;
+                }
+                roleCodes.add(role.code);
+                union.or(role.permissions);
+            }
+            List<String> permissionCodes = new ArrayList<>(union.cardinality());
+            for (int bit = union.nextSetBit(0); bit >= 0; bit = union.nextSetBit(bit + 1)) {
+                if (bit < permCodeById.length && permCodeById[bit] != null) {
+                    permissionCodes.add(permCodeById[bit]);
+                }
+            }
+            return new Resolution(Collections.unmodifiableList(permissionCodes),
+                    Collections.unmodifiableList(roleCodes));
+        }
+    }
+
+    /**
+     * 快照构建器：复制旧快照的引用，只重新加载发生变化的部分
+     */
+    private final class Builder {
+        private String[] permCodeById;
+        private int permissionCount;
+        private Map<Long, RoleNode> roles;
+        // roles 是否已是本构建器独占的副本，快照中的映射只在首次修改时复制一次
+        private boolean rolesOwned;
+
+        Builder(Snapshot base) {
+            if (base != null) {
+                this.permCodeById = base.permCodeById;
+                this.permissionCount = base.permissionCount;
+                this.roles = base.roles;
+            }
+        }
+
+        void reloadPermissions() {
+            List<SysPermission> permissions = permissionMapper.selectList(null);
+            int maxId = -1;
+            for (SysPermission permission : permissions) {
+                if (permission.getPermissionId() != null) {
+                    maxId = Math.max(maxId, permission.getPermissionId().intValue());
+                }
+            }
+            // 只保留启用的权限，停用或已删除的权限位在解析时被忽略
+            String[] codes = new String[maxId + 1];
+            int count = 0;
+            for (SysPermission permission : permissions) {
+                if (permission.getPermissionId() != null && permission.getPermCode() != null
+                        && Integer.valueOf(1).equals(permission.getStatus())) {
+                    codes[permission.getPermissionId().intValue()] = permission.getPermCode();
+                    count++;
+                }
+            }
+            this.permCodeById = codes;
+            this.permissionCount = count;
+        }
+
+        void reloadRoles() {
+            Map<Long, BitSet> bitsByRole = new HashMap<>();
+            for (SysRolePermission relation : rolePermissionMapper.selectList(null)) {
+                if (relation.getRoleId() != null && relation.getPermissionId() != null) {
+                    bitsByRole.computeIfAbsent(relation.getRoleId(), id -> new BitSet())
+                            .set(relation.getPermissionId().intValue());
+                }
+            }
+            Map<Long, RoleNode> loaded = new HashMap<>();
+            for (SysRole role : roleMapper.selectList(null)) {
+                BitSet bits = bitsByRole.getOrDefault(role.getRoleId(), new BitSet());
+                loaded.put(role.getRoleId(), new RoleNode(role.getRoleCode(),
+                        Integer.valueOf(1).equals(role.getStatus()), bits));
+            }
+            this.roles = loaded;
+            this.rolesOwned = true;
+        }
+
+        void reloadRole(Long roleId) {
+            if (!rolesOwned) {
+                this.roles = new HashMap<>(roles);
+                this.rolesOwned = true;
+            }
+            SysRole role = roleMapper.selectById(roleId);
+            if (role == null) {
+                roles.remove(roleId);
+            } else {
+                BitSet bits = new BitSet();
+                for (Long permissionId : rolePermissionMapper.selectPermissionIdsByRoleId(roleId)) {
+                    bits.set(permissionId.intValue());
+                }
+                roles.put(roleId, new RoleNode(role.getRoleCode(), Integer.valueOf(1).equals(role.getStatus()), bits));
+            }
+        }
+
+        Snapshot build(long version) {
+            return new Snapshot(version, permCodeById, permissionCount, roles);
+        }
+    }
+}
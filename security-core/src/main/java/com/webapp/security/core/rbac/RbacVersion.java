@@ -0,0 +1,127 @@
+package com.webapp.security.core.rbac;
+
+import com.webapp.security.core.entity.SysRbacChangeLog;
+import com.webapp.security.core.mapper.SysRbacChangeLogMapper;
+import com.webapp.security.core.mapper.SysRbacVersionMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * RBAC版本号
+ * 角色/权限分配及角色/权限状态变更、删除时递增（存于sys_rbac_version），
+ * 各节点按检查间隔读取，据此判断本地的RBAC模型和用户权限缓存是否过期。
+ * 每次递增同时写入一行sys_rbac_change_log，记录本次变更的类型和对象。
+ */
+@Slf4j
+@Component
+public class RbacVersion {
+
+    private final SysRbacVersionMapper rbacVersionMapper;
+    private final SysRbacChangeLogMapper changeLogMapper;
+    private final long checkIntervalMillis;
+
+    @Value("${webapp.rbac-model.change-log-retention:10000}")
+    private long changeLogRetention;
+
+    private volatile long version = -1L;
+    private volatile long checkedAt;
+
+    public RbacVersion(SysRbacVersionMapper rbacVersionMapper, SysRbacChangeLogMapper changeLogMapper,
+            @Value("${webapp.user-authority-cache.version-check-interval-ms:1000}") long checkIntervalMillis) {
+        this.rbacVersionMapper = rbacVersionMapper;
+        this.changeLogMapper = changeLogMapper;
+        this.checkIntervalMillis = checkIntervalMillis;
+    }
+
+    /**
+     * 当前版本号，按检查间隔从数据库读取
+     */
+    public long current() {
+        if (System.currentTimeMillis() - checkedAt >= checkIntervalMillis) {
+            refresh();
+        }
+        return version;
+    }
+
+    /**
+     * 递增版本号并记录变更
+     * 版本号行在事务内被锁定，变更日志的版本号不会重复；
+     * 在事务中调用时，提交后再刷新本地版本号并执行回调，避免提交前读到旧数据却打上新版本
+     *
+     * @param changeType   变更类型，见SysRbacChangeLog
+     * @param targetId     变更对象ID
+     * @param afterRefresh 本地版本号刷新后执行，可为空
+     */
+    public void bump(String changeType, Long targetId, Runnable afterRefresh) {
+        rbacVersionMapper.increment();
+        Long bumped = rbacVersionMapper.selectVersion();
+        if (bumped != null) {
+            SysRbacChangeLog change = new SysRbacChangeLog();
+            change.setVersion(bumped);
+            change.setChangeType(changeType);
+            change.setTargetId(targetId);
+            changeLogMapper.insert(change);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshAndRun(afterRefresh);
+                }
+            });
+        } else {
+            refreshAndRun(afterRefresh);
+        }
+    }
+
+    /**
+     * 读取 (fromVersion, toVersion] 区间内的变更
+     */
+    public List<SysRbacChangeLog> changesBetween(long fromVersion, long toVersion) {
+        return changeLogMapper.selectBetween(fromVersion, toVersion);
+    }
+
+    /**
+     * 清理过旧的变更日志；落后超过保留条数的节点会改为全量重建
+     */
+    @Scheduled(fixedDelayString = "${webapp.rbac-model.change-log-cleanup-interval-ms:3600000}",
+            initialDelayString = "${webapp.rbac-model.change-log-cleanup-interval-ms:3600000}")
+    public void pruneChangeLog() {
+        long current = current();
+        if (current > changeLogRetention) {
+            try {
+                changeLogMapper.deleteBefore(current - changeLogRetention);
+            } catch (Exception e) {
+                log.warn("清理RBAC变更日志失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void refreshAndRun(Runnable afterRefresh) {
+        refresh();
+        if (afterRefresh != null) {
+            try {
+                afterRefresh.run();
+            } catch (Exception e) {
+                // 变更已提交，本地同步失败时由定期同步兜底
+                log.warn("RBAC变更本地同步失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void refresh() {
+        try {
+            Long loaded = rbacVersionMapper.selectVersion();
+            version = loaded != null ? loaded : 0L;
+        } catch (Exception e) {
+            log.warn("读取RBAC版本号失败: {}", e.getMessage());
+        }
+        checkedAt = System.currentTimeMillis();
+    }
+}
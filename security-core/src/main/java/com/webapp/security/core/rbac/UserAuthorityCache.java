@@ -0,0 +1,112 @@
+package com.webapp.security.core.rbac;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户权限缓存
+ * 按userId缓存解析后的权限编码和角色编码，登录、刷新令牌、第三方登录不再每次执行五表关联查询。
+ * 未命中时由内存RBAC模型解析。RBAC变更由RbacChangePropagator只失效受影响的用户，
+ * 本节点的变更提交后立即生效，其他节点按检查间隔感知。
+ */
+@Component
+public class UserAuthorityCache implements RbacChangePropagator.Listener {
+
+    private final RbacModel rbacModel;
+    private final Cache<Long, UserAuthorities> authorities;
+
+    public UserAuthorityCache(RbacModel rbacModel, RbacChangePropagator propagator,
+            @Value("${webapp.user-authority-cache.max-size:10000}") long maxSize,
+            @Value("${webapp.user-authority-cache.ttl-seconds:1800}") long ttlSeconds) {
+        this.rbacModel = rbacModel;
+        this.authorities = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        propagator.addListener(this);
+    }
+
+    /**
+     * 获取用户的权限和角色编码，未命中时由RBAC模型解析
+     * 先追平RBAC版本再读缓存；解析期间有变更被应用时不缓存，避免覆盖刚失效的条目
+     */
+    public UserAuthorities get(Long userId) {
+        if (userId == null) {
+            return UserAuthorities.EMPTY;
+        }
+        long version = rbacModel.current().getVersion();
+        UserAuthorities cached = authorities.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        RbacModel.Resolution resolution = rbacModel.resolve(userId);
+        UserAuthorities loaded = new UserAuthorities(version, resolution.getPermissions(), resolution.getRoles());
+        if (rbacModel.appliedVersion() == version) {
+            authorities.put(userId, loaded);
+            // 变更传播依赖用户角色缓存的反向索引，索引中没有的用户不能留下条目
+            if (rbacModel.appliedVersion() != version || !rbacModel.isUserCached(userId)) {
+                authorities.invalidate(userId);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 失效指定用户的缓存
+     */
+    @Override
+    public void invalidate(long userId) {
+        authorities.invalidate(userId);
+    }
+
+    @Override
+    public void invalidateAll() {
+        authorities.invalidateAll();
+    }
+
+    /**
+     * 缓存统计信息
+     */
+    public Map<String, Object> getStats() {
+        CacheStats stats = authorities.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("size", authorities.size());
+        result.put("version", rbacModel.appliedVersion());
+        result.put("model", rbacModel.getStats());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+
+    /**
+     * 用户权限快照（不可变）
+     */
+    @Getter
+    public static final class UserAuthorities {
+
+        static final UserAuthorities EMPTY = new UserAuthorities(0L, null, null);
+
+        private final long version;
+        private final List<String> permissions;
+        private final List<String> roles;
+
+        private UserAuthorities(long version, List<String> permissions, List<String> roles) {
+            this.version = version;
+            this.permissions = permissions != null ? List.copyOf(permissions) : Collections.emptyList();
+            this.roles = roles != null ? List.copyOf(roles) : Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.webapp.security.core.revocation;
+
+import java.util.List;
+
+/**
+ * 黑名单索引分页加载（授权服务和资源服务共用）
+ * 索引分数为过期时间（整数毫秒）。按分数向后翻页：一页读满后，先在该页最后一个分数内按偏移读完，
+ * 再从下一个分数开始，偏移量从不跨越分数边界。翻页期间有条目过期被清理时，
+ * 后面的未过期条目位置不受影响，不会漏读；整体读取量与索引大小成线性关系。
+ * 起始分数在加载开始时确定一次，整个加载过程使用同一个时间点。
+ */
+public final class BlacklistIndexLoader {
+
+    /**
+     * 索引条目
+     */
+    public static final class Entry {
+
+        private final String jti;
+        private final long expiresAtMillis;
+
+        public Entry(String jti, long expiresAtMillis) {
+            this.jti = jti;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        public String getJti() {
+            return jti;
+        }
+
+        public long getExpiresAtMillis() {
+            return expiresAtMillis;
+        }
+    }
+
+    /**
+     * 索引读取，语义同 ZRANGEBYSCORE key minScore maxScore WITHSCORES LIMIT offset count（两端包含）
+     * 返回条数必须与Redis返回的一致，加载器据此判断是否还有下一页
+     */
+    @FunctionalInterface
+    public interface PageReader {
+
+        List<Entry> read(long minScore, long maxScore, long offset, int count);
+    }
+
+    /**
+     * 接收加载到的条目
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+
+        void accept(String jti, long expiresAtMillis);
+    }
+
+    private BlacklistIndexLoader() {
+    }
+
+    /**
+     * 加载过期时间不早于nowMillis的全部条目
+     *
+     * @return 加载的条目数
+     */
+    public static long load(PageReader reader, long nowMillis, int pageSize, EntryConsumer consumer) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize必须大于0");
+        }
+        long minScore = nowMillis;
+        long loaded = 0;
+        while (true) {
+            List<Entry> page = reader.read(minScore, Long.MAX_VALUE, 0, pageSize);
+            loaded += accept(page, consumer);
+            if (page == null || page.size() < pageSize) {
+                return loaded;
+            }
+            long lastScore = page.get(page.size() - 1).getExpiresAtMillis();
+            long offset = 0;
+            for (Entry entry : page) {
+                if (entry.getExpiresAtMillis() == lastScore) {
+                    offset++;
+                }
+            }
+            // 读完最后一个分数剩余的条目（同一分数的条目同时过期，清理不会让其他分数的条目错位）
+            while (true) {
+                List<Entry> sameScore = reader.read(lastScore, lastScore, offset, pageSize);
+                loaded += accept(sameScore, consumer);
+                if (sameScore == null || sameScore.size() < pageSize) {
+                    break;
+                }
+                offset += sameScore.size();
+            }
+            if (lastScore == Long.MAX_VALUE) {
+                return loaded;
+            }
+            minScore = lastScore + 1;
+        }
+    }
+
+    private static int accept(List<Entry> page, EntryConsumer consumer) {
+        if (page == null) {
+            return 0;
+        }
+        for (Entry entry : page) {
+            consumer.accept(entry.getJti(), entry.getExpiresAtMillis());
+        }
+        return page.size();
+    }
+}
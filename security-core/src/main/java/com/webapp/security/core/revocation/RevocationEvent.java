@@ -0,0 +1,145 @@
+package com.webapp.security.core.revocation;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 令牌撤销事件
+ * 通过Redis发布订阅在各节点之间同步黑名单变更，消息格式为 TYPE:timestampMillis:subject，
+ * 批量撤销时多个事件合并为一条消息：BATCH 后跟各事件，以换行分隔
+ * <ul>
+ * <li>ADD/REMOVE：subject为jti，timestampMillis为令牌过期时间</li>
+ * <li>PRINCIPAL_WATERMARK/CLIENT_WATERMARK：subject为用户名/客户端ID，timestampMillis为水位线</li>
+ * </ul>
+ */
+@Getter
+public final class RevocationEvent {
+
+    /**
+     * 黑名单事件频道
+     */
+    public static final String CHANNEL = "token:blacklist:events";
+
+    private static final String BATCH_HEADER = "BATCH";
+    private static final String BATCH_SEPARATOR = "\n";
+
+    public enum Type {
+        /**
+         * jti加入黑名单
+         */
+        ADD,
+        /**
+         * jti移出黑名单
+         */
+        REMOVE,
+        /**
+         * 撤销某用户在水位线之前签发的全部令牌
+         */
+        PRINCIPAL_WATERMARK,
+        /**
+         * 撤销某客户端在水位线之前签发的全部令牌
+         */
+        CLIENT_WATERMARK
+    }
+
+    private final Type type;
+    private final String subject;
+    private final long timestampMillis;
+
+    private RevocationEvent(Type type, String subject, long timestampMillis) {
+        this.type = type;
+        this.subject = subject;
+        this.timestampMillis = timestampMillis;
+    }
+
+    public static RevocationEvent add(String jti, long expiresAtMillis) {
+        return new RevocationEvent(Type.ADD, jti, expiresAtMillis);
+    }
+
+    public static RevocationEvent remove(String jti) {
+        return new RevocationEvent(Type.REMOVE, jti, 0L);
+    }
+
+    public static RevocationEvent watermark(WatermarkScope scope, String subject, long issuedBeforeMillis) {
+        return new RevocationEvent(scope.getEventType(), subject, issuedBeforeMillis);
+    }
+
+    /**
+     * 编码为消息文本
+     */
+    public String encode() {
+        return type.name() + ":" + timestampMillis + ":" + subject;
+    }
+
+    /**
+     * 多个事件编码为一条批量消息
+     */
+    public static String encodeAll(Collection<RevocationEvent> events) {
+        StringBuilder builder = new StringBuilder(BATCH_HEADER);
+        for (RevocationEvent event : events) {
+            builder.append(BATCH_SEPARATOR).append(event.encode());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 解析消息文本，格式不正确时返回null
+     */
+    public static RevocationEvent decode(String message) {
+        if (message == null) {
+            return null;
+        }
+        return decodeSingle(unquote(message));
+    }
+
+    /**
+     * 解析单条或批量消息，跳过格式不正确的事件
+     */
+    public static List<RevocationEvent> decodeAll(String message) {
+        if (message == null) {
+            return Collections.emptyList();
+        }
+        message = unquote(message);
+        if (!message.startsWith(BATCH_HEADER)) {
+            RevocationEvent event = decodeSingle(message);
+            return event != null ? Collections.singletonList(event) : Collections.emptyList();
+        }
+        // JSON序列化器会把换行转义为\n
+        String[] lines = message.substring(BATCH_HEADER.length()).replace("\\n", BATCH_SEPARATOR)
+                .split(BATCH_SEPARATOR);
+        List<RevocationEvent> events = new ArrayList<>(lines.length);
+        for (String line : lines) {
+            RevocationEvent event = line.isEmpty() ? null : decodeSingle(line);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * 兼容JSON序列化器发布的带引号字符串
+     */
+    private static String unquote(String message) {
+        if (message.length() > 1 && message.startsWith("\"") && message.endsWith("\"")) {
+            return message.substring(1, message.length() - 1);
+        }
+        return message;
+    }
+
+    private static RevocationEvent decodeSingle(String message) {
+        String[] parts = message.split(":", 3);
+        if (parts.length != 3 || parts[2].isEmpty()) {
+            return null;
+        }
+        try {
+            return new RevocationEvent(Type.valueOf(parts[0]), parts[2], Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
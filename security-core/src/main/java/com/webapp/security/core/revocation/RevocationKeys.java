@@ -0,0 +1,22 @@
+package com.webapp.security.core.revocation;
+
+/**
+ * 令牌撤销相关的Redis键
+ * 授权服务写入、资源服务读取，两端必须保持一致
+ */
+public final class RevocationKeys {
+
+    /**
+     * 黑名单条目前缀：token:blacklist:{jti}，TTL为令牌剩余有效期
+     */
+    public static final String BLACKLIST_PREFIX = "token:blacklist:";
+
+    /**
+     * 黑名单索引：member为jti，score为过期时间戳（毫秒）
+     * 注意不能以BLACKLIST_PREFIX开头，否则会被SCAN当成黑名单条目
+     */
+    public static final String BLACKLIST_INDEX_KEY = "token:blacklist-index";
+
+    private RevocationKeys() {
+    }
+}
@@ -0,0 +1,113 @@
+package com.webapp.security.core.revocation;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 按过期时间分片的布隆过滤器
+ * 每个元素放入其过期时间所在的时间片，整片过期后直接丢弃，
+ * 过滤器容量只与“未过期”的元素数量有关，无需支持删除。
+ * 线程安全：Guava BloomFilter的put/mightContain是无锁线程安全的。
+ */
+public class RotatingBloomFilter {
+
+    private final long sliceMillis;
+    private final int expectedInsertionsPerSlice;
+    private final double falsePositiveProbability;
+    private final ConcurrentSkipListMap<Long, BloomFilter<CharSequence>> slices = new ConcurrentSkipListMap<>();
+
+    /**
+     * @param sliceMillis                每个时间片的长度（毫秒）
+     * @param expectedInsertionsPerSlice 每个时间片预计插入的元素数
+     * @param falsePositiveProbability   期望误判率
+     */
+    public RotatingBloomFilter(long sliceMillis, int expectedInsertionsPerSlice, double falsePositiveProbability) {
+        if (sliceMillis <= 0) {
+            throw new IllegalArgumentException("sliceMillis必须大于0");
+        }
+        this.sliceMillis = sliceMillis;
+        this.expectedInsertionsPerSlice = expectedInsertionsPerSlice;
+        this.falsePositiveProbability = falsePositiveProbability;
+    }
+
+    /**
+     * 添加元素，已过期的元素直接忽略
+     */
+    public void put(String value, long expiresAtMillis) {
+        if (value == null || expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        slices.computeIfAbsent(slotOf(expiresAtMillis), slot -> newFilter()).put(value);
+    }
+
+    /**
+     * 元素是否可能存在：false表示一定不存在，true需要二次确认
+     */
+    public boolean mightContain(String value) {
+        if (value == null) {
+            return false;
+        }
+        for (BloomFilter<CharSequence> filter : liveSlices().values()) {
+            if (filter.mightContain(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 丢弃已整体过期的时间片
+     *
+     * @return 丢弃的时间片数量
+     */
+    public int expire() {
+        ConcurrentNavigableMap<Long, BloomFilter<CharSequence>> expired = slices.headMap(
+                slotOf(System.currentTimeMillis()), false);
+        int count = expired.size();
+        expired.clear();
+        return count;
+    }
+
+    /**
+     * 清空全部时间片
+     */
+    public void clear() {
+        slices.clear();
+    }
+
+    /**
+     * 当前时间片数量
+     */
+    public int sliceCount() {
+        return slices.size();
+    }
+
+    /**
+     * 未过期时间片中元素数量的估算值
+     */
+    public long approximateElementCount() {
+        long count = 0;
+        for (Map.Entry<Long, BloomFilter<CharSequence>> entry : liveSlices().entrySet()) {
+            count += entry.getValue().approximateElementCount();
+        }
+        return count;
+    }
+
+    private ConcurrentNavigableMap<Long, BloomFilter<CharSequence>> liveSlices() {
+        return slices.tailMap(slotOf(System.currentTimeMillis()), true);
+    }
+
+    private long slotOf(long timeMillis) {
+        return timeMillis / sliceMillis;
+    }
+
+    private BloomFilter<CharSequence> newFilter() {
+        return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8),
+                expectedInsertionsPerSlice, falsePositiveProbability);
+    }
+}
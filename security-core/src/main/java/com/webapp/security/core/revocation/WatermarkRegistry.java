@@ -0,0 +1,84 @@
+package com.webapp.security.core.revocation;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 本地撤销水位线表
+ * 按用户名/客户端ID记录“此时间之前签发的令牌全部失效”，校验令牌时只查内存，
+ * 由各应用通过Redis发布订阅和定期同步保持最新。水位线只前移不后退。
+ */
+public class WatermarkRegistry {
+
+    private final Map<WatermarkScope, ConcurrentHashMap<String, Long>> watermarks = new EnumMap<>(WatermarkScope.class);
+
+    public WatermarkRegistry() {
+        for (WatermarkScope scope : WatermarkScope.values()) {
+            watermarks.put(scope, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * 更新水位线（只取较大值）
+     */
+    public void update(WatermarkScope scope, String subject, long issuedBeforeMillis) {
+        if (subject != null) {
+            watermarks.get(scope).merge(subject, issuedBeforeMillis, Math::max);
+        }
+    }
+
+    /**
+     * 合并从Redis加载的全部水位线
+     */
+    public void updateAll(WatermarkScope scope, Map<String, Long> loaded) {
+        loaded.forEach((subject, millis) -> update(scope, subject, millis));
+    }
+
+    /**
+     * 删除早于指定时间的水位线（这些水位线之前签发的令牌都已过期）
+     */
+    public void prune(long olderThanMillis) {
+        for (ConcurrentHashMap<String, Long> map : watermarks.values()) {
+            map.values().removeIf(millis -> millis < olderThanMillis);
+        }
+    }
+
+    /**
+     * 令牌是否已被水位线撤销
+     * 令牌的iat只精确到秒，水位线截断到秒后比较：与撤销同一秒签发的令牌不视为撤销，
+     * 否则撤销后同一秒内重新登录拿到的令牌会被误拒。
+     * 没有签发时间的令牌无法判断，只要对应用户/客户端存在水位线即视为已撤销
+     *
+     * @param principal 用户名，可为空
+     * @param clientId  客户端ID，可为空
+     * @param issuedAt  签发时间，可为空
+     */
+    public boolean isRevoked(String principal, String clientId, Instant issuedAt) {
+        return isBefore(WatermarkScope.PRINCIPAL, principal, issuedAt)
+                || isBefore(WatermarkScope.CLIENT, clientId, issuedAt);
+    }
+
+    /**
+     * 水位线总数
+     */
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, Long> map : watermarks.values()) {
+            size += map.size();
+        }
+        return size;
+    }
+
+    private boolean isBefore(WatermarkScope scope, String subject, Instant issuedAt) {
+        if (subject == null) {
+            return false;
+        }
+        Long watermark = watermarks.get(scope).get(subject);
+        if (watermark == null) {
+            return false;
+        }
+        return issuedAt == null || issuedAt.getEpochSecond() < Math.floorDiv(watermark, 1000L);
+    }
+}
@@ -0,0 +1,45 @@
+package com.webapp.security.core.revocation;
+
+import lombok.Getter;
+
+/**
+ * 撤销水位线的作用范围
+ * 水位线表示“该用户/客户端在此时间之前签发的令牌全部失效”，一次写入即可批量撤销
+ */
+@Getter
+public enum WatermarkScope {
+
+    /**
+     * 按用户名
+     */
+    PRINCIPAL("token:revocation:watermark:principal", RevocationEvent.Type.PRINCIPAL_WATERMARK),
+
+    /**
+     * 按客户端ID
+     */
+    CLIENT("token:revocation:watermark:client", RevocationEvent.Type.CLIENT_WATERMARK);
+
+    /**
+     * Redis哈希键：field为用户名/客户端ID，value为水位线（毫秒时间戳）
+     */
+    private final String redisKey;
+
+    private final RevocationEvent.Type eventType;
+
+    WatermarkScope(String redisKey, RevocationEvent.Type eventType) {
+        this.redisKey = redisKey;
+        this.eventType = eventType;
+    }
+
+    /**
+     * 按名称解析（忽略大小写），无法识别时返回null
+     */
+    public static WatermarkScope of(String name) {
+        for (WatermarkScope scope : values()) {
+            if (scope.name().equalsIgnoreCase(name)) {
+                return scope;
+            }
+        }
+        return null;
+    }
+}
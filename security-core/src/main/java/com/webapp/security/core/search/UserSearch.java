@@ -0,0 +1,133 @@
+package com.webapp.security.core.search;
+
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.webapp.security.core.entity.SysUser;
+import com.webapp.security.core.mapper.SysUserMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 用户检索
+ * 按用户名、姓名、邮箱、手机号检索，不使用 LIKE '%关键字%'：
+ * 前缀匹配走各列的B树索引，子串匹配走sys_user的ngram全文索引，结果按
+ * 完全匹配 > 用户名前缀 > 其他列前缀 > 全文相关度 排序。
+ * 嵌入式数据库（如测试用的H2）不支持全文索引，可关闭fulltext-enabled改用LIKE。
+ */
+@Slf4j
+@Component
+public class UserSearch {
+
+    /**
+     * 单次检索的最大条数
+     */
+    public static final int MAX_LIMIT = 100;
+
+    private static final String FULLTEXT_COLUMNS = "MATCH(username, real_name, email, phone)";
+
+    private final SysUserMapper userMapper;
+    private final boolean fulltextEnabled;
+    private final int ngramTokenSize;
+
+    public UserSearch(SysUserMapper userMapper,
+            @Value("${webapp.user-search.fulltext-enabled:true}") boolean fulltextEnabled,
+            @Value("${webapp.user-search.ngram-token-size:2}") int ngramTokenSize) {
+        this.userMapper = userMapper;
+        this.fulltextEnabled = fulltextEnabled;
+        this.ngramTokenSize = ngramTokenSize;
+    }
+
+    /**
+     * 检索用户，按匹配程度排序
+     */
+    public List<SysUser> search(String keyword, int limit) {
+        String term = StrUtil.trim(keyword);
+        if (StrUtil.isEmpty(term)) {
+            return new ArrayList<>();
+        }
+        int size = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        if (!fulltextEnabled) {
+            return userMapper.selectList(applyKeyword(new LambdaQueryWrapper<>(), term)
+                    .orderByAsc(SysUser::getUserId)
+                    .last("LIMIT " + size));
+        }
+
+        Map<Long, SysUser> ranked = new LinkedHashMap<>();
+        List<SysUser> prefixed = userMapper.selectByPrefix(escapeLike(term) + "%", size);
+        prefixed.sort(Comparator.comparingInt((SysUser user) -> prefixRank(user, term))
+                .thenComparing(user -> StrUtil.length(user.getUsername())));
+        for (SysUser user : prefixed) {
+            ranked.putIfAbsent(user.getUserId(), user);
+        }
+        if (ranked.size() < size && term.length() >= ngramTokenSize) {
+            for (SysUser user : userMapper.selectByFulltext(phrase(term), size)) {
+                ranked.putIfAbsent(user.getUserId(), user);
+            }
+        }
+        List<SysUser> result = new ArrayList<>(ranked.values());
+        return result.size() > size ? new ArrayList<>(result.subList(0, size)) : result;
+    }
+
+    /**
+     * 给查询条件追加关键字条件（整体加括号），供分页、游标分页和导出使用
+     */
+    public LambdaQueryWrapper<SysUser> applyKeyword(LambdaQueryWrapper<SysUser> wrapper, String keyword) {
+        String term = StrUtil.trim(keyword);
+        if (StrUtil.isEmpty(term)) {
+            return wrapper;
+        }
+        if (!fulltextEnabled) {
+            return wrapper.and(condition -> condition
+                    .like(SysUser::getUsername, term)
+                    .or().like(SysUser::getRealName, term)
+                    .or().like(SysUser::getEmail, term)
+                    .or().like(SysUser::getPhone, term));
+        }
+        if (term.length() < ngramTokenSize) {
+            // 短于分词长度的关键字无法走全文索引，只做前缀匹配
+            return wrapper.and(condition -> condition
+                    .likeRight(SysUser::getUsername, term)
+                    .or().likeRight(SysUser::getRealName, term)
+                    .or().likeRight(SysUser::getEmail, term)
+                    .or().likeRight(SysUser::getPhone, term));
+        }
+        return wrapper.apply(FULLTEXT_COLUMNS + " AGAINST({0} IN BOOLEAN MODE)", phrase(term));
+    }
+
+    private static int prefixRank(SysUser user, String term) {
+        if (term.equalsIgnoreCase(user.getUsername()) || term.equalsIgnoreCase(user.getEmail())
+                || term.equals(user.getPhone())) {
+            return 0;
+        }
+        if (startsWithIgnoreCase(user.getUsername(), term)) {
+            return 1;
+        }
+        return 2;
+    }
+
+    private static boolean startsWithIgnoreCase(String value, String prefix) {
+        return value != null && value.toLowerCase(Locale.ROOT).startsWith(prefix.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * BOOLEAN MODE短语查询，匹配连续的n-gram序列，即关键字作为子串出现
+     */
+    private static String phrase(String term) {
+        return "\"" + term.replace("\"", " ") + "\"";
+    }
+
+    /**
+     * 转义LIKE通配符
+     */
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
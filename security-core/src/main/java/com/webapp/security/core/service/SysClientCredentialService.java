@@ -1,8 +1,11 @@
 package com.webapp.security.core.service;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.webapp.security.core.entity.SysClientCredential;
 
+import java.util.function.Consumer;
+
 public interface SysClientCredentialService extends IService<SysClientCredential> {
 
     /**
@@ -45,4 +48,18 @@ public interface SysClientCredentialService extends IService<SysClientCredential
      * @throws RuntimeException 如果凭证不存在
      */
     void updateStatus(String appId, Integer status) throws RuntimeException;
-}
\ No newline at end of file
+
+    /**
+     * 更新凭证的调度权重
+     * 
+     * @param appId  应用ID
+     * @param weight 权重（>=1）
+     * @throws RuntimeException 如果凭证不存在
+     */
+    void updateScheduleWeight(String appId, Integer weight) throws RuntimeException;
+
+    /**
+     * 按条件流式遍历（MyBatis游标逐行读取，不在内存中保留整个结果集）
+     */
+    void streamList(LambdaQueryWrapper<SysClientCredential> wrapper, Consumer<SysClientCredential> consumer);
+}
@@ -1,9 +1,11 @@
 package com.webapp.security.core.service;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.webapp.security.core.entity.SysPermission;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 系统权限服务接口
@@ -69,4 +71,9 @@ public interface SysPermissionService extends IService<SysPermission> {
      * 构建权限树
      */
     List<SysPermission> buildPermissionTree(List<SysPermission> permissions);
+
+    /**
+     * 按条件流式遍历（MyBatis游标逐行读取，不在内存中保留整个结果集）
+     */
+    void streamList(LambdaQueryWrapper<SysPermission> wrapper, Consumer<SysPermission> consumer);
 }
@@ -1,8 +1,11 @@
 package com.webapp.security.core.service;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.webapp.security.core.entity.SysResource;
 
+import java.util.function.Consumer;
+
 /**
  * API资源服务接口
  */
@@ -34,4 +37,9 @@ public interface SysResourceService extends IService<SysResource> {
      * @throws RuntimeException 如果资源不存在或删除失败
      */
     void deleteResource(Long id) throws RuntimeException;
-}
\ No newline at end of file
+
+    /**
+     * 按条件流式遍历（MyBatis游标逐行读取，不在内存中保留整个结果集）
+     */
+    void streamList(LambdaQueryWrapper<SysResource> wrapper, Consumer<SysResource> consumer);
+}
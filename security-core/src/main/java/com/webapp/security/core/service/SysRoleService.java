@@ -1,10 +1,13 @@
 package com.webapp.security.core.service;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.webapp.security.core.entity.SysPermission;
 import com.webapp.security.core.entity.SysRole;
+import com.webapp.security.core.rbac.AssignmentDelta;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 系统角色服务接口
@@ -37,9 +40,11 @@ public interface SysRoleService extends IService<SysRole> {
     boolean updateRoleStatus(Long roleId, Integer status);
 
     /**
-     * 分配角色权限
+     * 分配角色权限（只写入与现有关联的差异）
+     *
+     * @return 关联差异，角色ID为空时返回null
      */
-    boolean assignPermissions(Long roleId, List<Long> permissionIds);
+    AssignmentDelta assignPermissions(Long roleId, List<Long> permissionIds);
 
     /**
      * 获取角色权限列表
@@ -60,4 +65,9 @@ public interface SysRoleService extends IService<SysRole> {
      * 获取所有启用的角色
      */
     List<SysRole> getEnabledRoles();
+
+    /**
+     * 按条件流式遍历（MyBatis游标逐行读取，不在内存中保留整个结果集）
+     */
+    void streamList(LambdaQueryWrapper<SysRole> wrapper, Consumer<SysRole> consumer);
 }
@@ -1,9 +1,12 @@
 package com.webapp.security.core.service;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.webapp.security.core.entity.SysUser;
+import com.webapp.security.core.rbac.AssignmentDelta;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 系统用户服务接口
@@ -50,9 +53,11 @@ public interface SysUserService extends IService<SysUser> {
     boolean updateUserStatus(Long userId, Integer status);
 
     /**
-     * 分配用户角色
+     * 分配用户角色（只写入与现有关联的差异）
+     *
+     * @return 关联差异，用户ID为空时返回null
      */
-    boolean assignRoles(Long userId, List<Long> roleIds);
+    AssignmentDelta assignRoles(Long userId, List<Long> roleIds);
 
     /**
      * 获取用户权限列表
@@ -68,5 +73,9 @@ public interface SysUserService extends IService<SysUser> {
      * 验证用户密码
      */
     boolean validatePassword(String username, String password);
-}
 
+    /**
+     * 按条件流式遍历（MyBatis游标逐行读取，不在内存中保留整个结果集）
+     */
+    void streamList(LambdaQueryWrapper<SysUser> wrapper, Consumer<SysUser> consumer);
+}
@@ -1,19 +1,25 @@
 package com.webapp.security.core.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.webapp.security.core.entity.SysClientCredential;
 import com.webapp.security.core.mapper.SysClientCredentialMapper;
 import com.webapp.security.core.service.SysClientCredentialService;
 import com.webapp.security.core.config.ClientIdConfig;
 import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -108,6 +114,21 @@ public class SysClientCredentialServiceImpl extends ServiceImpl<SysClientCredent
         }
     }
 
+    @Override
+    public void updateScheduleWeight(String appId, Integer weight) {
+        if (weight == null || weight < 1) {
+            throw new RuntimeException("权重必须大于等于1");
+        }
+        SysClientCredential cred = credentialMapper.findByAppId(appId);
+        if (cred == null)
+            throw new RuntimeException("凭证不存在: " + appId);
+        cred.setScheduleWeight(weight);
+        boolean updated = credentialMapper.updateById(cred) > 0;
+        if (!updated) {
+            throw new RuntimeException("更新权重失败");
+        }
+    }
+
     private String generateId() {
         byte[] b = new byte[12];
         RANDOM.nextBytes(b);
@@ -119,4 +140,14 @@ public class SysClientCredentialServiceImpl extends ServiceImpl<SysClientCredent
         RANDOM.nextBytes(b);
         return Base64.getUrlEncoder().withoutPadding().encodeToString(b);
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamList(LambdaQueryWrapper<SysClientCredential> wrapper, Consumer<SysClientCredential> consumer) {
+        try (Cursor<SysClientCredential> cursor = baseMapper.selectCursor(wrapper)) {
+            cursor.forEach(consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
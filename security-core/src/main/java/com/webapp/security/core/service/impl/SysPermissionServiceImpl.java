@@ -7,15 +7,21 @@ import com.webapp.security.core.entity.SysPermission;
 import com.webapp.security.core.exception.BizException;
 import com.webapp.security.core.mapper.SysPermissionMapper;
 import com.webapp.security.core.mapper.SysRolePermissionMapper;
+import com.webapp.security.core.rbac.PermissionRegistry;
+import com.webapp.security.core.rbac.RbacModel;
 import com.webapp.security.core.service.SysPermissionService;
 import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -27,6 +33,8 @@ public class SysPermissionServiceImpl extends ServiceImpl<SysPermissionMapper, S
         implements SysPermissionService {
 
     private final SysRolePermissionMapper rolePermissionMapper;
+    private final PermissionRegistry permissionRegistry;
+    private final RbacModel rbacModel;
 
     @Override
     public SysPermission getByCode(String code) {
@@ -52,7 +60,9 @@ public class SysPermissionServiceImpl extends ServiceImpl<SysPermissionMapper, S
         permission.setUpdateTime(LocalDateTime.now());
         permission.setStatus(1); // 默认启用
         permission.setDeleted(0); // 默认未删除
-        return save(permission);
+        boolean saved = save(permission);
+        permissionRegistry.invalidate();
+        return saved;
     }
 
     @Override
@@ -77,7 +87,10 @@ public class SysPermissionServiceImpl extends ServiceImpl<SysPermissionMapper, S
         }
 
         permission.setUpdateTime(LocalDateTime.now());
-        return updateById(permission);
+        boolean updated = updateById(permission);
+        permissionRegistry.invalidate();
+        rbacModel.onPermissionChanged(permission.getPermissionId());
+        return updated;
     }
 
     @Override
@@ -102,10 +115,14 @@ public class SysPermissionServiceImpl extends ServiceImpl<SysPermissionMapper, S
         rolePermissionMapper.deleteByPermissionId(permissionId);
 
         // 使用MyBatis-Plus的逻辑删除方法
-        return removeById(permissionId);
+        boolean removed = removeById(permissionId);
+        permissionRegistry.invalidate();
+        rbacModel.onPermissionChanged(permission.getPermissionId());
+        return removed;
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public boolean updatePermissionStatus(Long permissionId, Integer status) {
         if (permissionId == null || status == null) {
             return false;
@@ -118,7 +135,9 @@ public class SysPermissionServiceImpl extends ServiceImpl<SysPermissionMapper, S
 
         permission.setStatus(status);
         permission.setUpdateTime(LocalDateTime.now());
-        return updateById(permission);
+        boolean updated = updateById(permission);
+        rbacModel.onPermissionChanged(permission.getPermissionId());
+        return updated;
     }
 
     @Override
@@ -197,6 +216,18 @@ public class SysPermissionServiceImpl extends ServiceImpl<SysPermissionMapper, S
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamList(LambdaQueryWrapper<SysPermission> wrapper, Consumer<SysPermission> consumer) {
+        // 自定义SQL不会自动追加逻辑删除条件
+        wrapper.eq(SysPermission::getDeleted, 0);
+        try (Cursor<SysPermission> cursor = baseMapper.selectCursor(wrapper)) {
+            cursor.forEach(consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     private static class PermissionBizExceptionBuilder {
         public static BizException of(String code, String message) {
             return new BizException("PERMISSION_" + code, message);
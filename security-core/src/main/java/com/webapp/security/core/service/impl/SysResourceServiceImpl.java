@@ -1,11 +1,18 @@
 package com.webapp.security.core.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.webapp.security.core.entity.SysResource;
 import com.webapp.security.core.mapper.SysResourceMapper;
 import com.webapp.security.core.service.SysResourceService;
 import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -56,4 +63,14 @@ public class SysResourceServiceImpl extends ServiceImpl<SysResourceMapper, SysRe
             throw new RuntimeException("删除资源失败，ID: " + id);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamList(LambdaQueryWrapper<SysResource> wrapper, Consumer<SysResource> consumer) {
+        try (Cursor<SysResource> cursor = baseMapper.selectCursor(wrapper)) {
+            cursor.forEach(consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -11,14 +11,20 @@ import com.webapp.security.core.exception.BizException;
 import com.webapp.security.core.mapper.SysRoleMapper;
 import com.webapp.security.core.mapper.SysRolePermissionMapper;
 import com.webapp.security.core.mapper.SysUserRoleMapper;
+import com.webapp.security.core.rbac.AssignmentDelta;
+import com.webapp.security.core.rbac.RbacModel;
 import com.webapp.security.core.service.SysRoleService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -31,6 +37,7 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
 
     private final SysRolePermissionMapper rolePermissionMapper;
     private final SysUserRoleMapper userRoleMapper;
+    private final RbacModel rbacModel;
 
     @Override
     public SysRole getByCode(String code) {
@@ -80,7 +87,9 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
         }
 
         role.setUpdateTime(LocalDateTime.now());
-        return updateById(role);
+        boolean updated = updateById(role);
+        rbacModel.onRoleChanged(role.getRoleId());
+        return updated;
     }
 
     @Override
@@ -102,10 +111,13 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
         userRoleMapper.deleteByRoleId(roleId);
 
         // 使用MyBatis-Plus的逻辑删除方法
-        return removeById(roleId);
+        boolean removed = removeById(roleId);
+        rbacModel.onRoleChanged(role.getRoleId());
+        return removed;
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public boolean updateRoleStatus(Long roleId, Integer status) {
         if (roleId == null || status == null) {
             return false;
@@ -118,22 +130,36 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
 
         role.setStatus(status);
         role.setUpdateTime(LocalDateTime.now());
-        return updateById(role);
+        boolean updated = updateById(role);
+        rbacModel.onRoleChanged(roleId);
+        return updated;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public boolean assignPermissions(Long roleId, List<Long> permissionIds) {
+    public AssignmentDelta assignPermissions(Long roleId, List<Long> permissionIds) {
         if (roleId == null) {
-            return false;
+            return null;
         }
 
-        // 删除原有权限关联
-        rolePermissionMapper.deleteByRoleId(roleId);
+        // 锁定角色行，同一角色的并发分配串行执行，保证差异基于最新关联计算
+        baseMapper.selectOne(new LambdaQueryWrapper<SysRole>()
+                .eq(SysRole::getRoleId, roleId)
+                .last("FOR UPDATE"));
+
+        // 与现有关联对比，只删除和新增有变化的部分
+        AssignmentDelta delta = AssignmentDelta.of(roleId,
+                rolePermissionMapper.selectPermissionIdsByRoleId(roleId), permissionIds);
+        if (delta.isEmpty()) {
+            return delta;
+        }
 
-        // 添加新的权限关联
-        if (permissionIds != null && !permissionIds.isEmpty()) {
-            List<List<Long>> partitionedPermissionIds = Lists.partition(permissionIds, 1000);
+        for (List<Long> partitionedPermissionId : Lists.partition(delta.getRemoved(), 1000)) {
+            rolePermissionMapper.deleteByRoleIdAndPermissionIds(roleId, partitionedPermissionId);
+        }
+
+        if (!delta.getAdded().isEmpty()) {
+            List<List<Long>> partitionedPermissionIds = Lists.partition(delta.getAdded(), 1000);
             for (List<Long> partitionedPermissionId : partitionedPermissionIds) {
                 List<SysRolePermission> rolePermissions = partitionedPermissionId.stream()
                         .map(permissionId -> {
@@ -153,7 +179,8 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
             }
         }
 
-        return true;
+        rbacModel.onRolePermissionsChanged(delta);
+        return delta;
     }
 
     @Override
@@ -189,6 +216,18 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
         return list(wrapper);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamList(LambdaQueryWrapper<SysRole> wrapper, Consumer<SysRole> consumer) {
+        // 自定义SQL不会自动追加逻辑删除条件
+        wrapper.eq(SysRole::getDeleted, 0);
+        try (Cursor<SysRole> cursor = baseMapper.selectCursor(wrapper)) {
+            cursor.forEach(consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     private static class RoleBizExceptionBuilder {
         public static BizException of(String code, String message) {
             return new BizException("ROLE_" + code, message);
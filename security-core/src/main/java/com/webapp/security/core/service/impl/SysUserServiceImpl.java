@@ -2,20 +2,31 @@ package com.webapp.security.core.service.impl;
 
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.crypto.digest.BCrypt;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.webapp.security.core.cache.UserProfileCache;
 import com.webapp.security.core.entity.SysUser;
 import com.webapp.security.core.entity.SysUserRole;
 import com.webapp.security.core.exception.BizException;
 import com.webapp.security.core.mapper.SysUserMapper;
 import com.webapp.security.core.mapper.SysUserRoleMapper;
+import com.webapp.security.core.rbac.AssignmentDelta;
+import com.webapp.security.core.rbac.RbacModel;
+import com.webapp.security.core.rbac.UserAuthorityCache;
 import com.webapp.security.core.service.SysUserService;
+import com.webapp.security.core.stat.UserStatCounters;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import com.google.common.collect.*;
 
@@ -28,6 +39,16 @@ import com.google.common.collect.*;
 public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> implements SysUserService {
 
     private final SysUserRoleMapper userRoleMapper;
+    private final UserProfileCache userProfileCache;
+    private final UserAuthorityCache userAuthorityCache;
+    private final RbacModel rbacModel;
+    private final UserStatCounters userStatCounters;
+
+    /**
+     * BCrypt强度，与SSO登录时的升级目标一致
+     */
+    @Value("${webapp.password.bcrypt-strength:10}")
+    private int bcryptStrength;
 
     @Override
     public SysUser getByUsername(String username) {
@@ -77,14 +98,18 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
 
         // 加密密码
         if (StrUtil.isNotBlank(user.getPassword())) {
-            user.setPassword(BCrypt.hashpw(user.getPassword()));
+            user.setPassword(BCrypt.hashpw(user.getPassword(), BCrypt.gensalt(bcryptStrength)));
         }
 
         user.setCreateTime(LocalDateTime.now());
         user.setUpdateTime(LocalDateTime.now());
         user.setStatus(1); // 默认启用
         user.setDeleted(0); // 默认未删除
-        return save(user);
+        boolean saved = save(user);
+        if (saved) {
+            userStatCounters.userCreated(user.getStatus());
+        }
+        return saved;
     }
 
     @Override
@@ -124,7 +149,17 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
         }
 
         user.setUpdateTime(LocalDateTime.now());
-        return updateById(user);
+        boolean updated = updateById(user);
+        if (updated && user.getStatus() != null) {
+            userStatCounters.userStatusChanged(existingUser.getStatus(), user.getStatus());
+            if (!user.getStatus().equals(existingUser.getStatus())) {
+                rbacModel.onUserStatusChanged(user.getUserId());
+            }
+        }
+        // 用户名可能被修改，新旧用户名的快照都要失效
+        userProfileCache.invalidate(existingUser.getUsername());
+        userProfileCache.invalidate(user.getUsername());
+        return updated;
     }
 
     @Override
@@ -143,7 +178,14 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
         userRoleMapper.deleteByUserId(userId);
 
         // 使用MyBatis-Plus的逻辑删除方法
-        return removeById(userId);
+        boolean removed = removeById(userId);
+        if (removed) {
+            userStatCounters.userDeleted(user.getStatus());
+            rbacModel.onUserStatusChanged(userId);
+        }
+        userProfileCache.invalidate(user.getUsername());
+        userAuthorityCache.invalidate(userId);
+        return removed;
     }
 
     @Override
@@ -158,12 +200,13 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
             return false;
         }
 
-        user.setPassword(BCrypt.hashpw(newPassword));
+        user.setPassword(BCrypt.hashpw(newPassword, BCrypt.gensalt(bcryptStrength)));
         user.setUpdateTime(LocalDateTime.now());
         return updateById(user);
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public boolean updateUserStatus(Long userId, Integer status) {
         if (userId == null || status == null) {
             return false;
@@ -174,24 +217,44 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
             return false;
         }
 
+        Integer oldStatus = user.getStatus();
         user.setStatus(status);
         user.setUpdateTime(LocalDateTime.now());
-        return updateById(user);
+        boolean updated = updateById(user);
+        if (updated) {
+            userStatCounters.userStatusChanged(oldStatus, status);
+            if (!status.equals(oldStatus)) {
+                rbacModel.onUserStatusChanged(userId);
+            }
+        }
+        userProfileCache.invalidate(user.getUsername());
+        return updated;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public boolean assignRoles(Long userId, List<Long> roleIds) {
+    public AssignmentDelta assignRoles(Long userId, List<Long> roleIds) {
         if (userId == null) {
-            return false;
+            return null;
         }
 
-        // 删除原有角色关联
-        userRoleMapper.deleteByUserId(userId);
+        // 锁定用户行，同一用户的并发分配串行执行，保证差异基于最新关联计算
+        baseMapper.selectOne(new LambdaQueryWrapper<SysUser>()
+                .eq(SysUser::getUserId, userId)
+                .last("FOR UPDATE"));
+
+        // 与现有关联对比，只删除和新增有变化的部分
+        AssignmentDelta delta = AssignmentDelta.of(userId, userRoleMapper.selectRoleIdsByUserId(userId), roleIds);
+        if (delta.isEmpty()) {
+            return delta;
+        }
+
+        for (List<Long> partitionedRoleId : Lists.partition(delta.getRemoved(), 1000)) {
+            userRoleMapper.deleteByUserIdAndRoleIds(userId, partitionedRoleId);
+        }
 
-        // 添加新的角色关联
-        if (roleIds != null && !roleIds.isEmpty()) {
-            List<List<Long>> partitionedRoleIds = Lists.partition(roleIds, 1000);
+        if (!delta.getAdded().isEmpty()) {
+            List<List<Long>> partitionedRoleIds = Lists.partition(delta.getAdded(), 1000);
             for (List<Long> partitionedRoleId : partitionedRoleIds) {
                 List<SysUserRole> userRoles = partitionedRoleId.stream()
                         .map(roleId -> {
@@ -211,7 +274,8 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
             }
         }
 
-        return true;
+        rbacModel.onUserRolesChanged(delta);
+        return delta;
     }
 
     @Override
@@ -244,6 +308,18 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
         return BCrypt.checkpw(password, user.getPassword());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamList(LambdaQueryWrapper<SysUser> wrapper, Consumer<SysUser> consumer) {
+        // 自定义SQL不会自动追加逻辑删除条件
+        wrapper.eq(SysUser::getDeleted, 0);
+        try (Cursor<SysUser> cursor = baseMapper.selectCursor(wrapper)) {
+            cursor.forEach(consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     private static class UserBizExceptionBuilder {
         public static BizException of(String code, String message) {
             return new BizException("USER_" + code, message);
@@ -0,0 +1,119 @@
+package com.webapp.security.core.stat;
+
+import com.webapp.security.core.entity.SysStatCounter;
+import com.webapp.security.core.mapper.SysStatCounterMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 用户统计计数
+ * 用户总数、启用用户数保存在sys_stat_counter中，由用户新增、删除、状态变更在同一事务内增减，
+ * 仪表盘读取计数的成本与用户表大小无关；定期按sys_user重新校准，修正异常路径造成的偏差。
+ * 每个计数项分成多个槽位（行），增减时随机选择一个槽位，并发写入不会都在同一行锁上排队。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserStatCounters {
+
+    public static final String USER_TOTAL = "user_total";
+    public static final String USER_ACTIVE = "user_active";
+
+    private final SysStatCounterMapper counterMapper;
+
+    /**
+     * 每个计数项的槽位数
+     */
+    @Value("${webapp.user-stats.counter-slots:16}")
+    private int slots;
+
+    /**
+     * 新增用户
+     */
+    public void userCreated(Integer status) {
+        increment(USER_TOTAL, 1);
+        if (isActive(status)) {
+            increment(USER_ACTIVE, 1);
+        }
+    }
+
+    /**
+     * 批量新增用户
+     */
+    public void usersCreated(long total, long active) {
+        if (total > 0) {
+            increment(USER_TOTAL, total);
+        }
+        if (active > 0) {
+            increment(USER_ACTIVE, active);
+        }
+    }
+
+    /**
+     * 删除用户
+     */
+    public void userDeleted(Integer status) {
+        increment(USER_TOTAL, -1);
+        if (isActive(status)) {
+            increment(USER_ACTIVE, -1);
+        }
+    }
+
+    /**
+     * 用户状态变更
+     */
+    public void userStatusChanged(Integer oldStatus, Integer newStatus) {
+        boolean wasActive = isActive(oldStatus);
+        boolean nowActive = isActive(newStatus);
+        if (wasActive != nowActive) {
+            increment(USER_ACTIVE, nowActive ? 1 : -1);
+        }
+    }
+
+    /**
+     * 读取全部计数
+     */
+    public Map<String, Long> getCounters() {
+        Map<String, Long> counters = new HashMap<>();
+        for (SysStatCounter counter : counterMapper.selectTotals()) {
+            counters.put(counter.getCounterKey(), counter.getCounterValue() != null ? counter.getCounterValue() : 0L);
+        }
+        return counters;
+    }
+
+    /**
+     * 按sys_user重新校准计数
+     * 在同一个一致性快照中读取sys_user的行数和计数值，把差值补到一个槽位上；
+     * 快照之后提交的增减两边都不包含，不会被覆盖。多个节点同时校准会重复补差值，调用方需保证单节点执行
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ, rollbackFor = Exception.class)
+    public void reconcile() {
+        long totalDrift = counterMapper.countUsers() - counterMapper.sumByKey(USER_TOTAL);
+        long activeDrift = counterMapper.countActiveUsers() - counterMapper.sumByKey(USER_ACTIVE);
+        if (totalDrift != 0) {
+            increment(USER_TOTAL, totalDrift);
+        }
+        if (activeDrift != 0) {
+            increment(USER_ACTIVE, activeDrift);
+        }
+        if (totalDrift != 0 || activeDrift != 0) {
+            log.info("用户统计计数已校准，用户总数偏差: {}，启用用户数偏差: {}", totalDrift, activeDrift);
+        }
+    }
+
+    private void increment(String key, long delta) {
+        counterMapper.increment(key, ThreadLocalRandom.current().nextInt(Math.max(slots, 1)), delta);
+    }
+
+    private static boolean isActive(Integer status) {
+        return status != null && status == 1;
+    }
+}
@@ -0,0 +1,66 @@
+package com.webapp.security.core.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 游标分页结果测试
+ */
+class CursorPagedResultTest {
+
+    private static final Function<List<Long>, List<String>> TO_STRINGS =
+            rows -> rows.stream().map(String::valueOf).collect(Collectors.toList());
+
+    /**
+     * 多查出一条时有下一页，游标为本页最后一条的主键，多出的一条不返回
+     */
+    @Test
+    void extraRowMeansMorePages() {
+        CursorPagedResult<String> result = CursorPagedResult.of(Arrays.asList(3L, 5L, 8L), 2, id -> id, TO_STRINGS);
+
+        assertEquals(Arrays.asList("3", "5"), result.getList());
+        assertEquals(Long.valueOf(5L), result.getNextCursor());
+        assertTrue(result.isHasMore());
+    }
+
+    /**
+     * 不足limit + 1条时为最后一页，没有游标
+     */
+    @Test
+    void lastPageHasNoCursor() {
+        CursorPagedResult<String> full = CursorPagedResult.of(Arrays.asList(3L, 5L), 2, id -> id, TO_STRINGS);
+        assertEquals(Arrays.asList("3", "5"), full.getList());
+        assertFalse(full.isHasMore());
+        assertNull(full.getNextCursor());
+
+        CursorPagedResult<String> empty = CursorPagedResult.of(Collections.<Long>emptyList(), 2, id -> id,
+                TO_STRINGS);
+        assertTrue(empty.getList().isEmpty());
+        assertFalse(empty.isHasMore());
+        assertNull(empty.getNextCursor());
+    }
+
+    /**
+     * 单页条数限制在 [1, MAX_PAGE_SIZE]
+     */
+    @Test
+    void clampsPageSize() {
+        CursorPagedDTO paged = new CursorPagedDTO();
+        paged.setPageSize(0);
+        assertEquals(1, paged.limit());
+        paged.setPageSize(CursorPagedDTO.MAX_PAGE_SIZE + 1);
+        assertEquals(CursorPagedDTO.MAX_PAGE_SIZE, paged.limit());
+        paged.setPageSize(20);
+        assertEquals(20, paged.limit());
+    }
+}
@@ -0,0 +1,56 @@
+package com.webapp.security.core.rbac;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 关联分配差异测试
+ */
+class AssignmentDeltaTest {
+
+    /**
+     * 只包含新增和删除的部分，保持目标/现有关联中的顺序
+     */
+    @Test
+    void computesAddedAndRemoved() {
+        AssignmentDelta delta = AssignmentDelta.of(7L, Arrays.asList(1L, 2L, 3L), Arrays.asList(3L, 4L, 1L, 5L));
+
+        assertEquals(Long.valueOf(7L), delta.getOwnerId());
+        assertEquals(Arrays.asList(4L, 5L), delta.getAdded());
+        assertEquals(Collections.singletonList(2L), delta.getRemoved());
+        assertFalse(delta.isEmpty());
+    }
+
+    /**
+     * null集合、null元素和重复ID被忽略
+     */
+    @Test
+    void ignoresNullsAndDuplicates() {
+        AssignmentDelta delta = AssignmentDelta.of(1L, Arrays.asList(2L, null, 2L), Arrays.asList(null, 2L, 2L));
+        assertTrue(delta.isEmpty());
+
+        AssignmentDelta fromNothing = AssignmentDelta.of(1L, null, Arrays.asList(3L, 3L));
+        assertEquals(Collections.singletonList(3L), fromNothing.getAdded());
+        assertTrue(fromNothing.getRemoved().isEmpty());
+
+        AssignmentDelta toNothing = AssignmentDelta.of(1L, Arrays.asList(3L, 4L), null);
+        assertTrue(toNothing.getAdded().isEmpty());
+        assertEquals(Arrays.asList(3L, 4L), toNothing.getRemoved());
+    }
+
+    /**
+     * 结果不可修改
+     */
+    @Test
+    void resultIsUnmodifiable() {
+        AssignmentDelta delta = AssignmentDelta.of(1L, Collections.emptyList(), Collections.singletonList(2L));
+        assertThrows(UnsupportedOperationException.class, () -> delta.getAdded().add(3L));
+    }
+}
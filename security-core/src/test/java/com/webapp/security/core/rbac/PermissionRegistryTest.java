@@ -0,0 +1,79 @@
+package com.webapp.security.core.rbac;
+
+import com.webapp.security.core.entity.SysPermission;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 权限注册表快照测试
+ */
+class PermissionRegistryTest {
+
+    /**
+     * 已注册的编码写入位图并可按位下标还原，未注册的编码单独保留
+     */
+    @Test
+    void encodesAndDecodesBits() {
+        PermissionRegistry.Snapshot snapshot = PermissionRegistry.Snapshot.of(Arrays.asList(
+                permission(3L, "USER_QUERY"), permission(1L, "USER_CREATE"), permission(70L, "SYSTEM_MONITOR")));
+
+        PermissionRegistry.Encoded encoded = snapshot.encode(Arrays.asList("SYSTEM_MONITOR", "USER_QUERY", "ADHOC"));
+
+        assertEquals(snapshot.getVersion(), encoded.getVersion());
+        assertEquals(Collections.singletonList("ADHOC"), encoded.getUnregistered());
+        assertEquals(Arrays.asList("USER_QUERY", "SYSTEM_MONITOR"), snapshot.decode(encoded.getBits()));
+        assertTrue(snapshot.decode(null).isEmpty());
+        assertTrue(snapshot.decode("").isEmpty());
+    }
+
+    /**
+     * 版本只取决于 id=code 映射，与加载顺序无关；缺少ID或编码的记录被忽略
+     */
+    @Test
+    void versionDependsOnlyOnMapping() {
+        List<SysPermission> permissions = Arrays.asList(permission(1L, "A"), permission(2L, "B"));
+        PermissionRegistry.Snapshot snapshot = PermissionRegistry.Snapshot.of(permissions);
+
+        PermissionRegistry.Snapshot reordered = PermissionRegistry.Snapshot.of(Arrays.asList(
+                permission(2L, "B"), permission(null, "C"), permission(4L, null), permission(1L, "A")));
+        assertEquals(snapshot.getVersion(), reordered.getVersion());
+        assertEquals(2, reordered.size());
+
+        PermissionRegistry.Snapshot renamed = PermissionRegistry.Snapshot.of(
+                Arrays.asList(permission(1L, "A"), permission(2L, "B2")));
+        assertNotEquals(snapshot.getVersion(), renamed.getVersion());
+    }
+
+    /**
+     * 本地注册表没有的位（新增的权限）解码时被忽略，其余位正常还原
+     */
+    @Test
+    void decodeSkipsUnknownBits() {
+        PermissionRegistry.Snapshot newer = PermissionRegistry.Snapshot.of(Arrays.asList(
+                permission(1L, "A"), permission(2L, "B"), permission(200L, "NEW")));
+        PermissionRegistry.Snapshot older = PermissionRegistry.Snapshot.of(Arrays.asList(
+                permission(1L, "A"), permission(2L, "B")));
+
+        String bits = newer.encode(Arrays.asList("A", "NEW")).getBits();
+
+        assertEquals(Collections.singletonList("A"), older.decode(bits));
+        assertTrue(older.containsAll(Arrays.asList("A", "B")));
+        assertFalse(older.containsAll(Arrays.asList("A", "NEW")));
+    }
+
+    private static SysPermission permission(Long id, String code) {
+        SysPermission permission = new SysPermission();
+        permission.setPermissionId(id);
+        permission.setPermCode(code);
+        permission.setStatus(1);
+        return permission;
+    }
+}
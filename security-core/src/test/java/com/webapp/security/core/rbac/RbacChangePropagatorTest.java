@@ -0,0 +1,89 @@
+package com.webapp.security.core.rbac;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * RBAC变更传播测试
+ */
+class RbacChangePropagatorTest {
+
+    private static final long ROLE = 1L;
+
+    /**
+     * 只失效持有变更角色的已缓存用户，移除后不再失效
+     */
+    @Test
+    void propagatesToTrackedMembersOnly() {
+        List<Long> invalidated = new ArrayList<>();
+        RbacChangePropagator propagator = propagator(invalidated);
+        propagator.track(100L, new long[] {ROLE, 2L});
+        propagator.track(200L, new long[] {2L});
+
+        assertEquals(1, propagator.propagateRoles(Collections.singletonList(ROLE)));
+        assertEquals(Collections.singletonList(100L), invalidated);
+
+        propagator.untrack(100L, new long[] {ROLE, 2L});
+        assertEquals(0, propagator.propagateRoles(Collections.singletonList(ROLE)));
+        assertEquals(1, propagator.getStats().get("indexedRoles"));
+    }
+
+    /**
+     * 最后一个成员移除的同时有新成员加入：新成员不会随空集合一起被丢弃
+     */
+    @Test
+    void keepsMemberTrackedWhileLastMemberLeaves() throws InterruptedException {
+        for (int round = 0; round < 2000; round++) {
+            List<Long> invalidated = Collections.synchronizedList(new ArrayList<>());
+            RbacChangePropagator propagator = propagator(invalidated);
+            propagator.track(100L, new long[] {ROLE});
+
+            CountDownLatch start = new CountDownLatch(1);
+            Thread leaving = new Thread(() -> {
+                await(start);
+                propagator.untrack(100L, new long[] {ROLE});
+            });
+            Thread joining = new Thread(() -> {
+                await(start);
+                propagator.track(200L, new long[] {ROLE});
+            });
+            leaving.start();
+            joining.start();
+            start.countDown();
+            leaving.join();
+            joining.join();
+
+            propagator.propagateRoles(Collections.singletonList(ROLE));
+            assertEquals(Collections.singletonList(200L), invalidated, "round " + round);
+        }
+    }
+
+    private static RbacChangePropagator propagator(List<Long> invalidated) {
+        RbacChangePropagator propagator = new RbacChangePropagator(10_000);
+        propagator.addListener(new RbacChangePropagator.Listener() {
+            @Override
+            public void invalidate(long userId) {
+                invalidated.add(userId);
+            }
+
+            @Override
+            public void invalidateAll() {
+            }
+        });
+        return propagator;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
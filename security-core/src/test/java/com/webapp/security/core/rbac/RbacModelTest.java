@@ -0,0 +1,197 @@
+package com.webapp.security.core.rbac;
+
+import com.webapp.security.core.entity.SysPermission;
+import com.webapp.security.core.entity.SysRbacChangeLog;
+import com.webapp.security.core.entity.SysRole;
+import com.webapp.security.core.entity.SysRolePermission;
+import com.webapp.security.core.mapper.SysPermissionMapper;
+import com.webapp.security.core.mapper.SysRoleMapper;
+import com.webapp.security.core.mapper.SysRolePermissionMapper;
+import com.webapp.security.core.mapper.SysUserRoleMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 内存RBAC模型测试
+ * 映射器和版本号用mock代替，变更传播使用真实的RbacChangePropagator并记录失效回调。
+ */
+class RbacModelTest {
+
+    private static final long ADMIN = 10L;
+    private static final long AUDITOR = 20L;
+    private static final long LEGACY = 30L;
+
+    private final SysRoleMapper roleMapper = mock(SysRoleMapper.class);
+    private final SysPermissionMapper permissionMapper = mock(SysPermissionMapper.class);
+    private final SysRolePermissionMapper rolePermissionMapper = mock(SysRolePermissionMapper.class);
+    private final SysUserRoleMapper userRoleMapper = mock(SysUserRoleMapper.class);
+    private final RbacVersion rbacVersion = mock(RbacVersion.class);
+    private final List<Long> invalidatedUsers = new ArrayList<>();
+    private int fullInvalidations;
+
+    private RbacModel model;
+
+    @BeforeEach
+    void setUp() {
+        when(permissionMapper.selectList(any())).thenReturn(Arrays.asList(
+                permission(1L, "USER_QUERY", 1), permission(2L, "USER_CREATE", 1), permission(3L, "ROLE_QUERY", 0)));
+        when(roleMapper.selectList(any())).thenReturn(Arrays.asList(
+                role(ADMIN, "ADMIN", 1), role(AUDITOR, "AUDITOR", 1), role(LEGACY, "LEGACY", 0)));
+        when(rolePermissionMapper.selectList(any())).thenReturn(Arrays.asList(
+                rolePermission(ADMIN, 1L), rolePermission(ADMIN, 2L), rolePermission(ADMIN, 3L),
+                rolePermission(AUDITOR, 1L), rolePermission(LEGACY, 2L)));
+        when(userRoleMapper.selectActiveUserRoleIds(100L)).thenReturn(Arrays.asList(LEGACY, ADMIN));
+        when(userRoleMapper.selectActiveUserRoleIds(200L)).thenReturn(Collections.singletonList(AUDITOR));
+        when(rbacVersion.current()).thenReturn(5L);
+
+        RbacChangePropagator propagator = new RbacChangePropagator(10_000);
+        propagator.addListener(new RbacChangePropagator.Listener() {
+            @Override
+            public void invalidate(long userId) {
+                invalidatedUsers.add(userId);
+            }
+
+            @Override
+            public void invalidateAll() {
+                fullInvalidations++;
+            }
+        });
+        model = new RbacModel(roleMapper, permissionMapper, rolePermissionMapper, userRoleMapper, rbacVersion,
+                propagator, 1000, 3600);
+    }
+
+    /**
+     * 只包含启用的角色和启用的权限，用户角色读取后被缓存
+     */
+    @Test
+    void resolvesEnabledRolesAndPermissions() {
+        RbacModel.Resolution admin = model.resolve(100L);
+        assertEquals(Arrays.asList("USER_QUERY", "USER_CREATE"), admin.getPermissions());
+        assertEquals(Collections.singletonList("ADMIN"), admin.getRoles());
+
+        RbacModel.Resolution auditor = model.resolve(200L);
+        assertEquals(Collections.singletonList("USER_QUERY"), auditor.getPermissions());
+        assertEquals(Collections.singletonList("AUDITOR"), auditor.getRoles());
+
+        model.resolve(100L);
+        verify(userRoleMapper, times(1)).selectActiveUserRoleIds(100L);
+        assertTrue(model.isUserCached(100L));
+        assertEquals(5L, model.appliedVersion());
+    }
+
+    /**
+     * 角色权限变更：只重新加载该角色，只失效持有该角色的已缓存用户
+     */
+    @Test
+    void appliesRoleChangeIncrementally() {
+        model.resolve(100L);
+        model.resolve(200L);
+        when(roleMapper.selectById(AUDITOR)).thenReturn(role(AUDITOR, "AUDITOR", 1));
+        when(rolePermissionMapper.selectPermissionIdsByRoleId(AUDITOR)).thenReturn(Arrays.asList(1L, 2L));
+        advanceTo(6L, change(SysRbacChangeLog.ROLE, AUDITOR));
+
+        assertEquals(Arrays.asList("USER_QUERY", "USER_CREATE"), model.resolve(200L).getPermissions());
+        assertEquals(Collections.singletonList(200L), invalidatedUsers);
+        assertEquals(0, fullInvalidations);
+        verify(roleMapper, times(1)).selectList(any());
+    }
+
+    /**
+     * 用户角色变更：只丢弃该用户的角色缓存，下次解析重新读取
+     */
+    @Test
+    void appliesUserRoleChange() {
+        model.resolve(100L);
+        model.resolve(200L);
+        when(userRoleMapper.selectActiveUserRoleIds(100L)).thenReturn(Collections.singletonList(AUDITOR));
+        advanceTo(6L, change(SysRbacChangeLog.USER_ROLE, 100L));
+
+        model.current();
+        assertFalse(model.isUserCached(100L));
+        assertTrue(model.isUserCached(200L));
+        assertEquals(Collections.singletonList(100L), invalidatedUsers);
+        assertEquals(Collections.singletonList("AUDITOR"), model.resolve(100L).getRoles());
+    }
+
+    /**
+     * 权限变更：重新加载权限表，并重新加载持有该权限的角色
+     */
+    @Test
+    void appliesPermissionChange() {
+        model.resolve(100L);
+        model.resolve(200L);
+        when(permissionMapper.selectList(any())).thenReturn(Arrays.asList(
+                permission(1L, "USER_QUERY", 1), permission(2L, "USER_CREATE", 1), permission(3L, "ROLE_QUERY", 1)));
+        when(roleMapper.selectById(ADMIN)).thenReturn(role(ADMIN, "ADMIN", 1));
+        when(rolePermissionMapper.selectPermissionIdsByRoleId(ADMIN)).thenReturn(Arrays.asList(1L, 2L, 3L));
+        advanceTo(6L, change(SysRbacChangeLog.PERMISSION, 3L));
+
+        assertEquals(Arrays.asList("USER_QUERY", "USER_CREATE", "ROLE_QUERY"), model.resolve(100L).getPermissions());
+        assertEquals(Collections.singletonList(100L), invalidatedUsers);
+    }
+
+    /**
+     * 变更日志不连续时全量重建，本节点用户缓存全部失效
+     */
+    @Test
+    void rebuildsWhenChangeLogHasGaps() {
+        model.resolve(100L);
+        when(rbacVersion.current()).thenReturn(8L);
+        when(rbacVersion.changesBetween(5L, 8L)).thenReturn(
+                Collections.singletonList(change(SysRbacChangeLog.ROLE, ADMIN)));
+
+        assertEquals(8L, model.current().getVersion());
+        assertEquals(1, fullInvalidations);
+        assertFalse(model.isUserCached(100L));
+        verify(roleMapper, times(2)).selectList(any());
+    }
+
+    private void advanceTo(long version, SysRbacChangeLog change) {
+        when(rbacVersion.current()).thenReturn(version);
+        when(rbacVersion.changesBetween(version - 1, version)).thenReturn(Collections.singletonList(change));
+    }
+
+    private static SysRbacChangeLog change(String type, Long targetId) {
+        SysRbacChangeLog change = new SysRbacChangeLog();
+        change.setChangeType(type);
+        change.setTargetId(targetId);
+        return change;
+    }
+
+    private static SysPermission permission(Long id, String code, int status) {
+        SysPermission permission = new SysPermission();
+        permission.setPermissionId(id);
+        permission.setPermCode(code);
+        permission.setStatus(status);
+        return permission;
+    }
+
+    private static SysRole role(Long id, String code, int status) {
+        SysRole role = new SysRole();
+        role.setRoleId(id);
+        role.setRoleCode(code);
+        role.setStatus(status);
+        return role;
+    }
+
+    private static SysRolePermission rolePermission(Long roleId, Long permissionId) {
+        SysRolePermission relation = new SysRolePermission();
+        relation.setRoleId(roleId);
+        relation.setPermissionId(permissionId);
+        return relation;
+    }
+}
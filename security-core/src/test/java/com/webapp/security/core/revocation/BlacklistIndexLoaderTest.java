@@ -0,0 +1,152 @@
+package com.webapp.security.core.revocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 黑名单索引分页加载测试
+ */
+class BlacklistIndexLoaderTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    /**
+     * 模拟Redis有序集合：按分数、成员排序，支持 ZRANGEBYSCORE min max LIMIT offset count
+     */
+    private static final class FakeIndex implements BlacklistIndexLoader.PageReader {
+
+        private final TreeSet<BlacklistIndexLoader.Entry> entries = new TreeSet<>(
+                Comparator.comparingLong(BlacklistIndexLoader.Entry::getExpiresAtMillis)
+                        .thenComparing(BlacklistIndexLoader.Entry::getJti));
+        private int reads;
+        private long rowsScanned;
+        private Runnable afterFirstRead = () -> {
+        };
+
+        void add(String jti, long expiresAtMillis) {
+            entries.add(new BlacklistIndexLoader.Entry(jti, expiresAtMillis));
+        }
+
+        void removeBefore(long score) {
+            entries.removeIf(entry -> entry.getExpiresAtMillis() < score);
+        }
+
+        @Override
+        public List<BlacklistIndexLoader.Entry> read(long minScore, long maxScore, long offset, int count) {
+            List<BlacklistIndexLoader.Entry> page = new ArrayList<>();
+            long skipped = 0;
+            for (BlacklistIndexLoader.Entry entry : entries) {
+                if (entry.getExpiresAtMillis() < minScore) {
+                    continue;
+                }
+                if (entry.getExpiresAtMillis() > maxScore) {
+                    break;
+                }
+                rowsScanned++;
+                if (skipped < offset) {
+                    skipped++;
+                    continue;
+                }
+                if (page.size() == count) {
+                    break;
+                }
+                page.add(entry);
+            }
+            if (++reads == 1) {
+                afterFirstRead.run();
+            }
+            return page;
+        }
+    }
+
+    /**
+     * 加载过程中有条目过期被清理，后面未过期的条目不能被跳过
+     */
+    @Test
+    void entriesExpiringMidRebuildDoNotHideLiveEntries() {
+        FakeIndex index = new FakeIndex();
+        for (int i = 1; i <= 10; i++) {
+            index.add("jti-" + i, NOW + i);
+        }
+        // 第一页读完后前三个条目过期并被ZREMRANGEBYSCORE清理
+        index.afterFirstRead = () -> index.removeBefore(NOW + 4);
+
+        Set<String> loaded = new HashSet<>();
+        BlacklistIndexLoader.load(index, NOW, 3, (jti, expiresAt) -> loaded.add(jti));
+
+        for (int i = 4; i <= 10; i++) {
+            assertTrue(loaded.contains("jti-" + i), "未过期的条目被跳过: jti-" + i);
+        }
+    }
+
+    /**
+     * 已过期的条目不加载
+     */
+    @Test
+    void skipsEntriesExpiredBeforeStart() {
+        FakeIndex index = new FakeIndex();
+        index.add("old", NOW - 1);
+        index.add("live", NOW + 1);
+
+        Set<String> loaded = new HashSet<>();
+        long count = BlacklistIndexLoader.load(index, NOW, 10, (jti, expiresAt) -> loaded.add(jti));
+
+        assertEquals(1, count);
+        assertEquals(Set.of("live"), loaded);
+    }
+
+    /**
+     * 相同分数跨越多页时不丢失、不死循环
+     */
+    @Test
+    void handlesRunsOfEqualScoresAcrossPages() {
+        FakeIndex index = new FakeIndex();
+        for (int i = 0; i < 7; i++) {
+            index.add("same-" + i, NOW + 5);
+        }
+        for (int i = 0; i < 4; i++) {
+            index.add("later-" + i, NOW + 6 + i);
+        }
+
+        Set<String> loaded = new HashSet<>();
+        BlacklistIndexLoader.load(index, NOW, 3, (jti, expiresAt) -> loaded.add(jti));
+
+        assertEquals(11, loaded.size());
+    }
+
+    /**
+     * 读取量与索引大小成线性关系（按分数翻页，而不是从头偏移）
+     */
+    @Test
+    void scansLinearly() {
+        FakeIndex index = new FakeIndex();
+        int size = 10_000;
+        for (int i = 0; i < size; i++) {
+            index.add("jti-" + i, NOW + 1 + i);
+        }
+
+        long count = BlacklistIndexLoader.load(index, NOW, 100, (jti, expiresAt) -> {
+        });
+
+        assertEquals(size, count);
+        // 每次读取最多多扫描一个条目
+        assertTrue(index.rowsScanned <= size + index.reads, "扫描行数: " + index.rowsScanned);
+    }
+
+    @Test
+    void rejectsNonPositivePageSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> BlacklistIndexLoader.load(new FakeIndex(), NOW, 0, (jti, expiresAt) -> {
+                }));
+    }
+}
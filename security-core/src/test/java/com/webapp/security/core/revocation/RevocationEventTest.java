@@ -0,0 +1,76 @@
+package com.webapp.security.core.revocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 撤销事件编解码测试
+ */
+class RevocationEventTest {
+
+    @Test
+    void singleEventRoundTrip() {
+        RevocationEvent event = RevocationEvent.decode(RevocationEvent.add("jti-1", 1000L).encode());
+
+        assertEquals(RevocationEvent.Type.ADD, event.getType());
+        assertEquals("jti-1", event.getSubject());
+        assertEquals(1000L, event.getTimestampMillis());
+    }
+
+    /**
+     * 批量消息解析出全部事件，单条消息也可以按批量方式解析
+     */
+    @Test
+    void batchRoundTrip() {
+        String message = RevocationEvent.encodeAll(Arrays.asList(
+                RevocationEvent.add("jti-1", 1000L), RevocationEvent.add("jti-2", 2000L)));
+
+        List<RevocationEvent> events = RevocationEvent.decodeAll(message);
+
+        assertEquals(2, events.size());
+        assertEquals("jti-2", events.get(1).getSubject());
+        assertEquals(2000L, events.get(1).getTimestampMillis());
+        assertEquals(1, RevocationEvent.decodeAll(RevocationEvent.remove("jti-3").encode()).size());
+    }
+
+    /**
+     * 兼容JSON序列化器：整体带引号、换行被转义
+     */
+    @Test
+    void decodesJsonQuotedBatch() {
+        String message = "\"BATCH\\nADD:1000:jti-1\\nADD:2000:jti-2\"";
+
+        List<RevocationEvent> events = RevocationEvent.decodeAll(message);
+
+        assertEquals(2, events.size());
+        assertEquals("jti-1", events.get(0).getSubject());
+    }
+
+    /**
+     * 格式不正确的事件被跳过
+     */
+    @Test
+    void skipsMalformedEvents() {
+        assertNull(RevocationEvent.decode("ADD:not-a-number:jti"));
+        assertTrue(RevocationEvent.decodeAll("UNKNOWN:1:x").isEmpty());
+        assertEquals(1, RevocationEvent.decodeAll("BATCH\nADD:1:a\nbroken\n").size());
+    }
+
+    /**
+     * 用户名中的冒号保留在subject中
+     */
+    @Test
+    void subjectMayContainColons() {
+        RevocationEvent event = RevocationEvent.decode(
+                RevocationEvent.watermark(WatermarkScope.PRINCIPAL, "a:b", 5L).encode());
+
+        assertEquals(RevocationEvent.Type.PRINCIPAL_WATERMARK, event.getType());
+        assertEquals("a:b", event.getSubject());
+    }
+}
@@ -0,0 +1,85 @@
+package com.webapp.security.core.revocation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 按过期时间分片的布隆过滤器测试
+ */
+class RotatingBloomFilterTest {
+
+    private static final long SLICE_MILLIS = 60_000L;
+
+    /**
+     * 已添加的元素一定命中，null和已过期的元素不会被添加
+     */
+    @Test
+    void containsAddedElements() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(SLICE_MILLIS, 1000, 0.001);
+        long expiresAt = System.currentTimeMillis() + SLICE_MILLIS * 3;
+        for (int i = 0; i < 500; i++) {
+            filter.put("jti-" + i, expiresAt);
+        }
+        filter.put("expired", System.currentTimeMillis() - 1);
+        filter.put(null, expiresAt);
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(filter.mightContain("jti-" + i));
+        }
+        assertFalse(filter.mightContain(null));
+        assertEquals(1, filter.sliceCount());
+    }
+
+    /**
+     * 误判率在期望值附近
+     */
+    @Test
+    void falsePositiveRateIsBounded() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(SLICE_MILLIS, 1000, 0.01);
+        long expiresAt = System.currentTimeMillis() + SLICE_MILLIS;
+        for (int i = 0; i < 1000; i++) {
+            filter.put("revoked-" + i, expiresAt);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("active-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "falsePositives: " + falsePositives);
+    }
+
+    /**
+     * 元素按过期时间进入不同时间片，整片过期后被丢弃且不再命中
+     */
+    @Test
+    void expiresWholeSlices() throws InterruptedException {
+        long slice = 50L;
+        RotatingBloomFilter filter = new RotatingBloomFilter(slice, 100, 0.001);
+        long now = System.currentTimeMillis();
+        filter.put("short", now + slice);
+        filter.put("long", now + slice * 100);
+        assertEquals(2, filter.sliceCount());
+
+        Thread.sleep(slice * 3);
+
+        assertFalse(filter.mightContain("short"));
+        assertTrue(filter.mightContain("long"));
+        assertEquals(1, filter.expire());
+        assertEquals(1, filter.sliceCount());
+        assertEquals(1L, filter.approximateElementCount());
+
+        filter.clear();
+        assertFalse(filter.mightContain("long"));
+    }
+
+    @Test
+    void rejectsNonPositiveSlice() {
+        assertThrows(IllegalArgumentException.class, () -> new RotatingBloomFilter(0, 100, 0.01));
+    }
+}
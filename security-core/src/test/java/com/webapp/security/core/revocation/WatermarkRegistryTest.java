@@ -0,0 +1,73 @@
+package com.webapp.security.core.revocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 撤销水位线测试
+ */
+class WatermarkRegistryTest {
+
+    private static final long WATERMARK = 1_700_000_000_500L;
+
+    /**
+     * iat只精确到秒：水位线之前的秒内签发的令牌被撤销，同一秒及之后签发的不受影响
+     */
+    @Test
+    void comparesIssuedAtInSeconds() {
+        WatermarkRegistry registry = new WatermarkRegistry();
+        registry.update(WatermarkScope.PRINCIPAL, "alice", WATERMARK);
+
+        assertTrue(registry.isRevoked("alice", null, Instant.ofEpochSecond(1_699_999_999L)));
+        assertFalse(registry.isRevoked("alice", null, Instant.ofEpochSecond(1_700_000_000L)));
+        assertFalse(registry.isRevoked("alice", null, Instant.ofEpochSecond(1_700_000_001L)));
+    }
+
+    /**
+     * 没有签发时间的令牌只要存在水位线即视为已撤销
+     */
+    @Test
+    void missingIssuedAtIsRevokedWhenWatermarkExists() {
+        WatermarkRegistry registry = new WatermarkRegistry();
+        registry.update(WatermarkScope.CLIENT, "client-a", WATERMARK);
+
+        assertTrue(registry.isRevoked(null, "client-a", null));
+        assertFalse(registry.isRevoked(null, "client-b", null));
+        assertFalse(registry.isRevoked("client-a", null, null));
+    }
+
+    /**
+     * 水位线只前移不后退
+     */
+    @Test
+    void watermarkOnlyMovesForward() {
+        WatermarkRegistry registry = new WatermarkRegistry();
+        registry.update(WatermarkScope.PRINCIPAL, "alice", WATERMARK);
+        registry.update(WatermarkScope.PRINCIPAL, "alice", WATERMARK - 10_000L);
+        registry.updateAll(WatermarkScope.PRINCIPAL, Map.of("alice", WATERMARK - 20_000L));
+
+        assertTrue(registry.isRevoked("alice", null, Instant.ofEpochSecond(1_699_999_999L)));
+    }
+
+    /**
+     * 清理早于保留时长的水位线
+     */
+    @Test
+    void pruneRemovesOldWatermarks() {
+        WatermarkRegistry registry = new WatermarkRegistry();
+        registry.update(WatermarkScope.PRINCIPAL, "old", 1_000L);
+        registry.update(WatermarkScope.CLIENT, "new", WATERMARK);
+
+        registry.prune(2_000L);
+
+        assertEquals(1, registry.size());
+        assertFalse(registry.isRevoked("old", null, null));
+        assertTrue(registry.isRevoked(null, "new", null));
+    }
+}
@@ -0,0 +1,154 @@
+package com.webapp.security.core.search;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisSqlSessionFactoryBuilder;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.webapp.security.core.entity.SysUser;
+import com.webapp.security.core.mapper.SysUserMapper;
+import com.webapp.security.core.model.CursorPagedResult;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 用户检索的测试（H2，MySQL兼容模式）
+ * H2不支持FULLTEXT，这里覆盖前缀检索与排序、LIKE回退，以及关键字与状态、游标条件的组合；
+ * ngram全文检索分支需在MySQL上验证。
+ */
+class UserSearchTest {
+
+    private SqlSession session;
+    private SysUserMapper userMapper;
+    private Long aliceId;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:user_search_" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;INIT=RUNSCRIPT FROM 'classpath:schema/sys_user.sql'");
+        MybatisConfiguration configuration = new MybatisConfiguration(
+                new Environment("test", new JdbcTransactionFactory(), dataSource));
+        configuration.setMapUnderscoreToCamelCase(true);
+        configuration.addMapper(SysUserMapper.class);
+        session = new MybatisSqlSessionFactoryBuilder().build(configuration).openSession(true);
+        userMapper = session.getMapper(SysUserMapper.class);
+
+        insert("ali", "阿里", "ali@example.com", "13600000000", 1);
+        aliceId = insert("alice", "爱丽丝", "alice@example.com", "13800000001", 1);
+        insert("alicia", "艾莉西亚", "alicia@example.com", "13800000002", 0);
+        insert("bob", "鲍勃", "bob.alice@example.com", "13900000003", 1);
+        insert("malice", "马力", "m@example.com", "13700000004", 1);
+        insert("carol", "卡罗尔", "ali.carol@example.com", "13500000005", 1);
+        insert("a_b", null, null, null, 1);
+        userMapper.deleteById(insert("aliced", "已删除", "aliced@example.com", "13400000006", 1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        session.close();
+    }
+
+    /**
+     * 前缀检索合并各列结果：完全匹配在前，其次用户名前缀（短的在前），其次其他列前缀；已删除用户不返回
+     */
+    @Test
+    void ranksPrefixMatches() {
+        UserSearch search = new UserSearch(userMapper, true, 100);
+
+        assertEquals(Arrays.asList("ali", "alice", "alicia", "carol"), usernames(search.search("ali", 10)));
+        assertEquals(Arrays.asList("ali", "alice"), usernames(search.search(" ali ", 2)));
+        assertEquals(Arrays.asList("alicia"), usernames(search.search("13800000002", 10)));
+        assertTrue(search.search("  ", 10).isEmpty());
+    }
+
+    /**
+     * 关键字中的LIKE通配符按字面匹配
+     */
+    @Test
+    void escapesWildcardsInPrefix() {
+        UserSearch search = new UserSearch(userMapper, true, 100);
+
+        assertEquals(Arrays.asList("a_b"), usernames(search.search("a_", 10)));
+        assertTrue(search.search("%", 10).isEmpty());
+    }
+
+    /**
+     * 关闭全文检索时按子串匹配，关键字条件整体加括号，与状态、游标条件组合后逐页返回
+     */
+    @Test
+    void combinesLikeKeywordWithStatusAndCursor() {
+        UserSearch search = new UserSearch(userMapper, false, 2);
+
+        CursorPagedResult<String> first = page(search, "lic", null, 2);
+        assertEquals(Arrays.asList("alice", "bob"), first.getList());
+        assertTrue(first.isHasMore());
+
+        CursorPagedResult<String> second = page(search, "lic", first.getNextCursor(), 2);
+        assertEquals(Arrays.asList("malice"), second.getList());
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+
+        assertEquals(Arrays.asList("alice", "alicia"), usernames(search.search("alic", 2)));
+    }
+
+    /**
+     * 短于分词长度的关键字只做各列前缀匹配，同样可与状态、游标条件组合
+     */
+    @Test
+    void fallsBackToPrefixForShortKeywords() {
+        UserSearch search = new UserSearch(userMapper, true, 2);
+
+        CursorPagedResult<String> all = page(search, "a", null, 10);
+        assertEquals(Arrays.asList("ali", "alice", "carol", "a_b"), all.getList());
+        assertFalse(all.isHasMore());
+
+        CursorPagedResult<String> afterAlice = page(search, "a", aliceId, 1);
+        assertEquals(Arrays.asList("carol"), afterAlice.getList());
+        assertTrue(afterAlice.isHasMore());
+
+        assertEquals(Arrays.asList("bob"), page(search, "b", null, 10).getList());
+    }
+
+    /**
+     * 在UserController游标分页查询的基础上加了状态条件：关键字 + 仅启用用户 + 主键游标，
+     * 用于验证关键字条件整体加括号后不会吞掉状态条件
+     */
+    private CursorPagedResult<String> page(UserSearch search, String keyword, Long cursor, int limit) {
+        List<SysUser> rows = userMapper.selectList(search.applyKeyword(new LambdaQueryWrapper<>(), keyword)
+                .eq(SysUser::getStatus, 1)
+                .gt(cursor != null, SysUser::getUserId, cursor)
+                .orderByAsc(SysUser::getUserId)
+                .last("LIMIT " + (limit + 1)));
+        return CursorPagedResult.of(rows, limit, SysUser::getUserId, UserSearchTest::usernames);
+    }
+
+    private Long insert(String username, String realName, String email, String phone, int status) {
+        SysUser user = new SysUser();
+        user.setUsername(username);
+        user.setPassword("{noop}password");
+        user.setRealName(realName);
+        user.setEmail(email);
+        user.setPhone(phone);
+        user.setStatus(status);
+        userMapper.insert(user);
+        return user.getUserId();
+    }
+
+    private static List<String> usernames(List<SysUser> users) {
+        return users.stream().map(SysUser::getUsername).collect(Collectors.toList());
+    }
+}
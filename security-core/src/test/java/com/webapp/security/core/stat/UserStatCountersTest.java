@@ -0,0 +1,78 @@
+package com.webapp.security.core.stat;
+
+import com.webapp.security.core.mapper.SysStatCounterMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.intThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 用户统计计数测试
+ */
+class UserStatCountersTest {
+
+    private final SysStatCounterMapper counterMapper = mock(SysStatCounterMapper.class);
+    private UserStatCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = new UserStatCounters(counterMapper);
+        ReflectionTestUtils.setField(counters, "slots", 4);
+    }
+
+    /**
+     * 增减写入随机的槽位，槽位在配置范围内
+     */
+    @Test
+    void spreadsIncrementsOverSlots() {
+        for (int i = 0; i < 100; i++) {
+            counters.userCreated(1);
+        }
+
+        verify(counterMapper, times(100)).increment(eq(UserStatCounters.USER_TOTAL),
+                intThat(slot -> slot >= 0 && slot < 4), eq(1L));
+        verify(counterMapper, times(100)).increment(eq(UserStatCounters.USER_ACTIVE),
+                intThat(slot -> slot >= 0 && slot < 4), eq(1L));
+    }
+
+    /**
+     * 校准只补差值，不覆盖计数
+     */
+    @Test
+    void reconcileAppliesDrift() {
+        when(counterMapper.countUsers()).thenReturn(105L);
+        when(counterMapper.sumByKey(UserStatCounters.USER_TOTAL)).thenReturn(100L);
+        when(counterMapper.countActiveUsers()).thenReturn(80L);
+        when(counterMapper.sumByKey(UserStatCounters.USER_ACTIVE)).thenReturn(82L);
+
+        counters.reconcile();
+
+        verify(counterMapper).increment(eq(UserStatCounters.USER_TOTAL), anyInt(), eq(5L));
+        verify(counterMapper).increment(eq(UserStatCounters.USER_ACTIVE), anyInt(), eq(-2L));
+    }
+
+    /**
+     * 没有偏差时不写入
+     */
+    @Test
+    void reconcileSkipsWhenInSync() {
+        when(counterMapper.countUsers()).thenReturn(100L);
+        when(counterMapper.sumByKey(UserStatCounters.USER_TOTAL)).thenReturn(100L);
+        when(counterMapper.countActiveUsers()).thenReturn(80L);
+        when(counterMapper.sumByKey(UserStatCounters.USER_ACTIVE)).thenReturn(80L);
+
+        counters.reconcile();
+
+        verify(counterMapper, never()).increment(anyString(), anyInt(), anyLong());
+    }
+}
@@ -0,0 +1,15 @@
+-- 用户检索测试用表结构（与V1中的sys_user一致，去掉了H2不支持的表选项）
+CREATE TABLE IF NOT EXISTS sys_user (
+    user_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    real_name VARCHAR(100),
+    email VARCHAR(100),
+    phone VARCHAR(20),
+    status INT DEFAULT 1,
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP,
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP,
+    create_by VARCHAR(50),
+    update_by VARCHAR(50),
+    deleted INT DEFAULT 0
+);
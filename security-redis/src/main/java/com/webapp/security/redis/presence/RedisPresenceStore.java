@@ -0,0 +1,65 @@
+package com.webapp.security.redis.presence;
+
+import com.webapp.security.core.presence.PresenceKeys;
+import com.webapp.security.core.presence.PresenceStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Redis的在线状态存储，授权服务和资源服务共用同一组键
+ * 最近活跃时间存于有序集合（ZCOUNT计数，定期按分数裁剪），日活为每日一个HyperLogLog（约12KB），
+ * 月活通过PFCOUNT合并最近30天的日活键得出
+ */
+@Component
+@ConditionalOnProperty(name = "webapp.presence.store", havingValue = "redis", matchIfMissing = true)
+public class RedisPresenceStore implements PresenceStore {
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final long retentionDays;
+
+    public RedisPresenceStore(RedisTemplate<String, String> redisTemplate,
+            @Value("${webapp.presence.daily-retention-days:35}") long retentionDays) {
+        this.redisTemplate = redisTemplate;
+        this.retentionDays = retentionDays;
+    }
+
+    @Override
+    public void touch(String principal, long timestampMillis, LocalDate day) {
+        redisTemplate.opsForZSet().add(PresenceKeys.LAST_SEEN_KEY, principal, timestampMillis);
+        String dailyKey = PresenceKeys.daily(day);
+        Long changed = redisTemplate.opsForHyperLogLog().add(dailyKey, principal);
+        if (changed != null && changed > 0) {
+            redisTemplate.expire(dailyKey, retentionDays, TimeUnit.DAYS);
+        }
+    }
+
+    @Override
+    public long countActiveSince(long sinceMillis) {
+        Long count = redisTemplate.opsForZSet().count(PresenceKeys.LAST_SEEN_KEY, sinceMillis,
+                Double.POSITIVE_INFINITY);
+        return count != null ? count : 0L;
+    }
+
+    @Override
+    public long countDistinct(LocalDate from, LocalDate to) {
+        List<String> keys = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            keys.add(PresenceKeys.daily(day));
+        }
+        Long count = redisTemplate.opsForHyperLogLog().size(keys.toArray(new String[0]));
+        return count != null ? count : 0L;
+    }
+
+    @Override
+    public void trimBefore(long beforeMillis) {
+        redisTemplate.opsForZSet().removeRangeByScore(PresenceKeys.LAST_SEEN_KEY, Double.NEGATIVE_INFINITY,
+                beforeMillis - 1);
+    }
+}
@@ -0,0 +1,36 @@
+package com.webapp.security.redis.revocation;
+
+import com.webapp.security.core.revocation.BlacklistIndexLoader;
+import com.webapp.security.core.revocation.RevocationKeys;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 从Redis读取黑名单索引的一页（授权服务和资源服务共用）
+ */
+public class RedisBlacklistIndexReader implements BlacklistIndexLoader.PageReader {
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public RedisBlacklistIndexReader(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public List<BlacklistIndexLoader.Entry> read(long minScore, long maxScore, long offset, int count) {
+        Set<ZSetOperations.TypedTuple<String>> page = redisTemplate.opsForZSet().rangeByScoreWithScores(
+                RevocationKeys.BLACKLIST_INDEX_KEY, minScore, maxScore, offset, count);
+        List<BlacklistIndexLoader.Entry> entries = new ArrayList<>(page != null ? page.size() : 0);
+        if (page != null) {
+            for (ZSetOperations.TypedTuple<String> tuple : page) {
+                long score = tuple.getScore() != null ? tuple.getScore().longValue() : minScore;
+                entries.add(new BlacklistIndexLoader.Entry(tuple.getValue(), score));
+            }
+        }
+        return entries;
+    }
+}
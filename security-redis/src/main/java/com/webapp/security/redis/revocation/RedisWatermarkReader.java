@@ -0,0 +1,50 @@
+package com.webapp.security.redis.revocation;
+
+import com.webapp.security.core.revocation.WatermarkScope;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 分页读取Redis中的撤销水位线（授权服务和资源服务共用）
+ * 用HSCAN增量遍历，不用HGETALL一次读出整个哈希，水位线数量随用户数增长时不会阻塞Redis。
+ * HSCAN可能重复返回同一字段，水位线只前移，重复合并不影响结果
+ */
+public class RedisWatermarkReader {
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final int pageSize;
+
+    public RedisWatermarkReader(RedisTemplate<String, String> redisTemplate, int pageSize) {
+        this.redisTemplate = redisTemplate;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * 逐页读取指定范围的水位线
+     *
+     * @param page 每页的水位线（用户名/客户端ID -> 毫秒时间戳）
+     */
+    public void forEachPage(WatermarkScope scope, Consumer<Map<String, Long>> page) {
+        ScanOptions options = ScanOptions.scanOptions().count(pageSize).build();
+        Map<String, Long> entries = new HashMap<>();
+        try (Cursor<Map.Entry<Object, Object>> cursor = redisTemplate.opsForHash().scan(scope.getRedisKey(),
+                options)) {
+            while (cursor.hasNext()) {
+                Map.Entry<Object, Object> entry = cursor.next();
+                entries.put(entry.getKey().toString(), Long.valueOf(entry.getValue().toString()));
+                if (entries.size() >= pageSize) {
+                    page.accept(entries);
+                    entries = new HashMap<>();
+                }
+            }
+        }
+        if (!entries.isEmpty()) {
+            page.accept(entries);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.webapp.security.sso;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 认证授权服务启动类
@@ -13,6 +14,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  */
 @SpringBootApplication(scanBasePackages = "com.webapp.security")
 @MapperScan({"com.webapp.security.sso.mapper", "com.webapp.security.core.mapper"})
+@EnableScheduling
 public class SecuritySSOApplication {
     public static void main(String[] args) {
         SpringApplication.run(SecuritySSOApplication.class, args);
@@ -4,6 +4,10 @@ import com.webapp.security.core.entity.SysClientCredential;
 import com.webapp.security.core.model.OAuth2ErrorResponse;
 import com.webapp.security.core.service.SysClientCredentialService;
 import com.webapp.security.sso.auths.api.service.TokenIntrospectionService;
+import com.webapp.security.sso.auths.oauth2.service.HashingRejectedException;
+import com.webapp.security.sso.guard.AttemptKey;
+import com.webapp.security.sso.guard.LoginAttemptGuard;
+import com.webapp.security.sso.guard.LoginBlockedException;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +35,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * OpenAPI Token控制器
@@ -50,6 +55,7 @@ public class OpenApiTokenController {
     private final OAuth2AuthorizationService authorizationService;
     private final OAuth2TokenGenerator<OAuth2Token> tokenGenerator;
     private final TokenIntrospectionService introspectionService;
+    private final LoginAttemptGuard loginAttemptGuard;
 
     @Value("${oauth2.server.base-url:https://885ro126ov70.vicp.fun}")
     private String serverBaseUrl;
@@ -111,10 +117,14 @@ public class OpenApiTokenController {
 
             log.info("Parsed credentials - appId: {}", appId);
 
-            // 5. 验证appid和appsecret
+            // 5. 验证appid和appsecret（先检查失败次数，被拦截时不查库也不计算哈希）
+            AttemptKey appKey = AttemptKey.client(appId);
+            AttemptKey ipKey = AttemptKey.ip(request.getRemoteAddr());
+            loginAttemptGuard.checkAllowed(appKey, ipKey);
             SysClientCredential credential = credentialService.findByAppId(appId);
             if (credential == null) {
                 log.warn("AppId not found: {}", appId);
+                loginAttemptGuard.recordFailure(appKey, ipKey);
                 return createErrorResponse("invalid_client",
                         "Invalid client credentials", 401);
             }
@@ -129,9 +139,11 @@ public class OpenApiTokenController {
             // 验证密钥
             if (!passwordEncoder.matches(appSecret, credential.getAppSecret())) {
                 log.warn("Invalid appSecret for appId: {}", appId);
+                loginAttemptGuard.recordFailure(appKey, ipKey);
                 return createErrorResponse("invalid_client",
                         "Invalid client credentials", 401);
             }
+            loginAttemptGuard.recordSuccess(appKey, ipKey);
 
             // 6. 验证clientId匹配
             if (!OAUTH2_CLIENT_ID.equals(credential.getClientId())) {
@@ -212,6 +224,12 @@ public class OpenApiTokenController {
 
             log.info("Authorization saved with appId: {}", appId);
             return ResponseEntity.ok(result);
+        } catch (LoginBlockedException e) {
+            return OAuth2ErrorResponse.tooManyRequests(e.getMessage(), e.getRetryAfterSeconds());
+        } catch (RejectedExecutionException e) {
+            log.warn("OpenAPI token request rejected: {}", e.getMessage());
+            return OAuth2ErrorResponse.unavailable("Server busy, please retry later",
+                    HashingRejectedException.retryAfterSeconds(e));
         } catch (Exception e) {
             log.error("Error processing token request", e);
             return createErrorResponse("server_error",
@@ -2,6 +2,11 @@ package com.webapp.security.sso.auths.api.controller;
 
 import com.webapp.security.core.model.OAuth2ErrorResponse;
 import com.webapp.security.sso.auths.api.service.TokenIntrospectionService;
+import com.webapp.security.sso.auths.oauth2.service.HashingRejectedException;
+import com.webapp.security.sso.guard.AttemptKey;
+import com.webapp.security.sso.guard.LoginAttemptGuard;
+import com.webapp.security.sso.guard.LoginBlockedException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +29,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 令牌自省控制器
@@ -38,17 +44,20 @@ public class TokenIntrospectionController {
     private final RegisteredClientRepository registeredClientRepository;
     private final TokenIntrospectionService tokenIntrospectionService;
     private final PasswordEncoder passwordEncoder;
+    private final LoginAttemptGuard loginAttemptGuard;
 
     @Autowired
     public TokenIntrospectionController(
             OAuth2AuthorizationService authorizationService,
             RegisteredClientRepository registeredClientRepository,
             TokenIntrospectionService tokenIntrospectionService,
-            PasswordEncoder passwordEncoder) {
+            PasswordEncoder passwordEncoder,
+            LoginAttemptGuard loginAttemptGuard) {
         this.authorizationService = authorizationService;
         this.registeredClientRepository = registeredClientRepository;
         this.tokenIntrospectionService = tokenIntrospectionService;
         this.passwordEncoder = passwordEncoder;
+        this.loginAttemptGuard = loginAttemptGuard;
     }
 
     /**
@@ -61,17 +70,24 @@ public class TokenIntrospectionController {
     @PostMapping("/v1/oauth2/introspect")
     public ResponseEntity<?> introspect(
             @RequestParam("token") String token,
-            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            HttpServletRequest request) {
         logger.info("Received introspection request for token: {}...", token.substring(0, Math.min(token.length(), 8)));
 
         // 1. 验证客户端身份并获取RegisteredClient
         OAuth2ClientAuthenticationToken clientAuthentication;
         try {
-            clientAuthentication = authenticateClient(authHeader);
+            clientAuthentication = authenticateClient(authHeader, request.getRemoteAddr());
         } catch (BadCredentialsException e) {
             logger.warn("Client authentication failed: {}", e.getMessage());
             return OAuth2ErrorResponse.error(OAuth2ErrorResponse.UNAUTHORIZED_CLIENT, e.getMessage(),
                     HttpStatus.UNAUTHORIZED);
+        } catch (LoginBlockedException e) {
+            return OAuth2ErrorResponse.tooManyRequests(e.getMessage(), e.getRetryAfterSeconds());
+        } catch (RejectedExecutionException e) {
+            logger.warn("Client authentication rejected: {}", e.getMessage());
+            return OAuth2ErrorResponse.unavailable("Server busy, please retry later",
+                    HashingRejectedException.retryAfterSeconds(e));
         }
         // 设置认证上下文
         SecurityContextHolder.getContext().setAuthentication(clientAuthentication);
@@ -108,9 +124,10 @@ public class TokenIntrospectionController {
      * 验证客户端身份并返回RegisteredClient
      *
      * @param authHeader Authorization头
+     * @param remoteAddr 来源IP
      * @return 如果认证成功则返回RegisteredClient，否则返回null
      */
-    private OAuth2ClientAuthenticationToken authenticateClient(String authHeader) {
+    private OAuth2ClientAuthenticationToken authenticateClient(String authHeader, String remoteAddr) {
         if (!StringUtils.hasText(authHeader) || !authHeader.startsWith("Basic ")) {
             logger.warn("Missing or invalid Authorization header format");
             throw new BadCredentialsException("Missing or invalid Authorization header format");
@@ -132,18 +149,26 @@ public class TokenIntrospectionController {
 
         logger.debug("Attempting to authenticate client: {}", clientId);
 
+        // 先检查失败次数，被拦截时不查库也不计算哈希
+        AttemptKey clientKey = AttemptKey.client(clientId);
+        AttemptKey ipKey = AttemptKey.ip(remoteAddr);
+        loginAttemptGuard.checkAllowed(clientKey, ipKey);
+
         // 查找客户端
         RegisteredClient client = registeredClientRepository.findByClientId(clientId);
         if (client == null) {
             logger.warn("Client not found: {}", clientId);
+            loginAttemptGuard.recordFailure(clientKey, ipKey);
             throw new BadCredentialsException("Client not found");
         }
 
         // 验证客户端密钥
         if (!passwordEncoder.matches(clientSecret, client.getClientSecret())) {
             logger.warn("Invalid client secret for client: {}", clientId);
+            loginAttemptGuard.recordFailure(clientKey, ipKey);
             throw new BadCredentialsException("Invalid client secret");
         }
+        loginAttemptGuard.recordSuccess(clientKey, ipKey);
 
         logger.info("Client authentication successful: {}", clientId);
         return new OAuth2ClientAuthenticationToken(
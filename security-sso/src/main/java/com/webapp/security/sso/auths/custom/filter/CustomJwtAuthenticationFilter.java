@@ -1,6 +1,8 @@
 package com.webapp.security.sso.auths.custom.filter;
 
+import com.webapp.security.sso.auths.custom.util.CustomJwtClaims;
 import com.webapp.security.sso.auths.custom.util.CustomJwtUtil;
+import com.webapp.security.sso.auths.oauth2.service.TokenBlacklistService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -33,9 +35,11 @@ public class CustomJwtAuthenticationFilter extends OncePerRequestFilter {
     private static final String BEARER_PREFIX = "Bearer ";
 
     private final CustomJwtUtil jwtUtil;
+    private final TokenBlacklistService tokenBlacklistService;
 
-    public CustomJwtAuthenticationFilter(CustomJwtUtil jwtUtil) {
+    public CustomJwtAuthenticationFilter(CustomJwtUtil jwtUtil, TokenBlacklistService tokenBlacklistService) {
         this.jwtUtil = jwtUtil;
+        this.tokenBlacklistService = tokenBlacklistService;
     }
 
     @Override
@@ -43,11 +47,20 @@ public class CustomJwtAuthenticationFilter extends OncePerRequestFilter {
             FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
+            // 只验签一次，用户名和权限都从同一份声明中读取
+            CustomJwtClaims claims = StringUtils.hasText(jwt) ? jwtUtil.verifyQuietly(jwt) : null;
+
+            // 撤销检查：水位线和布隆过滤器都在本地，正常令牌不产生Redis往返
+            if (claims != null && tokenBlacklistService.isRevoked(claims.getJti(), claims.getUsername(), null,
+                    claims.getIssuedAt())) {
+                log.debug("JWT has been revoked, jti: {}", claims.getJti());
+                claims = null;
+            }
 
-            if (StringUtils.hasText(jwt) && jwtUtil.validateToken(jwt)) {
+            if (claims != null) {
                 // 从JWT中获取用户信息
-                String username = jwtUtil.getUsernameFromToken(jwt);
-                List<String> authorities = jwtUtil.getAuthoritiesFromToken(jwt);
+                String username = claims.getUsername();
+                List<String> authorities = claims.getAuthorities();
 
                 // 转换为Spring Security的权限对象
                 List<SimpleGrantedAuthority> grantedAuthorities = authorities.stream()
@@ -1,7 +1,9 @@
 package com.webapp.security.sso.auths.custom.service;
 
-import com.webapp.security.core.entity.SysUser;
+import com.webapp.security.core.cache.UserProfileCache;
+import com.webapp.security.sso.auths.custom.util.CustomJwtClaims;
 import com.webapp.security.sso.auths.custom.util.CustomJwtUtil;
+import com.webapp.security.sso.auths.oauth2.service.TokenBlacklistService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -11,6 +13,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,13 +33,16 @@ public class CustomJwtAuthenticationService {
     private final AuthenticationManager authenticationManager;
     private final CustomJwtUtil jwtUtil;
     private final CustomJwtUserDetailsService userDetailsService;
+    private final TokenBlacklistService tokenBlacklistService;
 
     public CustomJwtAuthenticationService(AuthenticationManager authenticationManager,
             CustomJwtUtil jwtUtil,
-            CustomJwtUserDetailsService userDetailsService) {
+            CustomJwtUserDetailsService userDetailsService,
+            TokenBlacklistService tokenBlacklistService) {
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.tokenBlacklistService = tokenBlacklistService;
     }
 
     /**
@@ -52,8 +59,8 @@ public class CustomJwtAuthenticationService {
                 String accessToken = jwtUtil.generateAccessToken(authentication);
                 String refreshToken = jwtUtil.generateRefreshToken(authentication);
 
-                // 获取用户详细信息
-                SysUser sysUser = userDetailsService.getUserByUsername(username);
+                // 获取用户资料快照（与令牌生成共用）
+                UserProfileCache.UserProfile profile = userDetailsService.getUserProfile(authentication.getName());
 
                 // 构建响应 - 与OAuth2保持一致
                 Map<String, Object> response = new HashMap<>();
@@ -66,14 +73,14 @@ public class CustomJwtAuthenticationService {
                 response.put("jti", jwtUtil.getJtiFromToken(accessToken));
 
                 // 添加用户信息（可选，不影响OAuth2兼容性）
-                if (sysUser != null) {
+                if (profile != null) {
                     Map<String, Object> userInfo = new HashMap<>();
-                    userInfo.put("user_id", sysUser.getUserId());
-                    userInfo.put("username", sysUser.getUsername());
-                    userInfo.put("real_name", sysUser.getRealName());
-                    userInfo.put("email", sysUser.getEmail());
-                    userInfo.put("phone", sysUser.getPhone());
-                    userInfo.put("status", sysUser.getStatus());
+                    userInfo.put("user_id", profile.getUserId());
+                    userInfo.put("username", profile.getUsername());
+                    userInfo.put("real_name", profile.getRealName());
+                    userInfo.put("email", profile.getEmail());
+                    userInfo.put("phone", profile.getPhone());
+                    userInfo.put("status", profile.getStatus());
                     response.put("user_info", userInfo);
                 }
 
@@ -94,25 +101,30 @@ public class CustomJwtAuthenticationService {
      */
     public Map<String, Object> refreshToken(String refreshToken) {
         try {
-            // 验证刷新令牌
-            if (!jwtUtil.validateToken(refreshToken)) {
+            // 验证刷新令牌（只验签一次）
+            CustomJwtClaims claims = jwtUtil.verifyQuietly(refreshToken);
+            if (claims == null) {
                 throw new RuntimeException("Invalid refresh token");
             }
 
             // 检查令牌类型
-            String tokenType = jwtUtil.getTokenTypeFromToken(refreshToken);
-            if (!"refresh_token".equals(tokenType)) {
+            if (!"refresh_token".equals(claims.getTokenType())) {
                 throw new RuntimeException("Invalid token type for refresh");
             }
 
             // 检查令牌是否过期
-            if (jwtUtil.isTokenExpired(refreshToken)) {
+            if (claims.isExpired(Instant.now())) {
                 throw new RuntimeException("Refresh token expired");
             }
 
+            // 检查令牌是否已被撤销
+            if (tokenBlacklistService.isRevoked(claims.getJti(), claims.getUsername(), null, claims.getIssuedAt())) {
+                throw new RuntimeException("Refresh token revoked");
+            }
+
             // 从刷新令牌中获取用户信息
-            String username = jwtUtil.getUsernameFromToken(refreshToken);
-            List<String> authorities = jwtUtil.getAuthoritiesFromToken(refreshToken);
+            String username = claims.getUsername();
+            List<String> authorities = claims.getAuthorities();
 
             // 创建认证对象
             List<SimpleGrantedAuthority> grantedAuthorities = authorities.stream()
@@ -153,16 +165,17 @@ public class CustomJwtAuthenticationService {
      */
     public Map<String, Object> getUserInfoFromToken(String token) {
         try {
-            if (!jwtUtil.validateToken(token)) {
+            CustomJwtClaims claims = jwtUtil.verifyQuietly(token);
+            if (claims == null) {
                 throw new RuntimeException("Invalid token");
             }
 
             Map<String, Object> userInfo = new HashMap<>();
-            userInfo.put("username", jwtUtil.getUsernameFromToken(token));
-            userInfo.put("user_id", jwtUtil.getUserIdFromToken(token));
-            userInfo.put("authorities", jwtUtil.getAuthoritiesFromToken(token)); // 与OAuth2保持一致
-            userInfo.put("jti", jwtUtil.getJtiFromToken(token));
-            userInfo.put("token_type", jwtUtil.getTokenTypeFromToken(token));
+            userInfo.put("username", claims.getUsername());
+            userInfo.put("user_id", claims.getUserId());
+            userInfo.put("authorities", claims.getAuthorities()); // 与OAuth2保持一致
+            userInfo.put("jti", claims.getJti());
+            userInfo.put("token_type", claims.getTokenType());
 
             return userInfo;
         } catch (Exception e) {
@@ -176,9 +189,16 @@ public class CustomJwtAuthenticationService {
      */
     public void revokeToken(String token) {
         try {
-            if (jwtUtil.validateToken(token)) {
-                String jti = jwtUtil.getJtiFromToken(token);
-                // TODO: 将JTI加入Redis黑名单，设置过期时间
+            CustomJwtClaims claims = jwtUtil.verifyQuietly(token);
+            if (claims != null) {
+                String jti = claims.getJti();
+                // 黑名单条目只需保留到令牌过期
+                long ttlSeconds = claims.getExpiresAt() != null
+                        ? Duration.between(Instant.now(), claims.getExpiresAt()).getSeconds()
+                        : 0L;
+                if (jti != null && ttlSeconds > 0) {
+                    tokenBlacklistService.blacklistToken(jti, ttlSeconds);
+                }
                 log.info("Token revoked successfully, JTI: {}", jti);
             }
         } catch (Exception e) {
@@ -1,7 +1,9 @@
 package com.webapp.security.sso.auths.custom.service;
 
+import com.webapp.security.core.cache.UserProfileCache;
 import com.webapp.security.core.entity.SysUser;
 import com.webapp.security.core.mapper.SysUserMapper;
+import com.webapp.security.core.rbac.UserAuthorityCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -26,9 +28,14 @@ public class CustomJwtUserDetailsService implements UserDetailsService {
     private static final Logger log = LoggerFactory.getLogger(CustomJwtUserDetailsService.class);
 
     private final SysUserMapper sysUserMapper;
+    private final UserProfileCache userProfileCache;
+    private final UserAuthorityCache userAuthorityCache;
 
-    public CustomJwtUserDetailsService(SysUserMapper sysUserMapper) {
+    public CustomJwtUserDetailsService(SysUserMapper sysUserMapper, UserProfileCache userProfileCache,
+            UserAuthorityCache userAuthorityCache) {
         this.sysUserMapper = sysUserMapper;
+        this.userProfileCache = userProfileCache;
+        this.userAuthorityCache = userAuthorityCache;
     }
 
     @Override
@@ -50,13 +57,16 @@ public class CustomJwtUserDetailsService implements UserDetailsService {
         }
 
         log.debug("User found for custom JWT: {}", sysUser.getUsername());
+        // 顺带刷新用户资料快照，签发令牌时无需再次查库
+        userProfileCache.put(sysUser);
 
-        // 获取用户权限列表
-        List<String> permissionList = sysUserMapper.selectUserPermissions(sysUser.getUserId());
+        // 获取用户权限和角色列表（RBAC版本未变化时读缓存）
+        UserAuthorityCache.UserAuthorities userAuthorities = userAuthorityCache.get(sysUser.getUserId());
+        List<String> permissionList = userAuthorities.getPermissions();
         log.debug("User permissions: {}", permissionList);
 
         // 获取用户角色列表
-        List<String> roleList = sysUserMapper.selectUserRoles(sysUser.getUserId());
+        List<String> roleList = userAuthorities.getRoles();
         log.debug("User roles: {}", roleList);
 
         // 合并权限和角色
@@ -101,17 +111,24 @@ public class CustomJwtUserDetailsService implements UserDetailsService {
         return sysUserMapper.selectByUsername(username);
     }
 
+    /**
+     * 获取用户资料快照（优先读缓存）
+     */
+    public UserProfileCache.UserProfile getUserProfile(String username) {
+        return userProfileCache.get(username);
+    }
+
     /**
      * 查询用户权限列表
      */
     public List<String> getUserPermissions(Long userId) {
-        return sysUserMapper.selectUserPermissions(userId);
+        return userAuthorityCache.get(userId).getPermissions();
     }
 
     /**
      * 查询用户角色列表
      */
     public List<String> getUserRoles(Long userId) {
-        return sysUserMapper.selectUserRoles(userId);
+        return userAuthorityCache.get(userId).getRoles();
     }
 }
\ No newline at end of file
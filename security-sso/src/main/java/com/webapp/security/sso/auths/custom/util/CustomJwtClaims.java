@@ -0,0 +1,111 @@
+package com.webapp.security.sso.auths.custom.util;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 已验签的自定义JWT声明（不可变视图）
+ * 令牌只解析、验签一次，后续读取用户名、权限等信息都从该对象获取
+ */
+public final class CustomJwtClaims {
+
+    private final String username;
+    private final Long userId;
+    private final List<String> authorities;
+    private final String tokenType;
+    private final String jti;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+    private final Map<String, Object> claims;
+
+    private CustomJwtClaims(Claims source) {
+        this.username = source.getSubject();
+        this.userId = toLong(source.get("user_id"));
+        this.authorities = toAuthorities(source.get("authorities"));
+        this.tokenType = source.get("token_type", String.class);
+        this.jti = source.get("jti", String.class);
+        this.issuedAt = toInstant(source.getIssuedAt());
+        this.expiresAt = toInstant(source.getExpiration());
+        this.claims = Collections.unmodifiableMap(new LinkedHashMap<>(source));
+    }
+
+    /**
+     * 从已验签的Claims构建不可变视图
+     */
+    public static CustomJwtClaims from(Claims claims) {
+        return new CustomJwtClaims(claims);
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public List<String> getAuthorities() {
+        return authorities;
+    }
+
+    public String getTokenType() {
+        return tokenType;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * 全部原始声明（只读）
+     */
+    public Map<String, Object> getClaims() {
+        return claims;
+    }
+
+    /**
+     * 是否已过期
+     */
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+
+    private static Long toLong(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        return null;
+    }
+
+    private static List<String> toAuthorities(Object value) {
+        if (!(value instanceof List)) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>();
+        for (Object authority : (List<?>) value) {
+            if (authority != null) {
+                result.add(authority.toString());
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+}
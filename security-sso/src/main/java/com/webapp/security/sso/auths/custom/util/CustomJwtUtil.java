@@ -1,7 +1,10 @@
 package com.webapp.security.sso.auths.custom.util;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.webapp.security.core.entity.SysUser;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.webapp.security.core.cache.UserProfileCache;
 import com.webapp.security.sso.auths.custom.service.CustomJwtUserDetailsService;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
@@ -13,11 +16,13 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import jakarta.annotation.PostConstruct;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -39,13 +44,43 @@ public class CustomJwtUtil {
     @Value("${jwt.refresh-expiration:86400}")
     private long refreshExpiration;
 
+    /**
+     * 已验签令牌缓存的最大条目数
+     */
+    @Value("${jwt.verified-cache-size:10000}")
+    private long verifiedCacheSize;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final CustomJwtUserDetailsService userDetailsService;
 
+    /**
+     * 签名密钥和解析器只构建一次，JwtParser是线程安全的
+     */
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    /**
+     * 已验签令牌缓存，key为签名段，命中后跳过验签
+     */
+    private Cache<String, VerifiedToken> verifiedTokens;
+
     public CustomJwtUtil(CustomJwtUserDetailsService userDetailsService) {
         this.userDetailsService = userDetailsService;
     }
 
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.verifiedTokens = CacheBuilder.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfterWrite(Math.max(jwtExpiration, refreshExpiration), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
     /**
      * 生成访问令牌
      */
@@ -75,8 +110,8 @@ public class CustomJwtUtil {
 
         log.info("Custom JWT authorities: {}", authoritiesList);
 
-        // 获取用户详细信息
-        SysUser sysUser = userDetailsService.getUserByUsername(authentication.getName());
+        // 获取用户资料快照（登录认证时已缓存）
+        UserProfileCache.UserProfile profile = userDetailsService.getUserProfile(authentication.getName());
 
         // 构建JWT声明 - 与OAuth2保持一致
         Map<String, Object> claims = new HashMap<>();
@@ -88,12 +123,12 @@ public class CustomJwtUtil {
         claims.put("nbf", now.getEpochSecond());
 
         // 添加用户详细信息（可选，不影响OAuth2兼容性）
-        if (sysUser != null) {
-            claims.put("user_id", sysUser.getUserId());
-            claims.put("real_name", sysUser.getRealName());
-            claims.put("email", sysUser.getEmail());
-            claims.put("phone", sysUser.getPhone());
-            claims.put("status", sysUser.getStatus());
+        if (profile != null) {
+            claims.put("user_id", profile.getUserId());
+            claims.put("real_name", profile.getRealName());
+            claims.put("email", profile.getEmail());
+            claims.put("phone", profile.getPhone());
+            claims.put("status", profile.getStatus());
         }
 
         return Jwts.builder()
@@ -107,70 +142,88 @@ public class CustomJwtUtil {
     }
 
     /**
-     * 验证令牌
+     * 验证令牌并返回不可变的声明视图
+     * 同一令牌只做一次验签，之后直到过期前都直接从缓存返回
+     *
+     * @throws JwtException 令牌无效或已过期
      */
-    public boolean validateToken(String token) {
+    public CustomJwtClaims verify(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("JWT token is empty");
+        }
+
+        String signature = extractSignature(token);
+        Instant now = Instant.now();
+        if (signature != null) {
+            VerifiedToken cached = verifiedTokens.getIfPresent(signature);
+            if (cached != null) {
+                // 签名相同但令牌内容不同时不信任缓存，重新验签
+                if (cached.token.equals(token) && !cached.claims.isExpired(now)) {
+                    return cached.claims;
+                }
+                verifiedTokens.invalidate(signature);
+            }
+        }
+
+        CustomJwtClaims claims = CustomJwtClaims.from(jwtParser.parseClaimsJws(token).getBody());
+        if (signature != null && !claims.isExpired(now)) {
+            verifiedTokens.put(signature, new VerifiedToken(token, claims));
+        }
+        return claims;
+    }
+
+    /**
+     * 验证令牌，无效时返回null
+     */
+    public CustomJwtClaims verifyQuietly(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            return verify(token);
         } catch (JwtException | IllegalArgumentException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
-            return false;
+            return null;
         }
     }
 
+    /**
+     * 验证令牌
+     */
+    public boolean validateToken(String token) {
+        return verifyQuietly(token) != null;
+    }
+
     /**
      * 从令牌中获取用户名
      */
     public String getUsernameFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.getSubject();
+        return verify(token).getUsername();
     }
 
     /**
      * 从令牌中获取用户ID
      */
     public Long getUserIdFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        Object userId = claims.get("user_id");
-        if (userId instanceof Integer) {
-            return ((Integer) userId).longValue();
-        } else if (userId instanceof Long) {
-            return (Long) userId;
-        }
-        return null;
+        return verify(token).getUserId();
     }
 
     /**
      * 从令牌中获取权限 - 与OAuth2保持一致
      */
     public List<String> getAuthoritiesFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        Object authoritiesObj = claims.get("authorities");
-
-        if (authoritiesObj instanceof List) {
-            return (List<String>) authoritiesObj;
-        }
-        return new ArrayList<>();
+        return verify(token).getAuthorities();
     }
 
     /**
      * 从令牌中获取令牌类型
      */
     public String getTokenTypeFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.get("token_type", String.class);
+        return verify(token).getTokenType();
     }
 
     /**
      * 从令牌中获取JTI
      */
     public String getJtiFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.get("jti", String.class);
+        return verify(token).getJti();
     }
 
     /**
@@ -178,31 +231,55 @@ public class CustomJwtUtil {
      */
     public boolean isTokenExpired(String token) {
         try {
-            Claims claims = getClaimsFromToken(token);
-            Date expiration = claims.getExpiration();
-            return expiration.before(new Date());
+            return verify(token).isExpired(Instant.now());
         } catch (Exception e) {
             return true;
         }
     }
 
     /**
-     * 从令牌中获取声明
+     * 已验签令牌缓存统计
      */
-    private Claims getClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public Map<String, Object> getVerifiedCacheStats() {
+        CacheStats stats = verifiedTokens.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("size", verifiedTokens.size());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+
+    /**
+     * 取JWT的签名段作为缓存key
+     */
+    private String extractSignature(String token) {
+        int lastDot = token.lastIndexOf('.');
+        if (lastDot < 0 || lastDot == token.length() - 1) {
+            return null;
+        }
+        return token.substring(lastDot + 1);
     }
 
     /**
      * 获取签名密钥
      */
     private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signingKey;
+    }
+
+    /**
+     * 缓存条目，保留原始令牌用于命中时比对
+     */
+    private static final class VerifiedToken {
+        private final String token;
+        private final CustomJwtClaims claims;
+
+        private VerifiedToken(String token, CustomJwtClaims claims) {
+            this.token = token;
+            this.claims = claims;
+        }
     }
 
     /**
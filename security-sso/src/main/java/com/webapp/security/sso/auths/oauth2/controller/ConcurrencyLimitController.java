@@ -0,0 +1,33 @@
+package com.webapp.security.sso.auths.oauth2.controller;
+
+import com.webapp.security.core.model.ResponseResult;
+import com.webapp.security.sso.guard.ConcurrencyLimitFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 令牌签发接口并发限制监控
+ */
+@RestController
+@RequestMapping("/api/concurrency-limit")
+@RequiredArgsConstructor
+public class ConcurrencyLimitController {
+
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    /**
+     * 获取各接口的当前并发限制、在途请求数、响应时间及拒绝次数
+     */
+    @GetMapping("/stats")
+    public ResponseResult<Map<String, Object>> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("limiters", concurrencyLimitFilter.getStats());
+        stats.put("timestamp", System.currentTimeMillis());
+        return ResponseResult.success(stats);
+    }
+}
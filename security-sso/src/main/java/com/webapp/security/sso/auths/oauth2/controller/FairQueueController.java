@@ -0,0 +1,31 @@
+package com.webapp.security.sso.auths.oauth2.controller;
+
+import com.webapp.security.core.model.ResponseResult;
+import com.webapp.security.sso.guard.FairQueueFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 令牌请求公平排队监控
+ */
+@RestController
+@RequestMapping("/api/fair-queue")
+@RequiredArgsConstructor
+public class FairQueueController {
+
+    private final FairQueueFilter fairQueueFilter;
+
+    /**
+     * 获取空闲名额、各租户排队数及拒绝/超时次数
+     */
+    @GetMapping("/stats")
+    public ResponseResult<Map<String, Object>> getStats() {
+        Map<String, Object> stats = fairQueueFilter.getStats();
+        stats.put("timestamp", System.currentTimeMillis());
+        return ResponseResult.success(stats);
+    }
+}
@@ -0,0 +1,31 @@
+package com.webapp.security.sso.auths.oauth2.controller;
+
+import com.webapp.security.core.model.ResponseResult;
+import com.webapp.security.sso.auths.custom.util.CustomJwtUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 自定义JWT验签缓存监控
+ */
+@RestController
+@RequestMapping("/api/jwt-verification")
+@RequiredArgsConstructor
+public class JwtVerificationController {
+
+    private final CustomJwtUtil customJwtUtil;
+
+    /**
+     * 获取已验签令牌缓存的统计信息（条目数、命中率、淘汰次数）
+     */
+    @GetMapping("/stats")
+    public ResponseResult<Map<String, Object>> getStats() {
+        Map<String, Object> stats = customJwtUtil.getVerifiedCacheStats();
+        stats.put("timestamp", System.currentTimeMillis());
+        return ResponseResult.success(stats);
+    }
+}
@@ -0,0 +1,31 @@
+package com.webapp.security.sso.auths.oauth2.controller;
+
+import com.webapp.security.core.model.ResponseResult;
+import com.webapp.security.sso.guard.LoginAttemptGuard;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 认证失败防护监控
+ */
+@RestController
+@RequestMapping("/api/login-guard")
+@RequiredArgsConstructor
+public class LoginGuardController {
+
+    private final LoginAttemptGuard loginAttemptGuard;
+
+    /**
+     * 获取认证失败防护统计信息（失败、延迟拦截、锁定拦截次数）
+     */
+    @GetMapping("/stats")
+    public ResponseResult<Map<String, Object>> getStats() {
+        Map<String, Object> stats = loginAttemptGuard.getStats();
+        stats.put("timestamp", System.currentTimeMillis());
+        return ResponseResult.success(stats);
+    }
+}
@@ -3,10 +3,16 @@ package com.webapp.security.sso.auths.oauth2.controller;
 import com.webapp.security.core.config.ClientIdConfig;
 import com.webapp.security.core.model.OAuth2ErrorResponse;
 import com.webapp.security.sso.context.ClientContext;
+import com.webapp.security.sso.guard.AttemptKey;
+import com.webapp.security.sso.guard.LoginAttemptGuard;
+import com.webapp.security.sso.guard.LoginBlockedException;
 import com.webapp.security.sso.auths.oauth2.model.LoginRequest;
 import com.webapp.security.sso.auths.oauth2.model.RefreshTokenRequest;
 import com.webapp.security.sso.auths.oauth2.model.LogoutRequest;
+import com.webapp.security.sso.auths.oauth2.service.HashingRejectedException;
 import com.webapp.security.sso.auths.oauth2.service.OAuth2Service;
+import com.webapp.security.sso.auths.oauth2.service.TokenBlacklistService;
+import com.nimbusds.jwt.SignedJWT;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,7 +23,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.security.oauth2.core.OAuth2RefreshToken;
 import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
@@ -28,9 +33,11 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.context.support.WebApplicationContextUtils;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.text.ParseException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * OAuth2认证控制�?- 使用OAuth2TokenContext方式
@@ -49,6 +56,10 @@ public class OAuth2Controller {
     // 添加OAuth2Utils依赖
     private final OAuth2Service oAuth2Service;
 
+    private final TokenBlacklistService tokenBlacklistService;
+
+    private final LoginAttemptGuard loginAttemptGuard;
+
     // 添加ClientIdConfig依赖
     private final ClientIdConfig clientIdConfig;
 
@@ -56,7 +67,9 @@ public class OAuth2Controller {
      * 用户登录 - 使用OAuth2TokenContext方式
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        AttemptKey userKey = AttemptKey.user(loginRequest.getUsername());
+        AttemptKey ipKey = AttemptKey.ip(request.getRemoteAddr());
         try {
             // 从ClientContext获取clientId，如果为空则使用默认的webapp客户端ID
             String clientId = ClientContext.getClientId();
@@ -65,17 +78,19 @@ public class OAuth2Controller {
             // 1. 获取注册的客户端
             RegisteredClient registeredClient = oAuth2Service.getRegisteredClient(clientId);
 
-            // 2. 进行身份验证
+            // 2. 进行身份验证（先检查失败次数，被拦截时不计算密码哈希）
+            loginAttemptGuard.checkAllowed(userKey, ipKey);
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             loginRequest.getUsername(),
                             loginRequest.getPassword()));
+            loginAttemptGuard.recordSuccess(userKey, ipKey);
 
             // 4. 创建OAuth2授权
             OAuth2Authorization.Builder authorizationBuilder = OAuth2Authorization
                     .withRegisteredClient(registeredClient)
                     .principalName(authentication.getName())
-                    .authorizationGrantType(new AuthorizationGrantType("password"))
+                    .authorizationGrantType(OAuth2Service.PASSWORD_GRANT_TYPE)
                     .authorizedScopes(registeredClient.getScopes());
 
             // 5. 生成Access Token
@@ -112,10 +127,16 @@ public class OAuth2Controller {
             log.info("OAuth2 User login successful: {} for client: {}", loginRequest.getUsername(), clientId);
             return ResponseEntity.ok(response);
 
+        } catch (LoginBlockedException e) {
+            return OAuth2ErrorResponse.tooManyRequests(e.getMessage(), e.getRetryAfterSeconds());
         } catch (AuthenticationException e) {
+            loginAttemptGuard.recordFailure(userKey, ipKey);
             log.warn("OAuth2 Login failed for user: " + loginRequest.getUsername(), e);
             return OAuth2ErrorResponse.error(OAuth2ErrorResponse.INVALID_GRANT, "用户名或密码错误",
                     org.springframework.http.HttpStatus.UNAUTHORIZED);
+        } catch (RejectedExecutionException e) {
+            log.warn("OAuth2 Login rejected for user: {}, reason: {}", loginRequest.getUsername(), e.getMessage());
+            return OAuth2ErrorResponse.unavailable("服务繁忙，请稍后重试", HashingRejectedException.retryAfterSeconds(e));
         } catch (IllegalStateException e) {
             log.warn("OAuth2 Client error: " + e.getMessage());
             return OAuth2ErrorResponse.error(OAuth2ErrorResponse.INVALID_CLIENT, e.getMessage(),
@@ -167,6 +188,9 @@ public class OAuth2Controller {
                 // 3. 删除授权记录（撤销所有相关令牌）
                 authorizationService.remove(authorization);
 
+                // 4. 访问令牌是自包含的JWT，删除授权记录后仍可用到过期，需要加入黑名单
+                blacklistAccessToken(accessToken, authorization);
+
                 log.info("OAuth2 Authorization revoked for user: {} client: {}",
                         authorization.getPrincipalName(),
                         authorization.getRegisteredClientId());
@@ -195,6 +219,24 @@ public class OAuth2Controller {
         }
     }
 
+    /**
+     * 将访问令牌的jti加入黑名单，保留到令牌过期为止
+     * 令牌已在授权记录中找到，来源可信，这里只解析声明不再验签
+     */
+    private void blacklistAccessToken(String accessToken, OAuth2Authorization authorization) {
+        try {
+            OAuth2Authorization.Token<OAuth2AccessToken> token = authorization.getAccessToken();
+            Instant expiresAt = token != null ? token.getToken().getExpiresAt() : null;
+            long ttlSeconds = expiresAt != null ? Duration.between(Instant.now(), expiresAt).getSeconds() : 0L;
+            String jti = SignedJWT.parse(accessToken).getJWTClaimsSet().getJWTID();
+            if (jti != null && ttlSeconds > 0) {
+                tokenBlacklistService.blacklistToken(jti, ttlSeconds);
+            }
+        } catch (ParseException e) {
+            log.warn("Access token is not a JWT, skip blacklisting: {}", e.getMessage());
+        }
+    }
+
     /**
      * 刷新令牌 - 完整实现
      */
@@ -254,6 +296,15 @@ public class OAuth2Controller {
                 return ResponseEntity.status(401).body(errorResponse);
             }
 
+            // 检查用户/客户端撤销水位线
+            if (tokenBlacklistService.isRevoked(null, authorization.getPrincipalName(), clientId,
+                    refreshToken.getToken().getIssuedAt())) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("error", "invalid_grant");
+                errorResponse.put("error_description", "刷新令牌已被撤销");
+                return ResponseEntity.status(401).body(errorResponse);
+            }
+
             // 5. 获取注册客户端和用户信息
             RegisteredClient registeredClient = oAuth2Service.getRegisteredClient(clientId);
 
@@ -319,6 +370,9 @@ public class OAuth2Controller {
 
             return ResponseEntity.ok(response);
 
+        } catch (RejectedExecutionException e) {
+            log.warn("OAuth2 Refresh token rejected: {}", e.getMessage());
+            return OAuth2ErrorResponse.unavailable("服务繁忙，请稍后重试", HashingRejectedException.retryAfterSeconds(e));
         } catch (IllegalStateException e) {
             log.warn("OAuth2 Refresh token client error: " + e.getMessage());
             return OAuth2ErrorResponse.error(OAuth2ErrorResponse.INVALID_CLIENT, e.getMessage(),
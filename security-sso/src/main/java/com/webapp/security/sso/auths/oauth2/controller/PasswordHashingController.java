@@ -0,0 +1,52 @@
+package com.webapp.security.sso.auths.oauth2.controller;
+
+import com.webapp.security.core.model.ResponseResult;
+import com.webapp.security.sso.auths.oauth2.service.PasswordCostCalibrator;
+import com.webapp.security.sso.auths.oauth2.service.PasswordHashingExecutor;
+import com.webapp.security.sso.auths.oauth2.service.PasswordRehashWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 密码哈希并发限制监控
+ */
+@RestController
+@RequestMapping("/api/password-hashing")
+@RequiredArgsConstructor
+public class PasswordHashingController {
+
+    private final PasswordHashingExecutor hashingExecutor;
+    private final PasswordRehashWriter rehashWriter;
+    private final PasswordCostCalibrator costCalibrator;
+
+    /**
+     * 获取密码哈希统计信息（等待数、哈希耗时、拒绝次数）及登录时重新哈希的统计
+     */
+    @GetMapping("/stats")
+    public ResponseResult<Map<String, Object>> getStats() {
+        Map<String, Object> stats = hashingExecutor.getStats();
+        stats.put("rehash", rehashWriter.getStats());
+        stats.put("timestamp", System.currentTimeMillis());
+        return ResponseResult.success(stats);
+    }
+
+    /**
+     * 按耗时预算校准BCrypt强度（预算最大1000ms，采样最多5次）
+     */
+    @GetMapping("/calibrate")
+    public ResponseResult<Map<String, Object>> calibrate(
+            @RequestParam(defaultValue = "250") long budgetMs,
+            @RequestParam(defaultValue = "3") int samples) {
+        try {
+            return ResponseResult.success(costCalibrator.calibrate(budgetMs, samples));
+        } catch (RejectedExecutionException e) {
+            return ResponseResult.failed("服务繁忙，请稍后重试: " + e.getMessage());
+        }
+    }
+}
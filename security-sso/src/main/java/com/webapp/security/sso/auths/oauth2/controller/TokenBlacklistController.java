@@ -1,12 +1,17 @@
 package com.webapp.security.sso.auths.oauth2.controller;
 
 import com.webapp.security.core.model.ResponseResult;
+import com.webapp.security.core.revocation.WatermarkScope;
+import com.webapp.security.sso.auths.oauth2.service.TokenBlacklistBloomFilter;
+import com.webapp.security.sso.auths.oauth2.service.TokenBlacklistNearCache;
 import com.webapp.security.sso.auths.oauth2.service.TokenBlacklistService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -21,6 +26,12 @@ public class TokenBlacklistController {
     @Autowired
     private TokenBlacklistService tokenBlacklistService;
 
+    @Autowired
+    private TokenBlacklistBloomFilter tokenBlacklistBloomFilter;
+
+    @Autowired
+    private TokenBlacklistNearCache tokenBlacklistNearCache;
+
     /**
      * 将令牌添加到黑名单
      * 
@@ -38,6 +49,62 @@ public class TokenBlacklistController {
         }
     }
 
+    /**
+     * 批量将令牌添加到黑名单
+     * 
+     * @param request 包含多个JWT ID及其过期时间的请求
+     * @return 操作结果
+     */
+    @PostMapping("/bulk-add")
+    public ResponseResult<?> bulkAddToBlacklist(@RequestBody BulkBlacklistRequest request) {
+        if (request.getEntries() == null || request.getEntries().isEmpty()) {
+            return ResponseResult.failed("黑名单条目不能为空");
+        }
+        try {
+            Map<String, Long> entries = new LinkedHashMap<>();
+            for (BlacklistRequest entry : request.getEntries()) {
+                entries.put(entry.getJti(), entry.getExpirationTime());
+            }
+            int count = tokenBlacklistService.blacklistTokens(entries);
+            Map<String, Object> result = new HashMap<>();
+            result.put("blacklisted", count);
+            return ResponseResult.success(result);
+        } catch (Exception e) {
+            log.error("批量添加令牌到黑名单失败", e);
+            return ResponseResult.failed("批量添加令牌到黑名单失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 撤销某用户/客户端在指定时间之前签发的全部令牌
+     * 
+     * @param request 包含作用范围、用户名/客户端ID和水位线的请求
+     * @return 操作结果
+     */
+    @PostMapping("/watermark")
+    public ResponseResult<?> revokeIssuedBefore(@RequestBody WatermarkRequest request) {
+        WatermarkScope scope = WatermarkScope.of(request.getScope());
+        if (scope == null) {
+            return ResponseResult.failed("scope只能为principal或client");
+        }
+        if (request.getSubject() == null || request.getSubject().trim().isEmpty()) {
+            return ResponseResult.failed("subject不能为空");
+        }
+        try {
+            long issuedBefore = request.getIssuedBefore() != null ? request.getIssuedBefore()
+                    : System.currentTimeMillis();
+            tokenBlacklistService.revokeIssuedBefore(scope, request.getSubject().trim(), issuedBefore);
+            Map<String, Object> result = new HashMap<>();
+            result.put("scope", scope.name());
+            result.put("subject", request.getSubject().trim());
+            result.put("issuedBefore", issuedBefore);
+            return ResponseResult.success(result);
+        } catch (Exception e) {
+            log.error("设置撤销水位线失败", e);
+            return ResponseResult.failed("设置撤销水位线失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 检查令牌是否在黑名单中
      * 
@@ -86,6 +153,8 @@ public class TokenBlacklistController {
             long blacklistSize = tokenBlacklistService.getBlacklistSize();
             Map<String, Object> stats = new HashMap<>();
             stats.put("blacklistSize", blacklistSize);
+            stats.put("bloomFilter", tokenBlacklistBloomFilter.getStats());
+            stats.put("nearCache", tokenBlacklistNearCache.getStats());
             stats.put("timestamp", System.currentTimeMillis());
             return ResponseResult.success(stats);
         } catch (Exception e) {
@@ -133,4 +202,61 @@ public class TokenBlacklistController {
             this.expirationTime = expirationTime;
         }
     }
+
+    /**
+     * 批量黑名单请求对象
+     */
+    public static class BulkBlacklistRequest {
+        private List<BlacklistRequest> entries;
+
+        public List<BlacklistRequest> getEntries() {
+            return entries;
+        }
+
+        public void setEntries(List<BlacklistRequest> entries) {
+            this.entries = entries;
+        }
+    }
+
+    /**
+     * 撤销水位线请求对象
+     */
+    public static class WatermarkRequest {
+        /**
+         * principal 或 client
+         */
+        private String scope;
+        /**
+         * 用户名或客户端ID
+         */
+        private String subject;
+        /**
+         * 水位线（毫秒时间戳），为空时取当前时间
+         */
+        private Long issuedBefore;
+
+        public String getScope() {
+            return scope;
+        }
+
+        public void setScope(String scope) {
+            this.scope = scope;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public void setSubject(String subject) {
+            this.subject = subject;
+        }
+
+        public Long getIssuedBefore() {
+            return issuedBefore;
+        }
+
+        public void setIssuedBefore(Long issuedBefore) {
+            this.issuedBefore = issuedBefore;
+        }
+    }
 }
\ No newline at end of file
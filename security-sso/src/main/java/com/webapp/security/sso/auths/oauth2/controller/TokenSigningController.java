@@ -0,0 +1,31 @@
+package com.webapp.security.sso.auths.oauth2.controller;
+
+import com.webapp.security.core.model.ResponseResult;
+import com.webapp.security.sso.auths.oauth2.service.TokenSigningExecutor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 令牌签名并发限制监控
+ */
+@RestController
+@RequestMapping("/api/token-signing")
+@RequiredArgsConstructor
+public class TokenSigningController {
+
+    private final TokenSigningExecutor signingExecutor;
+
+    /**
+     * 获取签名统计信息（队列深度、签名耗时、拒绝次数）
+     */
+    @GetMapping("/stats")
+    public ResponseResult<Map<String, Object>> getStats() {
+        Map<String, Object> stats = signingExecutor.getStats();
+        stats.put("timestamp", System.currentTimeMillis());
+        return ResponseResult.success(stats);
+    }
+}
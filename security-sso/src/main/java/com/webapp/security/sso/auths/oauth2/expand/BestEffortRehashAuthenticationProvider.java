@@ -0,0 +1,33 @@
+package com.webapp.security.sso.auths.oauth2.expand;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 登录时尽力升级密码哈希的认证提供者
+ * 密码校验已通过后，DaoAuthenticationProvider会在需要升级时再做一次哈希；哈希繁忙时这次编码被拒绝，
+ * 不应让本已成功的登录返回503。此时跳过升级，直接返回认证结果，该用户下次登录会再次尝试升级。
+ */
+@Slf4j
+public class BestEffortRehashAuthenticationProvider extends DaoAuthenticationProvider {
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+            UserDetails user) {
+        try {
+            return super.createSuccessAuthentication(principal, authentication, user);
+        } catch (RejectedExecutionException e) {
+            log.debug("密码哈希繁忙，跳过本次哈希升级: {}", user.getUsername());
+            // 与父类结果一致（未配置权限映射）
+            UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(principal,
+                    authentication.getCredentials(), user.getAuthorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+    }
+}
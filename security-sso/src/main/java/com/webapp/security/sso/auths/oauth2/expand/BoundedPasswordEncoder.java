@@ -0,0 +1,39 @@
+package com.webapp.security.sso.auths.oauth2.expand;
+
+import com.webapp.security.sso.auths.oauth2.service.PasswordHashingExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * 受密码哈希并发限制的密码编码器
+ * DaoAuthenticationProvider、客户端密钥校验等所有经由PasswordEncoder的哈希计算共用同一并发上限；
+ * 繁忙时抛出HashingRejectedException
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null || encodedPassword.isEmpty()) {
+            // 无需计算哈希
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+        return executor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,36 @@
+package com.webapp.security.sso.auths.oauth2.expand;
+
+import com.webapp.security.sso.auths.oauth2.service.TokenBlacklistService;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.List;
+
+/**
+ * JWT撤销校验器
+ * 检查用户/客户端水位线和jti黑名单，已撤销的令牌校验失败（invalid_token）
+ */
+public class TokenRevocationValidator implements OAuth2TokenValidator<Jwt> {
+
+    private static final OAuth2Error REVOKED = new OAuth2Error(OAuth2ErrorCodes.INVALID_TOKEN, "令牌已被撤销", null);
+
+    private final TokenBlacklistService tokenBlacklistService;
+
+    public TokenRevocationValidator(TokenBlacklistService tokenBlacklistService) {
+        this.tokenBlacklistService = tokenBlacklistService;
+    }
+
+    @Override
+    public OAuth2TokenValidatorResult validate(Jwt jwt) {
+        // 授权服务签发的访问令牌aud为客户端ID
+        List<String> audience = jwt.getAudience();
+        String clientId = audience != null && !audience.isEmpty() ? audience.get(0) : null;
+        if (tokenBlacklistService.isRevoked(jwt.getId(), jwt.getSubject(), clientId, jwt.getIssuedAt())) {
+            return OAuth2TokenValidatorResult.failure(REVOKED);
+        }
+        return OAuth2TokenValidatorResult.success();
+    }
+}
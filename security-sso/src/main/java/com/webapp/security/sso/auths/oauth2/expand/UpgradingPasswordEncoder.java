@@ -0,0 +1,77 @@
+package com.webapp.security.sso.auths.oauth2.expand;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 可升级的密码编码器（DelegatingPasswordEncoder方式）
+ * 校验时按哈希前缀{id}选择算法，无前缀的视为BCrypt（库中现有哈希及hutool生成的哈希均无前缀）；
+ * 编码始终生成目标强度的无前缀BCrypt，admin和core中基于hutool的校验无需改动。
+ * 强度低于目标值或使用其他算法的哈希在upgradeEncoding中返回true，由登录成功后的升级钩子重新哈希。
+ */
+public class UpgradingPasswordEncoder implements PasswordEncoder {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String PBKDF2 = "pbkdf2";
+
+    private static final String PREFIX = "{";
+    private static final String SUFFIX = "}";
+
+    private final BCryptPasswordEncoder bcrypt;
+    private final Map<String, PasswordEncoder> encoders = new HashMap<>();
+
+    public UpgradingPasswordEncoder(int bcryptStrength) {
+        this.bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(PBKDF2, Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return bcrypt.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (encodedPassword == null) {
+            return bcrypt.matches(rawPassword, null);
+        }
+        String id = extractId(encodedPassword);
+        if (id == null) {
+            return bcrypt.matches(rawPassword, encodedPassword);
+        }
+        PasswordEncoder encoder = encoders.get(id);
+        // 未知算法（包括{noop}）一律不通过
+        return encoder != null && encoder.matches(rawPassword, encodedPassword.substring(id.length() + 2));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        String id = extractId(encodedPassword);
+        if (id != null) {
+            // 带前缀的哈希统一改写为无前缀的BCrypt
+            return encoders.containsKey(id);
+        }
+        try {
+            return bcrypt.upgradeEncoding(encodedPassword);
+        } catch (IllegalArgumentException e) {
+            // 不是BCrypt格式，无法校验也就无从升级
+            return false;
+        }
+    }
+
+    private static String extractId(String encodedPassword) {
+        if (!encodedPassword.startsWith(PREFIX)) {
+            return null;
+        }
+        int end = encodedPassword.indexOf(SUFFIX);
+        return end < 0 ? null : encodedPassword.substring(1, end);
+    }
+}
@@ -1,7 +1,10 @@
 package com.webapp.security.sso.auths.oauth2.expand;
 
+import com.webapp.security.core.cache.UserProfileCache;
 import com.webapp.security.core.entity.SysUser;
 import com.webapp.security.core.mapper.SysUserMapper;
+import com.webapp.security.core.rbac.UserAuthorityCache;
+import com.webapp.security.sso.auths.oauth2.service.PasswordRehashWriter;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,6 +12,7 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -18,15 +22,19 @@ import java.util.stream.Collectors;
 
 /**
  * 用户详情服务实现
+ * 同时作为登录成功后的密码升级钩子：哈希强度低于目标值时由DaoAuthenticationProvider重新哈希，新哈希异步写库
  */
 @Service
 @Primary
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private static final Logger log = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
 
     private final SysUserMapper sysUserMapper;
+    private final UserProfileCache userProfileCache;
+    private final UserAuthorityCache userAuthorityCache;
+    private final PasswordRehashWriter passwordRehashWriter;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -41,9 +49,11 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         }
 
         log.debug("User found: {}", sysUser.getUsername());
+        // 顺带刷新用户资料快照，签发令牌时无需再次查库
+        userProfileCache.put(sysUser);
 
-        // 获取用户权限列表
-        List<String> permissionList = sysUserMapper.selectUserPermissions(sysUser.getUserId());
+        // 获取用户权限列表（RBAC版本未变化时读缓存）
+        List<String> permissionList = userAuthorityCache.get(sysUser.getUserId()).getPermissions();
 
         // 将权限字符串转换为GrantedAuthority对象
         List<SimpleGrantedAuthority> authorities = permissionList.stream()
@@ -64,4 +74,10 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 .build();
     }
 
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        passwordRehashWriter.submit(user.getUsername(), user.getPassword(), newPassword);
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+
 }
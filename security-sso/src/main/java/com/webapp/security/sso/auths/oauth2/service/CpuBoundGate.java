@@ -0,0 +1,163 @@
+package com.webapp.security.sso.auths.oauth2.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CPU密集任务的并发闸门
+ * 用信号量限制同时执行的任务数，任务直接在调用线程上执行；等待许可的线程数有上限，超过上限或等待超时即拒绝。
+ * 与提交到独立线程池再阻塞等待Future相比，调用线程本来就要等结果，少了一组线程和两次线程切换。
+ * 已持有许可的线程再次进入时直接执行，不会自己等自己。
+ */
+class CpuBoundGate {
+
+    /**
+     * 拒绝原因
+     */
+    enum Rejection {
+        /** 等待的线程数已达上限 */
+        FULL,
+        /** 等待许可超时 */
+        TIMEOUT,
+        /** 等待时被中断 */
+        INTERRUPTED
+    }
+
+    /**
+     * 按拒绝原因创建异常
+     */
+    @FunctionalInterface
+    interface RejectionHandler {
+
+        RuntimeException rejected(Rejection rejection);
+    }
+
+    private final Semaphore permits;
+    private final int permitCount;
+    private final int maxWaiting;
+    private final long waitTimeoutMillis;
+    private final ThreadLocal<Boolean> holding = new ThreadLocal<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAdder totalRunNanos = new LongAdder();
+    private final AtomicLong maxRunNanos = new AtomicLong();
+
+    CpuBoundGate(int permitCount, int maxWaiting, long waitTimeoutMillis) {
+        if (permitCount <= 0 || maxWaiting < 0) {
+            throw new IllegalArgumentException("permitCount必须大于0，maxWaiting不能小于0");
+        }
+        this.permits = new Semaphore(permitCount, true);
+        this.permitCount = permitCount;
+        this.maxWaiting = maxWaiting;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+    }
+
+    /**
+     * 取得许可后在当前线程执行任务
+     *
+     * @throws RuntimeException 由handler按拒绝原因创建；任务本身的受检异常包装为IllegalStateException
+     */
+    <T> T execute(Callable<T> task, RejectionHandler handler) {
+        if (Boolean.TRUE.equals(holding.get())) {
+            return call(task);
+        }
+        long waitStart = System.nanoTime();
+        if (!permits.tryAcquire()) {
+            if (waiting.incrementAndGet() > maxWaiting) {
+                waiting.decrementAndGet();
+                rejectedCount.increment();
+                throw handler.rejected(Rejection.FULL);
+            }
+            try {
+                if (!permits.tryAcquire(waitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    timeoutCount.increment();
+                    throw handler.rejected(Rejection.TIMEOUT);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw handler.rejected(Rejection.INTERRUPTED);
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+        long runStart = System.nanoTime();
+        totalWaitNanos.add(runStart - waitStart);
+        holding.set(Boolean.TRUE);
+        try {
+            return call(task);
+        } finally {
+            holding.remove();
+            permits.release();
+            long elapsed = System.nanoTime() - runStart;
+            totalRunNanos.add(elapsed);
+            maxRunNanos.accumulateAndGet(elapsed, Math::max);
+            completedCount.increment();
+        }
+    }
+
+    int getPermitCount() {
+        return permitCount;
+    }
+
+    int getActiveCount() {
+        return permitCount - permits.availablePermits();
+    }
+
+    int getWaitingCount() {
+        return waiting.get();
+    }
+
+    int getRemainingWaitCapacity() {
+        return Math.max(0, maxWaiting - waiting.get());
+    }
+
+    long getCompletedCount() {
+        return completedCount.sum();
+    }
+
+    long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    /**
+     * 平均等待许可的耗时（毫秒），没有完成的任务时为0
+     */
+    double getAvgWaitMillis() {
+        long completed = completedCount.sum();
+        return completed == 0 ? 0 : totalWaitNanos.sum() / (double) completed / 1_000_000.0;
+    }
+
+    /**
+     * 平均执行耗时（毫秒），没有完成的任务时为0
+     */
+    double getAvgRunMillis() {
+        long completed = completedCount.sum();
+        return completed == 0 ? 0 : totalRunNanos.sum() / (double) completed / 1_000_000.0;
+    }
+
+    double getMaxRunMillis() {
+        return maxRunNanos.get() / 1_000_000.0;
+    }
+
+    private static <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+}
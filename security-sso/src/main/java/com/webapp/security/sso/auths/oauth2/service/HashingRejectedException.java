@@ -0,0 +1,30 @@
+package com.webapp.security.sso.auths.oauth2.service;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 密码哈希任务被拒绝（队列已满或等待超时）
+ * 携带按当前队列深度估算的重试间隔，用于响应头Retry-After
+ */
+public class HashingRejectedException extends RejectedExecutionException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public HashingRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * 取拒绝异常的重试间隔，非哈希拒绝时为1秒
+     */
+    public static long retryAfterSeconds(RejectedExecutionException e) {
+        return e instanceof HashingRejectedException ? ((HashingRejectedException) e).retryAfterSeconds : 1L;
+    }
+}
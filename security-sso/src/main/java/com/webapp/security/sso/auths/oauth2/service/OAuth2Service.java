@@ -27,18 +27,28 @@ import org.springframework.stereotype.Service;
 @Service
 public class OAuth2Service {
 
+    /**
+     * 自定义密码模式授权类型（不可变，全局复用）
+     */
+    public static final AuthorizationGrantType PASSWORD_GRANT_TYPE = new AuthorizationGrantType("password");
+
     private final RegisteredClientRepository registeredClientRepository;
     private final OAuth2TokenGenerator<?> tokenGenerator;
     private final AuthorizationServerSettings authorizationServerSettings;
+    private final TokenSigningExecutor signingExecutor;
+    private final AuthorizationServerContext authorizationServerContext;
 
     @Autowired
     public OAuth2Service(
             RegisteredClientRepository registeredClientRepository,
             OAuth2TokenGenerator<?> tokenGenerator,
-            AuthorizationServerSettings authorizationServerSettings) {
+            AuthorizationServerSettings authorizationServerSettings,
+            TokenSigningExecutor signingExecutor) {
         this.registeredClientRepository = registeredClientRepository;
         this.tokenGenerator = tokenGenerator;
         this.authorizationServerSettings = authorizationServerSettings;
+        this.signingExecutor = signingExecutor;
+        this.authorizationServerContext = createAuthorizationServerContext();
     }
 
     /**
@@ -59,6 +69,7 @@ public class OAuth2Service {
 
     /**
      * 创建AuthorizationServerContext
+     * 签发者信息不随请求变化，令牌生成时复用构造时创建的实例
      */
     public AuthorizationServerContext createAuthorizationServerContext() {
         return new AuthorizationServerContext() {
@@ -77,6 +88,7 @@ public class OAuth2Service {
     /**
      * 生成Access Token - 使用OAuth2TokenContext
      * 统一的令牌生成逻辑，确保JWT格式一致
+     * JWT签名受{@link TokenSigningExecutor}的并发限制
      */
     public OAuth2AccessToken generateAccessToken(Authentication authentication,
             RegisteredClient registeredClient,
@@ -86,14 +98,14 @@ public class OAuth2Service {
         OAuth2TokenContext tokenContext = DefaultOAuth2TokenContext.builder()
                 .registeredClient(registeredClient)
                 .principal(authentication)
-                .authorizationServerContext(createAuthorizationServerContext())
+                .authorizationServerContext(authorizationServerContext)
                 .tokenType(OAuth2TokenType.ACCESS_TOKEN)
-                .authorizationGrantType(new AuthorizationGrantType("password"))
+                .authorizationGrantType(PASSWORD_GRANT_TYPE)
                 .authorizedScopes(registeredClient.getScopes())
                 .build();
 
-        // 使用TokenGenerator生成令牌
-        OAuth2Token generatedToken = tokenGenerator.generate(tokenContext);
+        // 取得签名许可后生成令牌，等待队列已满时抛出RejectedExecutionException
+        OAuth2Token generatedToken = signingExecutor.execute(() -> tokenGenerator.generate(tokenContext));
         if (!(generatedToken instanceof Jwt)) {
             throw new IllegalStateException("生成的令牌不是Jwt类型");
         }
@@ -131,9 +143,9 @@ public class OAuth2Service {
         OAuth2TokenContext tokenContext = DefaultOAuth2TokenContext.builder()
                 .registeredClient(registeredClient)
                 .principal(authentication)
-                .authorizationServerContext(createAuthorizationServerContext())
+                .authorizationServerContext(authorizationServerContext)
                 .tokenType(OAuth2TokenType.REFRESH_TOKEN)
-                .authorizationGrantType(new AuthorizationGrantType("password"))
+                .authorizationGrantType(PASSWORD_GRANT_TYPE)
                 .authorizedScopes(registeredClient.getScopes())
                 .build();
 
@@ -157,7 +169,7 @@ public class OAuth2Service {
         OAuth2TokenContext tokenContext = DefaultOAuth2TokenContext.builder()
                 .registeredClient(registeredClient)
                 .principal(authentication)
-                .authorizationServerContext(createAuthorizationServerContext())
+                .authorizationServerContext(authorizationServerContext)
                 .tokenType(new OAuth2TokenType(OAuth2ParameterNames.CODE))
                 .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
                 .authorizedScopes(registeredClient.getScopes())
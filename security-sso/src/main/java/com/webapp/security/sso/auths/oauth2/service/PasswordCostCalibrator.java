@@ -0,0 +1,101 @@
+package com.webapp.security.sso.auths.oauth2.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * BCrypt强度校准
+ * 在本机逐级测量单次哈希耗时（取中位数），给出不超过耗时预算的最高强度，
+ * 作为webapp.password.bcrypt-strength的参考值。测量结果受当前负载影响，应在低峰期执行。
+ * 每次哈希都经过PasswordHashingExecutor，与登录共用同一并发上限；强度、采样次数和耗时预算均有上限，
+ * 同一时间只允许一个校准任务
+ */
+@Slf4j
+@Component
+public class PasswordCostCalibrator {
+
+    private static final int MIN_STRENGTH = 8;
+    private static final int MAX_STRENGTH = 14;
+    private static final int MAX_SAMPLES = 5;
+    private static final long MAX_BUDGET_MILLIS = 1000L;
+    private static final String SAMPLE_PASSWORD = "calibration-Pa55word";
+
+    private final PasswordHashingExecutor hashingExecutor;
+    private final int currentStrength;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public PasswordCostCalibrator(PasswordHashingExecutor hashingExecutor,
+            @Value("${webapp.password.bcrypt-strength:10}") int currentStrength) {
+        this.hashingExecutor = hashingExecutor;
+        this.currentStrength = currentStrength;
+    }
+
+    /**
+     * 执行校准
+     *
+     * @param budgetMillis 单次哈希的耗时预算（毫秒），最大1000
+     * @param samples      每个强度的采样次数，最大5
+     * @return 各强度的耗时、推荐强度及当前配置
+     * @throws RejectedExecutionException 已有校准在执行，或密码哈希繁忙
+     */
+    public Map<String, Object> calibrate(long budgetMillis, int samples) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RejectedExecutionException("已有BCrypt强度校准在执行");
+        }
+        try {
+            return doCalibrate(Math.min(Math.max(budgetMillis, 1L), MAX_BUDGET_MILLIS),
+                    Math.min(Math.max(samples, 1), MAX_SAMPLES));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Map<String, Object> doCalibrate(long budgetMillis, int sampleCount) {
+        Map<Integer, Double> millisByStrength = new LinkedHashMap<>();
+        int recommended = MIN_STRENGTH;
+        for (int strength = MIN_STRENGTH; strength <= MAX_STRENGTH; strength++) {
+            double median = measure(new BCryptPasswordEncoder(strength), sampleCount);
+            millisByStrength.put(strength, median);
+            if (median <= budgetMillis) {
+                recommended = strength;
+            } else {
+                // 每增加1耗时翻倍，后面的强度只会更慢
+                break;
+            }
+        }
+        log.info("BCrypt强度校准完成, 预算: {}ms, 推荐强度: {}, 当前强度: {}, 耗时: {}", budgetMillis, recommended,
+                currentStrength, millisByStrength);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("budgetMillis", budgetMillis);
+        result.put("samples", sampleCount);
+        result.put("millisByStrength", millisByStrength);
+        result.put("recommendedStrength", recommended);
+        result.put("currentStrength", currentStrength);
+        return result;
+    }
+
+    private double measure(BCryptPasswordEncoder encoder, int samples) {
+        // 预热一次，排除类加载和JIT的影响
+        hashingExecutor.execute(() -> encoder.encode(SAMPLE_PASSWORD));
+        double[] millis = new double[samples];
+        for (int i = 0; i < samples; i++) {
+            // 只计哈希本身的耗时，不含排队时间
+            millis[i] = hashingExecutor.execute(() -> {
+                long start = System.nanoTime();
+                encoder.encode(SAMPLE_PASSWORD);
+                return (System.nanoTime() - start) / 1_000_000.0;
+            });
+        }
+        Arrays.sort(millis);
+        return millis[samples / 2];
+    }
+}
@@ -0,0 +1,79 @@
+package com.webapp.security.sso.auths.oauth2.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * 密码哈希并发限制
+ * BCrypt校验/编码是刻意放慢的CPU计算，登录高峰时若不限制并发会占满全部CPU，
+ * JWKS、自省等廉价请求也得不到调度。同时进行的哈希数按CPU核数限定，等待的请求数有界，
+ * 等待队列满或等待超时时直接拒绝（调用方返回503并按等待数给出Retry-After）。
+ * 哈希在调用线程上执行（见{@link CpuBoundGate}）
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor {
+
+    private final CpuBoundGate gate;
+
+    public PasswordHashingExecutor(
+            @Value("${oauth2.password-hashing.threads:0}") int threads,
+            @Value("${oauth2.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${oauth2.password-hashing.wait-timeout-ms:2000}") long waitTimeoutMillis) {
+        int permits = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.gate = new CpuBoundGate(permits, queueCapacity, waitTimeoutMillis);
+        log.info("密码哈希并发限制初始化完成, permits: {}, queueCapacity: {}", permits, queueCapacity);
+    }
+
+    /**
+     * 取得哈希许可后执行任务；已持有许可时直接执行
+     *
+     * @throws HashingRejectedException 等待队列已满或等待超时
+     */
+    public <T> T execute(Callable<T> task) {
+        return gate.execute(task, rejection -> {
+            switch (rejection) {
+                case FULL:
+                    return new HashingRejectedException("密码哈希队列已满", retryAfterSeconds());
+                case TIMEOUT:
+                    return new HashingRejectedException("密码哈希等待超时", retryAfterSeconds());
+                default:
+                    return new HashingRejectedException("密码哈希被中断", 1L);
+            }
+        });
+    }
+
+    /**
+     * 按当前等待和执行中的任务数及平均哈希耗时估算排空所需的秒数（至少1秒）
+     */
+    public long retryAfterSeconds() {
+        double avgHashMillis = gate.getCompletedCount() == 0 ? 100.0 : gate.getAvgRunMillis();
+        int pending = gate.getWaitingCount() + gate.getActiveCount();
+        long drainMillis = (long) Math.ceil(pending * avgHashMillis / gate.getPermitCount());
+        return Math.max(1L, (drainMillis + 999) / 1000);
+    }
+
+    /**
+     * 统计信息：等待数、哈希耗时等
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("poolSize", gate.getPermitCount());
+        result.put("activeCount", gate.getActiveCount());
+        result.put("queueDepth", gate.getWaitingCount());
+        result.put("queueRemainingCapacity", gate.getRemainingWaitCapacity());
+        result.put("completedCount", gate.getCompletedCount());
+        result.put("rejectedCount", gate.getRejectedCount());
+        result.put("timeoutCount", gate.getTimeoutCount());
+        result.put("avgQueueMillis", gate.getAvgWaitMillis());
+        result.put("avgHashMillis", gate.getAvgRunMillis());
+        result.put("maxHashMillis", gate.getMaxRunMillis());
+        result.put("retryAfterSeconds", retryAfterSeconds());
+        return result;
+    }
+}
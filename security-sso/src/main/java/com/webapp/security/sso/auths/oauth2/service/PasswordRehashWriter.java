@@ -0,0 +1,95 @@
+package com.webapp.security.sso.auths.oauth2.service;
+
+import com.webapp.security.core.mapper.SysUserMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 登录时重新哈希的密码的异步写入
+ * 写库不占用登录请求；队列满时直接丢弃，该用户下次登录会再次升级。
+ * 只在密码未被修改时替换，不会覆盖期间的改密或重置。
+ */
+@Slf4j
+@Component
+public class PasswordRehashWriter {
+
+    private final SysUserMapper sysUserMapper;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder upgradedCount = new LongAdder();
+    private final LongAdder staleCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+
+    public PasswordRehashWriter(SysUserMapper sysUserMapper,
+            @Value("${webapp.password.rehash-queue-capacity:1000}") int queueCapacity) {
+        this.sysUserMapper = sysUserMapper;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-rehash");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 提交新的密码哈希
+     *
+     * @param username    用户名
+     * @param oldPassword 校验时使用的原哈希
+     * @param newPassword 按当前参数生成的新哈希
+     */
+    public void submit(String username, String oldPassword, String newPassword) {
+        try {
+            executor.execute(() -> write(username, oldPassword, newPassword));
+            submittedCount.increment();
+        } catch (RejectedExecutionException e) {
+            droppedCount.increment();
+            log.debug("密码重新哈希队列已满，跳过用户: {}", username);
+        }
+    }
+
+    /**
+     * 统计信息：升级、过期（期间已改密）、丢弃、失败次数
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("queueDepth", executor.getQueue().size());
+        result.put("submittedCount", submittedCount.sum());
+        result.put("upgradedCount", upgradedCount.sum());
+        result.put("staleCount", staleCount.sum());
+        result.put("droppedCount", droppedCount.sum());
+        result.put("failedCount", failedCount.sum());
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void write(String username, String oldPassword, String newPassword) {
+        try {
+            if (sysUserMapper.updatePasswordIfUnchanged(username, oldPassword, newPassword) > 0) {
+                upgradedCount.increment();
+                log.debug("用户密码哈希已升级: {}", username);
+            } else {
+                staleCount.increment();
+            }
+        } catch (Exception e) {
+            failedCount.increment();
+            log.warn("用户密码哈希升级失败: {}, {}", username, e.getMessage());
+        }
+    }
+}
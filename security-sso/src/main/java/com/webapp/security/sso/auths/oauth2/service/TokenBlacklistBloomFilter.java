@@ -0,0 +1,138 @@
+package com.webapp.security.sso.auths.oauth2.service;
+
+import com.webapp.security.core.revocation.BlacklistIndexLoader;
+import com.webapp.security.core.revocation.RevocationEvent;
+import com.webapp.security.core.revocation.RotatingBloomFilter;
+import com.webapp.security.redis.revocation.RedisBlacklistIndexReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 令牌黑名单本地布隆过滤器
+ * 绝大多数令牌都不在黑名单中，先查本地过滤器，只有命中时才到Redis确认，
+ * 正常令牌的撤销检查不再产生网络往返。
+ * 启动时从黑名单索引全量重建，运行期间通过Redis发布订阅接收其他节点的新增事件，
+ * 并定期从索引补齐，防止订阅断线期间丢消息。重建完成前不生效（调用方回退到Redis）。
+ */
+@Slf4j
+@Component
+public class TokenBlacklistBloomFilter implements MessageListener {
+
+    /**
+     * 重建时每页读取的索引条数
+     */
+    private static final int REBUILD_PAGE_SIZE = 5000;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisBlacklistIndexReader indexReader;
+    private final RotatingBloomFilter filter;
+
+    private volatile boolean ready;
+    private final LongAdder negativeCount = new LongAdder();
+    private final LongAdder positiveCount = new LongAdder();
+
+    public TokenBlacklistBloomFilter(RedisTemplate<String, String> redisTemplate,
+            @Value("${token.blacklist.bloom.slice-minutes:60}") long sliceMinutes,
+            @Value("${token.blacklist.bloom.expected-insertions-per-slice:100000}") int expectedInsertions,
+            @Value("${token.blacklist.bloom.fpp:0.001}") double fpp) {
+        this.redisTemplate = redisTemplate;
+        this.indexReader = new RedisBlacklistIndexReader(redisTemplate);
+        this.filter = new RotatingBloomFilter(TimeUnit.MINUTES.toMillis(sliceMinutes), expectedInsertions, fpp);
+    }
+
+    /**
+     * 过滤器是否已完成初始重建
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * jti是否可能在黑名单中：false表示一定不在，true需要到Redis确认
+     */
+    public boolean mightContain(String jti) {
+        boolean result = filter.mightContain(jti);
+        if (result) {
+            positiveCount.increment();
+        } else {
+            negativeCount.increment();
+        }
+        return result;
+    }
+
+    /**
+     * 记录本地新增的黑名单条目
+     */
+    public void put(String jti, long expiresAtMillis) {
+        filter.put(jti, expiresAtMillis);
+    }
+
+    /**
+     * 从黑名单索引重建（追加方式，不影响并发写入）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            long loaded = BlacklistIndexLoader.load(indexReader, start, REBUILD_PAGE_SIZE, filter::put);
+            ready = true;
+            log.info("黑名单布隆过滤器重建完成，加载条目: {}，耗时: {}ms", loaded, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("黑名单布隆过滤器重建失败，暂时回退到Redis查询", e);
+        }
+    }
+
+    /**
+     * 定期从索引补齐，并丢弃已过期的时间片
+     */
+    @Scheduled(fixedDelayString = "${token.blacklist.bloom.resync-interval-ms:900000}",
+            initialDelayString = "${token.blacklist.bloom.resync-interval-ms:900000}")
+    public void resync() {
+        filter.expire();
+        rebuild();
+    }
+
+    /**
+     * 接收其他节点发布的黑名单事件
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        List<RevocationEvent> events = RevocationEvent.decodeAll(body != null ? body.toString() : null);
+        if (events.isEmpty()) {
+            log.warn("无法解析黑名单事件: {}", body);
+            return;
+        }
+        for (RevocationEvent event : events) {
+            if (event.getType() == RevocationEvent.Type.ADD) {
+                filter.put(event.getSubject(), event.getTimestampMillis());
+            }
+        }
+    }
+
+    /**
+     * 过滤器统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("ready", ready);
+        result.put("slices", filter.sliceCount());
+        result.put("approximateElementCount", filter.approximateElementCount());
+        result.put("negativeCount", negativeCount.sum());
+        result.put("positiveCount", positiveCount.sum());
+        return result;
+    }
+}
@@ -0,0 +1,124 @@
+package com.webapp.security.sso.auths.oauth2.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.webapp.security.core.revocation.RevocationEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌黑名单近端缓存
+ * 缓存Redis的确认结果：未撤销的结果只保留很短时间，已撤销的结果保留到令牌过期为止，
+ * 条目总数有上限。黑名单新增/移除时通过Redis发布订阅通知所有节点失效对应条目，
+ * 保证本地命中不会漏掉之后发生的撤销。
+ */
+@Slf4j
+@Component
+public class TokenBlacklistNearCache implements MessageListener {
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final long negativeTtlMillis;
+    private final long positiveMaxTtlMillis;
+    private final Cache<String, Entry> entries;
+
+    public TokenBlacklistNearCache(RedisTemplate<String, String> redisTemplate,
+            @Value("${token.blacklist.near-cache.max-size:100000}") long maxSize,
+            @Value("${token.blacklist.near-cache.negative-ttl-ms:5000}") long negativeTtlMillis,
+            @Value("${token.blacklist.near-cache.positive-max-ttl-ms:86400000}") long positiveMaxTtlMillis) {
+        this.redisTemplate = redisTemplate;
+        this.negativeTtlMillis = negativeTtlMillis;
+        this.positiveMaxTtlMillis = positiveMaxTtlMillis;
+        this.entries = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(positiveMaxTtlMillis, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 查询本地缓存的结果
+     *
+     * @return true已撤销，false未撤销，null未命中或已过期
+     */
+    public Boolean get(String jti) {
+        Entry entry = entries.getIfPresent(jti);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.validUntilMillis <= System.currentTimeMillis()) {
+            entries.asMap().remove(jti, entry);
+            return null;
+        }
+        return entry.revoked;
+    }
+
+    /**
+     * 缓存“已撤销”结果，保留到令牌过期（不超过上限）
+     */
+    public void putRevoked(String jti, long expiresAtMillis) {
+        long cap = System.currentTimeMillis() + positiveMaxTtlMillis;
+        entries.put(jti, new Entry(true, Math.min(expiresAtMillis, cap)));
+    }
+
+    /**
+     * 缓存“未撤销”结果，只保留很短时间
+     */
+    public void putNotRevoked(String jti) {
+        entries.put(jti, new Entry(false, System.currentTimeMillis() + negativeTtlMillis));
+    }
+
+    /**
+     * 失效指定jti
+     */
+    public void invalidate(String jti) {
+        entries.invalidate(jti);
+    }
+
+    /**
+     * 接收黑名单事件：新增时直接记为已撤销，移除时失效
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        for (RevocationEvent event : RevocationEvent.decodeAll(body != null ? body.toString() : null)) {
+            if (event.getType() == RevocationEvent.Type.ADD) {
+                putRevoked(event.getSubject(), event.getTimestampMillis());
+            } else if (event.getType() == RevocationEvent.Type.REMOVE) {
+                invalidate(event.getSubject());
+            }
+        }
+    }
+
+    /**
+     * 缓存统计信息
+     */
+    public Map<String, Object> getStats() {
+        CacheStats stats = entries.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("size", entries.size());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+
+    private static final class Entry {
+
+        private final boolean revoked;
+        private final long validUntilMillis;
+
+        private Entry(boolean revoked, long validUntilMillis) {
+            this.revoked = revoked;
+            this.validUntilMillis = validUntilMillis;
+        }
+    }
+}
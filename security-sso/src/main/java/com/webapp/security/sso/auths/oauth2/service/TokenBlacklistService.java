@@ -1,17 +1,46 @@
 package com.webapp.security.sso.auths.oauth2.service;
 
+import com.google.common.collect.Lists;
+import com.webapp.security.core.revocation.RevocationEvent;
+import com.webapp.security.core.revocation.RevocationKeys;
+import com.webapp.security.core.revocation.WatermarkScope;
+import com.webapp.security.redis.revocation.RedisWatermarkReader;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * 令牌黑名单服务
  * 用于管理已撤销的JWT令牌
+ * 每个jti除了独立的带TTL的键外，还记录在按过期时间排序的索引（sorted set）中，
+ * 统计数量只需ZCOUNT，不再使用阻塞Redis的KEYS命令。
+ * 查询前先经过本地布隆过滤器和近端缓存，只有可能命中且未缓存的jti才访问Redis。
+ * 批量撤销某用户/客户端的令牌时使用水位线，只需写入一条记录
  */
 @Slf4j
 @Service
@@ -20,7 +49,72 @@ public class TokenBlacklistService {
     @Autowired
     private RedisTemplate<String, String> redisTemplate;
 
-    private static final String BLACKLIST_PREFIX = "token:blacklist:";
+    @Autowired
+    private TokenBlacklistBloomFilter bloomFilter;
+
+    @Autowired
+    private TokenBlacklistNearCache nearCache;
+
+    @Autowired
+    private TokenRevocationWatermarks watermarks;
+
+    /**
+     * SCAN/ZSCAN每批建议返回的条数
+     */
+    private static final int SCAN_BATCH_SIZE = 1000;
+
+    /**
+     * 批量加入黑名单时每个管道批次的条数
+     */
+    private static final int PIPELINE_BATCH_SIZE = 500;
+
+    /**
+     * 索引校准锁，值为持有者标识（不能以BLACKLIST_PREFIX开头）
+     */
+    private static final String RECONCILE_LOCK_KEY = "token:blacklist-reconcile-lock";
+
+    /**
+     * 只释放自己持有的锁：锁已过期被其他节点取得时不删除
+     */
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end "
+                    + "return 0",
+            Long.class);
+
+    /**
+     * 删除过期水位线：ARGV为字段、读取时的值交替排列，只删除值未变化的字段，返回删除数
+     */
+    private static final RedisScript<Long> DELETE_UNCHANGED_WATERMARKS_SCRIPT = new DefaultRedisScript<>(
+            "local removed = 0 "
+                    + "for i = 1, #ARGV, 2 do "
+                    + "if redis.call('HGET', KEYS[1], ARGV[i]) == ARGV[i + 1] then "
+                    + "removed = removed + redis.call('HDEL', KEYS[1], ARGV[i]) end "
+                    + "end "
+                    + "return removed",
+            Long.class);
+
+    /**
+     * 水位线只前移：已有值不小于新值时不写入，返回0；否则写入并返回1。
+     * 读取和比较在Redis内原子完成，并发设置时水位线不会后退
+     */
+    private static final RedisScript<Long> ADVANCE_WATERMARK_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('HGET', KEYS[1], ARGV[1]) "
+                    + "if current and tonumber(current) >= tonumber(ARGV[2]) then return 0 end "
+                    + "redis.call('HSET', KEYS[1], ARGV[1], ARGV[2]) "
+                    + "return 1",
+            Long.class);
+
+    /**
+     * 水位线保留时长（毫秒），应不小于令牌的最长有效期，超过后水位线之前签发的令牌都已自然过期
+     */
+    @Value("${token.revocation.watermark-retention-ms:86400000}")
+    private long watermarkRetentionMillis;
+
+    /**
+     * 索引校准锁的有效期（毫秒），应大于一次校准的耗时；持有节点崩溃时锁到期自动释放
+     */
+    @Value("${token.blacklist.reconcile-lock-ttl-ms:600000}")
+    private long reconcileLockTtlMillis;
 
     /**
      * 将令牌添加到黑名单
@@ -28,31 +122,147 @@ public class TokenBlacklistService {
      * @param jti            JWT ID (JWT的唯一标识符)
      * @param expirationTime 令牌过期时间（秒）
      */
-    @CacheEvict(value = "token-blacklist", key = "#jti")
     public void blacklistToken(String jti, long expirationTime) {
-        String key = BLACKLIST_PREFIX + jti;
+        String key = RevocationKeys.BLACKLIST_PREFIX + jti;
         Duration ttl = Duration.ofSeconds(expirationTime);
 
+        long expiresAtMillis = System.currentTimeMillis() + ttl.toMillis();
+
         redisTemplate.opsForValue().set(key, "revoked", ttl);
+        redisTemplate.opsForZSet().add(RevocationKeys.BLACKLIST_INDEX_KEY, jti, expiresAtMillis);
+
+        // 先更新本节点过滤器和缓存，再通知其他节点
+        bloomFilter.put(jti, expiresAtMillis);
+        nearCache.putRevoked(jti, expiresAtMillis);
+        redisTemplate.convertAndSend(RevocationEvent.CHANNEL, RevocationEvent.add(jti, expiresAtMillis).encode());
         log.info("令牌已加入黑名单: {}", jti);
     }
 
+    /**
+     * 批量将令牌添加到黑名单
+     * 按批次使用Redis管道写入，每批一次网络往返，并只发布一条合并的撤销事件
+     * 
+     * @param entries jti -> 令牌剩余有效期（秒）
+     * @return 实际写入的条目数（有效期不大于0的条目被忽略）
+     */
+    public int blacklistTokens(Map<String, Long> entries) {
+        long now = System.currentTimeMillis();
+        List<Map.Entry<String, Long>> valid = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : entries.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null && entry.getValue() > 0) {
+                valid.add(entry);
+            }
+        }
+
+        for (List<Map.Entry<String, Long>> batch : Lists.partition(valid, PIPELINE_BATCH_SIZE)) {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    for (Map.Entry<String, Long> entry : batch) {
+                        String jti = entry.getKey();
+                        long expiresAtMillis = now + TimeUnit.SECONDS.toMillis(entry.getValue());
+                        ops.opsForValue().set(RevocationKeys.BLACKLIST_PREFIX + jti, "revoked",
+                                Duration.ofSeconds(entry.getValue()));
+                        ops.opsForZSet().add(RevocationKeys.BLACKLIST_INDEX_KEY, jti, expiresAtMillis);
+                    }
+                    return null;
+                }
+            });
+
+            List<RevocationEvent> events = new ArrayList<>(batch.size());
+            for (Map.Entry<String, Long> entry : batch) {
+                long expiresAtMillis = now + TimeUnit.SECONDS.toMillis(entry.getValue());
+                bloomFilter.put(entry.getKey(), expiresAtMillis);
+                nearCache.putRevoked(entry.getKey(), expiresAtMillis);
+                events.add(RevocationEvent.add(entry.getKey(), expiresAtMillis));
+            }
+            // 每批只发布一条合并的事件
+            redisTemplate.convertAndSend(RevocationEvent.CHANNEL, RevocationEvent.encodeAll(events));
+        }
+
+        log.info("批量加入黑名单完成，条目数: {}", valid.size());
+        return valid.size();
+    }
+
+    /**
+     * 撤销某用户/客户端在指定时间之前签发的全部令牌
+     * 只写入一条水位线记录，水位线只会前移不会后退（比较并写入由Lua脚本原子完成）
+     * 
+     * @param scope              作用范围（用户/客户端）
+     * @param subject            用户名或客户端ID
+     * @param issuedBeforeMillis 水位线（毫秒时间戳），签发时间早于该值的令牌失效
+     */
+    public void revokeIssuedBefore(WatermarkScope scope, String subject, long issuedBeforeMillis) {
+        Long advanced = redisTemplate.execute(ADVANCE_WATERMARK_SCRIPT, StringRedisSerializer.UTF_8,
+                new GenericToStringSerializer<>(Long.class), Collections.singletonList(scope.getRedisKey()),
+                subject, String.valueOf(issuedBeforeMillis));
+        if (advanced == null || advanced == 0L) {
+            return;
+        }
+        watermarks.update(scope, subject, issuedBeforeMillis);
+        redisTemplate.convertAndSend(RevocationEvent.CHANNEL,
+                RevocationEvent.watermark(scope, subject, issuedBeforeMillis).encode());
+        log.info("已设置撤销水位线, scope: {}, subject: {}, issuedBefore: {}", scope, subject, issuedBeforeMillis);
+    }
+
+    /**
+     * 查询水位线
+     * 
+     * @return 水位线（毫秒时间戳），未设置时返回null
+     */
+    public Long getWatermark(WatermarkScope scope, String subject) {
+        Object value = redisTemplate.opsForHash().get(scope.getRedisKey(), subject);
+        return value != null ? Long.valueOf(value.toString()) : null;
+    }
+
+    /**
+     * 检查令牌是否已被撤销：先查本地水位线，再查jti黑名单（布隆过滤器/近端缓存优先）
+     * 
+     * @param jti       JWT ID，可为空
+     * @param principal 用户名，可为空
+     * @param clientId  客户端ID，可为空
+     * @param issuedAt  签发时间，可为空
+     * @return true 如果已被撤销
+     */
+    public boolean isRevoked(String jti, String principal, String clientId, Instant issuedAt) {
+        if (watermarks.isRevoked(principal, clientId, issuedAt)) {
+            log.debug("令牌已被水位线撤销, principal: {}, clientId: {}", principal, clientId);
+            return true;
+        }
+        return jti != null && isBlacklisted(jti);
+    }
+
     /**
      * 检查令牌是否在黑名单中
      * 
      * @param jti JWT ID
      * @return true 如果在黑名单中，false 否则
      */
-    @Cacheable(value = "token-blacklist", key = "#jti")
     public boolean isBlacklisted(String jti) {
-        String key = BLACKLIST_PREFIX + jti;
-        Boolean hasKey = redisTemplate.hasKey(key);
+        // 布隆过滤器判定不存在时一定不在黑名单中，无需访问Redis
+        if (bloomFilter.isReady() && !bloomFilter.mightContain(jti)) {
+            return false;
+        }
+
+        Boolean cached = nearCache.get(jti);
+        if (cached != null) {
+            return cached;
+        }
 
-        if (hasKey != null && hasKey) {
+        // PTTL一次往返同时得到是否存在和剩余有效期：-2表示不存在
+        String key = RevocationKeys.BLACKLIST_PREFIX + jti;
+        Long ttlMillis = redisTemplate.getExpire(key, TimeUnit.MILLISECONDS);
+
+        if (ttlMillis != null && ttlMillis != -2) {
             log.debug("令牌在黑名单中: {}", jti);
+            long expiresAtMillis = ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : Long.MAX_VALUE;
+            nearCache.putRevoked(jti, expiresAtMillis);
             return true;
         }
 
+        nearCache.putNotRevoked(jti);
         return false;
     }
 
@@ -61,28 +271,213 @@ public class TokenBlacklistService {
      * 
      * @param jti JWT ID
      */
-    @CacheEvict(value = "token-blacklist", key = "#jti")
     public void removeFromBlacklist(String jti) {
-        String key = BLACKLIST_PREFIX + jti;
+        String key = RevocationKeys.BLACKLIST_PREFIX + jti;
         redisTemplate.delete(key);
+        redisTemplate.opsForZSet().remove(RevocationKeys.BLACKLIST_INDEX_KEY, jti);
+
+        nearCache.invalidate(jti);
+        redisTemplate.convertAndSend(RevocationEvent.CHANNEL, RevocationEvent.remove(jti).encode());
         log.info("令牌已从黑名单移除: {}", jti);
     }
 
     /**
      * 获取黑名单中的令牌数量
+     * 只统计索引中尚未过期的条目（ZCOUNT，O(log N)），不会阻塞Redis
      * 
      * @return 黑名单中的令牌数量
      */
     public long getBlacklistSize() {
-        return redisTemplate.keys(BLACKLIST_PREFIX + "*").size();
+        Long count = redisTemplate.opsForZSet().count(RevocationKeys.BLACKLIST_INDEX_KEY,
+                System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+        return count != null ? count : 0L;
     }
 
     /**
      * 清理过期的黑名单条目
-     * Redis会自动清理过期的键，此方法用于手动清理
+     * 黑名单键由Redis按TTL自动过期，这里只需裁剪索引中已过期的成员
      */
+    @Scheduled(fixedDelayString = "${token.blacklist.trim-interval-ms:60000}")
     public void cleanupExpiredEntries() {
-        // Redis会自动清理过期的键，这里只是记录日志
-        log.info("黑名单清理完成，当前黑名单大小: {}", getBlacklistSize());
+        Long removed = redisTemplate.opsForZSet().removeRangeByScore(RevocationKeys.BLACKLIST_INDEX_KEY,
+                Double.NEGATIVE_INFINITY, System.currentTimeMillis());
+        if (removed != null && removed > 0) {
+            log.info("黑名单索引清理完成，移除过期条目: {}，当前黑名单大小: {}", removed, getBlacklistSize());
+        }
+    }
+
+    /**
+     * 清理超过保留时长的水位线
+     * HSCAN分页遍历，每页过期的字段用一次脚本往返删除；删除前比较字段的值，
+     * 读取之后被revokeIssuedBefore前移过的水位线不会被误删
+     *
+     * @return 删除的水位线数
+     */
+    private long cleanupExpiredWatermarks() {
+        long threshold = System.currentTimeMillis() - watermarkRetentionMillis;
+        RedisWatermarkReader reader = new RedisWatermarkReader(redisTemplate, SCAN_BATCH_SIZE);
+        long[] removed = new long[1];
+        for (WatermarkScope scope : WatermarkScope.values()) {
+            reader.forEachPage(scope, page -> {
+                List<String> expired = new ArrayList<>();
+                page.forEach((subject, millis) -> {
+                    if (millis < threshold) {
+                        expired.add(subject);
+                        expired.add(String.valueOf(millis));
+                    }
+                });
+                if (!expired.isEmpty()) {
+                    Long deleted = redisTemplate.execute(DELETE_UNCHANGED_WATERMARKS_SCRIPT,
+                            StringRedisSerializer.UTF_8, new GenericToStringSerializer<>(Long.class),
+                            Collections.singletonList(scope.getRedisKey()), expired.toArray());
+                    removed[0] += deleted != null ? deleted : 0L;
+                }
+            });
+        }
+        return removed[0];
+    }
+
+    /**
+     * 校准黑名单索引
+     * 索引与键的写入不是原子的（进程崩溃、手工删除键等会产生偏差），
+     * 这里用非阻塞的SCAN/ZSCAN增量遍历：补齐索引中缺失的条目，删除键已不存在的索引成员。
+     * 每批扫描结果的检查和修正各用一次管道往返，按批修正，内存占用与索引大小无关；
+     * 随后清理过期的水位线。多节点部署时通过Redis锁保证同一时间只有一个节点执行
+     *
+     * @return 修正的条目数，未取得锁时为0
+     */
+    @Scheduled(fixedDelayString = "${token.blacklist.reconcile-interval-ms:3600000}",
+            initialDelayString = "${token.blacklist.reconcile-initial-delay-ms:300000}")
+    public long reconcileIndex() {
+        String owner = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(RECONCILE_LOCK_KEY, owner,
+                Duration.ofMillis(reconcileLockTtlMillis)))) {
+            log.debug("其他节点正在校准黑名单索引，跳过");
+            return 0;
+        }
+        try {
+            long added = addMissingIndexEntries();
+            long removed = removeOrphanIndexEntries();
+            if (added > 0 || removed > 0) {
+                log.info("黑名单索引校准完成，补齐: {}，移除: {}", added, removed);
+            }
+            long watermarksRemoved = cleanupExpiredWatermarks();
+            if (watermarksRemoved > 0) {
+                log.info("过期水位线清理完成，移除: {}", watermarksRemoved);
+            }
+            return added + removed;
+        } finally {
+            redisTemplate.execute(RELEASE_LOCK_SCRIPT, StringRedisSerializer.UTF_8,
+                    new GenericToStringSerializer<>(Long.class), Collections.singletonList(RECONCILE_LOCK_KEY), owner);
+        }
+    }
+
+    /**
+     * 键存在但索引缺失：补入索引，分数为键的实际过期时间
+     */
+    private long addMissingIndexEntries() {
+        long added = 0;
+        ScanOptions keyScan = ScanOptions.scanOptions().match(RevocationKeys.BLACKLIST_PREFIX + "*")
+                .count(SCAN_BATCH_SIZE).build();
+        List<String> jtis = new ArrayList<>(SCAN_BATCH_SIZE);
+        try (Cursor<String> cursor = redisTemplate.scan(keyScan)) {
+            while (cursor.hasNext()) {
+                jtis.add(cursor.next().substring(RevocationKeys.BLACKLIST_PREFIX.length()));
+                if (jtis.size() >= SCAN_BATCH_SIZE) {
+                    added += addMissingIndexEntries(jtis);
+                    jtis.clear();
+                }
+            }
+        }
+        if (!jtis.isEmpty()) {
+            added += addMissingIndexEntries(jtis);
+        }
+        return added;
+    }
+
+    private long addMissingIndexEntries(List<String> jtis) {
+        List<Object> scores = pipeline(ops -> jtis.forEach(
+                jti -> ops.opsForZSet().score(RevocationKeys.BLACKLIST_INDEX_KEY, jti)));
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < jtis.size(); i++) {
+            if (scores.get(i) == null) {
+                missing.add(jtis.get(i));
+            }
+        }
+        if (missing.isEmpty()) {
+            return 0;
+        }
+
+        List<Object> ttls = pipeline(ops -> missing.forEach(
+                jti -> ops.getExpire(RevocationKeys.BLACKLIST_PREFIX + jti, TimeUnit.MILLISECONDS)));
+        long now = System.currentTimeMillis();
+        Set<ZSetOperations.TypedTuple<String>> entries = new HashSet<>();
+        for (int i = 0; i < missing.size(); i++) {
+            Object ttl = ttls.get(i);
+            if (ttl instanceof Long && (Long) ttl > 0) {
+                entries.add(ZSetOperations.TypedTuple.of(missing.get(i), (double) (now + (Long) ttl)));
+            }
+        }
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        Long count = redisTemplate.opsForZSet().add(RevocationKeys.BLACKLIST_INDEX_KEY, entries);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * 索引存在但键已被删除：按批从索引中移除
+     */
+    private long removeOrphanIndexEntries() {
+        long removed = 0;
+        ScanOptions indexScan = ScanOptions.scanOptions().count(SCAN_BATCH_SIZE).build();
+        List<String> jtis = new ArrayList<>(SCAN_BATCH_SIZE);
+        try (Cursor<ZSetOperations.TypedTuple<String>> cursor =
+                redisTemplate.opsForZSet().scan(RevocationKeys.BLACKLIST_INDEX_KEY, indexScan)) {
+            while (cursor.hasNext()) {
+                String jti = cursor.next().getValue();
+                if (jti != null) {
+                    jtis.add(jti);
+                }
+                if (jtis.size() >= SCAN_BATCH_SIZE) {
+                    removed += removeOrphanIndexEntries(jtis);
+                    jtis.clear();
+                }
+            }
+        }
+        if (!jtis.isEmpty()) {
+            removed += removeOrphanIndexEntries(jtis);
+        }
+        return removed;
+    }
+
+    private long removeOrphanIndexEntries(List<String> jtis) {
+        List<Object> exists = pipeline(ops -> jtis.forEach(
+                jti -> ops.hasKey(RevocationKeys.BLACKLIST_PREFIX + jti)));
+        List<Object> orphans = new ArrayList<>();
+        for (int i = 0; i < jtis.size(); i++) {
+            if (!Boolean.TRUE.equals(exists.get(i))) {
+                orphans.add(jtis.get(i));
+            }
+        }
+        if (orphans.isEmpty()) {
+            return 0;
+        }
+        Long count = redisTemplate.opsForZSet().remove(RevocationKeys.BLACKLIST_INDEX_KEY, orphans.toArray());
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * 在一次管道往返中执行一组命令，结果与命令一一对应
+     */
+    private List<Object> pipeline(Consumer<RedisOperations<String, String>> commands) {
+        return redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                commands.accept((RedisOperations<String, String>) operations);
+                return null;
+            }
+        });
     }
-}
\ No newline at end of file
+}
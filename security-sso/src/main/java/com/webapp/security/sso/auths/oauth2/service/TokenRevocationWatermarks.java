@@ -0,0 +1,98 @@
+package com.webapp.security.sso.auths.oauth2.service;
+
+import com.webapp.security.core.revocation.RevocationEvent;
+import com.webapp.security.core.revocation.WatermarkRegistry;
+import com.webapp.security.core.revocation.WatermarkScope;
+import com.webapp.security.redis.revocation.RedisWatermarkReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * 本节点的撤销水位线
+ * 启动时从Redis分页加载，运行期间通过发布订阅接收水位线事件，并定期全量同步兜底，
+ * 校验令牌时只查内存，不产生Redis往返
+ */
+@Slf4j
+@Component
+public class TokenRevocationWatermarks implements MessageListener {
+
+    /**
+     * 同步时HSCAN每页读取的水位线条数
+     */
+    private static final int SCAN_PAGE_SIZE = 1000;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisWatermarkReader watermarkReader;
+    private final WatermarkRegistry registry = new WatermarkRegistry();
+
+    @Value("${token.revocation.watermark-retention-ms:86400000}")
+    private long watermarkRetentionMillis;
+
+    public TokenRevocationWatermarks(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.watermarkReader = new RedisWatermarkReader(redisTemplate, SCAN_PAGE_SIZE);
+    }
+
+    /**
+     * 令牌是否已被用户/客户端水位线撤销
+     */
+    public boolean isRevoked(String principal, String clientId, Instant issuedAt) {
+        return registry.isRevoked(principal, clientId, issuedAt);
+    }
+
+    /**
+     * 记录本节点设置的水位线
+     */
+    public void update(WatermarkScope scope, String subject, long issuedBeforeMillis) {
+        registry.update(scope, subject, issuedBeforeMillis);
+    }
+
+    /**
+     * 从Redis全量加载水位线，并清理已超过保留时长的本地条目
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${token.revocation.watermark-resync-interval-ms:300000}",
+            initialDelayString = "${token.revocation.watermark-resync-interval-ms:300000}")
+    public void reload() {
+        try {
+            for (WatermarkScope scope : WatermarkScope.values()) {
+                watermarkReader.forEachPage(scope, page -> registry.updateAll(scope, page));
+            }
+            registry.prune(System.currentTimeMillis() - watermarkRetentionMillis);
+            log.debug("撤销水位线同步完成，当前条目数: {}", registry.size());
+        } catch (Exception e) {
+            log.error("撤销水位线同步失败", e);
+        }
+    }
+
+    /**
+     * 接收其他节点发布的水位线事件
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        for (RevocationEvent event : RevocationEvent.decodeAll(body != null ? body.toString() : null)) {
+            for (WatermarkScope scope : WatermarkScope.values()) {
+                if (scope.getEventType() == event.getType()) {
+                    registry.update(scope, event.getSubject(), event.getTimestampMillis());
+                }
+            }
+        }
+    }
+
+    /**
+     * 水位线数量
+     */
+    public int size() {
+        return registry.size();
+    }
+}
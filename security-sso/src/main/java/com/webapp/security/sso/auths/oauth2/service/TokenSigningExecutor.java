@@ -0,0 +1,68 @@
+package com.webapp.security.sso.auths.oauth2.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 令牌签名并发限制
+ * JWT签名属于纯CPU计算，同时签名的请求数按CPU核数限定，等待签名的请求数有界，
+ * 等待队列满或等待超时时直接拒绝（调用方返回503），避免登录高峰时所有servlet线程都卡在签名上。
+ * 签名在调用线程上执行（见{@link CpuBoundGate}）
+ */
+@Slf4j
+@Component
+public class TokenSigningExecutor {
+
+    private final CpuBoundGate gate;
+
+    public TokenSigningExecutor(
+            @Value("${oauth2.token.signing.threads:0}") int threads,
+            @Value("${oauth2.token.signing.queue-capacity:256}") int queueCapacity,
+            @Value("${oauth2.token.signing.wait-timeout-ms:3000}") long waitTimeoutMillis) {
+        int permits = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.gate = new CpuBoundGate(permits, queueCapacity, waitTimeoutMillis);
+        log.info("令牌签名并发限制初始化完成, permits: {}, queueCapacity: {}", permits, queueCapacity);
+    }
+
+    /**
+     * 取得签名许可后执行任务
+     *
+     * @throws RejectedExecutionException 等待队列已满或等待超时
+     */
+    public <T> T execute(Callable<T> task) {
+        return gate.execute(task, rejection -> {
+            switch (rejection) {
+                case FULL:
+                    return new RejectedExecutionException("令牌签名队列已满");
+                case TIMEOUT:
+                    return new RejectedExecutionException("令牌签名等待超时");
+                default:
+                    return new RejectedExecutionException("令牌签名被中断");
+            }
+        });
+    }
+
+    /**
+     * 统计信息：等待数、签名耗时等
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("poolSize", gate.getPermitCount());
+        result.put("activeCount", gate.getActiveCount());
+        result.put("queueDepth", gate.getWaitingCount());
+        result.put("queueRemainingCapacity", gate.getRemainingWaitCapacity());
+        result.put("completedCount", gate.getCompletedCount());
+        result.put("rejectedCount", gate.getRejectedCount());
+        result.put("timeoutCount", gate.getTimeoutCount());
+        result.put("avgQueueMillis", gate.getAvgWaitMillis());
+        result.put("avgSignMillis", gate.getAvgRunMillis());
+        result.put("maxSignMillis", gate.getMaxRunMillis());
+        return result;
+    }
+}
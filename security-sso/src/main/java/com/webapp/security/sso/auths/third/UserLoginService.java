@@ -3,6 +3,7 @@ package com.webapp.security.sso.auths.third;
 import com.webapp.security.core.config.ClientIdConfig;
 import com.webapp.security.core.entity.SysUser;
 import com.webapp.security.core.service.SysUserService;
+import com.webapp.security.core.stat.UserStatCounters;
 import com.webapp.security.sso.context.SpringContextHolder;
 import com.webapp.security.sso.context.ClientContext;
 import com.webapp.security.sso.auths.oauth2.service.OAuth2Service;
@@ -58,6 +59,9 @@ public class UserLoginService {
         @Autowired
         private OAuth2Service oAuth2Service;
 
+        @Autowired
+        private UserStatCounters userStatCounters;
+
         @Autowired
         private PasswordEncoder passwordEncoder;
 
@@ -286,7 +290,7 @@ public class UserLoginService {
                 OAuth2Authorization.Builder authorizationBuilder = OAuth2Authorization
                                 .withRegisteredClient(registeredClient)
                                 .principalName(user.getUsername())
-                                .authorizationGrantType(new AuthorizationGrantType("password"))
+                                .authorizationGrantType(OAuth2Service.PASSWORD_GRANT_TYPE)
                                 .authorizedScopes(registeredClient.getScopes());
 
                 // 生成访问令牌
@@ -353,6 +357,7 @@ public class UserLoginService {
 
                 // 保存用户
                 sysUserService.save(newUser);
+                userStatCounters.userCreated(newUser.getStatus());
                 return newUser;
         }
 
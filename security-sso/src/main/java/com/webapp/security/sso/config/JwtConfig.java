@@ -1,11 +1,15 @@
 package com.webapp.security.sso.config;
 
+import com.webapp.security.core.presence.PresenceTracker;
+import com.webapp.security.core.rbac.PermissionRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.server.authorization.token.JwtEncodingContext;
 import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenCustomizer;
 
@@ -23,21 +27,32 @@ public class JwtConfig {
 
     private static final Logger log = LoggerFactory.getLogger(JwtConfig.class);
 
+    /**
+     * 是否使用位图压缩权限声明
+     * 开启后注册表中已有的权限编码以perm_bits/perm_ver声明携带，authorities中只保留未注册的权限
+     */
+    @Value("${oauth2.token.compact-authorities:false}")
+    private boolean compactAuthorities;
+
     /**
      * 自定义JWT令牌内容
-     * 将用户权限信息添加到令牌中
+     * 将用户权限信息添加到令牌中，并记录用户活动
      */
     @Bean
-    public OAuth2TokenCustomizer<JwtEncodingContext> jwtCustomizer() {
+    public OAuth2TokenCustomizer<JwtEncodingContext> jwtCustomizer(PermissionRegistry permissionRegistry,
+            PresenceTracker presenceTracker) {
         return context -> {
-            log.info("JWT customizer invoked for token type: {}", context.getTokenType().getValue());
+            log.debug("JWT customizer invoked for token type: {}", context.getTokenType().getValue());
 
             // 只处理访问令牌
             if (context.getTokenType().getValue().equals("access_token")) {
                 // 获取认证信息
                 Authentication principal = context.getPrincipal();
-                log.info("Principal class: {}", principal.getClass().getName());
-                log.info("Principal authorities: {}", principal.getAuthorities());
+
+                // 客户端凭证模式的主体是客户端，不计入在线用户
+                if (!AuthorizationGrantType.CLIENT_CREDENTIALS.equals(context.getAuthorizationGrantType())) {
+                    presenceTracker.record(principal.getName());
+                }
 
                 // 获取权限
                 Collection<? extends GrantedAuthority> authorities = principal.getAuthorities();
@@ -47,24 +62,32 @@ public class JwtConfig {
                 } else {
                     // 转换为字符串列表
                     List<String> authoritiesList = authorities.stream()
-                            .map(authority -> {
-                                String auth = authority.getAuthority();
-                                log.info("Adding authority to JWT: {}", auth);
-                                return auth;
-                            })
+                            .map(GrantedAuthority::getAuthority)
                             .collect(Collectors.toList());
 
                     // 生成唯一的JTI
                     String jti = UUID.randomUUID().toString();
-                    log.info("Generated JTI for JWT: {}", jti);
 
                     // 将权限信息和其他声明添加到JWT声明中
-                    log.info("Setting authorities claim in JWT: {}", authoritiesList);
+                    if (log.isDebugEnabled()) {
+                        log.debug("Setting {} authorities in JWT for principal: {}, jti: {}",
+                                authoritiesList.size(), principal.getName(), jti);
+                    }
                     context.getClaims()
                             .claim("jti", jti) // JWT唯一标识符
-                            .claim("authorities", authoritiesList) // 用户权限
                             .claim("iat", Instant.now().getEpochSecond()) // 签发时间
                             .claim("nbf", Instant.now().getEpochSecond()); // 生效时间
+
+                    if (compactAuthorities) {
+                        // 已注册的权限编码为位图，令牌大小不随权限数量增长
+                        PermissionRegistry.Encoded encoded = permissionRegistry.encode(authoritiesList);
+                        context.getClaims()
+                                .claim(PermissionRegistry.BITS_CLAIM, encoded.getBits())
+                                .claim(PermissionRegistry.VERSION_CLAIM, encoded.getVersion())
+                                .claim("authorities", encoded.getUnregistered());
+                    } else {
+                        context.getClaims().claim("authorities", authoritiesList); // 用户权限
+                    }
                     // 注意：不设置expiresAt，让Spring Security OAuth2自动处理过期时间
                 }
             }
@@ -0,0 +1,32 @@
+package com.webapp.security.sso.config;
+
+import com.webapp.security.core.revocation.RevocationEvent;
+import com.webapp.security.sso.auths.oauth2.service.TokenBlacklistBloomFilter;
+import com.webapp.security.sso.auths.oauth2.service.TokenBlacklistNearCache;
+import com.webapp.security.sso.auths.oauth2.service.TokenRevocationWatermarks;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Redis发布订阅配置
+ * 订阅令牌黑名单事件，使各节点的本地黑名单过滤器、近端缓存和撤销水位线保持同步
+ */
+@Configuration
+public class RedisListenerConfig {
+
+    @Bean
+    public RedisMessageListenerContainer tokenBlacklistListenerContainer(RedisConnectionFactory connectionFactory,
+            TokenBlacklistBloomFilter bloomFilter, TokenBlacklistNearCache nearCache,
+            TokenRevocationWatermarks watermarks) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        ChannelTopic topic = new ChannelTopic(RevocationEvent.CHANNEL);
+        container.addMessageListener(bloomFilter, topic);
+        container.addMessageListener(nearCache, topic);
+        container.addMessageListener(watermarks, topic);
+        return container;
+    }
+}
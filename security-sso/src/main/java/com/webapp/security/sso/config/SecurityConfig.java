@@ -5,6 +5,7 @@ import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
+import com.webapp.security.sso.generators.CachingJwtGenerator;
 import com.webapp.security.sso.generators.ShortOpaqueTokenGenerator;
 
 import com.webapp.security.sso.generators.OAuth2AuthorizationCodeGenerator;
@@ -12,7 +13,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.webapp.security.sso.entity.OAuth2Jwk;
 import com.webapp.security.sso.auths.oauth2.service.JwkService;
+import com.webapp.security.sso.auths.oauth2.expand.BestEffortRehashAuthenticationProvider;
+import com.webapp.security.sso.auths.oauth2.expand.BoundedPasswordEncoder;
+import com.webapp.security.sso.auths.oauth2.expand.TokenRevocationValidator;
+import com.webapp.security.sso.auths.oauth2.expand.UpgradingPasswordEncoder;
 import com.webapp.security.sso.auths.oauth2.expand.UserDetailsServiceImpl;
+import com.webapp.security.sso.auths.oauth2.service.PasswordHashingExecutor;
+import com.webapp.security.sso.auths.oauth2.service.TokenBlacklistService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -32,10 +39,11 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationService;
@@ -124,6 +132,16 @@ public class SecurityConfig {
         public SecurityFilterChain defaultSecurityFilterChain(HttpSecurity http) throws Exception {
                 http
                                 .authorizeHttpRequests((authorize) -> authorize
+                                                // 批量撤销、撤销水位线会使大量令牌失效，需要令牌撤销权限
+                                                .requestMatchers("/api/token-blacklist/bulk-add",
+                                                                "/api/token-blacklist/watermark")
+                                                .hasAuthority("TOKEN_REVOKE")
+                                                // 密码哈希、公平排队、并发限制、认证失败防护、令牌签名与验签缓存的运行统计
+                                                // 与BCrypt强度校准，需要系统监控权限
+                                                .requestMatchers("/api/password-hashing/**", "/api/fair-queue/**",
+                                                                "/api/concurrency-limit/**", "/api/login-guard/**",
+                                                                "/api/token-signing/**", "/api/jwt-verification/**")
+                                                .hasAuthority("SYSTEM_MONITOR")
                                                 .requestMatchers("/login", "/logout", "/oauth2/**", "/v1/oauth2/**",
                                                                 "/.well-known/**", "/favicon.ico",
                                                                 "/api/token-blacklist/**", 
@@ -149,11 +167,14 @@ public class SecurityConfig {
 
         /**
          * 密码编码器
+         * 按前缀识别算法、以目标强度生成BCrypt，计算受密码哈希并发限制
          */
         @Bean
         @Primary
-        public PasswordEncoder passwordEncoder() {
-                return new BCryptPasswordEncoder();
+        public PasswordEncoder passwordEncoder(PasswordHashingExecutor passwordHashingExecutor,
+                        @Value("${webapp.password.bcrypt-strength:10}") int bcryptStrength) {
+                return new BoundedPasswordEncoder(new UpgradingPasswordEncoder(bcryptStrength),
+                                passwordHashingExecutor);
         }
 
         /**
@@ -169,10 +190,15 @@ public class SecurityConfig {
          */
         @Bean
         public AuthenticationProvider authenticationProvider(
-                        @Qualifier("passwordEncoder") PasswordEncoder passwordEncoder) {
-                DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
+                        @Qualifier("passwordEncoder") PasswordEncoder passwordEncoder,
+                        @Value("${webapp.password.rehash-on-login:true}") boolean rehashOnLogin) {
+                DaoAuthenticationProvider authProvider = new BestEffortRehashAuthenticationProvider();
                 authProvider.setUserDetailsService(userDetailsService);
                 authProvider.setPasswordEncoder(passwordEncoder);
+                if (rehashOnLogin) {
+                        // 登录成功且哈希需要升级时重新哈希，哈希繁忙时跳过
+                        authProvider.setUserDetailsPasswordService(userDetailsService);
+                }
                 return authProvider;
         }
 
@@ -192,10 +218,16 @@ public class SecurityConfig {
 
         /**
          * JWT解码器
+         * 在默认校验（有效期等）之外增加撤销校验
          */
         @Bean
-        public JwtDecoder jwtDecoder(@Value("${oauth2.server.base-url}") String baseUrl) {
-                return NimbusJwtDecoder.withJwkSetUri(baseUrl + "/oauth2/jwks").build();
+        public JwtDecoder jwtDecoder(@Value("${oauth2.server.base-url}") String baseUrl,
+                        TokenBlacklistService tokenBlacklistService) {
+                NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withJwkSetUri(baseUrl + "/oauth2/jwks").build();
+                jwtDecoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                                JwtValidators.createDefault(),
+                                new TokenRevocationValidator(tokenBlacklistService)));
+                return jwtDecoder;
         }
 
         /**
@@ -209,10 +241,12 @@ public class SecurityConfig {
         /**
          * OAuth2令牌生成器配置
          * 配置JWT、访问令牌、刷新令牌和短令牌生成器
+         * 访问令牌JWT由按客户端缓存头和声明的生成器签发，ID令牌仍由框架JwtGenerator生成
          */
         @Bean
         public OAuth2TokenGenerator<?> tokenGenerator(JwtEncoder jwtEncoder,
                         OAuth2TokenCustomizer<JwtEncodingContext> jwtCustomizer) {
+                CachingJwtGenerator accessTokenGenerator = new CachingJwtGenerator(jwtEncoder, jwtCustomizer);
                 JwtGenerator jwtGenerator = new JwtGenerator(jwtEncoder);
                 jwtGenerator.setJwtCustomizer(jwtCustomizer);
 
@@ -223,6 +257,7 @@ public class SecurityConfig {
 
                 // Spring Authorization Server内置授权码生成
                 return new DelegatingOAuth2TokenGenerator(
+                                accessTokenGenerator,
                                 jwtGenerator,
                                 authorizationCodeGenerator,
                                 shortOpaqueTokenGenerator,
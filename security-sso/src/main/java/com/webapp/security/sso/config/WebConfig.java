@@ -1,7 +1,11 @@
 package com.webapp.security.sso.config;
 
+import com.webapp.security.sso.guard.ConcurrencyLimitFilter;
+import com.webapp.security.sso.guard.FairQueueFilter;
 import com.webapp.security.sso.interceptor.ClientIdInterceptor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
@@ -48,6 +52,30 @@ public class WebConfig implements WebMvcConfigurer {
         return new CorsFilter(source);
     }
 
+    /**
+     * 令牌签发接口的并发限制，位于Spring Security之前，被拒绝的请求不做任何认证工作
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterRegistration(
+            ConcurrencyLimitFilter concurrencyLimitFilter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(concurrencyLimitFilter);
+        registration.setUrlPatterns(concurrencyLimitFilter.getPaths());
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        return registration;
+    }
+
+    /**
+     * 令牌签发、自省接口按appId/clientId公平排队，位于并发限制之前
+     */
+    @Bean
+    public FilterRegistrationBean<FairQueueFilter> fairQueueFilterRegistration(FairQueueFilter fairQueueFilter) {
+        FilterRegistrationBean<FairQueueFilter> registration = new FilterRegistrationBean<>(fairQueueFilter);
+        registration.setUrlPatterns(fairQueueFilter.getPaths());
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 20);
+        return registration;
+    }
+
     @Bean
     public RestTemplate restTemplate() {
         return new RestTemplate();
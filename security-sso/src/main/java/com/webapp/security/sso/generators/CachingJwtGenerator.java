@@ -0,0 +1,130 @@
+package com.webapp.security.sso.generators;
+
+import org.springframework.security.oauth2.core.OAuth2Token;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.settings.OAuth2TokenFormat;
+import org.springframework.security.oauth2.server.authorization.token.JwtEncodingContext;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenContext;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenCustomizer;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenGenerator;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 访问令牌JWT生成器
+ * 声明与框架JwtGenerator生成的访问令牌一致，但按客户端缓存不随请求变化的部分：JWS头、签发者、受众和有效期。
+ * 每次签发只复制缓存的头和声明，再补上主体、时间、jti和授权范围；客户端配置或签发者变化时重新构建缓存。
+ * 只处理自包含格式的访问令牌，其他令牌（ID令牌等）返回null交给后续生成器。
+ */
+public class CachingJwtGenerator implements OAuth2TokenGenerator<Jwt> {
+
+    private final JwtEncoder jwtEncoder;
+    private final OAuth2TokenCustomizer<JwtEncodingContext> jwtCustomizer;
+    private final Map<String, ClientTemplate> templates = new ConcurrentHashMap<>();
+
+    public CachingJwtGenerator(JwtEncoder jwtEncoder, OAuth2TokenCustomizer<JwtEncodingContext> jwtCustomizer) {
+        this.jwtEncoder = jwtEncoder;
+        this.jwtCustomizer = jwtCustomizer;
+    }
+
+    @Override
+    public Jwt generate(OAuth2TokenContext context) {
+        if (!OAuth2TokenType.ACCESS_TOKEN.equals(context.getTokenType())) {
+            return null;
+        }
+        RegisteredClient registeredClient = context.getRegisteredClient();
+        if (!OAuth2TokenFormat.SELF_CONTAINED.equals(registeredClient.getTokenSettings().getAccessTokenFormat())) {
+            return null;
+        }
+        String issuer = context.getAuthorizationServerContext() != null
+                ? context.getAuthorizationServerContext().getIssuer()
+                : null;
+        ClientTemplate template = templateFor(registeredClient, issuer);
+
+        Instant issuedAt = Instant.now();
+        JwtClaimsSet.Builder claimsBuilder = JwtClaimsSet.from(template.claims)
+                .subject(context.getPrincipal().getName())
+                .issuedAt(issuedAt)
+                .notBefore(issuedAt)
+                .expiresAt(issuedAt.plus(template.accessTokenTimeToLive))
+                .id(UUID.randomUUID().toString());
+        if (context.getAuthorizedScopes() != null && !context.getAuthorizedScopes().isEmpty()) {
+            claimsBuilder.claim(OAuth2ParameterNames.SCOPE, context.getAuthorizedScopes());
+        }
+        JwsHeader.Builder headerBuilder = JwsHeader.from(template.header);
+
+        if (jwtCustomizer != null) {
+            JwtEncodingContext.Builder encodingContext = JwtEncodingContext.with(headerBuilder, claimsBuilder)
+                    .registeredClient(registeredClient)
+                    .principal(context.getPrincipal())
+                    .authorizationServerContext(context.getAuthorizationServerContext())
+                    .authorizedScopes(context.getAuthorizedScopes())
+                    .tokenType(context.getTokenType())
+                    .authorizationGrantType(context.getAuthorizationGrantType());
+            if (context.getAuthorization() != null) {
+                encodingContext.authorization(context.getAuthorization());
+            }
+            if (context.getAuthorizationGrant() != null) {
+                encodingContext.authorizationGrant(context.getAuthorizationGrant());
+            }
+            jwtCustomizer.customize(encodingContext.build());
+        }
+
+        return jwtEncoder.encode(JwtEncoderParameters.from(headerBuilder.build(), claimsBuilder.build()));
+    }
+
+    private ClientTemplate templateFor(RegisteredClient registeredClient, String issuer) {
+        ClientTemplate template = templates.get(registeredClient.getId());
+        if (template == null || !template.matches(registeredClient, issuer)) {
+            template = new ClientTemplate(registeredClient, issuer);
+            templates.put(registeredClient.getId(), template);
+        }
+        return template;
+    }
+
+    /**
+     * 单个客户端的不变部分
+     */
+    private static final class ClientTemplate {
+
+        private final String clientId;
+        private final String issuer;
+        private final Duration accessTokenTimeToLive;
+        private final JwsHeader header;
+        private final JwtClaimsSet claims;
+
+        ClientTemplate(RegisteredClient registeredClient, String issuer) {
+            this.clientId = registeredClient.getClientId();
+            this.issuer = issuer;
+            this.accessTokenTimeToLive = registeredClient.getTokenSettings().getAccessTokenTimeToLive();
+            // 访问令牌固定使用RS256，与框架JwtGenerator一致
+            this.header = JwsHeader.with(SignatureAlgorithm.RS256).build();
+            JwtClaimsSet.Builder builder = JwtClaimsSet.builder()
+                    .audience(Collections.singletonList(clientId));
+            if (issuer != null && !issuer.isEmpty()) {
+                builder.issuer(issuer);
+            }
+            this.claims = builder.build();
+        }
+
+        boolean matches(RegisteredClient registeredClient, String currentIssuer) {
+            return clientId.equals(registeredClient.getClientId())
+                    && Objects.equals(issuer, currentIssuer)
+                    && accessTokenTimeToLive.equals(registeredClient.getTokenSettings().getAccessTokenTimeToLive());
+        }
+    }
+}
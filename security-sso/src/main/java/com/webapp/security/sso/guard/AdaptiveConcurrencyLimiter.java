@@ -0,0 +1,191 @@
+package com.webapp.security.sso.guard;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 自适应并发限制（梯度算法 + 丢弃时乘性减小）
+ * 按采样窗口统计平均响应时间（短期RTT），并维护其长期指数平均（长期RTT，近似无排队时的响应时间）：
+ * 梯度 = clamp(容忍系数 * 长期RTT / 短期RTT, 0.5, 1)，新限制 = 限制 * 梯度 + sqrt(限制)，再做平滑。
+ * 短期RTT超过容忍范围的窗口不更新长期RTT，持续过载时限制稳定在容忍系数对应的排队程度附近。
+ * 响应时间因排队变长时梯度小于1，限制随之收缩；并发未用满一半时不增长；
+ * 下游返回503（线程池拒绝等）时直接按比例减小。超过限制的请求不排队，立即拒绝。
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * 限制参数
+     */
+    public static final class Settings {
+
+        private final int initialLimit;
+        private final int minLimit;
+        private final int maxLimit;
+        private final long windowNanos;
+        private final int minWindowSamples;
+        private final double tolerance;
+        private final double smoothing;
+        private final double backoffRatio;
+
+        public Settings(int initialLimit, int minLimit, int maxLimit, long windowMillis, int minWindowSamples,
+                double tolerance, double smoothing, double backoffRatio) {
+            this.minLimit = Math.max(minLimit, 1);
+            this.maxLimit = Math.max(maxLimit, this.minLimit);
+            this.initialLimit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+            this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+            this.minWindowSamples = Math.max(minWindowSamples, 1);
+            this.tolerance = Math.max(tolerance, 1.0);
+            this.smoothing = Math.min(Math.max(smoothing, 0.01), 1.0);
+            this.backoffRatio = Math.min(Math.max(backoffRatio, 0.5), 1.0);
+        }
+    }
+
+    /**
+     * 长期RTT的平滑系数（约为最近100个窗口的平均）
+     */
+    private static final double LONG_RTT_SMOOTHING = 0.01;
+
+    private final String name;
+    private final Settings settings;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private volatile double limit;
+    private volatile double longRttNanos;
+    private volatile double lastShortRttNanos;
+    private volatile long windowStartNanos = System.nanoTime();
+    private volatile int windowMaxInflight;
+
+    private final LongAdder windowRttNanos = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final LongAdder acceptedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+
+    public AdaptiveConcurrencyLimiter(String name, Settings settings) {
+        this.name = name;
+        this.settings = settings;
+        this.limit = settings.initialLimit;
+    }
+
+    /**
+     * 申请一个并发名额
+     *
+     * @return 开始时间（纳秒），名额已满时返回-1
+     */
+    public long tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= (int) limit) {
+                rejectedCount.increment();
+                return -1L;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                if (current + 1 > windowMaxInflight) {
+                    windowMaxInflight = current + 1;
+                }
+                acceptedCount.increment();
+                return System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * 归还名额并记录本次响应时间
+     *
+     * @param startNanos tryAcquire的返回值
+     * @param dropped    下游因过载拒绝（如返回503）
+     */
+    public void release(long startNanos, boolean dropped) {
+        long now = System.nanoTime();
+        inflight.decrementAndGet();
+        if (dropped) {
+            droppedCount.increment();
+            updateLock.lock();
+            try {
+                limit = clamp(limit * settings.backoffRatio);
+            } finally {
+                updateLock.unlock();
+            }
+            return;
+        }
+        windowRttNanos.add(now - startNanos);
+        windowSamples.increment();
+        if (now - windowStartNanos >= settings.windowNanos && windowSamples.sum() >= settings.minWindowSamples
+                && updateLock.tryLock()) {
+            try {
+                rollWindow(now);
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 当前并发限制
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * 统计信息：限制、在途请求数、RTT、拒绝次数
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("name", name);
+        result.put("limit", getLimit());
+        result.put("inflight", inflight.get());
+        result.put("longRttMillis", longRttNanos / 1_000_000.0);
+        result.put("shortRttMillis", lastShortRttNanos / 1_000_000.0);
+        result.put("acceptedCount", acceptedCount.sum());
+        result.put("rejectedCount", rejectedCount.sum());
+        result.put("droppedCount", droppedCount.sum());
+        return result;
+    }
+
+    private void rollWindow(long now) {
+        long samples = windowSamples.sumThenReset();
+        long rttSum = windowRttNanos.sumThenReset();
+        int maxInflight = windowMaxInflight;
+        windowMaxInflight = inflight.get();
+        windowStartNanos = now;
+        if (samples == 0) {
+            return;
+        }
+        double shortRtt = (double) rttSum / samples;
+        lastShortRttNanos = shortRtt;
+        // 短期RTT超出容忍范围说明在排队，不计入长期RTT，否则持续过载时基线被逐渐抬高，限制随之放开
+        double longRtt = longRttNanos;
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else if (shortRtt <= settings.tolerance * longRtt) {
+            longRtt = longRtt * (1 - LONG_RTT_SMOOTHING) + shortRtt * LONG_RTT_SMOOTHING;
+        } else if (getLimit() <= settings.minLimit) {
+            // 已降到最小限制仍然偏慢，视为下游本身变慢，以当前响应时间作为新的基线
+            longRtt = shortRtt;
+        }
+        if (longRtt > shortRtt * 2) {
+            // 负载回落后长期RTT偏高，尽快向短期RTT靠拢
+            longRtt = longRtt * 0.9 + shortRtt * 0.1;
+        }
+        longRttNanos = longRtt;
+
+        double current = limit;
+        if (maxInflight < current / 2) {
+            // 并发未用满，响应时间不能说明限制是否合适，不调整
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, settings.tolerance * longRtt / shortRtt));
+        double next = current * gradient + Math.sqrt(current);
+        limit = clamp(current * (1 - settings.smoothing) + next * settings.smoothing);
+    }
+
+    private double clamp(double value) {
+        return Math.min(Math.max(value, settings.minLimit), settings.maxLimit);
+    }
+}
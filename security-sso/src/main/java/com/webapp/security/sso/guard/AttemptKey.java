@@ -0,0 +1,86 @@
+package com.webapp.security.sso.guard;
+
+import java.util.Locale;
+
+/**
+ * 认证失败计数的维度和标识
+ */
+public final class AttemptKey {
+
+    /**
+     * 计数维度
+     */
+    public enum Scope {
+        /**
+         * 用户名
+         */
+        USER("user"),
+        /**
+         * appId / clientId
+         */
+        CLIENT("client"),
+        /**
+         * 来源IP
+         */
+        IP("ip");
+
+        private final String code;
+
+        Scope(String code) {
+            this.code = code;
+        }
+
+        public String getCode() {
+            return code;
+        }
+    }
+
+    /**
+     * 标识最大长度，超出部分截断，避免超长的用户名撑大键
+     */
+    private static final int MAX_ID_LENGTH = 128;
+
+    private final Scope scope;
+    private final String id;
+
+    private AttemptKey(Scope scope, String id) {
+        this.scope = scope;
+        this.id = id;
+    }
+
+    public static AttemptKey user(String username) {
+        return of(Scope.USER, username == null ? null : username.toLowerCase(Locale.ROOT));
+    }
+
+    public static AttemptKey client(String clientId) {
+        return of(Scope.CLIENT, clientId);
+    }
+
+    public static AttemptKey ip(String remoteAddr) {
+        return of(Scope.IP, remoteAddr);
+    }
+
+    private static AttemptKey of(Scope scope, String id) {
+        String normalized = id == null ? "" : id.trim();
+        if (normalized.length() > MAX_ID_LENGTH) {
+            normalized = normalized.substring(0, MAX_ID_LENGTH);
+        }
+        return new AttemptKey(scope, normalized);
+    }
+
+    public Scope getScope() {
+        return scope;
+    }
+
+    /**
+     * 存储键，如 user:alice
+     */
+    public String key() {
+        return scope.code + ":" + id;
+    }
+
+    @Override
+    public String toString() {
+        return key();
+    }
+}
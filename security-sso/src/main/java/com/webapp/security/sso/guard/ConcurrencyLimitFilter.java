@@ -0,0 +1,104 @@
+package com.webapp.security.sso.guard;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webapp.security.core.model.OAuth2ErrorResponse;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 令牌签发接口的并发限制过滤器
+ * 每个接口一个自适应限制器，超过限制的请求在进入Spring Security之前直接返回503，
+ * 不在Tomcat线程和数据库连接池上排队。注册的路径见WebConfig。
+ */
+@Slf4j
+@Component
+public class ConcurrencyLimitFilter implements Filter {
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new LinkedHashMap<>();
+
+    public ConcurrencyLimitFilter(ObjectMapper objectMapper,
+            @Value("${oauth2.concurrency-limit.enabled:true}") boolean enabled,
+            @Value("${oauth2.concurrency-limit.paths:/oauth2/login,/oauth2/refresh,/v1/oauth2/token}") String[] paths,
+            @Value("${oauth2.concurrency-limit.initial-limit:20}") int initialLimit,
+            @Value("${oauth2.concurrency-limit.min-limit:4}") int minLimit,
+            @Value("${oauth2.concurrency-limit.max-limit:200}") int maxLimit,
+            @Value("${oauth2.concurrency-limit.window-ms:1000}") long windowMillis,
+            @Value("${oauth2.concurrency-limit.min-window-samples:10}") int minWindowSamples,
+            @Value("${oauth2.concurrency-limit.tolerance:1.5}") double tolerance,
+            @Value("${oauth2.concurrency-limit.smoothing:0.2}") double smoothing,
+            @Value("${oauth2.concurrency-limit.backoff-ratio:0.9}") double backoffRatio) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        AdaptiveConcurrencyLimiter.Settings settings = new AdaptiveConcurrencyLimiter.Settings(initialLimit,
+                minLimit, maxLimit, windowMillis, minWindowSamples, tolerance, smoothing, backoffRatio);
+        for (String path : paths) {
+            limiters.put(path.trim(), new AdaptiveConcurrencyLimiter(path.trim(), settings));
+        }
+    }
+
+    /**
+     * 需要注册过滤器的路径
+     */
+    public List<String> getPaths() {
+        return new ArrayList<>(limiters.keySet());
+    }
+
+    /**
+     * 各接口的当前限制及统计
+     */
+    public List<Map<String, Object>> getStats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        for (AdaptiveConcurrencyLimiter limiter : limiters.values()) {
+            stats.add(limiter.getStats());
+        }
+        return stats;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        AdaptiveConcurrencyLimiter limiter = enabled
+                ? limiters.get(httpRequest.getRequestURI().substring(httpRequest.getContextPath().length()))
+                : null;
+        if (limiter == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long startNanos = limiter.tryAcquire();
+        if (startNanos < 0) {
+            log.debug("并发超过限制, 拒绝请求: {}, limit: {}", httpRequest.getRequestURI(), limiter.getLimit());
+            reject((HttpServletResponse) response);
+            return;
+        }
+        boolean dropped = false;
+        try {
+            chain.doFilter(request, response);
+            dropped = ((HttpServletResponse) response).getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value();
+        } finally {
+            limiter.release(startNanos, dropped);
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        GuardResponses.write(objectMapper, response, OAuth2ErrorResponse.unavailable("服务繁忙，请稍后重试", 1L));
+    }
+}
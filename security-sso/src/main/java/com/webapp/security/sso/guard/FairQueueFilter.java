@@ -0,0 +1,125 @@
+package com.webapp.security.sso.guard;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webapp.security.core.model.OAuth2ErrorResponse;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 令牌签发、自省接口按appId/clientId的公平排队过滤器
+ * 租户取自Basic认证头中声明的标识（此时尚未校验密钥），权重见TenantWeights。
+ * 租户之间按权重分配名额，租户内再按来源IP轮流放行：声明的标识可以伪造，冒用他人appId的请求
+ * 只会排满自己来源的子队列，分走该租户份额中的一份，不会挤占其他租户的份额。
+ * 单个来源或全局的排队数超过上限返回429，等待超时返回503。注册的路径见WebConfig。
+ */
+@Slf4j
+@Component
+public class FairQueueFilter implements Filter {
+
+    private static final String BASIC_PREFIX = "Basic ";
+
+    private final ObjectMapper objectMapper;
+    private final TenantWeights tenantWeights;
+    private final FairQueueScheduler scheduler;
+    private final boolean enabled;
+    private final List<String> paths;
+    private final long waitTimeoutMillis;
+
+    public FairQueueFilter(ObjectMapper objectMapper, TenantWeights tenantWeights,
+            @Value("${oauth2.fair-queue.enabled:true}") boolean enabled,
+            @Value("${oauth2.fair-queue.paths:/v1/oauth2/token,/v1/oauth2/introspect}") String[] paths,
+            @Value("${oauth2.fair-queue.max-concurrency:16}") int maxConcurrency,
+            @Value("${oauth2.fair-queue.max-queued-per-source:20}") int maxQueuedPerSource,
+            @Value("${oauth2.fair-queue.max-waiting:100}") int maxWaiting,
+            @Value("${oauth2.fair-queue.wait-timeout-ms:2000}") long waitTimeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.tenantWeights = tenantWeights;
+        this.enabled = enabled;
+        this.paths = Arrays.stream(paths).map(String::trim).collect(Collectors.toList());
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.scheduler = new FairQueueScheduler(maxConcurrency, maxQueuedPerSource, maxWaiting,
+                waitTimeoutMillis);
+    }
+
+    /**
+     * 需要注册过滤器的路径
+     */
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * 排队统计
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new HashMap<>(scheduler.getStats());
+        result.put("enabled", enabled);
+        result.put("tenants", tenantWeights.size());
+        return result;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (!enabled) {
+            chain.doFilter(request, response);
+            return;
+        }
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        String tenant = tenantWeights.resolve(claimedClientId(httpRequest.getHeader(HttpHeaders.AUTHORIZATION)));
+        String source = httpRequest.getRemoteAddr();
+        FairQueueScheduler.Outcome outcome = scheduler.acquire(tenant, source, tenantWeights.weightOf(tenant));
+        if (outcome == FairQueueScheduler.Outcome.QUEUE_FULL) {
+            log.debug("排队已满, 拒绝请求: {}, tenant: {}, source: {}", httpRequest.getRequestURI(), tenant, source);
+            GuardResponses.write(objectMapper, (HttpServletResponse) response,
+                    OAuth2ErrorResponse.tooManyRequests("请求过于频繁，请稍后重试", 1L));
+            return;
+        }
+        if (outcome == FairQueueScheduler.Outcome.TIMEOUT) {
+            log.debug("排队等待超时: {}, tenant: {}, source: {}", httpRequest.getRequestURI(), tenant, source);
+            GuardResponses.write(objectMapper, (HttpServletResponse) response,
+                    OAuth2ErrorResponse.unavailable("服务繁忙，请稍后重试", (waitTimeoutMillis + 999) / 1000));
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scheduler.release();
+        }
+    }
+
+    /**
+     * Basic认证头中的用户名部分（appId或clientId），无法解析时返回null
+     */
+    private static String claimedClientId(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith(BASIC_PREFIX)) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getDecoder().decode(authHeader.substring(BASIC_PREFIX.length())),
+                    StandardCharsets.UTF_8);
+            int colon = decoded.indexOf(':');
+            return colon > 0 ? decoded.substring(0, colon) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.webapp.security.sso.guard;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按租户加权的公平排队（两级：租户间差额轮询 DRR，租户内按来源轮询）
+ * 并发名额有空闲且无人排队时直接放行；否则按租户排队，名额归还时轮询各租户，
+ * 每轮租户最多连续获得与权重相等的名额。某个租户突发大量请求只会拉长它自己的队列，
+ * 其他租户仍按权重比例获得名额。租户内再按来源分子队列轮流放行：同一租户的多个来源
+ * 共享该租户的份额，冒用他人标识的来源也只能分走该租户份额中属于自己的一份。
+ * 单个来源的排队数和全局排队数都有上限，等待超时放弃。
+ */
+public class FairQueueScheduler {
+
+    /**
+     * 申请结果
+     */
+    public enum Outcome {
+        GRANTED,
+        QUEUE_FULL,
+        TIMEOUT
+    }
+
+    private static final class Waiter {
+
+        private final Condition condition;
+        private boolean granted;
+
+        private Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+
+    private static final class SourceQueue {
+
+        private final String source;
+        private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+
+        private SourceQueue(String source) {
+            this.source = source;
+        }
+    }
+
+    private static final class TenantQueue {
+
+        private final String tenant;
+        private final Map<String, SourceQueue> sources = new HashMap<>();
+        private final ArrayDeque<SourceQueue> rotation = new ArrayDeque<>();
+        private int waiting;
+        private int weight;
+        private int deficit;
+
+        private TenantQueue(String tenant) {
+            this.tenant = tenant;
+        }
+    }
+
+    private final int maxConcurrency;
+    private final int maxQueuedPerSource;
+    private final int maxWaiting;
+    private final long waitTimeoutNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, TenantQueue> queues = new HashMap<>();
+    private final ArrayDeque<TenantQueue> active = new ArrayDeque<>();
+
+    private int available;
+    private int waiting;
+    private long grantedCount;
+    private long queuedCount;
+    private long rejectedCount;
+    private long timeoutCount;
+
+    /**
+     * @param maxConcurrency     并发名额
+     * @param maxQueuedPerSource 单个（租户, 来源）的排队上限
+     * @param maxWaiting         全局排队上限，即最多同时阻塞等待的线程数
+     * @param waitTimeoutMillis  排队等待超时
+     */
+    public FairQueueScheduler(int maxConcurrency, int maxQueuedPerSource, int maxWaiting, long waitTimeoutMillis) {
+        this.maxConcurrency = Math.max(maxConcurrency, 1);
+        this.maxQueuedPerSource = Math.max(maxQueuedPerSource, 0);
+        this.maxWaiting = Math.max(maxWaiting, 0);
+        this.waitTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(waitTimeoutMillis);
+        this.available = this.maxConcurrency;
+    }
+
+    /**
+     * 申请一个并发名额，必要时在租户队列中等待
+     *
+     * @param tenant 租户标识
+     * @param source 来源（如客户端IP），同一租户内按来源轮流放行
+     * @param weight 租户权重（>=1）
+     * @return GRANTED时调用方必须在处理完成后调用release
+     */
+    public Outcome acquire(String tenant, String source, int weight) {
+        lock.lock();
+        try {
+            if (available > 0 && active.isEmpty()) {
+                available--;
+                grantedCount++;
+                return Outcome.GRANTED;
+            }
+            TenantQueue queue = queues.get(tenant);
+            SourceQueue sourceQueue = queue != null ? queue.sources.get(source) : null;
+            if (waiting >= maxWaiting || maxQueuedPerSource == 0
+                    || sourceQueue != null && sourceQueue.waiters.size() >= maxQueuedPerSource) {
+                rejectedCount++;
+                return Outcome.QUEUE_FULL;
+            }
+            if (queue == null) {
+                queue = new TenantQueue(tenant);
+                queues.put(tenant, queue);
+                active.addLast(queue);
+            }
+            if (sourceQueue == null) {
+                sourceQueue = new SourceQueue(source);
+                queue.sources.put(source, sourceQueue);
+                queue.rotation.addLast(sourceQueue);
+            }
+            queue.weight = Math.max(weight, 1);
+            Waiter waiter = new Waiter(lock.newCondition());
+            sourceQueue.waiters.addLast(waiter);
+            queue.waiting++;
+            waiting++;
+            queuedCount++;
+            dispatch();
+            return await(queue, sourceQueue, waiter);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 归还名额并按DRR放行下一个等待者
+     */
+    public void release() {
+        lock.lock();
+        try {
+            available++;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 统计信息：名额、排队数、各租户排队数及拒绝/超时次数
+     */
+    public Map<String, Object> getStats() {
+        lock.lock();
+        try {
+            Map<String, Object> result = new HashMap<>();
+            Map<String, Integer> tenants = new HashMap<>();
+            for (TenantQueue queue : active) {
+                tenants.put(queue.tenant, queue.waiting);
+            }
+            result.put("maxConcurrency", maxConcurrency);
+            result.put("maxWaiting", maxWaiting);
+            result.put("available", available);
+            result.put("waiting", waiting);
+            result.put("waitingByTenant", tenants);
+            result.put("grantedCount", grantedCount);
+            result.put("queuedCount", queuedCount);
+            result.put("rejectedCount", rejectedCount);
+            result.put("timeoutCount", timeoutCount);
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Outcome await(TenantQueue queue, SourceQueue sourceQueue, Waiter waiter) {
+        long nanos = waitTimeoutNanos;
+        boolean interrupted = false;
+        try {
+            while (!waiter.granted) {
+                if (nanos <= 0 || interrupted) {
+                    sourceQueue.waiters.remove(waiter);
+                    queue.waiting--;
+                    waiting--;
+                    timeoutCount++;
+                    if (sourceQueue.waiters.isEmpty()) {
+                        queue.rotation.remove(sourceQueue);
+                        queue.sources.remove(sourceQueue.source);
+                    }
+                    if (queue.waiting == 0) {
+                        retire(queue);
+                    }
+                    return Outcome.TIMEOUT;
+                }
+                try {
+                    nanos = waiter.condition.awaitNanos(nanos);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            return Outcome.GRANTED;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void dispatch() {
+        while (available > 0 && !active.isEmpty()) {
+            TenantQueue queue = active.peekFirst();
+            if (queue.waiting == 0) {
+                retire(queue);
+                continue;
+            }
+            if (queue.deficit < 1) {
+                queue.deficit += queue.weight;
+            }
+            SourceQueue sourceQueue = queue.rotation.pollFirst();
+            Waiter waiter = sourceQueue.waiters.pollFirst();
+            if (sourceQueue.waiters.isEmpty()) {
+                queue.sources.remove(sourceQueue.source);
+            } else {
+                queue.rotation.addLast(sourceQueue);
+            }
+            waiter.granted = true;
+            waiter.condition.signal();
+            available--;
+            queue.waiting--;
+            waiting--;
+            grantedCount++;
+            queue.deficit--;
+            if (queue.waiting == 0) {
+                retire(queue);
+            } else if (queue.deficit < 1) {
+                active.addLast(active.pollFirst());
+            }
+        }
+    }
+
+    /**
+     * 队列已空的租户移出轮询，下次排队时重新计算额度
+     */
+    private void retire(TenantQueue queue) {
+        active.remove(queue);
+        queues.remove(queue.tenant);
+    }
+}
@@ -0,0 +1,27 @@
+package com.webapp.security.sso.guard;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webapp.security.core.model.OAuth2ErrorResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+
+/**
+ * 过滤器中直接输出OAuth2错误响应（此时尚未进入Spring MVC）
+ */
+final class GuardResponses {
+
+    private GuardResponses() {
+    }
+
+    static void write(ObjectMapper objectMapper, HttpServletResponse response,
+            ResponseEntity<OAuth2ErrorResponse> entity) throws IOException {
+        response.setStatus(entity.getStatusCode().value());
+        entity.getHeaders().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), entity.getBody());
+    }
+}
@@ -0,0 +1,84 @@
+package com.webapp.security.sso.guard;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内的认证失败记录（Redis不可用时的兜底）
+ * 只对本节点生效；条目在窗口内无访问后过期，总数有上限
+ */
+@Component
+public class InMemoryLoginAttemptStore implements LoginAttemptStore {
+
+    private final Cache<String, Deque<Long>> attempts;
+
+    public InMemoryLoginAttemptStore(
+            @Value("${oauth2.login-guard.window-seconds:900}") long windowSeconds,
+            @Value("${oauth2.login-guard.memory-max-keys:100000}") long maxKeys) {
+        this.attempts = CacheBuilder.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(windowSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @Override
+    public List<AttemptWindow> load(List<String> keys, long nowMillis, long windowMillis) {
+        List<AttemptWindow> windows = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            Deque<Long> failures = attempts.getIfPresent(key);
+            if (failures == null) {
+                windows.add(AttemptWindow.EMPTY);
+                continue;
+            }
+            synchronized (failures) {
+                trim(failures, nowMillis - windowMillis);
+                windows.add(failures.isEmpty() ? AttemptWindow.EMPTY
+                        : new AttemptWindow(failures.size(), failures.peekLast()));
+            }
+        }
+        return windows;
+    }
+
+    @Override
+    public void recordFailure(List<String> keys, long nowMillis, long windowMillis) {
+        for (String key : keys) {
+            Deque<Long> failures;
+            try {
+                failures = attempts.get(key, ArrayDeque::new);
+            } catch (ExecutionException e) {
+                continue;
+            }
+            synchronized (failures) {
+                trim(failures, nowMillis - windowMillis);
+                failures.addLast(nowMillis);
+            }
+        }
+    }
+
+    @Override
+    public void reset(List<String> keys) {
+        attempts.invalidateAll(keys);
+    }
+
+    /**
+     * 当前记录的键数
+     */
+    public long size() {
+        return attempts.size();
+    }
+
+    private static void trim(Deque<Long> failures, long windowStart) {
+        while (!failures.isEmpty() && failures.peekFirst() <= windowStart) {
+            failures.pollFirst();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.webapp.security.sso.guard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 认证失败防护（暴力破解 / 撞库）
+ * 按用户名、appId/clientId、来源IP分别统计滑动窗口内的失败次数：
+ * 超过延迟阈值后，距上次失败不足 base * 2^(超出次数) 的请求直接拒绝（上限max-delay）；
+ * 超过锁定阈值后，在上次失败后的锁定时长内全部拒绝。
+ * 检查在查询凭证和计算哈希之前进行，被拦截的请求几乎没有成本，也不计入失败次数。
+ * 失败记录存于Redis，Redis不可用时暂时改用进程内记录。
+ */
+@Slf4j
+@Component
+public class LoginAttemptGuard {
+
+    /**
+     * 单个维度的阈值
+     */
+    private static final class Limits {
+
+        private final long delayAfter;
+        private final long lockoutAfter;
+
+        private Limits(long delayAfter, long lockoutAfter) {
+            this.delayAfter = delayAfter;
+            this.lockoutAfter = lockoutAfter;
+        }
+    }
+
+    private final RedisLoginAttemptStore redisStore;
+    private final InMemoryLoginAttemptStore memoryStore;
+    private final boolean enabled;
+    private final long windowMillis;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long lockoutMillis;
+    private final long redisRetryMillis;
+    private final Map<AttemptKey.Scope, Limits> limits = new EnumMap<>(AttemptKey.Scope.class);
+
+    private volatile long redisRetryAt;
+
+    private final LongAdder delayedCount = new LongAdder();
+    private final LongAdder lockedCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private final LongAdder fallbackCount = new LongAdder();
+
+    public LoginAttemptGuard(RedisLoginAttemptStore redisStore, InMemoryLoginAttemptStore memoryStore,
+            @Value("${oauth2.login-guard.enabled:true}") boolean enabled,
+            @Value("${oauth2.login-guard.window-seconds:900}") long windowSeconds,
+            @Value("${oauth2.login-guard.base-delay-ms:1000}") long baseDelayMillis,
+            @Value("${oauth2.login-guard.max-delay-ms:60000}") long maxDelayMillis,
+            @Value("${oauth2.login-guard.lockout-seconds:900}") long lockoutSeconds,
+            @Value("${oauth2.login-guard.redis-retry-ms:10000}") long redisRetryMillis,
+            @Value("${oauth2.login-guard.user.delay-after:3}") long userDelayAfter,
+            @Value("${oauth2.login-guard.user.lockout-after:10}") long userLockoutAfter,
+            @Value("${oauth2.login-guard.client.delay-after:5}") long clientDelayAfter,
+            @Value("${oauth2.login-guard.client.lockout-after:20}") long clientLockoutAfter,
+            @Value("${oauth2.login-guard.ip.delay-after:20}") long ipDelayAfter,
+            @Value("${oauth2.login-guard.ip.lockout-after:100}") long ipLockoutAfter) {
+        this.redisStore = redisStore;
+        this.memoryStore = memoryStore;
+        this.enabled = enabled;
+        this.windowMillis = TimeUnit.SECONDS.toMillis(windowSeconds);
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.lockoutMillis = TimeUnit.SECONDS.toMillis(lockoutSeconds);
+        this.redisRetryMillis = redisRetryMillis;
+        limits.put(AttemptKey.Scope.USER, new Limits(userDelayAfter, userLockoutAfter));
+        limits.put(AttemptKey.Scope.CLIENT, new Limits(clientDelayAfter, clientLockoutAfter));
+        limits.put(AttemptKey.Scope.IP, new Limits(ipDelayAfter, ipLockoutAfter));
+    }
+
+    /**
+     * 校验凭证前调用
+     *
+     * @throws LoginBlockedException 任一维度处于延迟或锁定期
+     */
+    public void checkAllowed(AttemptKey... keys) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<LoginAttemptStore.AttemptWindow> windows = load(keys, now);
+        long waitMillis = 0;
+        boolean locked = false;
+        AttemptKey blockedBy = null;
+        for (int i = 0; i < keys.length; i++) {
+            LoginAttemptStore.AttemptWindow window = windows.get(i);
+            Limits limit = limits.get(keys[i].getScope());
+            long wait;
+            if (window.getFailures() >= limit.lockoutAfter) {
+                wait = window.getLastFailureMillis() + lockoutMillis - now;
+                if (wait > 0) {
+                    locked = true;
+                }
+            } else if (window.getFailures() >= limit.delayAfter) {
+                long exponent = Math.min(window.getFailures() - limit.delayAfter, 30);
+                long delay = Math.min(baseDelayMillis << exponent, maxDelayMillis);
+                wait = window.getLastFailureMillis() + delay - now;
+            } else {
+                continue;
+            }
+            if (wait > waitMillis) {
+                waitMillis = wait;
+                blockedBy = keys[i];
+            }
+        }
+        if (waitMillis > 0) {
+            (locked ? lockedCount : delayedCount).increment();
+            log.warn("认证请求被拦截, key: {}, locked: {}, retryAfter: {}ms", blockedBy, locked, waitMillis);
+            throw new LoginBlockedException(locked ? "认证失败次数过多，已临时锁定" : "认证失败次数过多，请稍后重试",
+                    (waitMillis + 999) / 1000, locked);
+        }
+    }
+
+    /**
+     * 记录一次认证失败
+     */
+    public void recordFailure(AttemptKey... keys) {
+        if (!enabled) {
+            return;
+        }
+        failureCount.increment();
+        long now = System.currentTimeMillis();
+        List<String> storeKeys = storeKeys(keys, false);
+        if (useRedis(now)) {
+            try {
+                redisStore.recordFailure(storeKeys, now, windowMillis);
+                return;
+            } catch (Exception e) {
+                redisUnavailable(now, e);
+            }
+        }
+        memoryStore.recordFailure(storeKeys, now, windowMillis);
+    }
+
+    /**
+     * 认证成功后清除用户名、客户端维度的记录（来源IP可能被多人共用，不清除）
+     */
+    public void recordSuccess(AttemptKey... keys) {
+        if (!enabled) {
+            return;
+        }
+        List<String> storeKeys = storeKeys(keys, true);
+        if (storeKeys.isEmpty()) {
+            return;
+        }
+        memoryStore.reset(storeKeys);
+        long now = System.currentTimeMillis();
+        if (useRedis(now)) {
+            try {
+                redisStore.reset(storeKeys);
+            } catch (Exception e) {
+                redisUnavailable(now, e);
+            }
+        }
+    }
+
+    /**
+     * 统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", enabled);
+        result.put("failureCount", failureCount.sum());
+        result.put("delayedCount", delayedCount.sum());
+        result.put("lockedCount", lockedCount.sum());
+        result.put("fallbackCount", fallbackCount.sum());
+        result.put("usingMemoryStore", !useRedis(System.currentTimeMillis()));
+        result.put("memoryKeys", memoryStore.size());
+        return result;
+    }
+
+    private List<LoginAttemptStore.AttemptWindow> load(AttemptKey[] keys, long now) {
+        List<String> storeKeys = storeKeys(keys, false);
+        if (useRedis(now)) {
+            try {
+                return redisStore.load(storeKeys, now, windowMillis);
+            } catch (Exception e) {
+                redisUnavailable(now, e);
+            }
+        }
+        return memoryStore.load(storeKeys, now, windowMillis);
+    }
+
+    private static List<String> storeKeys(AttemptKey[] keys, boolean excludeIp) {
+        List<String> storeKeys = new ArrayList<>(keys.length);
+        for (AttemptKey key : keys) {
+            if (!excludeIp || key.getScope() != AttemptKey.Scope.IP) {
+                storeKeys.add(key.key());
+            }
+        }
+        return storeKeys;
+    }
+
+    private boolean useRedis(long now) {
+        return now >= redisRetryAt;
+    }
+
+    private void redisUnavailable(long now, Exception e) {
+        redisRetryAt = now + redisRetryMillis;
+        fallbackCount.increment();
+        log.warn("认证失败记录暂时改用进程内存储, Redis不可用: {}", e.getMessage());
+    }
+}
@@ -0,0 +1,54 @@
+package com.webapp.security.sso.guard;
+
+import java.util.List;
+
+/**
+ * 认证失败记录存储（滑动窗口）
+ * 每个键只保留窗口内的失败时间，被拦截的请求不计入，单个键的记录数不超过锁定阈值加并发数
+ */
+public interface LoginAttemptStore {
+
+    /**
+     * 读取多个键在窗口内的失败情况
+     *
+     * @param keys         存储键
+     * @param nowMillis    当前时间
+     * @param windowMillis 窗口长度
+     * @return 与keys一一对应
+     */
+    List<AttemptWindow> load(List<String> keys, long nowMillis, long windowMillis);
+
+    /**
+     * 记录一次失败，同时清理窗口外的记录
+     */
+    void recordFailure(List<String> keys, long nowMillis, long windowMillis);
+
+    /**
+     * 清除记录（认证成功时）
+     */
+    void reset(List<String> keys);
+
+    /**
+     * 窗口内的失败次数及最近一次失败时间
+     */
+    final class AttemptWindow {
+
+        public static final AttemptWindow EMPTY = new AttemptWindow(0, 0L);
+
+        private final long failures;
+        private final long lastFailureMillis;
+
+        public AttemptWindow(long failures, long lastFailureMillis) {
+            this.failures = failures;
+            this.lastFailureMillis = lastFailureMillis;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public long getLastFailureMillis() {
+            return lastFailureMillis;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.webapp.security.sso.guard;
+
+/**
+ * 认证失败过多，请求在校验凭证之前被拦截（调用方返回429并带Retry-After）
+ */
+public class LoginBlockedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+    private final boolean locked;
+
+    public LoginBlockedException(String message, long retryAfterSeconds, boolean locked) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.locked = locked;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * true为达到锁定阈值，false为渐进延迟
+     */
+    public boolean isLocked() {
+        return locked;
+    }
+}
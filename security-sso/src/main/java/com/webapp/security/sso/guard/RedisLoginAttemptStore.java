@@ -0,0 +1,87 @@
+package com.webapp.security.sso.guard;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 基于Redis的认证失败记录，各节点共享
+ * 每个键一个有序集合，分数为失败时间；读取和写入各使用一次管道往返
+ */
+@Component
+public class RedisLoginAttemptStore implements LoginAttemptStore {
+
+    public static final String KEY_PREFIX = "login-attempts:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public RedisLoginAttemptStore(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<AttemptWindow> load(List<String> keys, long nowMillis, long windowMillis) {
+        long windowStart = nowMillis - windowMillis;
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (String key : keys) {
+                    ops.opsForZSet().count(KEY_PREFIX + key, windowStart + 1, Double.POSITIVE_INFINITY);
+                    ops.opsForZSet().reverseRangeWithScores(KEY_PREFIX + key, 0, 0);
+                }
+                return null;
+            }
+        });
+
+        List<AttemptWindow> windows = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Long count = (Long) results.get(i * 2);
+            Set<ZSetOperations.TypedTuple<String>> last =
+                    (Set<ZSetOperations.TypedTuple<String>>) results.get(i * 2 + 1);
+            if (count == null || count == 0 || last == null || last.isEmpty()) {
+                windows.add(AttemptWindow.EMPTY);
+                continue;
+            }
+            Double score = last.iterator().next().getScore();
+            windows.add(new AttemptWindow(count, score != null ? score.longValue() : nowMillis));
+        }
+        return windows;
+    }
+
+    @Override
+    public void recordFailure(List<String> keys, long nowMillis, long windowMillis) {
+        // 同一毫秒内的多次失败需要不同的成员
+        String member = nowMillis + ":" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (String key : keys) {
+                    String redisKey = KEY_PREFIX + key;
+                    ops.opsForZSet().add(redisKey, member, nowMillis);
+                    ops.opsForZSet().removeRangeByScore(redisKey, Double.NEGATIVE_INFINITY, nowMillis - windowMillis);
+                    ops.expire(redisKey, windowMillis, TimeUnit.MILLISECONDS);
+                }
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public void reset(List<String> keys) {
+        redisTemplate.delete(keys.stream().map(key -> KEY_PREFIX + key).collect(Collectors.toList()));
+    }
+}
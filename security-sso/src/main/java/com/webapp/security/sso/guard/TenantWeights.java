@@ -0,0 +1,93 @@
+package com.webapp.security.sso.guard;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.webapp.security.core.entity.SysClientCredential;
+import com.webapp.security.core.mapper.SysClientCredentialMapper;
+import com.webapp.security.sso.entity.OAuth2RegisteredClient;
+import com.webapp.security.sso.mapper.OAuth2RegisteredClientMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 公平调度的租户及权重
+ * 启用中的appId取凭证配置的schedule_weight，已注册的clientId取默认权重；
+ * 其余未知标识统一归入一个共享租户，避免任意伪造的标识各自占用一个队列。
+ */
+@Slf4j
+@Component
+public class TenantWeights {
+
+    public static final String UNKNOWN_TENANT = "_unknown";
+
+    private final SysClientCredentialMapper credentialMapper;
+    private final OAuth2RegisteredClientMapper registeredClientMapper;
+    private final int clientDefaultWeight;
+    private final int unknownWeight;
+
+    private volatile Map<String, Integer> weights = Collections.emptyMap();
+
+    public TenantWeights(SysClientCredentialMapper credentialMapper,
+            OAuth2RegisteredClientMapper registeredClientMapper,
+            @Value("${oauth2.fair-queue.client-default-weight:1}") int clientDefaultWeight,
+            @Value("${oauth2.fair-queue.unknown-weight:1}") int unknownWeight) {
+        this.credentialMapper = credentialMapper;
+        this.registeredClientMapper = registeredClientMapper;
+        this.clientDefaultWeight = Math.max(clientDefaultWeight, 1);
+        this.unknownWeight = Math.max(unknownWeight, 1);
+    }
+
+    /**
+     * 请求声明的appId/clientId对应的租户，未知标识返回共享租户
+     */
+    public String resolve(String claimedId) {
+        return claimedId != null && weights.containsKey(claimedId) ? claimedId : UNKNOWN_TENANT;
+    }
+
+    /**
+     * 租户权重（>=1）
+     */
+    public int weightOf(String tenant) {
+        Integer weight = weights.get(tenant);
+        return weight != null ? weight : unknownWeight;
+    }
+
+    /**
+     * 已加载的租户数
+     */
+    public int size() {
+        return weights.size();
+    }
+
+    /**
+     * 从数据库重新加载权重，失败时保留上一次的结果
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${oauth2.fair-queue.weights-refresh-ms:60000}",
+            initialDelayString = "${oauth2.fair-queue.weights-refresh-ms:60000}")
+    public void reload() {
+        try {
+            Map<String, Integer> loaded = new HashMap<>();
+            for (OAuth2RegisteredClient client : registeredClientMapper.selectList(null)) {
+                loaded.put(client.getClientId(), clientDefaultWeight);
+            }
+            LambdaQueryWrapper<SysClientCredential> wrapper = new LambdaQueryWrapper<>();
+            wrapper.eq(SysClientCredential::getStatus, 1);
+            for (SysClientCredential credential : credentialMapper.selectList(wrapper)) {
+                Integer weight = credential.getScheduleWeight();
+                loaded.put(credential.getAppId(), weight != null ? Math.max(weight, 1) : 1);
+            }
+            weights = loaded;
+            log.debug("公平调度权重加载完成，租户数: {}", loaded.size());
+        } catch (Exception e) {
+            log.error("公平调度权重加载失败", e);
+        }
+    }
+}
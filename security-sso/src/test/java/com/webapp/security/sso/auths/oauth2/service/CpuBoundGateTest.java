@@ -0,0 +1,110 @@
+package com.webapp.security.sso.auths.oauth2.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CPU密集任务并发闸门的测试
+ */
+public class CpuBoundGateTest {
+
+    private static final CpuBoundGate.RejectionHandler REJECT =
+            rejection -> new RejectedExecutionException(rejection.name());
+
+    /**
+     * 任务在调用线程上执行，完成后许可归还
+     */
+    @Test
+    public void testRunsOnCallerThreadAndReleasesPermit() {
+        CpuBoundGate gate = new CpuBoundGate(1, 0, 100);
+        Thread caller = Thread.currentThread();
+
+        Thread runner = gate.execute(Thread::currentThread, REJECT);
+
+        assertEquals(caller, runner);
+        assertEquals(0, gate.getActiveCount());
+        assertEquals(1, gate.getCompletedCount());
+    }
+
+    /**
+     * 已持有许可的线程再次进入时直接执行，不会等待自己
+     */
+    @Test
+    public void testReentrantCallDoesNotWait() {
+        CpuBoundGate gate = new CpuBoundGate(1, 0, 100);
+
+        int result = gate.execute(() -> gate.execute(() -> 42, REJECT), REJECT);
+
+        assertEquals(42, result);
+        assertEquals(0, gate.getActiveCount());
+    }
+
+    /**
+     * 许可用尽且等待数达到上限时立即拒绝，等待超时时按超时拒绝
+     */
+    @Test
+    public void testRejectsWhenFullAndOnTimeout() throws Exception {
+        CpuBoundGate noWaiting = new CpuBoundGate(1, 0, 1000);
+        CpuBoundGate oneWaiting = new CpuBoundGate(1, 1, 50);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = pool.submit(() -> noWaiting.execute(() -> block(started, release), REJECT));
+            Future<?> second = pool.submit(() -> oneWaiting.execute(() -> block(started, release), REJECT));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            RejectedExecutionException full = assertThrows(RejectedExecutionException.class,
+                    () -> noWaiting.execute(() -> 1, REJECT));
+            assertEquals("FULL", full.getMessage());
+            assertEquals(1, noWaiting.getRejectedCount());
+
+            RejectedExecutionException timeout = assertThrows(RejectedExecutionException.class,
+                    () -> oneWaiting.execute(() -> 1, REJECT));
+            assertEquals("TIMEOUT", timeout.getMessage());
+            assertEquals(1, oneWaiting.getTimeoutCount());
+            assertEquals(0, oneWaiting.getWaitingCount());
+
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+        assertEquals(0, noWaiting.getActiveCount());
+        assertEquals(0, oneWaiting.getActiveCount());
+    }
+
+    /**
+     * 任务抛出的运行时异常原样抛出，许可照常归还
+     */
+    @Test
+    public void testTaskExceptionReleasesPermit() {
+        CpuBoundGate gate = new CpuBoundGate(1, 0, 100);
+
+        assertThrows(IllegalArgumentException.class, () -> gate.execute(() -> {
+            throw new IllegalArgumentException("boom");
+        }, REJECT));
+
+        assertEquals(0, gate.getActiveCount());
+        int result = gate.execute(() -> 1, REJECT);
+        assertEquals(1, result);
+    }
+
+    private static Object block(CountDownLatch started, CountDownLatch release) throws InterruptedException {
+        started.countDown();
+        release.await(5, TimeUnit.SECONDS);
+        return null;
+    }
+}
@@ -0,0 +1,140 @@
+package com.webapp.security.sso.guard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 自适应并发限制的测试
+ * 过载场景用排队模型模拟：下游可同时处理capacity个请求，在途请求超出时响应时间按比例变长。
+ * 每轮同时发起offered个请求，被接受的请求以模拟的响应时间归还（采样窗口设为0，每10个样本调整一次）。
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long BASE_RTT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final int CAPACITY = 10;
+
+    /**
+     * 达到限制后立即拒绝，归还后可再次申请
+     */
+    @Test
+    public void testRejectsAboveLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test",
+                new AdaptiveConcurrencyLimiter.Settings(2, 1, 10, 60_000, 10, 1.5, 0.2, 0.9));
+
+        long first = limiter.tryAcquire();
+        long second = limiter.tryAcquire();
+        assertTrue(first > 0 && second > 0);
+        assertEquals(-1L, limiter.tryAcquire());
+
+        limiter.release(first, false);
+        assertTrue(limiter.tryAcquire() > 0);
+        assertEquals(1L, limiter.getStats().get("rejectedCount"));
+        assertEquals(2, limiter.getStats().get("inflight"));
+    }
+
+    /**
+     * 下游返回503时按比例减小，不低于最小限制
+     */
+    @Test
+    public void testBacksOffOnDrop() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", settings(20, 0.5));
+
+        limiter.release(limiter.tryAcquire(), true);
+        assertEquals(10, limiter.getLimit());
+        for (int i = 0; i < 10; i++) {
+            limiter.release(limiter.tryAcquire(), true);
+        }
+        assertEquals(4, limiter.getLimit());
+    }
+
+    /**
+     * 并发未用满一半时响应时间不影响限制
+     */
+    @Test
+    public void testHoldsLimitWhenUnderused() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", settings(20, 0.9));
+
+        for (int round = 0; round < 500; round++) {
+            runRound(limiter, 5, BASE_RTT_NANOS, null);
+        }
+        assertEquals(20, limiter.getLimit());
+    }
+
+    /**
+     * 持续3倍过载：限制收缩并稳定在容忍系数对应的排队程度，被接受请求的p99不随过载持续而增长
+     * （不限制时在途请求为30，响应时间为基准的3倍）
+     */
+    @Test
+    public void testBoundsLatencyUnderSustainedOverload() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", settings(20, 0.9));
+        for (int round = 0; round < 200; round++) {
+            runRound(limiter, CAPACITY / 2, BASE_RTT_NANOS, null);
+        }
+
+        List<Long> rtts = new ArrayList<>();
+        for (int round = 0; round < 2000; round++) {
+            runRound(limiter, CAPACITY * 3, BASE_RTT_NANOS, rtts);
+        }
+
+        long p99 = percentile(rtts, 0.99);
+        assertTrue(p99 <= BASE_RTT_NANOS * 2.2, "p99: " + p99);
+        assertTrue(limiter.getLimit() < CAPACITY * 3, "limit: " + limiter.getLimit());
+        assertTrue((Long) limiter.getStats().get("rejectedCount") > 0);
+    }
+
+    /**
+     * 下游本身变慢（无排队时响应时间也变长）：降到最小限制后接受新的基线，限制恢复
+     */
+    @Test
+    public void testAdoptsSlowerBaselineAtMinLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", settings(20, 0.9));
+        for (int round = 0; round < 200; round++) {
+            runRound(limiter, CAPACITY / 2, BASE_RTT_NANOS, null);
+        }
+
+        long slowerRtt = BASE_RTT_NANOS * 4;
+        for (int round = 0; round < 2000; round++) {
+            runRound(limiter, CAPACITY * 3, slowerRtt, null);
+        }
+
+        assertTrue(limiter.getLimit() >= CAPACITY, "limit: " + limiter.getLimit());
+        double longRttMillis = (Double) limiter.getStats().get("longRttMillis");
+        assertTrue(longRttMillis >= 30 && longRttMillis <= 50, "longRtt: " + longRttMillis);
+    }
+
+    private static AdaptiveConcurrencyLimiter.Settings settings(int initialLimit, double backoffRatio) {
+        return new AdaptiveConcurrencyLimiter.Settings(initialLimit, 4, 200, 0, 10, 1.5, 0.2, backoffRatio);
+    }
+
+    /**
+     * 同时发起offered个请求，按排队模型计算响应时间后全部归还
+     */
+    private static void runRound(AdaptiveConcurrencyLimiter limiter, int offered, long baseRttNanos,
+            List<Long> rtts) {
+        int accepted = 0;
+        while (accepted < offered && limiter.tryAcquire() > 0) {
+            accepted++;
+        }
+        long rtt = accepted <= CAPACITY ? baseRttNanos : baseRttNanos * accepted / CAPACITY;
+        long start = System.nanoTime() - rtt;
+        for (int i = 0; i < accepted; i++) {
+            limiter.release(start, false);
+            if (rtts != null) {
+                rtts.add(rtt);
+            }
+        }
+    }
+
+    private static long percentile(List<Long> values, double quantile) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get((int) Math.ceil(quantile * sorted.size()) - 1);
+    }
+}
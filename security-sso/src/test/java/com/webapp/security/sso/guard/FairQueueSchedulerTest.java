@@ -0,0 +1,217 @@
+package com.webapp.security.sso.guard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 按租户加权公平排队的测试
+ */
+public class FairQueueSchedulerTest {
+
+    /**
+     * 有空闲名额时直接放行，归还后名额恢复
+     */
+    @Test
+    public void testGrantsImmediatelyAndReturnsPermits() {
+        FairQueueScheduler scheduler = new FairQueueScheduler(2, 1, 100, 100);
+
+        assertEquals(FairQueueScheduler.Outcome.GRANTED, scheduler.acquire("a", "10.0.0.1", 1));
+        assertEquals(FairQueueScheduler.Outcome.GRANTED, scheduler.acquire("b", "10.0.0.1", 1));
+        assertEquals(0, scheduler.getStats().get("available"));
+
+        scheduler.release();
+        scheduler.release();
+
+        Map<String, Object> stats = scheduler.getStats();
+        assertEquals(2, stats.get("available"));
+        assertEquals(0, stats.get("waiting"));
+        assertEquals(2L, stats.get("grantedCount"));
+        assertEquals(0L, stats.get("queuedCount"));
+    }
+
+    /**
+     * 名额用尽后等待超时，超时的等待者移出队列且不占用名额
+     */
+    @Test
+    public void testTimesOutWhenNoPermitReturned() {
+        FairQueueScheduler scheduler = new FairQueueScheduler(1, 1, 100, 50);
+        assertEquals(FairQueueScheduler.Outcome.GRANTED, scheduler.acquire("a", "10.0.0.1", 1));
+
+        assertEquals(FairQueueScheduler.Outcome.TIMEOUT, scheduler.acquire("b", "10.0.0.1", 1));
+
+        Map<String, Object> stats = scheduler.getStats();
+        assertEquals(0, stats.get("available"));
+        assertEquals(0, stats.get("waiting"));
+        assertEquals(1L, stats.get("timeoutCount"));
+        assertTrue(((Map<?, ?>) stats.get("waitingByTenant")).isEmpty());
+
+        scheduler.release();
+        assertEquals(1, scheduler.getStats().get("available"));
+    }
+
+    /**
+     * 单个来源排队数达到上限时立即拒绝，不影响其他租户排队
+     */
+    @Test
+    public void testRejectsWhenSourceQueueFull() throws Exception {
+        FairQueueScheduler scheduler = new FairQueueScheduler(1, 1, 100, 5000);
+        assertEquals(FairQueueScheduler.Outcome.GRANTED, scheduler.acquire("a", "10.0.0.1", 1));
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<FairQueueScheduler.Outcome> queuedA = pool.submit(() -> scheduler.acquire("a", "10.0.0.1", 1));
+            awaitWaiting(scheduler, 1);
+
+            assertEquals(FairQueueScheduler.Outcome.QUEUE_FULL, scheduler.acquire("a", "10.0.0.1", 1));
+            assertEquals(1L, scheduler.getStats().get("rejectedCount"));
+
+            Future<FairQueueScheduler.Outcome> queuedB = pool.submit(() -> scheduler.acquire("b", "10.0.0.1", 1));
+            awaitWaiting(scheduler, 2);
+
+            scheduler.release();
+            assertEquals(FairQueueScheduler.Outcome.GRANTED, queuedA.get(5, TimeUnit.SECONDS));
+            scheduler.release();
+            assertEquals(FairQueueScheduler.Outcome.GRANTED, queuedB.get(5, TimeUnit.SECONDS));
+            scheduler.release();
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, scheduler.getStats().get("available"));
+    }
+
+    /**
+     * 名额归还时按权重轮询：权重2的租户每轮连续获得两个名额，权重1的租户获得一个
+     */
+    @Test
+    public void testGrantsInWeightedRoundRobinOrder() throws Exception {
+        FairQueueScheduler scheduler = new FairQueueScheduler(1, 10, 100, 10000);
+        assertEquals(FairQueueScheduler.Outcome.GRANTED, scheduler.acquire("holder", "10.0.0.1", 1));
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<FairQueueScheduler.Outcome>> futures = new ArrayList<>();
+            String[] tenants = {"a", "a", "a", "a", "b", "b"};
+            for (int i = 0; i < tenants.length; i++) {
+                String tenant = tenants[i];
+                int weight = "a".equals(tenant) ? 2 : 1;
+                futures.add(pool.submit(() -> {
+                    FairQueueScheduler.Outcome outcome = scheduler.acquire(tenant, "10.0.0.1", weight);
+                    order.add(tenant);
+                    return outcome;
+                }));
+                awaitWaiting(scheduler, i + 1);
+            }
+
+            for (int i = 0; i < tenants.length; i++) {
+                scheduler.release();
+                awaitGranted(order, i + 1);
+            }
+            for (Future<FairQueueScheduler.Outcome> future : futures) {
+                assertEquals(FairQueueScheduler.Outcome.GRANTED, future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(Arrays.asList("a", "a", "b", "a", "a", "b"), order);
+
+        scheduler.release();
+        Map<String, Object> stats = scheduler.getStats();
+        assertEquals(1, stats.get("available"));
+        assertEquals(0, stats.get("waiting"));
+        assertEquals(7L, stats.get("grantedCount"));
+        assertEquals(6L, stats.get("queuedCount"));
+    }
+
+    /**
+     * 同一租户的多个来源共享该租户的份额，租户内按来源轮流放行
+     */
+    @Test
+    public void testSourcesShareTenantWeight() throws Exception {
+        FairQueueScheduler scheduler = new FairQueueScheduler(1, 10, 100, 10000);
+        assertEquals(FairQueueScheduler.Outcome.GRANTED, scheduler.acquire("holder", "h", 1));
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<FairQueueScheduler.Outcome>> futures = new ArrayList<>();
+            String[][] requests = {{"a", "x"}, {"a", "x"}, {"a", "y"}, {"a", "z"}, {"b", "w"}, {"b", "w"}};
+            for (int i = 0; i < requests.length; i++) {
+                String tenant = requests[i][0];
+                String source = requests[i][1];
+                futures.add(pool.submit(() -> {
+                    FairQueueScheduler.Outcome outcome = scheduler.acquire(tenant, source, 1);
+                    order.add(tenant + "/" + source);
+                    return outcome;
+                }));
+                awaitWaiting(scheduler, i + 1);
+            }
+
+            for (int i = 0; i < requests.length; i++) {
+                scheduler.release();
+                awaitGranted(order, i + 1);
+            }
+            for (Future<FairQueueScheduler.Outcome> future : futures) {
+                assertEquals(FairQueueScheduler.Outcome.GRANTED, future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(Arrays.asList("a/x", "b/w", "a/y", "b/w", "a/z", "a/x"), order);
+        scheduler.release();
+    }
+
+    /**
+     * 全局排队数达到上限时，新的租户和来源也被拒绝
+     */
+    @Test
+    public void testRejectsWhenGlobalWaitingFull() throws Exception {
+        FairQueueScheduler scheduler = new FairQueueScheduler(1, 10, 2, 5000);
+        assertEquals(FairQueueScheduler.Outcome.GRANTED, scheduler.acquire("holder", "h", 1));
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<FairQueueScheduler.Outcome>> futures = new ArrayList<>();
+            futures.add(pool.submit(() -> scheduler.acquire("a", "10.0.0.1", 1)));
+            awaitWaiting(scheduler, 1);
+            futures.add(pool.submit(() -> scheduler.acquire("a", "10.0.0.2", 1)));
+            awaitWaiting(scheduler, 2);
+
+            assertEquals(FairQueueScheduler.Outcome.QUEUE_FULL, scheduler.acquire("b", "10.0.0.3", 1));
+            assertEquals(1L, scheduler.getStats().get("rejectedCount"));
+
+            for (Future<FairQueueScheduler.Outcome> future : futures) {
+                scheduler.release();
+                assertEquals(FairQueueScheduler.Outcome.GRANTED, future.get(5, TimeUnit.SECONDS));
+            }
+            scheduler.release();
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, scheduler.getStats().get("available"));
+    }
+
+    private static void awaitWaiting(FairQueueScheduler scheduler, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!Integer.valueOf(expected).equals(scheduler.getStats().get("waiting"))) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待者未进入队列");
+            Thread.sleep(5);
+        }
+    }
+
+    private static void awaitGranted(List<String> order, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (order.size() < expected) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待者未获得名额");
+            Thread.sleep(5);
+        }
+    }
+}
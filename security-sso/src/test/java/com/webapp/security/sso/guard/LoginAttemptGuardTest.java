@@ -0,0 +1,133 @@
+package com.webapp.security.sso.guard;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 认证失败防护的测试
+ * Redis存储用mock代替：正常情况委托给一个独立的进程内存储，Redis不可用的场景直接抛出异常。
+ */
+public class LoginAttemptGuardTest {
+
+    private static final AttemptKey USER = AttemptKey.user("Alice");
+    private static final AttemptKey CLIENT = AttemptKey.client("app-1");
+    private static final AttemptKey IP = AttemptKey.ip("10.0.0.1");
+
+    /**
+     * 未达到延迟阈值前放行；达到后渐进延迟，达到锁定阈值后锁定
+     */
+    @Test
+    public void testDelaysThenLocksOut() {
+        LoginAttemptGuard guard = guard(sharedRedis(), 1000);
+
+        recordFailures(guard, 2, USER, IP);
+        guard.checkAllowed(USER, CLIENT, IP);
+
+        guard.recordFailure(USER, IP);
+        LoginBlockedException delayed = assertThrows(LoginBlockedException.class,
+                () -> guard.checkAllowed(USER, CLIENT, IP));
+        assertFalse(delayed.isLocked());
+        assertEquals(1L, delayed.getRetryAfterSeconds());
+
+        recordFailures(guard, 2, USER, IP);
+        LoginBlockedException locked = assertThrows(LoginBlockedException.class,
+                () -> guard.checkAllowed(USER, CLIENT, IP));
+        assertTrue(locked.isLocked());
+        assertEquals(900L, locked.getRetryAfterSeconds());
+
+        guard.checkAllowed(AttemptKey.user("bob"), CLIENT, AttemptKey.ip("10.0.0.2"));
+    }
+
+    /**
+     * 延迟时间过去后再次放行，下一次失败的延迟翻倍
+     */
+    @Test
+    public void testDelayElapses() throws InterruptedException {
+        LoginAttemptGuard guard = guard(sharedRedis(), 200);
+
+        recordFailures(guard, 3, USER);
+        assertThrows(LoginBlockedException.class, () -> guard.checkAllowed(USER));
+        Thread.sleep(300);
+        guard.checkAllowed(USER);
+
+        guard.recordFailure(USER);
+        Thread.sleep(300);
+        assertThrows(LoginBlockedException.class, () -> guard.checkAllowed(USER));
+    }
+
+    /**
+     * 认证成功清除用户名和客户端维度的记录，来源IP维度保留
+     */
+    @Test
+    public void testSuccessKeepsIpFailures() {
+        LoginAttemptGuard guard = guard(sharedRedis(), 1000);
+
+        recordFailures(guard, 3, USER, CLIENT, IP);
+        guard.recordSuccess(USER, CLIENT, IP);
+
+        guard.checkAllowed(USER, CLIENT);
+        assertThrows(LoginBlockedException.class, () -> guard.checkAllowed(IP));
+    }
+
+    /**
+     * Redis不可用时改用进程内记录，失败次数照常累计
+     */
+    @Test
+    public void testFallsBackToMemoryWhenRedisFails() {
+        RedisLoginAttemptStore redis = mock(RedisLoginAttemptStore.class);
+        IllegalStateException down = new IllegalStateException("redis down");
+        when(redis.load(anyList(), anyLong(), anyLong())).thenThrow(down);
+        doThrow(down).when(redis).recordFailure(anyList(), anyLong(), anyLong());
+        doThrow(down).when(redis).reset(anyList());
+        LoginAttemptGuard guard = guard(redis, 1000);
+
+        recordFailures(guard, 3, USER);
+        assertThrows(LoginBlockedException.class, () -> guard.checkAllowed(USER));
+        assertTrue((Boolean) guard.getStats().get("usingMemoryStore"));
+        assertTrue((Long) guard.getStats().get("fallbackCount") >= 1);
+    }
+
+    /**
+     * 关闭时不记录也不拦截
+     */
+    @Test
+    public void testDisabled() {
+        LoginAttemptGuard guard = new LoginAttemptGuard(sharedRedis(), new InMemoryLoginAttemptStore(900, 1000),
+                false, 900, 1000, 60_000, 900, 10_000, 3, 5, 3, 5, 3, 5);
+
+        recordFailures(guard, 10, USER);
+        guard.checkAllowed(USER);
+        assertEquals(0L, guard.getStats().get("failureCount"));
+    }
+
+    /**
+     * 三个维度的阈值相同：3次失败后延迟，5次失败后锁定15分钟
+     */
+    private static LoginAttemptGuard guard(RedisLoginAttemptStore redis, long baseDelayMillis) {
+        return new LoginAttemptGuard(redis, new InMemoryLoginAttemptStore(900, 1000), true, 900, baseDelayMillis,
+                60_000, 900, 10_000, 3, 5, 3, 5, 3, 5);
+    }
+
+    /**
+     * 模拟各节点共享的Redis存储
+     */
+    private static RedisLoginAttemptStore sharedRedis() {
+        return mock(RedisLoginAttemptStore.class, delegatesTo(new InMemoryLoginAttemptStore(900, 1000)));
+    }
+
+    private static void recordFailures(LoginAttemptGuard guard, int times, AttemptKey... keys) {
+        for (int i = 0; i < times; i++) {
+            guard.recordFailure(keys);
+        }
+    }
+}